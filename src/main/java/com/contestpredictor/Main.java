@@ -1,6 +1,12 @@
 package com.contestpredictor;
 
+import com.contestpredictor.data.BackupScheduler;
 import com.contestpredictor.data.DatabaseManager;
+import com.contestpredictor.data.WriteBehindQueue;
+import com.contestpredictor.util.BackgroundTasks;
+import com.contestpredictor.util.FirebaseSyncWorker;
+import com.contestpredictor.util.FxStallWatchdog;
+import com.contestpredictor.util.IoExecutor;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -17,6 +23,9 @@ public class Main extends Application {
             // Initialize database and create tables
             System.out.println("Initializing database...");
             DatabaseManager.getInstance();
+            BackupScheduler.getInstance().start();
+            FirebaseSyncWorker.getInstance().start();
+            FxStallWatchdog.getInstance().start();
             System.out.println("Database initialized successfully!");
             
             System.out.println("Loading FXML file: /fxml/Login.fxml");
@@ -60,6 +69,17 @@ public class Main extends Application {
         }
     }
     
+    @Override
+    public void stop() {
+        FirebaseSyncWorker.getInstance().shutdown();
+        // Make sure edits still queued for write-behind reach the database
+        WriteBehindQueue.getInstance().shutdown();
+        BackupScheduler.getInstance().shutdown();
+        FxStallWatchdog.getInstance().shutdown();
+        BackgroundTasks.shutdown();
+        IoExecutor.getInstance().shutdown();
+    }
+    
     private void showErrorDialog(String message) {
         try {
             javafx.scene.control.Alert alert = new javafx.scene.control.Alert(
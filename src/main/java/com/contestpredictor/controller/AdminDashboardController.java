@@ -1,27 +1,31 @@
 package com.contestpredictor.controller;
 
 import com.contestpredictor.data.ContestDatabase;
+import com.contestpredictor.data.DataExporter;
 import com.contestpredictor.data.DatabaseManager;
 import com.contestpredictor.data.UserDatabase;
 import com.contestpredictor.model.Admin;
 import com.contestpredictor.model.Contest;
 import com.contestpredictor.model.Participant;
 import com.contestpredictor.model.User;
-import javafx.application.Platform;
+import com.contestpredictor.util.BackgroundTasks;
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.stage.DirectoryChooser;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 
+import java.io.File;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -70,6 +74,8 @@ public class AdminDashboardController {
     @FXML private Label totalUsersLabel;
     @FXML private Label futureContestsLabel;
     @FXML private Label totalParticipantsLabel;
+    @FXML private Button exportRatingsButton;
+    @FXML private Button exportDatabaseButton;
     
     private Admin currentAdmin;
     private String selectedContestId;
@@ -88,6 +94,9 @@ public class AdminDashboardController {
             // Initialize table columns
             setupContestsTableColumns();
             setupParticipantsTableColumns();
+            if (contestsTable != null) {
+                contestsTable.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+            }
             
         } catch (Exception e) {
             System.err.println("Error during initialization: " + e.getMessage());
@@ -253,27 +262,26 @@ public class AdminDashboardController {
             );
             
             // Save to database
-            ContestDatabase contestDB = ContestDatabase.getInstance();
-            boolean success = contestDB.saveContestWithAdmin(contest);
-            
-            if (success) {
+            BackgroundTasks.write("contests:" + contestId,
+                () -> ContestDatabase.getInstance().saveContestWithAdmin(contest),
                 // Auto-register the 30 default users for this contest
-                autoRegisterDefaultUsers(contestId);
-                
-                contestStatusLabel.setText("✓ Contest created with 30 default participants!");
-                contestStatusLabel.setStyle("-fx-text-fill: #4CAF50;");
-                handleClearForm();
-                loadContests();
-                loadContestSelectors();
-                
-                // Force update statistics to refresh the count immediately
-                updateStatistics();
-                
-                // Log for debugging
-                System.out.println("Contest created successfully. Statistics updated.");
-            } else {
-                showAlert("Error", "Failed to create contest. Contest ID may already exist.");
-            }
+                () -> BackgroundTasks.load(() -> {
+                    autoRegisterDefaultUsers(contestId);
+                    return null;
+                }, ignored -> {
+                    contestStatusLabel.setText("✓ Contest created with 30 default participants!");
+                    contestStatusLabel.setStyle("-fx-text-fill: #4CAF50;");
+                    handleClearForm();
+                    loadContests();
+                    loadContestSelectors();
+                    
+                    // Force update statistics to refresh the count immediately
+                    updateStatistics();
+                    
+                    // Log for debugging
+                    System.out.println("Contest created successfully. Statistics updated.");
+                }, error -> showAlert("Error", "Contest created, but registering the default users failed: " + error.getMessage())),
+                error -> showAlert("Error", "Failed to create contest. Contest ID may already exist."));
             
         } catch (NumberFormatException e) {
             showAlert("Invalid Input", "Duration and Max Participants must be valid numbers");
@@ -284,7 +292,7 @@ public class AdminDashboardController {
     }
     
     /**
-     * Auto-register the 30 default users (user001-user030) for a new contest
+     * Auto-register the 30 default users (user001-user030) for a new contest (background thread)
      */
     private void autoRegisterDefaultUsers(String contestId) {
         DatabaseManager dbManager = DatabaseManager.getInstance();
@@ -334,18 +342,17 @@ public class AdminDashboardController {
             selectedContestId = selected.trim();
         }
         
-        try {
-            DatabaseManager dbManager = DatabaseManager.getInstance();
-            List<Participant> participants = dbManager.getParticipantsByContest(selectedContestId);
-            
-            ObservableList<Participant> participantList = FXCollections.observableArrayList(participants);
-            participantsTable.setItems(participantList);
-            participantCountLabel.setText("(" + participants.size() + " participants)");
-            
-        } catch (Exception e) {
-            showAlert("Error", "Failed to load participants: " + e.getMessage());
-            e.printStackTrace();
-        }
+        String contestId = selectedContestId;
+        BackgroundTasks.load(
+            () -> DatabaseManager.getInstance().getParticipantsByContest(contestId),
+            participants -> {
+                participantsTable.setItems(FXCollections.observableArrayList(participants));
+                participantCountLabel.setText("(" + participants.size() + " participants)");
+            },
+            error -> {
+                showAlert("Error", "Failed to load participants: " + error.getMessage());
+                error.printStackTrace();
+            });
     }
     
     @FXML
@@ -381,18 +388,17 @@ public class AdminDashboardController {
             );
             
             // Save to database
-            DatabaseManager dbManager = DatabaseManager.getInstance();
-            boolean success = dbManager.saveParticipant(selectedContestId, participant);
-            
-            if (success) {
-                addParticipantStatusLabel.setText("✓ Participant added successfully!");
-                addParticipantStatusLabel.setStyle("-fx-text-fill: #4CAF50;");
-                addParticipantUsernameField.clear();
-                handleLoadParticipants();
-                updateStatistics();
-            } else {
-                showAlert("Error", "Failed to add participant. They may already be registered.");
-            }
+            String contestId = selectedContestId;
+            BackgroundTasks.write("participants:" + contestId + ":" + username,
+                () -> DatabaseManager.getInstance().saveParticipant(contestId, participant),
+                () -> {
+                    addParticipantStatusLabel.setText("✓ Participant added successfully!");
+                    addParticipantStatusLabel.setStyle("-fx-text-fill: #4CAF50;");
+                    addParticipantUsernameField.clear();
+                    handleLoadParticipants();
+                    updateStatistics();
+                },
+                error -> showAlert("Error", "Failed to add participant. They may already be registered."));
             
         } catch (Exception e) {
             showAlert("Error", "Failed to add participant: " + e.getMessage());
@@ -408,21 +414,16 @@ public class AdminDashboardController {
         
         Optional<ButtonType> result = confirmDialog.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
-            try {
-                DatabaseManager dbManager = DatabaseManager.getInstance();
-                boolean success = dbManager.removeParticipant(selectedContestId, participant.getUsername());
-                
-                if (success) {
+            String contestId = selectedContestId;
+            String username = participant.getUsername();
+            BackgroundTasks.write("participants:" + contestId + ":" + username,
+                () -> DatabaseManager.getInstance().removeParticipant(contestId, username),
+                () -> {
                     showInfo("Success", "Participant removed successfully");
                     handleLoadParticipants();
                     updateStatistics();
-                } else {
-                    showAlert("Error", "Failed to remove participant");
-                }
-            } catch (Exception e) {
-                showAlert("Error", "Failed to remove participant: " + e.getMessage());
-                e.printStackTrace();
-            }
+                },
+                error -> showAlert("Error", "Failed to remove participant"));
         }
     }
     
@@ -434,22 +435,48 @@ public class AdminDashboardController {
         
         Optional<ButtonType> result = confirmDialog.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
-            try {
-                ContestDatabase contestDB = ContestDatabase.getInstance();
-                boolean success = contestDB.deleteContest(contest.getContestId());
-                
-                if (success) {
+            String contestId = contest.getContestId();
+            BackgroundTasks.write("contests:" + contestId,
+                () -> ContestDatabase.getInstance().deleteContest(contestId),
+                () -> {
                     showInfo("Success", "Contest deleted successfully");
                     loadContests();
                     loadContestSelectors();
                     updateStatistics();
-                } else {
-                    showAlert("Error", "Failed to delete contest");
-                }
-            } catch (Exception e) {
-                showAlert("Error", "Failed to delete contest: " + e.getMessage());
-                e.printStackTrace();
+                },
+                error -> showAlert("Error", "Failed to delete contest"));
+        }
+    }
+    
+    @FXML
+    private void handleDeleteSelectedContests() {
+        List<Contest> selected = new ArrayList<>(contestsTable.getSelectionModel().getSelectedItems());
+        if (selected.isEmpty()) {
+            showAlert("No Selection", "Select one or more contests to delete");
+            return;
+        }
+        
+        Alert confirmDialog = new Alert(Alert.AlertType.CONFIRMATION);
+        confirmDialog.setTitle("Confirm Deletion");
+        confirmDialog.setHeaderText("Delete Contests");
+        confirmDialog.setContentText("Are you sure you want to delete " + selected.size() + " contest(s)?");
+        
+        Optional<ButtonType> result = confirmDialog.showAndWait();
+        if (result.isPresent() && result.get() == ButtonType.OK) {
+            List<String> contestIds = new ArrayList<>();
+            for (Contest contest : selected) {
+                contestIds.add(contest.getContestId());
             }
+            
+            BackgroundTasks.write("contests:" + String.join(",", contestIds),
+                () -> ContestDatabase.getInstance().deleteContests(contestIds),
+                () -> {
+                    showInfo("Success", selected.size() + " contest(s) deleted successfully");
+                    loadContests();
+                    loadContestSelectors();
+                    updateStatistics();
+                },
+                error -> showAlert("Error", "Failed to delete contests"));
         }
     }
     
@@ -459,6 +486,51 @@ public class AdminDashboardController {
         showInfo("Refreshed", "Statistics updated successfully");
     }
     
+    @FXML
+    private void handleExportRatings() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Export Ratings");
+        chooser.setInitialFileName("ratings.csv");
+        chooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("CSV files", "*.csv"),
+                new FileChooser.ExtensionFilter("JSON files", "*.json"));
+        File file = chooser.showSaveDialog(exportRatingsButton.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+        
+        exportRatingsButton.setDisable(true);
+        BackgroundTasks.load(() -> new DataExporter().exportRatings(file.toPath(),
+                DataExporter.Format.forFile(file.toPath())), result -> {
+            exportRatingsButton.setDisable(false);
+            showInfo("Export Complete", result.getRows() + " users written to " + result.getFile());
+        }, error -> {
+            exportRatingsButton.setDisable(false);
+            showAlert("Error", "Failed to export ratings: " + error.getMessage());
+        });
+    }
+    
+    @FXML
+    private void handleExportDatabase() {
+        DirectoryChooser chooser = new DirectoryChooser();
+        chooser.setTitle("Export Database");
+        File directory = chooser.showDialog(exportDatabaseButton.getScene().getWindow());
+        if (directory == null) {
+            return;
+        }
+        
+        exportDatabaseButton.setDisable(true);
+        BackgroundTasks.load(() -> new DataExporter().exportDatabase(directory.toPath(), DataExporter.Format.JSON),
+                results -> {
+                    exportDatabaseButton.setDisable(false);
+                    long rows = results.stream().mapToLong(DataExporter.ExportResult::getRows).sum();
+                    showInfo("Export Complete", results.size() + " tables (" + rows + " rows) written to " + directory);
+                }, error -> {
+                    exportDatabaseButton.setDisable(false);
+                    showAlert("Error", "Failed to export database: " + error.getMessage());
+                });
+    }
+    
     @FXML
     private void handleManageStandings() {
         try {
@@ -527,31 +599,25 @@ public class AdminDashboardController {
     }
     
     private void loadContests() {
-        try {
-            ContestDatabase contestDB = ContestDatabase.getInstance();
-            List<Contest> contests = contestDB.getAllContests();
-            
-            ObservableList<Contest> contestList = FXCollections.observableArrayList(contests);
-            contestsTable.setItems(contestList);
-            
-        } catch (Exception e) {
-            System.err.println("Error loading contests: " + e.getMessage());
-            e.printStackTrace();
-        }
+        BackgroundTasks.load(
+            () -> new ArrayList<>(ContestDatabase.getInstance().getAllContests()),
+            contests -> contestsTable.setItems(FXCollections.observableArrayList(contests)),
+            error -> {
+                System.err.println("Error loading contests: " + error.getMessage());
+                error.printStackTrace();
+            });
     }
     
     private void loadContestSelectors() {
-        try {
-            ContestDatabase contestDB = ContestDatabase.getInstance();
-            List<Contest> contests = contestDB.getAllContests();
-            
-            ObservableList<String> contestIds = FXCollections.observableArrayList();
-            for (Contest contest : contests) {
+        BackgroundTasks.load(() -> {
+            List<String> contestIds = new ArrayList<>();
+            for (Contest contest : ContestDatabase.getInstance().getAllContests()) {
                 contestIds.add(contest.getContestId() + " - " + contest.getName());
             }
-            
+            return contestIds;
+        }, contestIds -> {
             if (participantContestSelector != null) {
-                participantContestSelector.setItems(contestIds);
+                participantContestSelector.setItems(FXCollections.observableArrayList(contestIds));
                 participantContestSelector.setOnAction(event -> {
                     String selected = participantContestSelector.getValue();
                     if (selected != null) {
@@ -559,54 +625,26 @@ public class AdminDashboardController {
                     }
                 });
             }
-            
-        } catch (Exception e) {
-            System.err.println("Error loading contest selectors: " + e.getMessage());
-            e.printStackTrace();
-        }
+        }, error -> {
+            System.err.println("Error loading contest selectors: " + error.getMessage());
+            error.printStackTrace();
+        });
     }
     
     private void updateStatistics() {
-        Platform.runLater(() -> {
-            try {
-                ContestDatabase contestDB = ContestDatabase.getInstance();
-                UserDatabase userDB = UserDatabase.getInstance();
-                DatabaseManager dbManager = DatabaseManager.getInstance();
-                
-                List<Contest> allContests = contestDB.getAllContests();
-                
-                if (totalContestsLabel != null) {
-                    int contestCount = allContests.size();
-                    totalContestsLabel.setText(String.valueOf(contestCount));
-                    System.out.println("Updated Total Contests to: " + contestCount);
-                }
-                
-                long futureCount = allContests.stream().filter(c -> !c.isPast()).count();
-                if (futureContestsLabel != null) {
-                    futureContestsLabel.setText(String.valueOf(futureCount));
-                    System.out.println("Updated Future Contests to: " + futureCount);
-                }
-                
-                // Count total users
-                if (totalUsersLabel != null) {
-                    int userCount = userDB.getAllUsers().size();
-                    totalUsersLabel.setText(String.valueOf(userCount));
-                    System.out.println("Updated Total Users to: " + userCount);
-                }
-                
-                // Count total participants across all contests
-                if (totalParticipantsLabel != null) {
-                    int totalParticipants = 0;
-                    for (Contest contest : allContests) {
-                        totalParticipants += dbManager.getParticipantsByContest(contest.getContestId()).size();
-                    }
-                    totalParticipantsLabel.setText(String.valueOf(totalParticipants));
-                    System.out.println("Updated Total Participants to: " + totalParticipants);
-                }
-                
-            } catch (Exception e) {
-                System.err.println("Error updating statistics: " + e.getMessage());
-                e.printStackTrace();
+        // Counters are kept by the data layer, so this is a single small query
+        BackgroundTasks.load(() -> DatabaseManager.getInstance().getDashboardStats(), stats -> {
+            if (totalContestsLabel != null) {
+                totalContestsLabel.setText(String.valueOf(stats.getContests()));
+            }
+            if (futureContestsLabel != null) {
+                futureContestsLabel.setText(String.valueOf(stats.getFutureContests()));
+            }
+            if (totalUsersLabel != null) {
+                totalUsersLabel.setText(String.valueOf(stats.getUsers()));
+            }
+            if (totalParticipantsLabel != null) {
+                totalParticipantsLabel.setText(String.valueOf(stats.getParticipants()));
             }
         });
     }
@@ -1,8 +1,11 @@
 package com.contestpredictor.controller;
 
 import com.contestpredictor.data.LeaderboardDatabase;
+import com.contestpredictor.data.ResultImporter;
+import com.contestpredictor.data.WriteBehindQueue;
 import com.contestpredictor.model.LeaderboardContest;
 import com.contestpredictor.model.LeaderboardEntry;
+import com.contestpredictor.util.BackgroundTasks;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -13,10 +16,13 @@ import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.cell.TextFieldTableCell;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import javafx.util.converter.IntegerStringConverter;
 
+import java.io.File;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class AdminManageLeaderboardController{
     
@@ -58,6 +64,8 @@ public class AdminManageLeaderboardController{
     @FXML
     private Button finalizeButton;
     @FXML
+    private Button importResultsButton;
+    @FXML
     private Button createContestButton;
     @FXML
     private Button backButton;
@@ -118,10 +126,8 @@ public class AdminManageLeaderboardController{
         }
         
         // Load contests immediately on initialization
-        Platform.runLater(() -> {
-            System.out.println("Initialize: Loading contests on startup...");
-            loadContests();
-        });
+        System.out.println("Initialize: Loading contests on startup...");
+        loadContests();
     }
 
     private void setupListViewCellFactory() {
@@ -159,10 +165,9 @@ public class AdminManageLeaderboardController{
         solveCountColumn.setOnEditCommit(event -> {
             LeaderboardEntry entry = event.getRowValue();
             entry.setSolveCount(event.getNewValue());
-            // Update in database
-            leaderboardDB.addLeaderboardEntry(entry);
-            // Recalculate rankings
-            recalculateRankings();
+            // Update in database, then recalculate rankings once the write is committed
+            saveEntryInBackground(entry)
+                .thenRun(() -> Platform.runLater(this::recalculateRankings));
         });
         
         // Editable penalty column
@@ -172,16 +177,19 @@ public class AdminManageLeaderboardController{
         penaltyColumn.setOnEditCommit(event -> {
             LeaderboardEntry entry = event.getRowValue();
             entry.setTotalPenalty(event.getNewValue());
-            // Update in database
-            leaderboardDB.addLeaderboardEntry(entry);
-            // Recalculate rankings
-            recalculateRankings();
+            // Update in database, then recalculate rankings once the write is committed
+            saveEntryInBackground(entry)
+                .thenRun(() -> Platform.runLater(this::recalculateRankings));
         });
     }
 
     private void loadContests() {
         System.out.println("=== Loading contests ===");
-        List<LeaderboardContest> contests = leaderboardDB.getAllLeaderboardContests();
+        BackgroundTasks.load(leaderboardDB::getAllLeaderboardContests, this::showContests,
+            error -> showError("Failed to load contests: " + error.getMessage()));
+    }
+    
+    private void showContests(List<LeaderboardContest> contests) {
         System.out.println("Found " + contests.size() + " contests in database");
         
         for (int i = 0; i < contests.size(); i++) {
@@ -200,11 +208,24 @@ public class AdminManageLeaderboardController{
 
     private void loadContestStandings() {
         if (selectedContest != null) {
-            List<LeaderboardEntry> standings = leaderboardDB.getContestStandings(selectedContest.getContestId());
-            
-            // Also get registered users and add them if they don't have entries yet
-            List<String> registeredUsers = leaderboardDB.getRegisteredUsersForContest(selectedContest.getContestId());
-            for (String username : registeredUsers) {
+            String contestId = selectedContest.getContestId();
+            BackgroundTasks.load(() -> readStandingsWithRegistrations(contestId), standings -> {
+                if (selectedContest != null && selectedContest.getContestId().equals(contestId)) {
+                    standingsTable.setItems(FXCollections.observableArrayList(standings));
+                }
+            });
+        }
+    }
+    
+    /**
+     * Read the standings plus a placeholder entry for each registered user without one (background thread)
+     */
+    private List<LeaderboardEntry> readStandingsWithRegistrations(String contestId) {
+        List<LeaderboardEntry> standings = leaderboardDB.getContestStandings(contestId);
+        
+        // Also get registered users and add them if they don't have entries yet
+        List<String> registeredUsers = leaderboardDB.getRegisteredUsersForContest(contestId);
+        for (String username : registeredUsers) {
                 boolean hasEntry = standings.stream()
                     .anyMatch(entry -> entry.getUsername().equals(username));
                 
@@ -212,7 +233,7 @@ public class AdminManageLeaderboardController{
                     // Create a placeholder entry for registered user with no scores yet
                     LeaderboardEntry newEntry = new LeaderboardEntry(
                         username, 
-                        selectedContest.getContestId(), 
+                        contestId, 
                         standings.size() + 1, 
                         0, 
                         0, 
@@ -221,10 +242,7 @@ public class AdminManageLeaderboardController{
                     standings.add(newEntry);
                 }
             }
-            
-            ObservableList<LeaderboardEntry> observableStandings = FXCollections.observableArrayList(standings);
-            standingsTable.setItems(observableStandings);
-        }
+        return standings;
     }
     
     private void loadRegisteredUsers() {
@@ -234,7 +252,11 @@ public class AdminManageLeaderboardController{
         }
         
         System.out.println("DEBUG: Loading registered users for contest: " + selectedContest.getContestId());
-        List<String> registeredUsers = leaderboardDB.getRegisteredUsersForContest(selectedContest.getContestId());
+        BackgroundTasks.load(() -> leaderboardDB.getRegisteredUsersForContest(selectedContest.getContestId()),
+            this::showRegisteredUsers);
+    }
+    
+    private void showRegisteredUsers(List<String> registeredUsers) {
         System.out.println("DEBUG: Found " + registeredUsers.size() + " registered users");
         for (String user : registeredUsers) {
             System.out.println("  - User: " + user);
@@ -250,7 +272,12 @@ public class AdminManageLeaderboardController{
     private void loadUserEntryIfExists(String username) {
         if (selectedContest == null || username == null || username.isEmpty()) return;
         
-        List<LeaderboardEntry> standings = leaderboardDB.getContestStandings(selectedContest.getContestId());
+        String contestId = selectedContest.getContestId();
+        BackgroundTasks.load(() -> leaderboardDB.getContestStandings(contestId),
+            standings -> showUserEntry(standings, username));
+    }
+    
+    private void showUserEntry(List<LeaderboardEntry> standings, String username) {
         for (LeaderboardEntry entry : standings) {
             if (entry.getUsername().equals(username)) {
                 // User already has an entry, load their data
@@ -294,14 +321,15 @@ public class AdminManageLeaderboardController{
                 return;
             }
             
-            if (leaderboardDB.addLeaderboardEntry(entry)) {
-                showSuccess("Entry added successfully for " + username);
-                clearFields();
-                resetSelections(); // Reset contest and user selection
-                recalculateRankings(); // Recalculate rankings dynamically
-            } else {
-                showError("Failed to add entry");
-            }
+            BackgroundTasks.write("leaderboard_entries:" + entry.getContestId() + ":" + username,
+                    () -> leaderboardDB.addLeaderboardEntry(entry),
+                    () -> {
+                        showSuccess("Entry added successfully for " + username);
+                        clearFields();
+                        resetSelections(); // Reset contest and user selection
+                        recalculateRankings(); // Recalculate rankings dynamically
+                    },
+                    error -> showError("Failed to add entry"));
         } catch (NumberFormatException e) {
             showError("Please enter valid numbers for solve count, penalty, and time");
         }
@@ -329,13 +357,16 @@ public class AdminManageLeaderboardController{
             selected.setTotalPenalty(penalty);
             selected.setTotalTime(time);
 
-            if (leaderboardDB.addLeaderboardEntry(selected)) {
-                showSuccess("Entry updated successfully for " + selected.getUsername());
-                resetSelections(); // Reset selections after update
-                recalculateRankings(); // Recalculate rankings dynamically
-            } else {
-                showError("Failed to update entry");
-            }
+            // The writer saves a copy, since the table keeps the selected row
+            LeaderboardEntry updated = new LeaderboardEntry(selected);
+            BackgroundTasks.write("leaderboard_entries:" + updated.getContestId() + ":" + updated.getUsername(),
+                    () -> leaderboardDB.addLeaderboardEntry(updated),
+                    () -> {
+                        showSuccess("Entry updated successfully for " + updated.getUsername());
+                        resetSelections(); // Reset selections after update
+                        recalculateRankings(); // Recalculate rankings dynamically
+                    },
+                    error -> showError("Failed to update entry"));
         } catch (NumberFormatException e) {
             showError("Please enter valid numbers");
         }
@@ -361,13 +392,16 @@ public class AdminManageLeaderboardController{
         confirm.setContentText("Are you sure you want to delete the entry for '" + selected.getUsername() + "'?");
         
         if (confirm.showAndWait().orElse(ButtonType.CANCEL) == ButtonType.OK) {
-            if (leaderboardDB.deleteLeaderboardEntry(selectedContest.getContestId(), selected.getUsername())) {
-                showSuccess("Entry for '" + selected.getUsername() + "' deleted successfully");
-                clearFields();
-                recalculateRankings();
-            } else {
-                showError("Failed to delete entry");
-            }
+            String contestId = selectedContest.getContestId();
+            String username = selected.getUsername();
+            BackgroundTasks.write("leaderboard_entries:" + contestId + ":" + username,
+                    () -> leaderboardDB.deleteLeaderboardEntry(contestId, username),
+                    () -> {
+                        showSuccess("Entry for '" + username + "' deleted successfully");
+                        clearFields();
+                        recalculateRankings();
+                    },
+                    error -> showError("Failed to delete entry"));
         }
     }
 
@@ -385,37 +419,82 @@ public class AdminManageLeaderboardController{
         }
         
         // Check if there are any entries to finalize
-        List<LeaderboardEntry> standings = leaderboardDB.getContestStandings(selectedContest.getContestId());
-        if (standings.isEmpty()) {
-            showError("No entries to finalize. Please add at least one entry first.");
-            return;
-        }
-        
-        // Confirm finalization
-        Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
-        confirm.setTitle("Confirm Finalization");
-        confirm.setHeaderText("Finalize Contest Standings");
-        confirm.setContentText("Are you sure you want to finalize standings for '" + selectedContest.getContestName() + "'?\n\n" +
-                "This will:\n" +
-                "• Lock the standings for this contest\n" +
-                "• Calculate final rankings for " + standings.size() + " participant(s)\n" +
-                "• Update the combined overall leaderboard\n\n" +
-                "This action cannot be undone.");
-        
-        if (confirm.showAndWait().orElse(ButtonType.CANCEL) == ButtonType.OK) {
-            // Recalculate rankings before finalizing
-            recalculateRankings();
+        String contestId = selectedContest.getContestId();
+        String contestName = selectedContest.getContestName();
+        BackgroundTasks.load(() -> leaderboardDB.getContestStandings(contestId), standings -> {
+            if (standings.isEmpty()) {
+                showError("No entries to finalize. Please add at least one entry first.");
+                return;
+            }
             
-            if (leaderboardDB.finalizeContestStandings(selectedContest.getContestId())) {
-                showSuccess("Standings finalized successfully for '" + selectedContest.getContestName() + "'!\n\n" +
-                        "✓ " + standings.size() + " participant(s) processed\n" +
-                        "✓ Combined leaderboard updated");
-                loadContests();
-                loadContestStandings();
-            } else {
-                showError("Failed to finalize standings");
+            // Confirm finalization
+            Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
+            confirm.setTitle("Confirm Finalization");
+            confirm.setHeaderText("Finalize Contest Standings");
+            confirm.setContentText("Are you sure you want to finalize standings for '" + contestName + "'?\n\n" +
+                    "This will:\n" +
+                    "• Lock the standings for this contest\n" +
+                    "• Calculate final rankings for " + standings.size() + " participant(s)\n" +
+                    "• Update the combined overall leaderboard\n\n" +
+                    "This action cannot be undone.");
+            if (confirm.showAndWait().orElse(ButtonType.CANCEL) != ButtonType.OK) {
+                return;
             }
+            
+            // Recalculate rankings and wait for them to be written before the standings are locked
+            BackgroundTasks.load(() -> {
+                saveRankings(standings).join();
+                return leaderboardDB.finalizeContestStandings(contestId);
+            }, finalized -> {
+                if (finalized) {
+                    showSuccess("Standings finalized successfully for '" + contestName + "'!\n\n" +
+                            "✓ " + standings.size() + " participant(s) processed\n" +
+                            "✓ Combined leaderboard updated");
+                    loadContests();
+                    loadContestStandings();
+                } else {
+                    showError("Failed to finalize standings");
+                }
+            }, error -> showError("Failed to finalize standings: " + error.getMessage()));
+        });
+    }
+
+    @FXML
+    private void handleImportResults() {
+        if (selectedContest == null) {
+            showError("Please select a contest first");
+            return;
         }
+        if (selectedContest.isStandings_finalized()) {
+            showError("This contest's standings have already been finalized.");
+            return;
+        }
+
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Import Results");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Result files (CSV, JSON)", "*.csv", "*.json"));
+        File file = chooser.showOpenDialog(standingsTable.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+
+        String contestId = selectedContest.getContestId();
+        String buttonText = importResultsButton.getText();
+        importResultsButton.setDisable(true);
+        BackgroundTasks.load(() -> new ResultImporter().importLeaderboardEntries(contestId, file.toPath(),
+                progress -> Platform.runLater(() -> importResultsButton.setText(
+                        String.format("Importing %.0f%%", progress.getFraction() * 100)))),
+                result -> {
+                    importResultsButton.setText(buttonText);
+                    importResultsButton.setDisable(false);
+                    showSuccess(result.describe(10));
+                    loadContestStandings();
+                    loadRegisteredUsers();
+                }, error -> {
+                    importResultsButton.setText(buttonText);
+                    importResultsButton.setDisable(false);
+                    showError("Failed to import results: " + error.getMessage());
+                });
     }
 
     @FXML
@@ -540,9 +619,7 @@ public class AdminManageLeaderboardController{
      * Public method to refresh contests - can be called by other controllers
      */
     public void refreshContests() {
-        Platform.runLater(() -> {
-            loadContests();
-        });
+        loadContests();
     }
 
     private void clearFields() {
@@ -570,8 +647,15 @@ public class AdminManageLeaderboardController{
     private void recalculateRankings() {
         if (selectedContest == null) return;
         
-        List<LeaderboardEntry> standings = leaderboardDB.getContestStandings(selectedContest.getContestId());
-        
+        BackgroundTasks.load(() -> leaderboardDB.getContestStandings(selectedContest.getContestId()), standings ->
+                saveRankings(standings).whenComplete((ignored, error) -> Platform.runLater(this::loadContestStandings)));
+    }
+    
+    /**
+     * Rank the entries and queue their writes
+     * @return Future completed once every entry is written
+     */
+    private CompletableFuture<Void> saveRankings(List<LeaderboardEntry> standings) {
         // Sort by solves (descending) then by penalty (ascending)
         standings.sort((a, b) -> {
             int compareSolves = Integer.compare(b.getSolveCount(), a.getSolveCount());
@@ -580,21 +664,34 @@ public class AdminManageLeaderboardController{
         });
         
         // Update ranks and save
+        CompletableFuture<?>[] writes = new CompletableFuture<?>[standings.size()];
         for (int i = 0; i < standings.size(); i++) {
             standings.get(i).setRank(i + 1);
-            leaderboardDB.addLeaderboardEntry(standings.get(i));
+            writes[i] = saveEntryInBackground(standings.get(i));
         }
         
-        loadContestStandings();
+        return CompletableFuture.allOf(writes);
+    }
+
+    /**
+     * Queue a leaderboard entry write on the write-behind queue and report failures on the FX thread
+     */
+    private CompletableFuture<Void> saveEntryInBackground(LeaderboardEntry entry) {
+        CompletableFuture<Void> write = WriteBehindQueue.getInstance().submit(
+            "leaderboard_entries:" + entry.getContestId() + ":" + entry.getUsername(),
+            () -> leaderboardDB.addLeaderboardEntry(entry));
+        write.whenComplete((ignored, error) -> {
+            if (error != null) {
+                Platform.runLater(() -> showError("Failed to save entry for " + entry.getUsername() + ": " + error.getMessage()));
+            }
+        });
+        return write;
     }
 
     public void setAdminUsername(String username) {
         this.adminUsername = username;
-        // Load contests after admin username is set and scene is ready
-        Platform.runLater(() -> {
-            System.out.println("Admin username set to: " + username);
-            loadContests();
-        });
+        System.out.println("Admin username set to: " + username);
+        loadContests();
     }
 
     private void showError(String message) {
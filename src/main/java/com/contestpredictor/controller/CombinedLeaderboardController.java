@@ -2,15 +2,18 @@ package com.contestpredictor.controller;
 
 import com.contestpredictor.data.LeaderboardDatabase;
 import com.contestpredictor.model.CombinedLeaderboardEntry;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
+import com.contestpredictor.util.BackgroundTasks;
+import com.contestpredictor.util.PagedObservableList;
+import com.contestpredictor.util.PagedObservableList.PageSource;
 import javafx.fxml.FXML;
 import javafx.scene.control.Label;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.cell.PropertyValueFactory;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class CombinedLeaderboardController {
     
@@ -45,21 +48,47 @@ public class CombinedLeaderboardController {
         totalSolvesColumn.setCellValueFactory(new PropertyValueFactory<>("totalSolves"));
         totalPenaltyColumn.setCellValueFactory(new PropertyValueFactory<>("totalPenalty"));
         contestsParticipatedColumn.setCellValueFactory(new PropertyValueFactory<>("contestsParticipated"));
+        
+        // Sorting reloads the rows in the new order from the database
+        Map<TableColumn<CombinedLeaderboardEntry, ?>, String> sortColumns = new HashMap<>();
+        sortColumns.put(overallRankColumn, "overall_rank");
+        sortColumns.put(usernameColumn, "username");
+        sortColumns.put(totalSolvesColumn, "total_solves");
+        sortColumns.put(contestsParticipatedColumn, "contests_participated");
+        PagedObservableList.sortThrough(combinedTable, sortColumns, (column, descending) ->
+            PagedObservableList.open(combinedSource(column, descending), this::showCombinedLeaderboard));
     }
     
     public void loadCombinedLeaderboard() {
-        // Refresh the combined leaderboard calculation before loading
-        leaderboardDB.refreshCombinedLeaderboard();
-        
-        List<CombinedLeaderboardEntry> combined = leaderboardDB.getCombinedLeaderboard();
-        
+        combinedTable.getSortOrder().clear();
+        BackgroundTasks.load(() -> {
+            // Refresh the combined leaderboard calculation before loading
+            leaderboardDB.refreshCombinedLeaderboard();
+            return PagedObservableList.load(combinedSource(null, false));
+        }, this::showCombinedLeaderboard);
+    }
+    
+    /**
+     * The combined leaderboard in the given order, or by overall rank when column is null
+     */
+    static PageSource<CombinedLeaderboardEntry> combinedSource(String column, boolean descending) {
+        LeaderboardDatabase leaderboardDB = LeaderboardDatabase.getInstance();
+        String orderColumn = column == null ? "overall_rank" : column;
+        return new PageSource<>() {
+            @Override public int count() { return leaderboardDB.countCombinedLeaderboard(); }
+            @Override public List<CombinedLeaderboardEntry> fetch(int offset, int limit) {
+                return leaderboardDB.getCombinedLeaderboardSlice(orderColumn, descending, offset, limit);
+            }
+        };
+    }
+    
+    private void showCombinedLeaderboard(PagedObservableList<CombinedLeaderboardEntry> combined) {
         if (combined.isEmpty()) {
             titleLabel.setText("📊 Overall Leaderboard (No Data - Finalize contest standings to update)");
         } else {
             titleLabel.setText("🏆 Overall Leaderboard - Top Performers Across All Contests (" + combined.size() + " participants)");
         }
         
-        ObservableList<CombinedLeaderboardEntry> observableCombined = FXCollections.observableArrayList(combined);
-        combinedTable.setItems(observableCombined);
+        combinedTable.setItems(combined);
     }
 }
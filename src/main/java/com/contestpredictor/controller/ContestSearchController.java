@@ -2,24 +2,33 @@ package com.contestpredictor.controller;
 
 import com.contestpredictor.data.ContestDatabase;
 import com.contestpredictor.data.UserDatabase;
+import com.contestpredictor.data.WriteBehindQueue;
 import com.contestpredictor.model.Contest;
 import com.contestpredictor.model.Participant;
 import com.contestpredictor.model.User;
+import com.contestpredictor.util.BackgroundTasks;
+import com.contestpredictor.util.SearchPipeline;
+import com.contestpredictor.util.ViewCache;
 
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
-import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.stage.Stage;
 
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
-public class ContestSearchController {
+public class ContestSearchController implements ViewCache.Refreshable {
+    private static final int SEARCH_LIMIT = 200;
+    private static final int TYPEAHEAD_LIMIT = 50;
+    private static final long TYPEAHEAD_DELAY_MS = 150;
+    private static final int CACHED_SEARCHES = 32;
 
     @FXML
     private TextField searchField;
@@ -38,16 +47,16 @@ public class ContestSearchController {
 
     private ContestDatabase contestDB;
     private User currentUser;
+    private SearchPipeline<SearchRequest, SearchResults> searches;
 
     @FXML
     private void initialize() {
-        System.out.println("ContestSearchController initialized");
         contestDB = ContestDatabase.getInstance();
         currentUser = UserDatabase.getInstance().getCurrentUser();
+        searches = new SearchPipeline<>(TYPEAHEAD_DELAY_MS, CACHED_SEARCHES, this::runSearch, this::loadContests);
 
         if (currentUser != null) {
             usernameLabel.setText(currentUser.getUsername());
-            System.out.println("Current user: " + currentUser.getUsername());
         }
 
         // Setup filter combo box
@@ -55,44 +64,54 @@ public class ContestSearchController {
         filterComboBox.setValue("All Contests");
 
         // Load all contests initially
-        List<Contest> allContests = contestDB.getAllContests();
-        System.out.println("Loading " + allContests.size() + " contests initially");
-        loadContests(allContests);
+        searches.submitNow(currentRequest(false));
+
+        // Narrow the list as the user types from the in-memory index; the Search button ranks with the full-text index
+        searchField.textProperty().addListener((obs, oldText, newText) -> searches.submit(currentRequest(false)));
+        filterComboBox.valueProperty().addListener((obs, oldFilter, newFilter) -> searches.submitNow(currentRequest(false)));
+    }
+
+    /**
+     * Search again when the cached screen is shown, since contests may have been
+     * added or registered for in the meantime
+     */
+    @Override
+    public void refresh() {
+        searches.clearCache();
+        searches.submitNow(currentRequest(false));
     }
 
     @FXML
     private void handleSearch() {
-        System.out.println("Search button clicked!");
-        String query = searchField.getText().trim();
-        String filter = filterComboBox.getValue();
-        
-        System.out.println("Search query: '" + query + "'");
-        System.out.println("Filter: " + filter);
-
-        List<Contest> results;
-
-        if (query.isEmpty()) {
-            // No search query, filter by type
-            results = getFilteredContests(filter);
-            System.out.println("Filtered results: " + results.size());
-        } else {
-            // Search with query
-            results = contestDB.searchContests(query);
-            System.out.println("Search results before filter: " + results.size());
-            // Apply filter on search results
-            results = applyFilter(results, filter);
-            System.out.println("Search results after filter: " + results.size());
-        }
-
-        loadContests(results);
+        searches.submitNow(currentRequest(true));
     }
 
     @FXML
     private void handleClear() {
-        System.out.println("Clear button clicked!");
         searchField.clear();
         filterComboBox.setValue("All Contests");
-        loadContests(contestDB.getAllContests());
+        searches.submitNow(currentRequest(false));
+    }
+
+    private SearchRequest currentRequest(boolean fullText) {
+        return new SearchRequest(searchField.getText().trim(), filterComboBox.getValue(), fullText);
+    }
+
+    /**
+     * Run a search and count the participants shown on each card (background thread)
+     */
+    private SearchResults runSearch(SearchRequest request) {
+        List<Contest> contests;
+        if (request.query.isEmpty()) {
+            // No search query, filter by type
+            contests = getFilteredContests(request.filter);
+        } else {
+            // The filter is applied by the index query
+            contests = request.fullText
+                ? contestDB.searchContests(request.query, pastFilter(request.filter), SEARCH_LIMIT)
+                : contestDB.searchContestsAsYouType(request.query, pastFilter(request.filter), TYPEAHEAD_LIMIT);
+        }
+        return new SearchResults(contests, contestDB.countParticipants(contests));
     }
 
     private List<Contest> getFilteredContests(String filter) {
@@ -106,18 +125,22 @@ public class ContestSearchController {
         }
     }
 
-    private List<Contest> applyFilter(List<Contest> contests, String filter) {
-        if (filter.equals("Past Contests")) {
-            contests.removeIf(c -> !c.isPast());
-        } else if (filter.equals("Upcoming Contests")) {
-            contests.removeIf(Contest::isPast);
+    /**
+     * @return true for past contests only, false for upcoming only, null for all
+     */
+    private Boolean pastFilter(String filter) {
+        switch (filter) {
+            case "Past Contests":
+                return true;
+            case "Upcoming Contests":
+                return false;
+            default:
+                return null;
         }
-        return contests;
     }
 
-    private void loadContests(List<Contest> contests) {
-        System.out.println("loadContests called with " + contests.size() + " contests");
-        
+    private void loadContests(SearchResults results) {
+        List<Contest> contests = results.contests;
         if (contestsContainer == null) {
             System.err.println("ERROR: contestsContainer is null!");
             return;
@@ -131,18 +154,16 @@ public class ContestSearchController {
             noResults.setStyle("-fx-text-fill: #999; -fx-font-size: 16px;");
             VBox.setMargin(noResults, new Insets(50, 0, 0, 0));
             contestsContainer.getChildren().add(noResults);
-            System.out.println("No contests to display");
             return;
         }
 
-        System.out.println("Creating " + contests.size() + " contest cards");
         for (Contest contest : contests) {
-            contestsContainer.getChildren().add(createContestCard(contest));
+            contestsContainer.getChildren().add(
+                createContestCard(contest, results.participantCounts.getOrDefault(contest.getContestId(), 0)));
         }
-        System.out.println("Contest cards created successfully");
     }
 
-    private VBox createContestCard(Contest contest) {
+    private VBox createContestCard(Contest contest, int participantCount) {
         VBox card = new VBox(15);
         card.getStyleClass().add("contest-card");
         card.setPadding(new Insets(20));
@@ -183,7 +204,7 @@ public class ContestSearchController {
         durationLabel.setStyle("-fx-text-fill: #666; -fx-font-size: 13px;");
 
         // Participants
-        Label participantsLabel = new Label("👥 " + contest.getParticipants().size() + " participants");
+        Label participantsLabel = new Label("👥 " + participantCount + " participants");
         participantsLabel.setStyle("-fx-text-fill: #666; -fx-font-size: 13px;");
 
         details.getChildren().addAll(dateLabel, durationLabel, participantsLabel);
@@ -193,14 +214,14 @@ public class ContestSearchController {
         actionButton.setStyle("-fx-background-color: #8B5CF6; -fx-text-fill: white; -fx-background-radius: 8; -fx-padding: 10 20; -fx-cursor: hand; -fx-font-weight: bold;");
         actionButton.setOnMouseEntered(e -> actionButton.setStyle("-fx-background-color: #7C3AED; -fx-text-fill: white; -fx-background-radius: 8; -fx-padding: 10 20; -fx-cursor: hand; -fx-font-weight: bold;"));
         actionButton.setOnMouseExited(e -> actionButton.setStyle("-fx-background-color: #8B5CF6; -fx-text-fill: white; -fx-background-radius: 8; -fx-padding: 10 20; -fx-cursor: hand; -fx-font-weight: bold;"));
-        actionButton.setOnAction(e -> showContestDetails(contest));
+        actionButton.setOnAction(e -> showContestDetails(contest, participantCount));
 
         card.getChildren().addAll(header, nameLabel, details, actionButton);
 
         return card;
     }
 
-    private void showContestDetails(Contest contest) {
+    private void showContestDetails(Contest contest, int participantCount) {
         // Create a new stage for contest details
         Stage detailsStage = new Stage();
         detailsStage.setTitle(contest.getContestName() + " - Details & Rankings");
@@ -232,20 +253,23 @@ public class ContestSearchController {
         
         if (contest.isPast()) {
             // Show standings for past contests
-            showPastContestStandings(mainContainer, contest, titleLabel, infoLabel, separator, detailsStage);
+            showPastContestStandings(mainContainer, contest, participantCount, titleLabel, infoLabel, separator, detailsStage);
         } else {
             // Show registration for upcoming contests
-            showUpcomingContestRegistration(mainContainer, contest, titleLabel, infoLabel, separator, detailsStage);
+            showUpcomingContestRegistration(mainContainer, contest, participantCount, titleLabel, infoLabel, separator, detailsStage);
         }
     }
     
     /**
      * Display standings table for past contests
      */
-    private void showPastContestStandings(VBox mainContainer, Contest contest, Label titleLabel, 
+    private void showPastContestStandings(VBox mainContainer, Contest contest, int participantCount, Label titleLabel, 
                                           Label infoLabel, javafx.scene.control.Separator separator, Stage detailsStage) {
+        // Edits work on this copy, filled in once loaded; the contest's own list is a cache that can be reloaded at any time
+        List<Participant> standings = new ArrayList<>();
+        
         // Rankings section
-        Label rankingsLabel = new Label("Contest Standings (" + contest.getParticipants().size() + " participants)");
+        Label rankingsLabel = new Label("Contest Standings (" + participantCount + " participants)");
         rankingsLabel.setStyle("-fx-font-size: 18px; -fx-font-weight: bold; -fx-text-fill: #667eea;");
         
         // Create TableView for standings
@@ -289,8 +313,8 @@ public class ContestSearchController {
         solvedCol.setOnEditCommit(event -> {
             Participant p = event.getRowValue();
             p.setProblemsSolved(event.getNewValue());
-            recalculateContestStandings(contest);
-            table.refresh();
+            recalculateContestStandings(contest.getContestId(), standings);
+            table.getItems().setAll(standings);
         });
         
         // Penalty column (EDITABLE)
@@ -305,8 +329,8 @@ public class ContestSearchController {
         penaltyCol.setOnEditCommit(event -> {
             Participant p = event.getRowValue();
             p.setTotalPenalty(event.getNewValue());
-            recalculateContestStandings(contest);
-            table.refresh();
+            recalculateContestStandings(contest.getContestId(), standings);
+            table.getItems().setAll(standings);
         });
         
         // Performance (New Rating) column
@@ -356,10 +380,17 @@ public class ContestSearchController {
         TableColumn<Participant, ?>[] columns = new TableColumn[]{rankCol, usernameCol, ratingCol, solvedCol, penaltyCol, performanceCol, changeCol};
         table.getColumns().addAll(columns);
         
-        // Add participants to table
-        if (!contest.getParticipants().isEmpty()) {
-            table.getItems().addAll(contest.getParticipants());
-        }
+        // Load the standings in the background; a lazy contest reads them from the database
+        table.setPlaceholder(new Label("Loading standings..."));
+        BackgroundTasks.load(() -> new ArrayList<>(contest.getParticipants()), loaded -> {
+            standings.addAll(loaded);
+            rankingsLabel.setText("Contest Standings (" + standings.size() + " participants)");
+            table.setPlaceholder(new Label("No participants"));
+            table.getItems().setAll(standings);
+        }, error -> {
+            System.err.println("Failed to load standings of " + contest.getContestId() + ": " + error.getMessage());
+            table.setPlaceholder(new Label("Failed to load standings"));
+        });
         
         // Info label for editing
         Label editInfo = new Label("💡 Tip: Double-click 'Solved' or 'Penalty' cells to edit. Rankings update automatically!");
@@ -387,7 +418,7 @@ public class ContestSearchController {
     /**
      * Display registration form for upcoming contests
      */
-    private void showUpcomingContestRegistration(VBox mainContainer, Contest contest, Label titleLabel,
+    private void showUpcomingContestRegistration(VBox mainContainer, Contest contest, int participantCount, Label titleLabel,
                                                   Label infoLabel, javafx.scene.control.Separator separator, Stage detailsStage) {
         Label upcomingLabel = new Label("📅 This contest is upcoming. Register now!");
         upcomingLabel.setStyle("-fx-font-size: 18px; -fx-font-weight: bold; -fx-text-fill: #667eea;");
@@ -440,8 +471,8 @@ public class ContestSearchController {
         detailsBox.setStyle("-fx-background-color: white; -fx-padding: 15; -fx-background-radius: 10;");
         detailsBox.getChildren().addAll(
             createDetailRow("Max Participants:", String.valueOf(contest.getMaxParticipants())),
-            createDetailRow("Current Registrations:", String.valueOf(contest.getParticipants().size())),
-            createDetailRow("Spots Available:", String.valueOf(contest.getMaxParticipants() - contest.getParticipants().size()))
+            createDetailRow("Current Registrations:", String.valueOf(participantCount)),
+            createDetailRow("Spots Available:", String.valueOf(contest.getMaxParticipants() - participantCount))
         );
         
         // Close button
@@ -479,11 +510,10 @@ public class ContestSearchController {
     }
     
     /**
-     * Recalculates contest standings when participant data changes
+     * Recalculates contest standings when participant data changes and saves them
      * Uses AtCoder-style formula
      */
-    private void recalculateContestStandings(Contest contest) {
-        List<Participant> participants = contest.getParticipants();
+    private void recalculateContestStandings(String contestId, List<Participant> participants) {
         if (participants.isEmpty()) return;
         
         // Sort by problems solved (desc), then by penalty (asc)
@@ -519,59 +549,90 @@ public class ContestSearchController {
             int ratingChange = (int) Math.round((performance - p.getCurrentRating()) * adjustmentFactor);
             p.setRatingChange(ratingChange);
         }
+        
+        // Save a snapshot, since later edits keep changing these rows on the FX thread
+        List<Participant> results = new ArrayList<>(participants.size());
+        for (Participant p : participants) {
+            results.add(new Participant(p));
+        }
+        WriteBehindQueue.getInstance()
+            .submit("participant_results:" + contestId,
+                () -> ContestDatabase.getInstance().saveParticipantResults(contestId, results))
+            .whenComplete((ignored, error) -> {
+                if (error != null) {
+                    System.err.println("Failed to save standings of " + contestId + ": " + error.getMessage());
+                }
+            });
     }
 
     @FXML
     private void handlePredictor() {
-        System.out.println("Navigating to Predictor");
         navigateTo("/fxml/Predictor.fxml", "Rating Predictor");
     }
 
     @FXML
     private void handleProfile() {
-        System.out.println("Navigating to Profile");
         navigateTo("/fxml/Profile.fxml", "Profile");
     }
 
     @FXML
     private void handleLogout() {
-        System.out.println("Logging out");
         UserDatabase.getInstance().logout();
+        // The cached screens show this user's data
+        ViewCache.getInstance().clear();
         navigateTo("/fxml/Login.fxml", "Login");
     }
 
     private void navigateTo(String fxmlPath, String title) {
+        searches.cancel();
         try {
-            System.out.println("Loading FXML: " + fxmlPath);
-            FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
-            Parent root = loader.load();
-            
             Stage stage = (Stage) searchField.getScene().getWindow();
-            
-            // Preserve window state
-            boolean wasFullScreen = stage.isFullScreen();
-            boolean wasMaximized = stage.isMaximized();
-            double currentWidth = stage.getWidth();
-            double currentHeight = stage.getHeight();
-            
-            Scene scene = new Scene(root, currentWidth, currentHeight);
-            scene.getStylesheets().add(getClass().getResource("/css/styles.css").toExternalForm());
-            
-            stage.setScene(scene);
-            stage.setTitle(title + " - Contest Rating Predictor");
-            
-            // Restore window state
-            if (wasMaximized) {
-                stage.setMaximized(true);
-            }
-            if (wasFullScreen) {
-                stage.setFullScreen(true);
-            }
-            
-            System.out.println("Navigation successful");
+            ViewCache.getInstance().show(stage, fxmlPath, title + " - Contest Rating Predictor");
         } catch (Exception e) {
             System.err.println("Navigation error:");
             e.printStackTrace();
         }
     }
+
+    /**
+     * Contests found by a search with the participant count of each
+     */
+    private static final class SearchResults {
+        private final List<Contest> contests;
+        private final Map<String, Integer> participantCounts;
+
+        SearchResults(List<Contest> contests, Map<String, Integer> participantCounts) {
+            this.contests = contests;
+            this.participantCounts = participantCounts;
+        }
+    }
+
+    /**
+     * What the user asked for; also the key of the result cache
+     */
+    private static final class SearchRequest {
+        private final String query;
+        private final String filter;
+        private final boolean fullText;
+
+        SearchRequest(String query, String filter, boolean fullText) {
+            this.query = query;
+            this.filter = filter;
+            this.fullText = fullText;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof SearchRequest)) {
+                return false;
+            }
+            SearchRequest other = (SearchRequest) o;
+            return query.equals(other.query) && Objects.equals(filter, other.filter) && fullText == other.fullText;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(query, filter, fullText);
+        }
+    }
 }
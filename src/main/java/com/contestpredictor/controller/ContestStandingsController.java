@@ -1,16 +1,27 @@
 package com.contestpredictor.controller;
 
 import com.contestpredictor.data.ContestDatabase;
+import com.contestpredictor.data.DataExporter;
 import com.contestpredictor.data.DatabaseManager;
 import com.contestpredictor.data.UserDatabase;
 import com.contestpredictor.data.LeaderboardDatabase;
+import com.contestpredictor.data.ResultImporter;
+import com.contestpredictor.data.StandingsPage;
+import com.contestpredictor.data.StandingsSnapshot;
+import com.contestpredictor.data.WriteBehindQueue;
 import com.contestpredictor.model.Contest;
 import com.contestpredictor.model.Participant;
 import com.contestpredictor.model.User;
 import com.contestpredictor.model.LeaderboardContest;
 import com.contestpredictor.model.LeaderboardEntry;
+import com.contestpredictor.util.BackgroundTasks;
+import com.contestpredictor.util.PagedObservableList;
+import com.contestpredictor.util.PagedObservableList.PageSource;
+import com.contestpredictor.util.ViewCache;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -19,13 +30,18 @@ import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.control.cell.TextFieldTableCell;
 import javafx.scene.layout.HBox;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import javafx.util.converter.IntegerStringConverter;
 
+import java.io.File;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * Controller for managing contest standings
@@ -37,7 +53,10 @@ public class ContestStandingsController {
     @FXML private Label contestTitleLabel;
     @FXML private Label contestInfoLabel;
     @FXML private ComboBox<String> contestSelector;
+    @FXML private TextField userFilterField;
     @FXML private Button generateContestButton;
+    @FXML private Button importResultsButton;
+    @FXML private Button exportStandingsButton;
     @FXML private Button refreshButton;
     @FXML private Button registerButton;
     @FXML private Button backButton;
@@ -57,6 +76,10 @@ public class ContestStandingsController {
     private boolean isAdmin = false;
     private boolean isLeaderboardContest = false;
     private String currentContestId = null;
+    private Task<StandingsView> standingsTask;
+    // Order picked by clicking a column header; null means rank order
+    private String sortColumn = null;
+    private boolean sortDescending = false;
     
     @FXML
     public void initialize() {
@@ -67,6 +90,12 @@ public class ContestStandingsController {
         if (generateContestButton != null) {
             generateContestButton.setVisible(false);
         }
+        if (importResultsButton != null) {
+            importResultsButton.setVisible(false);
+        }
+        if (exportStandingsButton != null) {
+            exportStandingsButton.setVisible(false);
+        }
         if (instructionsBanner != null) {
             instructionsBanner.setVisible(false);
         }
@@ -93,6 +122,18 @@ public class ContestStandingsController {
         
         predictedRatingColumn.setCellValueFactory(new PropertyValueFactory<>("predictedRating"));
         ratingChangeColumn.setCellValueFactory(new PropertyValueFactory<>("ratingChange"));
+        
+        // Rows are paged in from the database, so sorting is done there too
+        Map<TableColumn<Participant, ?>, String> sortColumns = new HashMap<>();
+        sortColumns.put(rankColumn, "rank");
+        sortColumns.put(usernameColumn, "username");
+        sortColumns.put(currentRatingColumn, "current_rating");
+        sortColumns.put(ratingChangeColumn, "rating_change");
+        PagedObservableList.sortThrough(standingsTable, sortColumns, (column, descending) -> {
+            sortColumn = column;
+            sortDescending = descending;
+            handleContestSelection();
+        });
     }
     
     private void setupEditableColumns() {
@@ -122,14 +163,16 @@ public class ContestStandingsController {
                     removeBtn.setStyle("-fx-background-color: #f44336; -fx-text-fill: white;");
                     removeBtn.setOnAction(event -> {
                         Participant participant = getTableView().getItems().get(getIndex());
-                        handleRemoveParticipant(participant);
+                        if (participant != null) {
+                            handleRemoveParticipant(participant);
+                        }
                     });
                 }
                 
                 @Override
                 protected void updateItem(Void item, boolean empty) {
                     super.updateItem(item, empty);
-                    if (empty) {
+                    if (empty || getTableRow() == null || getTableRow().getItem() == null) {
                         setGraphic(null);
                     } else {
                         setGraphic(removeBtn);
@@ -143,25 +186,26 @@ public class ContestStandingsController {
     }
     
     private void loadContests() {
-        ContestDatabase contestDB = ContestDatabase.getInstance();
-        List<Contest> contests = contestDB.getAllContests();
-        LeaderboardDatabase leaderboardDB = LeaderboardDatabase.getInstance();
-        List<LeaderboardContest> leaderboardContests = leaderboardDB.getAllLeaderboardContests();
-        
-        ObservableList<String> contestNames = FXCollections.observableArrayList();
-        
-        // Add regular contests
-        for (Contest contest : contests) {
-            String status = contest.isPast() ? " [Past]" : " [Upcoming]";
-            contestNames.add(contest.getContestId() + " - " + contest.getContestName() + status);
-        }
-        
-        // Add KUET Leaderboard contests
-        for (LeaderboardContest contest : leaderboardContests) {
-            String status = contest.isStandings_finalized() ? " [Finalized]" : " [Active]";
-            contestNames.add("KUET:" + contest.getContestId() + " - " + contest.getContestName() + status);
-        }
-        
+        BackgroundTasks.load(() -> {
+            List<String> contestNames = new ArrayList<>();
+            
+            // Add regular contests
+            for (Contest contest : ContestDatabase.getInstance().getAllContests()) {
+                String status = contest.isPast() ? " [Past]" : " [Upcoming]";
+                contestNames.add(contest.getContestId() + " - " + contest.getContestName() + status);
+            }
+            
+            // Add KUET Leaderboard contests
+            for (LeaderboardContest contest : LeaderboardDatabase.getInstance().getAllLeaderboardContests()) {
+                String status = contest.isStandings_finalized() ? " [Finalized]" : " [Active]";
+                contestNames.add("KUET:" + contest.getContestId() + " - " + contest.getContestName() + status);
+            }
+            return contestNames;
+        }, this::showContests);
+    }
+    
+    private void showContests(List<String> names) {
+        ObservableList<String> contestNames = FXCollections.observableArrayList(names);
         contestSelector.setItems(contestNames);
         
         // Auto-select first contest if available
@@ -186,78 +230,185 @@ public class ContestStandingsController {
         }
         currentContestId = contestId;
         
-        if (isLeaderboardContest) {
-            loadLeaderboardContestStandings(contestId);
-        } else {
-            loadContestStandings(contestId);
-        }
+        // Only the most recently selected contest is shown
+        if (standingsTask != null) {
+            standingsTask.cancel();
+        }
+        boolean leaderboard = isLeaderboardContest;
+        String id = contestId;
+        String column = sortColumn;
+        boolean descending = sortDescending;
+        String filter = usernameFilter();
+        standingsTask = BackgroundTasks.load(
+            () -> leaderboard
+                ? loadLeaderboardContestStandings(id, column, descending, filter)
+                : loadContestStandings(id, column, descending, filter),
+            view -> {
+                if (view == null) return;
+                contestTitleLabel.setText(view.title);
+                contestInfoLabel.setText(view.info);
+                standingsTable.setItems(view.participants);
+            });
+    }
+    
+    private String usernameFilter() {
+        String text = userFilterField == null ? "" : userFilterField.getText().trim();
+        return text.isEmpty() ? null : text;
     }
     
-    private void loadLeaderboardContestStandings(String contestId) {
+    /**
+     * Count a leaderboard contest's standings and read their first page (background thread)
+     */
+    private StandingsView loadLeaderboardContestStandings(String contestId, String column, boolean descending, String filter) {
         LeaderboardDatabase leaderboardDB = LeaderboardDatabase.getInstance();
         LeaderboardContest contest = leaderboardDB.getLeaderboardContestById(contestId);
         
-        if (contest == null) return;
-        
-        contestTitleLabel.setText("🏆 KUET: " + contest.getContestName());
-        List<String> registeredUsers = leaderboardDB.getRegisteredUsersForContest(contestId);
-        contestInfoLabel.setText(String.format("Max Problems: %d | Registered Users: %d | Status: %s", 
-            contest.getMaxProblems(), registeredUsers.size(), 
-            contest.isStandings_finalized() ? "Finalized" : "Active"));
+        if (contest == null) return null;
         
-        // Load leaderboard entries as participants
-        List<LeaderboardEntry> entries = leaderboardDB.getContestStandings(contestId);
-        List<Participant> participants = new ArrayList<>();
+        String info = String.format("Max Problems: %d | Registered Users: %d | Status: %s", 
+            contest.getMaxProblems(), leaderboardDB.countRegistrations(contestId), 
+            contest.isStandings_finalized() ? "Finalized" : "Active");
         
-        for (LeaderboardEntry entry : entries) {
-            Participant p = new Participant(entry.getUsername(), 0, // Rating not used in leaderboard contests
-                entry.getSolveCount(), entry.getTotalPenalty());
-            p.setRank(entry.getRank());
-            p.setPredictedRating(0);
-            p.setRatingChange(0);
-            participants.add(p);
+        PageSource<Participant> source = leaderboardStandingsSource(contest, column, descending, filter);
+        return new StandingsView("🏆 KUET: " + contest.getContestName(), info, PagedObservableList.load(source));
+    }
+    
+    /**
+     * Leaderboard entries as participants, followed by registered users who have no entry yet
+     */
+    private PageSource<Participant> leaderboardStandingsSource(LeaderboardContest contest, String column,
+                                                               boolean descending, String filter) {
+        LeaderboardDatabase leaderboardDB = LeaderboardDatabase.getInstance();
+        String contestId = contest.getContestId();
+        boolean rankOrder = column == null && filter == null;
+        
+        // Finalized contests in rank order come from their snapshot
+        StandingsSnapshot snapshot = rankOrder && contest.isStandings_finalized()
+            ? leaderboardDB.getStandingsSnapshot(contestId) : null;
+        String entryColumn = LeaderboardDatabase.ENTRY_SORT_COLUMNS.contains(column) ? column : "rank";
+        PageSource<LeaderboardEntry> entries;
+        if (snapshot != null) {
+            entries = new PageSource<>() {
+                @Override public int count() { return snapshot.size(); }
+                @Override public List<LeaderboardEntry> fetch(int offset, int limit) {
+                    return snapshot.getLeaderboardPage(contestId, offset, limit);
+                }
+            };
+        } else if (rankOrder) {
+            entries = new PagedObservableList.KeysetSource<>() {
+                @Override public int count() { return leaderboardDB.countStandings(contestId, null); }
+                @Override protected StandingsPage<LeaderboardEntry> page(StandingsPage.Cursor after, int limit) {
+                    return leaderboardDB.getStandingsPage(contestId, after, limit);
+                }
+                @Override protected List<LeaderboardEntry> slice(int offset, int limit) {
+                    return leaderboardDB.getStandingsSlice(contestId, "rank", false, null, offset, limit);
+                }
+            };
+        } else {
+            entries = new PageSource<>() {
+                @Override public int count() { return leaderboardDB.countStandings(contestId, filter); }
+                @Override public List<LeaderboardEntry> fetch(int offset, int limit) {
+                    return leaderboardDB.getStandingsSlice(contestId, entryColumn, descending, filter, offset, limit);
+                }
+            };
         }
         
-        // Add registered users who don't have entries yet
-        for (String username : registeredUsers) {
-            boolean hasEntry = participants.stream().anyMatch(p -> p.getUsername().equals(username));
-            if (!hasEntry) {
-                Participant p = new Participant(username, 0, 0, 0);
-                p.setRank(participants.size() + 1);
-                p.setPredictedRating(0);
-                p.setRatingChange(0);
-                participants.add(p);
+        return new PageSource<>() {
+            private int entryCount;
+            
+            @Override
+            public int count() {
+                entryCount = entries.count();
+                return entryCount + leaderboardDB.countUnrankedRegistrations(contestId, filter);
             }
-        }
-        
-        ObservableList<Participant> observableParticipants = FXCollections.observableArrayList(participants);
-        standingsTable.setItems(observableParticipants);
+            
+            @Override
+            public List<Participant> fetch(int offset, int limit) {
+                List<Participant> participants = new ArrayList<>(limit);
+                if (offset < entryCount) {
+                    for (LeaderboardEntry entry : entries.fetch(offset, Math.min(limit, entryCount - offset))) {
+                        Participant p = new Participant(entry.getUsername(), 0, // Rating not used in leaderboard contests
+                            entry.getSolveCount(), entry.getTotalPenalty());
+                        p.setRank(entry.getRank());
+                        participants.add(p);
+                    }
+                }
+                if (participants.size() < limit) {
+                    // Registered users who don't have entries yet are ranked after everyone else
+                    int position = offset + participants.size() - entryCount;
+                    for (String username : leaderboardDB.getUnrankedRegistrations(contestId, filter,
+                            position, limit - participants.size())) {
+                        Participant p = new Participant(username, 0, 0, 0);
+                        p.setRank(entryCount + ++position);
+                        participants.add(p);
+                    }
+                }
+                return participants;
+            }
+        };
     }
     
-    private void loadContestStandings(String contestId) {
+    /**
+     * Count a contest's standings and read their first page, creating the default
+     * participants the first time (background thread)
+     */
+    private StandingsView loadContestStandings(String contestId, String column, boolean descending, String filter) {
         ContestDatabase contestDB = ContestDatabase.getInstance();
         Contest contest = contestDB.getContestById(contestId);
         
-        if (contest == null) return;
+        if (contest == null) return null;
         
-        contestTitleLabel.setText(contest.getContestName());
-        contestInfoLabel.setText(String.format("Duration: %d minutes | Registered: %d", 
-            contest.getDuration(), contest.getRegisteredCount()));
-        
-        // Load participants from database
-        DatabaseManager dbManager = DatabaseManager.getInstance();
-        List<Participant> participants = dbManager.getParticipantsByContest(contestId);
+        String info = String.format("Duration: %d minutes | Registered: %d", 
+            contest.getDuration(), contest.getRegisteredCount());
         
         // If no participants exist, generate them
-        if (participants.isEmpty()) {
-            participants = generateInitialParticipants(contest);
+        DatabaseManager dbManager = DatabaseManager.getInstance();
+        if (dbManager.countParticipants(contestId, null) == 0) {
+            generateInitialParticipants(contest);
         }
         
-        // Sort by rank
-        participants.sort(Comparator.comparingInt(Participant::getRank));
+        PageSource<Participant> source = contestStandingsSource(contestId, column, descending, filter);
+        return new StandingsView(contest.getContestName(), info, PagedObservableList.load(source));
+    }
+    
+    /**
+     * A contest's participants in the given order, from its snapshot when possible
+     */
+    private PageSource<Participant> contestStandingsSource(String contestId, String column,
+                                                           boolean descending, String filter) {
+        DatabaseManager dbManager = DatabaseManager.getInstance();
+        PageSource<Participant> source;
+        StandingsSnapshot snapshot = column == null && filter == null
+            ? ContestDatabase.getInstance().getStandingsSnapshot(contestId) : null;
+        if (snapshot != null) {
+            // Past contests in rank order are read from their binary snapshot
+            source = new PageSource<>() {
+                @Override public int count() { return snapshot.size(); }
+                @Override public List<Participant> fetch(int offset, int limit) {
+                    return snapshot.getParticipantPage(offset, limit);
+                }
+            };
+        } else if (column == null && filter == null) {
+            source = new PagedObservableList.KeysetSource<>() {
+                @Override public int count() { return dbManager.countParticipants(contestId, null); }
+                @Override protected StandingsPage<Participant> page(StandingsPage.Cursor after, int limit) {
+                    return dbManager.getParticipantsPage(contestId, after, limit);
+                }
+                @Override protected List<Participant> slice(int offset, int limit) {
+                    return dbManager.getParticipantsSlice(contestId, "rank", false, null, offset, limit);
+                }
+            };
+        } else {
+            String orderColumn = column == null ? "rank" : column;
+            source = new PageSource<>() {
+                @Override public int count() { return dbManager.countParticipants(contestId, filter); }
+                @Override public List<Participant> fetch(int offset, int limit) {
+                    return dbManager.getParticipantsSlice(contestId, orderColumn, descending, filter, offset, limit);
+                }
+            };
+        }
         
-        ObservableList<Participant> observableParticipants = FXCollections.observableArrayList(participants);
-        standingsTable.setItems(observableParticipants);
+        return source;
     }
     
     private List<Participant> generateInitialParticipants(Contest contest) {
@@ -341,44 +492,80 @@ public class ContestStandingsController {
     }
     
     private void generateLeaderboardContestResults() {
-        ObservableList<Participant> participants = standingsTable.getItems();
-        LeaderboardDatabase leaderboardDB = LeaderboardDatabase.getInstance();
-        
-        // Sort by problems solved (desc), then by penalty (asc)
-        List<Participant> sortedList = new ArrayList<>(participants);
-        sortedList.sort((p1, p2) -> {
-            if (p1.getProblemsSolved() != p2.getProblemsSolved()) {
-                return Integer.compare(p2.getProblemsSolved(), p1.getProblemsSolved());
+        String contestId = currentContestId;
+        ObservableList<Participant> shown = standingsTable.getItems();
+        String column = sortColumn;
+        boolean descending = sortDescending;
+        String filter = usernameFilter();
+        BackgroundTasks.load(() -> {
+            // Include edits still waiting in the write-behind queue
+            WriteBehindQueue.getInstance().flush().join();
+            LeaderboardDatabase leaderboardDB = LeaderboardDatabase.getInstance();
+            if (!leaderboardDB.rerankStandings(contestId)) {
+                throw new IllegalStateException("the standings could not be saved");
             }
-            return Integer.compare(p1.getTotalPenalty(), p2.getTotalPenalty());
-        });
-        
-        // Assign ranks and save to leaderboard database
-        for (int i = 0; i < sortedList.size(); i++) {
-            Participant p = sortedList.get(i);
-            p.setRank(i + 1);
-            
-            LeaderboardEntry entry = new LeaderboardEntry(
-                p.getUsername(),
-                currentContestId,
-                p.getRank(),
-                p.getProblemsSolved(),
-                p.getTotalPenalty(),
-                0
-            );
-            leaderboardDB.addLeaderboardEntry(entry);
-        }
-        
-        // Refresh table
-        standingsTable.setItems(FXCollections.observableArrayList(sortedList));
-        showAlert("Success", "KUET Leaderboard contest rankings updated successfully!\nUse 'Finalize Standings' in Admin Manage Leaderboard to complete.");
+            return leaderboardStandingsSource(leaderboardDB.getLeaderboardContestById(contestId), column, descending, filter);
+        }, rankedSource -> {
+            showReranked(contestId, shown, rankedSource);
+            showAlert("Success", "KUET Leaderboard contest rankings updated successfully!\nUse 'Finalize Standings' in Admin Manage Leaderboard to complete.");
+        }, error -> showAlert("Error", "Failed to update rankings: " + error.getMessage()));
     }
     
     private void generateContestResults(String contestId) {
-        ObservableList<Participant> participants = standingsTable.getItems();
-        
+        ObservableList<Participant> shown = standingsTable.getItems();
+        String column = sortColumn;
+        boolean descending = sortDescending;
+        String filter = usernameFilter();
+        BackgroundTasks.load(() -> {
+            // Include edits still waiting in the write-behind queue
+            WriteBehindQueue.getInstance().flush().join();
+            List<Participant> sortedList = new ArrayList<>(DatabaseManager.getInstance().getParticipantsByContest(contestId));
+            rankContest(contestId, sortedList);
+            return contestStandingsSource(contestId, column, descending, filter);
+        }, rankedSource -> {
+            showReranked(contestId, shown, rankedSource);
+            showAlert("Success", "Contest results generated successfully!");
+        }, error -> showAlert("Error", "Failed to generate contest results: " + error.getMessage()));
+    }
+    
+    /**
+     * Bring the table up to date after the contest was re-ranked. Rows whose standing
+     * did not change keep their place, so only the rows that changed redraw;
+     * the table is only reloaded if it changed in the meantime.
+     */
+    private void showReranked(String contestId, ObservableList<Participant> shown,
+                              PageSource<Participant> rankedSource) {
+        if (!contestId.equals(currentContestId)) {
+            return;
+        }
+        if (standingsTable.getItems() != shown || !(shown instanceof PagedObservableList)) {
+            handleContestSelection();
+            return;
+        }
+        ((PagedObservableList<Participant>) shown).reload(rankedSource,
+            ContestStandingsController::sameStanding,
+            applied -> {
+                if (!applied) {
+                    handleContestSelection();
+                }
+            });
+    }
+    
+    private static boolean sameStanding(Participant a, Participant b) {
+        return a.getUsername().equals(b.getUsername())
+            && a.getCurrentRating() == b.getCurrentRating()
+            && a.getProblemsSolved() == b.getProblemsSolved()
+            && a.getTotalPenalty() == b.getTotalPenalty()
+            && a.getRank() == b.getRank()
+            && a.getPredictedRating() == b.getPredictedRating()
+            && a.getRatingChange() == b.getRatingChange();
+    }
+    
+    /**
+     * Rank the standings, compute rating changes and save them (background thread)
+     */
+    private void rankContest(String contestId, List<Participant> sortedList) {
         // Sort by problems solved (desc), then by penalty (asc)
-        List<Participant> sortedList = new ArrayList<>(participants);
         sortedList.sort((p1, p2) -> {
             if (p1.getProblemsSolved() != p2.getProblemsSolved()) {
                 return Integer.compare(p2.getProblemsSolved(), p1.getProblemsSolved());
@@ -407,15 +594,7 @@ public class ContestStandingsController {
         }
         
         // Save to database
-        DatabaseManager dbManager = DatabaseManager.getInstance();
-        for (Participant p : sortedList) {
-            dbManager.updateParticipantSolveCount(contestId, p.getUsername(), 
-                p.getProblemsSolved(), p.getTotalPenalty());
-        }
-        
-        // Refresh table
-        standingsTable.setItems(FXCollections.observableArrayList(sortedList));
-        showAlert("Success", "Contest results generated successfully!");
+        DatabaseManager.getInstance().saveParticipantResults(contestId, sortedList);
     }
     
     private int calculateExpectedRank(Participant participant, List<Participant> allParticipants) {
@@ -432,24 +611,38 @@ public class ContestStandingsController {
     }
     
     private void updateParticipantInDatabase(Participant participant) {
+        String contestId = currentContestId;
+        String username = participant.getUsername();
+        WriteBehindQueue writeQueue = WriteBehindQueue.getInstance();
+        CompletableFuture<Void> write;
+        
         if (isLeaderboardContest) {
             // Update in leaderboard database
             LeaderboardDatabase leaderboardDB = LeaderboardDatabase.getInstance();
             LeaderboardEntry entry = new LeaderboardEntry(
-                participant.getUsername(),
-                currentContestId,
+                username,
+                contestId,
                 participant.getRank(),
                 participant.getProblemsSolved(),
                 participant.getTotalPenalty(),
                 0 // time not tracked in this view
             );
-            leaderboardDB.addLeaderboardEntry(entry);
+            write = writeQueue.submit("leaderboard_entries:" + contestId + ":" + username,
+                () -> leaderboardDB.addLeaderboardEntry(entry));
         } else {
             // Update in regular contest database
             DatabaseManager dbManager = DatabaseManager.getInstance();
-            dbManager.updateParticipantSolveCount(currentContestId, participant.getUsername(), 
-                participant.getProblemsSolved(), participant.getTotalPenalty());
+            int problemsSolved = participant.getProblemsSolved();
+            int totalPenalty = participant.getTotalPenalty();
+            write = writeQueue.submit("participants:" + contestId + ":" + username,
+                () -> dbManager.updateParticipantSolveCount(contestId, username, problemsSolved, totalPenalty));
         }
+        
+        write.whenComplete((ignored, error) -> {
+            if (error != null) {
+                Platform.runLater(() -> showAlert("Error", "Failed to save changes for " + username + ": " + error.getMessage()));
+            }
+        });
     }
     
     private void handleRemoveParticipant(Participant participant) {
@@ -464,17 +657,89 @@ public class ContestStandingsController {
             if (selected == null) return;
             
             String contestId = selected.split(" - ")[0];
-            DatabaseManager dbManager = DatabaseManager.getInstance();
+            String username = participant.getUsername();
             
-            if (dbManager.removeParticipant(contestId, participant.getUsername())) {
-                standingsTable.getItems().remove(participant);
-                showAlert("Success", "Participant removed successfully");
-            } else {
-                showAlert("Error", "Failed to remove participant");
-            }
+            BackgroundTasks.write("participants:" + contestId + ":" + username,
+                () -> DatabaseManager.getInstance().removeParticipant(contestId, username),
+                () -> {
+                    handleRefresh();
+                    showAlert("Success", "Participant removed successfully");
+                },
+                error -> showAlert("Error", "Failed to remove participant"));
         }
     }
     
+    /**
+     * Bulk-import solve counts and penalties for the selected contest from a CSV or JSON file
+     */
+    @FXML
+    private void handleImportResults() {
+        if (currentContestId == null) {
+            showAlert("Error", "Please select a contest first");
+            return;
+        }
+        
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Import Results");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Result files (CSV, JSON)", "*.csv", "*.json"));
+        File file = chooser.showOpenDialog(standingsTable.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+        
+        String contestId = currentContestId;
+        boolean leaderboard = isLeaderboardContest;
+        String buttonText = importResultsButton.getText();
+        importResultsButton.setDisable(true);
+        Consumer<ResultImporter.ImportProgress> progress = p -> Platform.runLater(() ->
+                importResultsButton.setText(String.format("Importing %.0f%%", p.getFraction() * 100)));
+        BackgroundTasks.load(() -> {
+            ResultImporter importer = new ResultImporter();
+            return leaderboard
+                    ? importer.importLeaderboardEntries(contestId, file.toPath(), progress)
+                    : importer.importContestParticipants(contestId, file.toPath(), progress);
+        }, result -> {
+            importResultsButton.setText(buttonText);
+            importResultsButton.setDisable(false);
+            showAlert("Import Complete", result.describe(10));
+            handleContestSelection();
+        }, error -> {
+            importResultsButton.setText(buttonText);
+            importResultsButton.setDisable(false);
+            showAlert("Error", "Failed to import results: " + error.getMessage());
+        });
+    }
+    
+    @FXML
+    private void handleExportStandings() {
+        if (currentContestId == null) {
+            showAlert("Error", "Please select a contest first");
+            return;
+        }
+        
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Export Standings");
+        chooser.setInitialFileName(currentContestId + "_standings.csv");
+        chooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("CSV files", "*.csv"),
+                new FileChooser.ExtensionFilter("JSON files", "*.json"));
+        File file = chooser.showSaveDialog(standingsTable.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+        
+        String contestId = currentContestId;
+        exportStandingsButton.setDisable(true);
+        BackgroundTasks.load(() -> new DataExporter().exportContestStandings(contestId, file.toPath(),
+                DataExporter.Format.forFile(file.toPath())), result -> {
+            exportStandingsButton.setDisable(false);
+            showAlert("Export Complete", result.getRows() + " rows written to " + result.getFile());
+        }, error -> {
+            exportStandingsButton.setDisable(false);
+            showAlert("Error", "Failed to export standings: " + error.getMessage());
+        });
+    }
+    
     @FXML
     private void handleRefresh() {
         handleContestSelection();
@@ -494,22 +759,11 @@ public class ContestStandingsController {
         }
         
         // Handle KUET Leaderboard contest registration
+        String username = currentUsername;
         if (isLeaderboardContest) {
-            LeaderboardDatabase leaderboardDB = LeaderboardDatabase.getInstance();
-            
-            // Check if already registered
-            if (leaderboardDB.isUserRegisteredForContest(currentContestId, currentUsername)) {
-                showAlert("Info", "You are already registered for this KUET Leaderboard contest!");
-                return;
-            }
-            
-            // Register user
-            if (leaderboardDB.registerUserForLeaderboardContest(currentContestId, currentUsername)) {
-                showAlert("Success", "You have been registered for this KUET Leaderboard contest!");
-                handleRefresh();
-            } else {
-                showAlert("Error", "Failed to register for contest");
-            }
+            String contestId = currentContestId;
+            BackgroundTasks.load(() -> registerForLeaderboardContest(contestId, username),
+                    outcome -> showRegistrationOutcome(outcome, "this KUET Leaderboard contest"));
             return;
         }
         
@@ -523,35 +777,66 @@ public class ContestStandingsController {
             return;
         }
         
+        BackgroundTasks.load(() -> registerForContest(contestId, username),
+                outcome -> showRegistrationOutcome(outcome, "this contest"));
+    }
+    
+    private enum RegistrationOutcome { REGISTERED, ALREADY_REGISTERED, FAILED }
+    
+    /**
+     * Register a user for a leaderboard contest (background thread)
+     */
+    private RegistrationOutcome registerForLeaderboardContest(String contestId, String username) {
+        LeaderboardDatabase leaderboardDB = LeaderboardDatabase.getInstance();
+        if (leaderboardDB.isUserRegisteredForContest(contestId, username)) {
+            return RegistrationOutcome.ALREADY_REGISTERED;
+        }
+        return leaderboardDB.registerUserForLeaderboardContest(contestId, username)
+                ? RegistrationOutcome.REGISTERED : RegistrationOutcome.FAILED;
+    }
+    
+    /**
+     * Register a user for a regular contest and add them to its participants (background thread)
+     */
+    private RegistrationOutcome registerForContest(String contestId, String username) {
         DatabaseManager dbManager = DatabaseManager.getInstance();
         
         // Check if already registered
-        if (dbManager.isUserRegisteredForContest(contestId, currentUsername)) {
-            showAlert("Info", "You are already registered for this contest!");
-            return;
+        if (dbManager.isUserRegisteredForContest(contestId, username)) {
+            return RegistrationOutcome.ALREADY_REGISTERED;
+        }
+        if (!dbManager.registerUserForContest(contestId, username)) {
+            return RegistrationOutcome.FAILED;
         }
         
-        // Register user
-        if (dbManager.registerUserForContest(contestId, currentUsername)) {
-            // Add to participants if not already there
-            List<Participant> participants = dbManager.getParticipantsByContest(contestId);
-            boolean participantExists = participants.stream()
-                .anyMatch(p -> p.getUsername().equals(currentUsername));
-            
-            if (!participantExists) {
-                UserDatabase userDB = UserDatabase.getInstance();
-                User user = userDB.getUser(currentUsername);
-                int rating = (user != null) ? user.getCurrentRating() : 1200;
-                
-                Participant newParticipant = new Participant(currentUsername, rating, 0, 0);
-                newParticipant.setRank(participants.size() + 1);
-                dbManager.saveParticipant(contestId, newParticipant);
-            }
+        // Add to participants if not already there
+        List<Participant> participants = dbManager.getParticipantsByContest(contestId);
+        boolean participantExists = participants.stream()
+            .anyMatch(p -> p.getUsername().equals(username));
+        
+        if (!participantExists) {
+            UserDatabase userDB = UserDatabase.getInstance();
+            User user = userDB.getUser(username);
+            int rating = (user != null) ? user.getCurrentRating() : 1200;
             
-            showAlert("Success", "You have been registered for this contest!");
-            handleRefresh();
-        } else {
-            showAlert("Error", "Failed to register for contest");
+            Participant newParticipant = new Participant(username, rating, 0, 0);
+            newParticipant.setRank(participants.size() + 1);
+            dbManager.saveParticipant(contestId, newParticipant);
+        }
+        return RegistrationOutcome.REGISTERED;
+    }
+    
+    private void showRegistrationOutcome(RegistrationOutcome outcome, String contestDescription) {
+        switch (outcome) {
+            case REGISTERED:
+                showAlert("Success", "You have been registered for " + contestDescription + "!");
+                handleRefresh();
+                break;
+            case ALREADY_REGISTERED:
+                showAlert("Info", "You are already registered for " + contestDescription + "!");
+                break;
+            default:
+                showAlert("Error", "Failed to register for contest");
         }
     }
     
@@ -577,14 +862,8 @@ public class ContestStandingsController {
                 stage.setScene(scene);
                 stage.setTitle("Admin Dashboard - Contest Rating Predictor");
             } else {
-                loader = new FXMLLoader(getClass().getResource("/fxml/Profile.fxml"));
-                Parent root = loader.load();
-                
                 Stage stage = (Stage) backButton.getScene().getWindow();
-                Scene scene = new Scene(root, stage.getWidth(), stage.getHeight());
-                scene.getStylesheets().add(getClass().getResource("/css/styles.css").toExternalForm());
-                stage.setScene(scene);
-                stage.setTitle("Profile - Contest Rating Predictor");
+                ViewCache.getInstance().show(stage, ViewCache.PROFILE, "Profile - Contest Rating Predictor");
             }
         } catch (Exception e) {
             e.printStackTrace();
@@ -605,6 +884,12 @@ public class ContestStandingsController {
             if (generateContestButton != null) {
                 generateContestButton.setVisible(true);
             }
+            if (importResultsButton != null) {
+                importResultsButton.setVisible(true);
+            }
+            if (exportStandingsButton != null) {
+                exportStandingsButton.setVisible(true);
+            }
             if (instructionsBanner != null) {
                 instructionsBanner.setVisible(true);
             }
@@ -619,6 +904,12 @@ public class ContestStandingsController {
             if (generateContestButton != null) {
                 generateContestButton.setVisible(false);
             }
+            if (importResultsButton != null) {
+                importResultsButton.setVisible(false);
+            }
+            if (exportStandingsButton != null) {
+                exportStandingsButton.setVisible(false);
+            }
             if (instructionsBanner != null) {
                 instructionsBanner.setVisible(false);
             }
@@ -641,4 +932,19 @@ public class ContestStandingsController {
         alert.setContentText(message);
         alert.showAndWait();
     }
+    
+    /**
+     * Title, info line and rows for one contest's standings
+     */
+    private static class StandingsView {
+        private final String title;
+        private final String info;
+        private final PagedObservableList<Participant> participants;
+        
+        StandingsView(String title, String info, PagedObservableList<Participant> participants) {
+            this.title = title;
+            this.info = info;
+            this.participants = participants;
+        }
+    }
 }
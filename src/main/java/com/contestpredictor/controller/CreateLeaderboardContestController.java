@@ -2,6 +2,7 @@ package com.contestpredictor.controller;
 
 import com.contestpredictor.data.LeaderboardDatabase;
 import com.contestpredictor.model.LeaderboardContest;
+import com.contestpredictor.util.BackgroundTasks;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.stage.Stage;
@@ -74,15 +75,16 @@ public class CreateLeaderboardContestController {
             contestId, contestName, description, startDateTime, endDateTime, maxProblems, adminUsername
         );
 
-        if (leaderboardDB.createLeaderboardContest(contest)) {
-            showSuccess("Leaderboard contest created successfully!");
-            if (parentController != null) {
-                parentController.refreshContests();
-            }
-            closeWindow();
-        } else {
-            showError("Failed to create leaderboard contest");
-        }
+        BackgroundTasks.write("leaderboard_contests:" + contestId,
+            () -> leaderboardDB.createLeaderboardContest(contest),
+            () -> {
+                showSuccess("Leaderboard contest created successfully!");
+                if (parentController != null) {
+                    parentController.refreshContests();
+                }
+                closeWindow();
+            },
+            error -> showError("Failed to create leaderboard contest"));
     }
 
     @FXML
@@ -2,11 +2,12 @@ package com.contestpredictor.controller;
 
 import com.contestpredictor.data.AdminDatabase;
 import com.contestpredictor.data.UserDatabase;
-import com.contestpredictor.data.UserDatabase.AuthResult;
 import com.contestpredictor.data.UserDatabase.PasswordResetResult;
 import com.contestpredictor.model.Admin;
 import com.contestpredictor.model.User;
 import com.contestpredictor.util.FirebaseAuthService;
+import com.contestpredictor.util.IoExecutor;
+import com.contestpredictor.util.ViewCache;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -100,11 +101,10 @@ public class LoginController {
         // Try Firebase authentication (with fallback to local)
         boolean rememberMe = rememberMeCheckbox != null && rememberMeCheckbox.isSelected();
         
-        // Run authentication in background thread to not block UI
-        new Thread(() -> {
-            AuthResult result = userDB.authenticateWithFirebase(usernameOrEmail, password, rememberMe);
-            
-            Platform.runLater(() -> {
+        // Run authentication in the background to not block UI
+        IoExecutor.getInstance().submit(this, "login",
+            () -> userDB.authenticateWithFirebase(usernameOrEmail, password, rememberMe),
+            result -> {
                 if (loadingIndicator != null) {
                     loadingIndicator.setVisible(false);
                 }
@@ -114,36 +114,20 @@ public class LoginController {
                 } else {
                     showError(result.getMessage());
                 }
+            },
+            error -> {
+                if (loadingIndicator != null) {
+                    loadingIndicator.setVisible(false);
+                }
+                showError("Login failed: " + error.getMessage());
             });
-        }).start();
     }
     
     private void navigateToProfile() {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/Profile.fxml"));
-            Parent root = loader.load();
-            
+            IoExecutor.getInstance().cancelAll(this);
             Stage stage = (Stage) usernameField.getScene().getWindow();
-            
-            // Preserve window state
-            boolean wasFullScreen = stage.isFullScreen();
-            boolean wasMaximized = stage.isMaximized();
-            double currentWidth = stage.getWidth();
-            double currentHeight = stage.getHeight();
-            
-            Scene scene = new Scene(root, currentWidth, currentHeight);
-            scene.getStylesheets().add(getClass().getResource("/css/styles.css").toExternalForm());
-            
-            stage.setScene(scene);
-            stage.setTitle("Profile - Contest Rating Predictor");
-            
-            // Restore window state
-            if (wasMaximized) {
-                stage.setMaximized(true);
-            }
-            if (wasFullScreen) {
-                stage.setFullScreen(true);
-            }
+            ViewCache.getInstance().showProfileAfterLogin(stage);
         } catch (Exception e) {
             e.printStackTrace();
             showError("Error loading profile: " + e.getMessage());
@@ -158,6 +142,7 @@ public class LoginController {
             AdminDashboardController controller = loader.getController();
             controller.setAdmin(admin);
             
+            IoExecutor.getInstance().cancelAll(this);
             Stage stage = (Stage) usernameField.getScene().getWindow();
             
             // Preserve window state
@@ -191,6 +176,7 @@ public class LoginController {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/AdminLogin.fxml"));
             Parent root = loader.load();
             
+            IoExecutor.getInstance().cancelAll(this);
             Stage stage = (Stage) usernameField.getScene().getWindow();
             
             // Preserve window state
@@ -224,6 +210,7 @@ public class LoginController {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/Register.fxml"));
             Parent root = loader.load();
             
+            IoExecutor.getInstance().cancelAll(this);
             Stage stage = (Stage) usernameField.getScene().getWindow();
             
             // Preserve window state
@@ -412,7 +399,7 @@ public class LoginController {
             dialogLoading.setVisible(true);
             generateOtpButton.setDisable(true);
             
-            new Thread(() -> {
+            IoExecutor.getInstance().submit(dialogStage, "store-otp", () -> {
                 // Generate 6-digit OTP
                 SecureRandom random = new SecureRandom();
                 int otp = 100000 + random.nextInt(900000);
@@ -421,38 +408,41 @@ public class LoginController {
                 
                 // Store OTP in Firebase Realtime Database for admin verification
                 FirebaseAuthService firebaseAuth = FirebaseAuthService.getInstance();
-                boolean storedInFirebase = firebaseAuth.storeOtpInFirebase(email, generatedOtp[0]);
+                return firebaseAuth.storeOtpInFirebase(email, generatedOtp[0]);
+            }, storedInFirebase -> {
+                dialogLoading.setVisible(false);
                 
-                Platform.runLater(() -> {
-                    dialogLoading.setVisible(false);
-                    
-                    // Show OTP
-                    otpLabel.setText(generatedOtp[0]);
-                    
-                    // Update UI - show OTP and verification
-                    stepLabel.setText("Step 2: Note the OTP and enter it below");
-                    emailBox.setDisable(true);
-                    
-                    otpDisplayBox.setVisible(true);
-                    otpDisplayBox.setManaged(true);
-                    
-                    otpVerifyBox.setVisible(true);
-                    otpVerifyBox.setManaged(true);
-                    
-                    generateOtpButton.setVisible(false);
-                    generateOtpButton.setManaged(false);
-                    
-                    verifyOtpButton.setVisible(true);
-                    verifyOtpButton.setManaged(true);
-                    
-                    String msg = "OTP generated! Enter it below to continue.";
-                    if (storedInFirebase) {
-                        msg += "\n✓ OTP saved to Firebase (visible to admin)";
-                    }
-                    messageLabel.setText(msg);
-                    messageLabel.setStyle("-fx-font-size: 12px; -fx-text-fill: #4caf50;");
-                });
-            }).start();
+                // Show OTP
+                otpLabel.setText(generatedOtp[0]);
+                
+                // Update UI - show OTP and verification
+                stepLabel.setText("Step 2: Note the OTP and enter it below");
+                emailBox.setDisable(true);
+                
+                otpDisplayBox.setVisible(true);
+                otpDisplayBox.setManaged(true);
+                
+                otpVerifyBox.setVisible(true);
+                otpVerifyBox.setManaged(true);
+                
+                generateOtpButton.setVisible(false);
+                generateOtpButton.setManaged(false);
+                
+                verifyOtpButton.setVisible(true);
+                verifyOtpButton.setManaged(true);
+                
+                String msg = "OTP generated! Enter it below to continue.";
+                if (storedInFirebase) {
+                    msg += "\n✓ OTP saved to Firebase (visible to admin)";
+                }
+                messageLabel.setText(msg);
+                messageLabel.setStyle("-fx-font-size: 12px; -fx-text-fill: #4caf50;");
+            }, error -> {
+                dialogLoading.setVisible(false);
+                generateOtpButton.setDisable(false);
+                messageLabel.setText("Failed to generate OTP: " + error.getMessage());
+                messageLabel.setStyle("-fx-font-size: 12px; -fx-text-fill: #f44336;");
+            });
         });
         
         // Verify OTP button action
@@ -529,7 +519,7 @@ public class LoginController {
             final String oldPwd = oldPassword;
             
             // Sync SQLite user to Firebase and update password
-            new Thread(() -> {
+            IoExecutor.getInstance().submit(dialogStage, "reset-password", () -> {
                 // Use the new sync and update method
                 PasswordResetResult result = userDB.syncAndUpdatePassword(userEmail[0], newPassword, oldPwd);
                 
@@ -539,37 +529,44 @@ public class LoginController {
                     firebaseAuth.deleteOtpFromFirebase(userEmail[0]);
                 }
                 
-                Platform.runLater(() -> {
-                    dialogLoading.setVisible(false);
-                    
-                    if (result.isSuccess()) {
-                        String successMsg = "✓ Password updated successfully!";
-                        if (result.isFirebaseSynced()) {
-                            successMsg += "\n✓ Synced with Firebase!";
-                        } else {
-                            successMsg += "\n⚠ " + result.getMessage();
-                        }
-                        messageLabel.setText(successMsg);
-                        messageLabel.setStyle("-fx-font-size: 12px; -fx-text-fill: #4caf50;");
-                        
-                        resetPasswordButton.setVisible(false);
-                        resetPasswordButton.setManaged(false);
-                        
-                        // Change cancel button to close
-                        cancelButton.setText("Close");
-                        cancelButton.setStyle("-fx-font-size: 14px; -fx-background-color: #4caf50; " +
-                                "-fx-text-fill: white; -fx-padding: 10 25; -fx-cursor: hand;");
+                return result;
+            }, result -> {
+                dialogLoading.setVisible(false);
+                
+                if (result.isSuccess()) {
+                    String successMsg = "✓ Password updated successfully!";
+                    if (result.isFirebaseSynced()) {
+                        successMsg += "\n✓ Synced with Firebase!";
                     } else {
-                        messageLabel.setText("Failed: " + result.getMessage());
-                        messageLabel.setStyle("-fx-font-size: 12px; -fx-text-fill: #f44336;");
-                        resetPasswordButton.setDisable(false);
+                        successMsg += "\n⚠ " + result.getMessage();
                     }
-                });
-            }).start();
+                    messageLabel.setText(successMsg);
+                    messageLabel.setStyle("-fx-font-size: 12px; -fx-text-fill: #4caf50;");
+                    
+                    resetPasswordButton.setVisible(false);
+                    resetPasswordButton.setManaged(false);
+                    
+                    // Change cancel button to close
+                    cancelButton.setText("Close");
+                    cancelButton.setStyle("-fx-font-size: 14px; -fx-background-color: #4caf50; " +
+                            "-fx-text-fill: white; -fx-padding: 10 25; -fx-cursor: hand;");
+                } else {
+                    messageLabel.setText("Failed: " + result.getMessage());
+                    messageLabel.setStyle("-fx-font-size: 12px; -fx-text-fill: #f44336;");
+                    resetPasswordButton.setDisable(false);
+                }
+            }, error -> {
+                dialogLoading.setVisible(false);
+                resetPasswordButton.setDisable(false);
+                messageLabel.setText("Failed: " + error.getMessage());
+                messageLabel.setStyle("-fx-font-size: 12px; -fx-text-fill: #f44336;");
+            });
         });
         
         // Cancel button action
         cancelButton.setOnAction(e -> dialogStage.close());
+        // Drop calls still running when the dialog is closed
+        dialogStage.setOnHidden(e -> IoExecutor.getInstance().cancelAll(dialogStage));
         
         // Assemble dialog
         dialogRoot.getChildren().addAll(
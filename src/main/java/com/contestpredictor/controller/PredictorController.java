@@ -2,16 +2,15 @@ package com.contestpredictor.controller;
 
 import com.contestpredictor.data.UserDatabase;
 import com.contestpredictor.model.User;
+import javafx.application.Platform;
+import com.contestpredictor.util.ViewCache;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
 import javafx.stage.Stage;
 
-public class PredictorController {
+public class PredictorController implements ViewCache.Refreshable {
 
     @FXML private Button searchContestButton;
     @FXML private Label currentRatingLabel;
@@ -30,7 +29,18 @@ public class PredictorController {
     @FXML
     private void initialize() {
         System.out.println("=== PredictorController initialized ===");
-        
+        showCurrentUser();
+    }
+
+    /**
+     * Pick up rating changes made while the cached predictor was hidden
+     */
+    @Override
+    public void refresh() {
+        showCurrentUser();
+    }
+
+    private void showCurrentUser() {
         currentUser = UserDatabase.getInstance().getCurrentUser();
         if (currentUser != null) {
             System.out.println("Current user: " + currentUser.getUsername());
@@ -163,7 +173,12 @@ public class PredictorController {
             // Update user rating history and contests count
             currentUser.addRatingToHistory(calculatedNewRating);
             currentUser.setContestsParticipated(currentUser.getContestsParticipated() + 1);
-            UserDatabase.getInstance().setCurrentUser(currentUser);
+            UserDatabase.getInstance().setCurrentUserAsync(currentUser)
+                    .whenComplete((ignored, error) -> {
+                        if (error != null) {
+                            Platform.runLater(() -> showError("Failed to save rating: " + error.getMessage()));
+                        }
+                    });
             
             // Refresh displayed stats
             currentRatingLabel.setText(String.valueOf(currentUser.getCurrentRating()));
@@ -221,6 +236,8 @@ public class PredictorController {
     private void handleLogout() {
         System.out.println("=== PredictorController: Logout button clicked ===");
         UserDatabase.getInstance().logout();
+        // The cached screens show this user's data
+        ViewCache.getInstance().clear();
         navigateTo("/fxml/Login.fxml", "Login");
     }
 
@@ -228,47 +245,13 @@ public class PredictorController {
         try {
             System.out.println("PredictorController: Navigating to " + fxmlPath);
             
-            // Check if resource exists
-            java.net.URL resourceUrl = getClass().getResource(fxmlPath);
-            if (resourceUrl == null) {
-                System.err.println("ERROR: FXML file not found: " + fxmlPath);
-                return;
-            }
-            System.out.println("Found resource: " + resourceUrl);
-            
-            FXMLLoader loader = new FXMLLoader(resourceUrl);
-            Parent root = loader.load();
-            System.out.println("FXML loaded successfully");
-            
             Stage stage = (Stage) currentRatingLabel.getScene().getWindow();
-            
-            // Preserve window state
-            boolean wasFullScreen = stage.isFullScreen();
-            boolean wasMaximized = stage.isMaximized();
-            double currentWidth = stage.getWidth();
-            double currentHeight = stage.getHeight();
-            
-            Scene scene = new Scene(root, currentWidth, currentHeight);
-            scene.getStylesheets().add(getClass().getResource("/css/styles.css").toExternalForm());
-            
-            stage.setScene(scene);
-            stage.setTitle(title + " - Contest Rating Predictor");
+            Object controller = ViewCache.getInstance().show(stage, fxmlPath, title + " - Contest Rating Predictor");
             
             // If navigating to RatingPredictor, set admin status
-            if (fxmlPath.contains("RatingPredictor")) {
-                RatingPredictorController controller = loader.getController();
-                if (controller != null) {
-                    boolean isAdmin = currentUser != null && currentUser.getUsername().equals("admin");
-                    controller.setAdminStatus(isAdmin);
-                }
-            }
-            
-            // Restore window state
-            if (wasMaximized) {
-                stage.setMaximized(true);
-            }
-            if (wasFullScreen) {
-                stage.setFullScreen(true);
+            if (controller instanceof RatingPredictorController) {
+                boolean isAdmin = currentUser != null && currentUser.getUsername().equals("admin");
+                ((RatingPredictorController) controller).setAdminStatus(isAdmin);
             }
             
             System.out.println("Navigation completed successfully");
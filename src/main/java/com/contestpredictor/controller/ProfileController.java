@@ -1,16 +1,22 @@
 package com.contestpredictor.controller;
 
 import com.contestpredictor.data.UserDatabase;
+import com.contestpredictor.model.RatingSeries;
 import com.contestpredictor.model.User;
+import com.contestpredictor.util.ViewCache;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.stage.Stage;
 
-public class ProfileController {
+import java.util.Collections;
+
+public class ProfileController implements ViewCache.Refreshable {
+    // Long histories are drawn as one point per bucket so the chart stays responsive
+    private static final int MAX_CHART_POINTS = 200;
 
     @FXML
     private Button searchContestButton;
@@ -33,12 +39,29 @@ public class ProfileController {
     @FXML
     private Label maxRatingLabel;
 
+    @FXML
+    private LineChart<Number, Number> ratingChart;
+
+    @FXML
+    private NumberAxis contestAxis;
+
+    @FXML
+    private Label ratingRangeLabel;
+
     @FXML
     private void initialize() {
         System.out.println("=== ProfileController initialized ===");
         loadUserProfile();
     }
 
+    /**
+     * Show the current user's latest rating when coming back to the cached profile
+     */
+    @Override
+    public void refresh() {
+        loadUserProfile();
+    }
+
     private void loadUserProfile() {
         UserDatabase userDB = UserDatabase.getInstance();
         User currentUser = userDB.getCurrentUser();
@@ -56,12 +79,27 @@ public class ProfileController {
             
             contestsLabel.setText(String.valueOf(currentUser.getContestsParticipated()));
             
-            // Calculate max rating from history
-            int maxRating = currentUser.getRatingHistory().stream()
-                    .mapToInt(Integer::intValue)
-                    .max()
-                    .orElse(rating);
-            maxRatingLabel.setText(String.valueOf(maxRating));
+            RatingSeries history = currentUser.getRatingSeries();
+            maxRatingLabel.setText(String.valueOf(history.isEmpty() ? rating : history.getMax()));
+            loadRatingChart(history);
+        }
+    }
+
+    private void loadRatingChart(RatingSeries history) {
+        XYChart.Series<Number, Number> series = new XYChart.Series<>();
+        int size = history.size();
+        // Each point is the peak of its bucket, so highs are never smoothed away
+        int bucket = Math.max(1, (size + MAX_CHART_POINTS - 1) / MAX_CHART_POINTS);
+        for (int from = 0; from < size; from += bucket) {
+            int to = Math.min(size, from + bucket);
+            series.getData().add(new XYChart.Data<>(to, history.rangeMax(from, to)));
+        }
+        contestAxis.setLabel(bucket > 1 ? "Contest (peak of every " + bucket + ")" : "Contest");
+        ratingChart.getData().setAll(Collections.singletonList(series));
+
+        if (size > 0) {
+            ratingRangeLabel.setText("Lowest " + history.getMin() + " · Highest " + history.getMax()
+                    + " · " + size + " ratings");
         }
     }
 
@@ -117,6 +155,8 @@ public class ProfileController {
     @FXML
     private void handleLogout() {
         UserDatabase.getInstance().logout();
+        // The cached screens show this user's data
+        ViewCache.getInstance().clear();
         navigateTo("/fxml/Login.fxml", "Login");
     }
     
@@ -124,37 +164,13 @@ public class ProfileController {
     private void handleViewStandings() {
         System.out.println("=== ProfileController: View Standings button clicked ===");
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/ContestStandings.fxml"));
-            Parent root = loader.load();
-            
-            ContestStandingsController controller = loader.getController();
-            UserDatabase userDB = UserDatabase.getInstance();
-            User currentUser = userDB.getCurrentUser();
+            Stage stage = (Stage) fullNameLabel.getScene().getWindow();
+            ContestStandingsController controller = ViewCache.getInstance().show(stage,
+                    "/fxml/ContestStandings.fxml", "Contest Standings - Contest Rating Predictor");
+            User currentUser = UserDatabase.getInstance().getCurrentUser();
             if (currentUser != null) {
                 controller.setCurrentUser(currentUser.getUsername(), false);
             }
-            
-            Stage stage = (Stage) fullNameLabel.getScene().getWindow();
-            
-            // Preserve window state
-            boolean wasFullScreen = stage.isFullScreen();
-            boolean wasMaximized = stage.isMaximized();
-            double currentWidth = stage.getWidth();
-            double currentHeight = stage.getHeight();
-            
-            Scene scene = new Scene(root, currentWidth, currentHeight);
-            scene.getStylesheets().add(getClass().getResource("/css/styles.css").toExternalForm());
-            
-            stage.setScene(scene);
-            stage.setTitle("Contest Standings - Contest Rating Predictor");
-            
-            // Restore window state
-            if (wasMaximized) {
-                stage.setMaximized(true);
-            }
-            if (wasFullScreen) {
-                stage.setFullScreen(true);
-            }
         } catch (Exception e) {
             System.err.println("ERROR in handleViewStandings:");
             e.printStackTrace();
@@ -165,39 +181,8 @@ public class ProfileController {
         try {
             System.out.println("ProfileController: Navigating to " + fxmlPath);
             
-            // Check if resource exists
-            java.net.URL resourceUrl = getClass().getResource(fxmlPath);
-            if (resourceUrl == null) {
-                System.err.println("ERROR: FXML file not found: " + fxmlPath);
-                return;
-            }
-            System.out.println("Found resource: " + resourceUrl);
-            
-            FXMLLoader loader = new FXMLLoader(resourceUrl);
-            Parent root = loader.load();
-            System.out.println("FXML loaded successfully");
-            
             Stage stage = (Stage) fullNameLabel.getScene().getWindow();
-            
-            // Preserve window state
-            boolean wasFullScreen = stage.isFullScreen();
-            boolean wasMaximized = stage.isMaximized();
-            double currentWidth = stage.getWidth();
-            double currentHeight = stage.getHeight();
-            
-            Scene scene = new Scene(root, currentWidth, currentHeight);
-            scene.getStylesheets().add(getClass().getResource("/css/styles.css").toExternalForm());
-            
-            stage.setScene(scene);
-            stage.setTitle(title + " - Contest Rating Predictor");
-            
-            // Restore window state
-            if (wasMaximized) {
-                stage.setMaximized(true);
-            }
-            if (wasFullScreen) {
-                stage.setFullScreen(true);
-            }
+            ViewCache.getInstance().show(stage, fxmlPath, title + " - Contest Rating Predictor");
             
             System.out.println("Navigation completed successfully");
         } catch (Exception e) {
@@ -212,36 +197,9 @@ public class ProfileController {
     @FXML
     private void handleViewLeaderboard() {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/UserLeaderboard.fxml"));
-            Parent root = loader.load();
-            
-            UserLeaderboardController controller = loader.getController();
-            User currentUser = UserDatabase.getInstance().getCurrentUser();
-            if (currentUser != null) {
-                controller.setCurrentUsername(currentUser.getUsername());
-            }
-            
+            // The leaderboard loads the current user's contests itself
             Stage stage = (Stage) fullNameLabel.getScene().getWindow();
-            
-            // Preserve window state
-            boolean wasFullScreen = stage.isFullScreen();
-            boolean wasMaximized = stage.isMaximized();
-            double currentWidth = stage.getWidth();
-            double currentHeight = stage.getHeight();
-            
-            Scene scene = new Scene(root, currentWidth, currentHeight);
-            scene.getStylesheets().add(getClass().getResource("/css/styles.css").toExternalForm());
-            
-            stage.setScene(scene);
-            stage.setTitle("KUET Team Formation Contest Leaderboard");
-            
-            // Restore window state
-            if (wasMaximized) {
-                stage.setMaximized(true);
-            }
-            if (wasFullScreen) {
-                stage.setFullScreen(true);
-            }
+            ViewCache.getInstance().show(stage, ViewCache.USER_LEADERBOARD, "KUET Team Formation Contest Leaderboard");
         } catch (Exception e) {
             System.err.println("ERROR in handleViewLeaderboard:");
             e.printStackTrace();
@@ -252,7 +210,12 @@ public class ProfileController {
      * Set user for profile display
      */
     public void setUser(User user) {
-        UserDatabase.getInstance().setCurrentUser(user);
+        UserDatabase.getInstance().setCurrentUserAsync(user)
+                .whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        System.err.println("Failed to save user: " + error.getMessage());
+                    }
+                });
         loadUserProfile();
     }
 }
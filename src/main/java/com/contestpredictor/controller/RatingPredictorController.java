@@ -2,13 +2,16 @@ package com.contestpredictor.controller;
 
 import com.contestpredictor.model.Contestant;
 import com.contestpredictor.util.ContestantRatingPredictor;
-import javafx.application.Platform;
+import com.contestpredictor.util.IoExecutor;
+import com.contestpredictor.util.ViewCache;
+import javafx.beans.Observable;
+import javafx.beans.binding.Bindings;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.SimpleIntegerProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.collections.transformation.SortedList;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.control.cell.TextFieldTableCell;
@@ -16,6 +19,10 @@ import javafx.stage.Stage;
 import javafx.util.converter.IntegerStringConverter;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
 
 public class RatingPredictorController {
     
@@ -26,26 +33,34 @@ public class RatingPredictorController {
     @FXML private Button backButton;
     @FXML private Label statusLabel;
     
-    @FXML private TableView<Contestant> contestantsTable;
-    @FXML private TableColumn<Contestant, String> handleColumn;
-    @FXML private TableColumn<Contestant, Integer> oldRatingColumn;
-    @FXML private TableColumn<Contestant, Integer> rankColumn;
-    @FXML private TableColumn<Contestant, Integer> problemsSolvedColumn;
-    @FXML private TableColumn<Contestant, Integer> penaltyColumn;
-    @FXML private TableColumn<Contestant, Integer> deltaColumn;
-    @FXML private TableColumn<Contestant, Integer> newRatingColumn;
+    @FXML private TableView<ContestantRow> contestantsTable;
+    @FXML private TableColumn<ContestantRow, String> handleColumn;
+    @FXML private TableColumn<ContestantRow, Integer> oldRatingColumn;
+    @FXML private TableColumn<ContestantRow, Integer> rankColumn;
+    @FXML private TableColumn<ContestantRow, Integer> problemsSolvedColumn;
+    @FXML private TableColumn<ContestantRow, Integer> penaltyColumn;
+    @FXML private TableColumn<ContestantRow, Integer> deltaColumn;
+    @FXML private TableColumn<ContestantRow, Integer> newRatingColumn;
     
     @FXML private Label totalContestantsLabel;
     @FXML private Label avgDeltaLabel;
     @FXML private Label maxGainLabel;
     @FXML private Label maxLossLabel;
     
-    private ObservableList<Contestant> contestants;
+    private static final Comparator<ContestantRow> BY_RANK = Comparator.comparingInt(row -> row.rankProperty().get());
+    
+    private final List<Contestant> contestants = new ArrayList<>();
+    private ObservableList<ContestantRow> rows;
     private boolean isAdmin = false; // Flag to track if current user is admin
     
     @FXML
     public void initialize() {
-        contestants = FXCollections.observableArrayList();
+        // Changes to the recalculated values are reported as updates of the row, so the
+        // sorted view below moves just the rows whose rank changed
+        rows = FXCollections.observableArrayList(row -> new Observable[] {
+            row.rankProperty(), row.problemsSolvedProperty(), row.penaltyProperty(),
+            row.deltaProperty(), row.newRatingProperty()
+        });
         
         // Configure table columns
         handleColumn.setCellValueFactory(new PropertyValueFactory<>("handle"));
@@ -64,7 +79,7 @@ public class RatingPredictorController {
                 event.consume();
                 return;
             }
-            Contestant contestant = event.getRowValue();
+            Contestant contestant = event.getRowValue().getContestant();
             contestant.setProblemsSolved(event.getNewValue());
             recalculateRankingsAndRatings();
             updateStatus("Problems solved updated for " + contestant.getHandle() + " - Rankings recalculated");
@@ -78,7 +93,7 @@ public class RatingPredictorController {
                 event.consume();
                 return;
             }
-            Contestant contestant = event.getRowValue();
+            Contestant contestant = event.getRowValue().getContestant();
             contestant.setPenalty(event.getNewValue());
             recalculateRankingsAndRatings();
             updateStatus("Penalty updated for " + contestant.getHandle() + " - Rankings recalculated");
@@ -88,7 +103,7 @@ public class RatingPredictorController {
         rankColumn.setEditable(false);
         
         // Color code delta column
-        deltaColumn.setCellFactory(column -> new TableCell<Contestant, Integer>() {
+        deltaColumn.setCellFactory(column -> new TableCell<ContestantRow, Integer>() {
             @Override
             protected void updateItem(Integer item, boolean empty) {
                 super.updateItem(item, empty);
@@ -108,7 +123,13 @@ public class RatingPredictorController {
             }
         });
         
-        contestantsTable.setItems(contestants);
+        // Rank order unless the user sorts by a column
+        SortedList<ContestantRow> sortedRows = new SortedList<>(rows);
+        sortedRows.comparatorProperty().bind(Bindings.createObjectBinding(
+            () -> contestantsTable.getComparator() != null ? contestantsTable.getComparator() : BY_RANK,
+            contestantsTable.comparatorProperty()));
+        contestantsTable.setItems(sortedRows);
+        contestantsTable.setSortPolicy(table -> true);
         contestantsTable.setEditable(false); // Start as read-only, will be enabled for admins
         
         // Set default limit
@@ -145,33 +166,29 @@ public class RatingPredictorController {
             updateStatus("Fetching contestants from Codeforces API...");
             fetchButton.setDisable(true);
             
-            // Run API call in background thread
-            new Thread(() -> {
-                try {
-                    var fetchedContestants = ContestantRatingPredictor.fetchContestants(limit);
-                    
-                    // Initialize with random contest data for demonstration
-                    for (Contestant c : fetchedContestants) {
-                        c.setProblemsSolved((int)(Math.random() * 8) + 1); // 1-8 problems
-                        c.setPenalty((int)(Math.random() * 300) + 10); // 10-310 minutes penalty
-                    }
-                    
-                    Platform.runLater(() -> {
-                        contestants.clear();
-                        contestants.addAll(fetchedContestants);
-                        recalculateRankingsAndRatings();
-                        updateStatus("Successfully fetched " + fetchedContestants.size() + " contestants with random contest data");
-                        updateStatistics();
-                        fetchButton.setDisable(false);
-                    });
-                } catch (Exception e) {
-                    Platform.runLater(() -> {
-                        showAlert("Fetch Error", "Failed to fetch contestants: " + e.getMessage());
-                        updateStatus("Error: " + e.getMessage());
-                        fetchButton.setDisable(false);
-                    });
+            // Run API call in the background
+            IoExecutor.getInstance().submit(this, "fetch-contestants", () -> {
+                var fetchedContestants = ContestantRatingPredictor.fetchContestants(limit);
+                
+                // Initialize with random contest data for demonstration
+                for (Contestant c : fetchedContestants) {
+                    c.setProblemsSolved((int)(Math.random() * 8) + 1); // 1-8 problems
+                    c.setPenalty((int)(Math.random() * 300) + 10); // 10-310 minutes penalty
                 }
-            }).start();
+                return fetchedContestants;
+            }, fetchedContestants -> {
+                contestants.clear();
+                contestants.addAll(fetchedContestants);
+                rows.setAll(fetchedContestants.stream().map(ContestantRow::new).collect(Collectors.toList()));
+                recalculateRankingsAndRatings();
+                updateStatus("Successfully fetched " + fetchedContestants.size() + " contestants with random contest data");
+                updateStatistics();
+                fetchButton.setDisable(false);
+            }, e -> {
+                showAlert("Fetch Error", "Failed to fetch contestants: " + e.getMessage());
+                updateStatus("Error: " + e.getMessage());
+                fetchButton.setDisable(false);
+            });
             
         } catch (NumberFormatException e) {
             showAlert("Invalid Input", "Please enter a valid number");
@@ -191,7 +208,9 @@ public class RatingPredictorController {
     }
     
     /**
-     * Dynamically recalculates ranks and ratings when data changes
+     * Dynamically recalculates ranks and ratings when data changes.
+     * The new values are copied into the existing rows; only the cells whose value
+     * changed redraw and only the rows whose rank changed move.
      */
     private void recalculateRankingsAndRatings() {
         if (contestants.isEmpty()) return;
@@ -203,14 +222,14 @@ public class RatingPredictorController {
         ContestantRatingPredictor.computeRatingChanges(contestants);
         ContestantRatingPredictor.updateRatings(contestants);
         
-        // Refresh table display
-        contestantsTable.refresh();
+        rows.forEach(ContestantRow::refresh);
         updateStatistics();
     }
     
     @FXML
     private void handleClear() {
         contestants.clear();
+        rows.clear();
         updateStatistics();
         updateStatus("All data cleared");
     }
@@ -219,25 +238,9 @@ public class RatingPredictorController {
     private void handleBack() {
         try {
             // Navigate back to main menu or previous page
+            IoExecutor.getInstance().cancelAll(this);
             Stage stage = (Stage) backButton.getScene().getWindow();
-            
-            // Preserve window state
-            boolean wasFullScreen = stage.isFullScreen();
-            boolean wasMaximized = stage.isMaximized();
-            double currentWidth = stage.getWidth();
-            double currentHeight = stage.getHeight();
-            
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/Predictor.fxml"));
-            Parent root = loader.load();
-            stage.setScene(new Scene(root, currentWidth, currentHeight));
-            
-            // Restore window state
-            if (wasMaximized) {
-                stage.setMaximized(true);
-            }
-            if (wasFullScreen) {
-                stage.setFullScreen(true);
-            }
+            ViewCache.getInstance().show(stage, ViewCache.PREDICTOR, "Rating Predictor - Contest Rating Predictor");
         } catch (IOException e) {
             showAlert("Navigation Error", "Failed to return to previous page: " + e.getMessage());
         }
@@ -284,4 +287,45 @@ public class RatingPredictorController {
         alert.setContentText(content);
         alert.showAndWait();
     }
+    
+    /**
+     * Table row for a contestant. The values recalculated on every edit are copied into
+     * properties, so a cell redraws only when its own value changes.
+     */
+    public static class ContestantRow {
+        private final Contestant contestant;
+        private final IntegerProperty rank = new SimpleIntegerProperty(this, "rank");
+        private final IntegerProperty problemsSolved = new SimpleIntegerProperty(this, "problemsSolved");
+        private final IntegerProperty penalty = new SimpleIntegerProperty(this, "penalty");
+        private final IntegerProperty delta = new SimpleIntegerProperty(this, "delta");
+        private final IntegerProperty newRating = new SimpleIntegerProperty(this, "newRating");
+        
+        ContestantRow(Contestant contestant) {
+            this.contestant = contestant;
+            refresh();
+        }
+        
+        Contestant getContestant() {
+            return contestant;
+        }
+        
+        /**
+         * Take the contestant's current values; only the ones that differ notify listeners
+         */
+        void refresh() {
+            rank.set(contestant.getRank());
+            problemsSolved.set(contestant.getProblemsSolved());
+            penalty.set(contestant.getPenalty());
+            delta.set(contestant.getDelta());
+            newRating.set(contestant.getNewRating());
+        }
+        
+        public String getHandle() { return contestant.getHandle(); }
+        public int getOldRating() { return contestant.getOldRating(); }
+        public IntegerProperty rankProperty() { return rank; }
+        public IntegerProperty problemsSolvedProperty() { return problemsSolved; }
+        public IntegerProperty penaltyProperty() { return penalty; }
+        public IntegerProperty deltaProperty() { return delta; }
+        public IntegerProperty newRatingProperty() { return newRating; }
+    }
 }
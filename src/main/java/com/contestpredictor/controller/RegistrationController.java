@@ -2,8 +2,9 @@ package com.contestpredictor.controller;
 
 import com.contestpredictor.data.AdminDatabase;
 import com.contestpredictor.data.UserDatabase;
-import com.contestpredictor.data.UserDatabase.AuthResult;
-import javafx.application.Platform;
+import com.contestpredictor.util.IoExecutor;
+import com.contestpredictor.util.ViewCache;
+import javafx.animation.PauseTransition;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -16,6 +17,7 @@ import javafx.scene.control.RadioButton;
 import javafx.scene.control.TextField;
 import javafx.scene.control.ToggleGroup;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 
 public class RegistrationController {
 
@@ -121,11 +123,10 @@ public class RegistrationController {
             // User registration with Firebase
             boolean rememberMe = rememberMeCheckbox != null && rememberMeCheckbox.isSelected();
             
-            // Run in background thread
-            new Thread(() -> {
-                AuthResult result = userDB.registerWithFirebase(email, password, fullName, rememberMe);
-                
-                Platform.runLater(() -> {
+            // Run in the background
+            IoExecutor.getInstance().submit(this, "register",
+                () -> userDB.registerWithFirebase(email, password, fullName, rememberMe),
+                result -> {
                     if (loadingIndicator != null) {
                         loadingIndicator.setVisible(false);
                     }
@@ -137,8 +138,13 @@ public class RegistrationController {
                     } else {
                         showError(result.getMessage());
                     }
+                },
+                error -> {
+                    if (loadingIndicator != null) {
+                        loadingIndicator.setVisible(false);
+                    }
+                    showError("Registration failed: " + error.getMessage());
                 });
-            }).start();
         }
     }
     
@@ -150,53 +156,22 @@ public class RegistrationController {
     }
     
     private void navigateToLoginAfterDelay() {
-        new Thread(() -> {
-            try {
-                Thread.sleep(1500);
-                Platform.runLater(() -> handleBackToLogin());
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-        }).start();
+        PauseTransition delay = new PauseTransition(Duration.millis(1500));
+        delay.setOnFinished(event -> handleBackToLogin());
+        delay.play();
     }
     
     private void navigateToProfileAfterDelay() {
-        new Thread(() -> {
-            try {
-                Thread.sleep(1000);
-                Platform.runLater(() -> navigateToProfile());
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-        }).start();
+        PauseTransition delay = new PauseTransition(Duration.millis(1000));
+        delay.setOnFinished(event -> navigateToProfile());
+        delay.play();
     }
     
     private void navigateToProfile() {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/Profile.fxml"));
-            Parent root = loader.load();
-            
+            IoExecutor.getInstance().cancelAll(this);
             Stage stage = (Stage) usernameField.getScene().getWindow();
-            
-            // Preserve window state
-            boolean wasFullScreen = stage.isFullScreen();
-            boolean wasMaximized = stage.isMaximized();
-            double currentWidth = stage.getWidth();
-            double currentHeight = stage.getHeight();
-            
-            Scene scene = new Scene(root, currentWidth, currentHeight);
-            scene.getStylesheets().add(getClass().getResource("/css/styles.css").toExternalForm());
-            
-            stage.setScene(scene);
-            stage.setTitle("Profile - Contest Rating Predictor");
-            
-            // Restore window state
-            if (wasMaximized) {
-                stage.setMaximized(true);
-            }
-            if (wasFullScreen) {
-                stage.setFullScreen(true);
-            }
+            ViewCache.getInstance().showProfileAfterLogin(stage);
         } catch (Exception e) {
             e.printStackTrace();
             showError("Error loading profile: " + e.getMessage());
@@ -209,6 +184,7 @@ public class RegistrationController {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/Login.fxml"));
             Parent root = loader.load();
             
+            IoExecutor.getInstance().cancelAll(this);
             Stage stage = (Stage) usernameField.getScene().getWindow();
             
             // Preserve window state
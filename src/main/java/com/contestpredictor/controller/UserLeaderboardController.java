@@ -1,21 +1,37 @@
 package com.contestpredictor.controller;
 
 import com.contestpredictor.data.LeaderboardDatabase;
+import com.contestpredictor.data.StandingsPage;
+import com.contestpredictor.data.UserDatabase;
 import com.contestpredictor.model.LeaderboardContest;
 import com.contestpredictor.model.CombinedLeaderboardEntry;
 import com.contestpredictor.model.LeaderboardEntry;
+import com.contestpredictor.model.User;
+import com.contestpredictor.util.BackgroundTasks;
+import com.contestpredictor.util.PagedObservableList;
+import com.contestpredictor.util.PagedObservableList.PageSource;
+import com.contestpredictor.util.SearchPipeline;
+import com.contestpredictor.util.ViewCache;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
+import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
-public class UserLeaderboardController {
+public class UserLeaderboardController implements ViewCache.Refreshable {
+    private static final int SEARCH_LIMIT = 200;
+    private static final long SEARCH_DELAY_MS = 150;
+    private static final int CACHED_SEARCHES = 16;
+    
+    @FXML
+    private TextField contestSearchField;
     
     @FXML
     private ListView<LeaderboardContest> availableContestsListView;
@@ -71,6 +87,12 @@ public class UserLeaderboardController {
     private LeaderboardDatabase leaderboardDB;
     private String currentUsername;
     private LeaderboardContest selectedContest;
+    private SearchPipeline<String, List<LeaderboardContest>> contestSearches;
+    private Task<PagedObservableList<LeaderboardEntry>> standingsTask;
+    private String standingsContestId;
+    // Order picked by clicking a standings column header; null means rank order
+    private String standingsSortColumn = null;
+    private boolean standingsSortDescending = false;
 
     @FXML
     public void initialize() {
@@ -79,8 +101,14 @@ public class UserLeaderboardController {
         setupListViewCellFactories();
         setupComboBox();
         
+        // Narrow the available contests through the full-text index as the user types
+        contestSearches = new SearchPipeline<>(SEARCH_DELAY_MS, CACHED_SEARCHES, this::searchContests,
+            contests -> availableContestsListView.setItems(FXCollections.observableArrayList(contests)));
+        contestSearchField.textProperty().addListener((obs, oldText, newText) -> contestSearches.submit(newText.trim()));
+        
         // Note: loadAvailableContests, loadRegisteredContests, loadCombinedLeaderboard
-        // are called in setCurrentUsername() after username is set
+        // are called in setCurrentUsername(); start with the logged-in user
+        refresh();
         
         // Set up contest selection for available contests
         availableContestsListView.setOnMouseClicked(event -> {
@@ -164,45 +192,70 @@ public class UserLeaderboardController {
     }
 
     private void setupTableColumns() {
-        // Contest standings columns
-        rankColumn.setCellValueFactory(cellData -> 
-            new javafx.beans.property.SimpleObjectProperty<>(cellData.getValue().getRank()));
-        usernameColumn.setCellValueFactory(cellData -> 
-            new javafx.beans.property.SimpleObjectProperty<>(cellData.getValue().getUsername()));
-        solveCountColumn.setCellValueFactory(cellData -> 
-            new javafx.beans.property.SimpleObjectProperty<>(cellData.getValue().getSolveCount()));
-        penaltyColumn.setCellValueFactory(cellData -> 
-            new javafx.beans.property.SimpleObjectProperty<>(cellData.getValue().getTotalPenalty()));
+        // Contest standings columns (rows still being paged in are null, which PropertyValueFactory allows)
+        rankColumn.setCellValueFactory(new PropertyValueFactory<>("rank"));
+        usernameColumn.setCellValueFactory(new PropertyValueFactory<>("username"));
+        solveCountColumn.setCellValueFactory(new PropertyValueFactory<>("solveCount"));
+        penaltyColumn.setCellValueFactory(new PropertyValueFactory<>("totalPenalty"));
+        
+        Map<TableColumn<LeaderboardEntry, ?>, String> standingsSortColumns = new HashMap<>();
+        standingsSortColumns.put(rankColumn, "rank");
+        standingsSortColumns.put(usernameColumn, "username");
+        PagedObservableList.sortThrough(contestStandingsTable, standingsSortColumns, (column, descending) -> {
+            standingsSortColumn = column;
+            standingsSortDescending = descending;
+            if (standingsContestId != null) {
+                loadContestStandings(standingsContestId);
+            }
+        });
         
         // Combined leaderboard columns
-        overallRankColumn.setCellValueFactory(cellData -> 
-            new javafx.beans.property.SimpleObjectProperty<>(cellData.getValue().getOverallRank()));
-        userColumn.setCellValueFactory(cellData -> 
-            new javafx.beans.property.SimpleObjectProperty<>(cellData.getValue().getUsername()));
-        totalSolvesColumn.setCellValueFactory(cellData -> 
-            new javafx.beans.property.SimpleObjectProperty<>(cellData.getValue().getTotalSolves()));
-        totalPenaltyColumn.setCellValueFactory(cellData -> 
-            new javafx.beans.property.SimpleObjectProperty<>(cellData.getValue().getTotalPenalty()));
-        contestsParticipatedColumn.setCellValueFactory(cellData -> 
-            new javafx.beans.property.SimpleObjectProperty<>(cellData.getValue().getContestsParticipated()));
+        overallRankColumn.setCellValueFactory(new PropertyValueFactory<>("overallRank"));
+        userColumn.setCellValueFactory(new PropertyValueFactory<>("username"));
+        totalSolvesColumn.setCellValueFactory(new PropertyValueFactory<>("totalSolves"));
+        totalPenaltyColumn.setCellValueFactory(new PropertyValueFactory<>("totalPenalty"));
+        contestsParticipatedColumn.setCellValueFactory(new PropertyValueFactory<>("contestsParticipated"));
+        
+        Map<TableColumn<CombinedLeaderboardEntry, ?>, String> combinedSortColumns = new HashMap<>();
+        combinedSortColumns.put(overallRankColumn, "overall_rank");
+        combinedSortColumns.put(userColumn, "username");
+        combinedSortColumns.put(totalSolvesColumn, "total_solves");
+        combinedSortColumns.put(contestsParticipatedColumn, "contests_participated");
+        PagedObservableList.sortThrough(combinedLeaderboardTable, combinedSortColumns, (column, descending) ->
+            PagedObservableList.open(CombinedLeaderboardController.combinedSource(column, descending),
+                combinedLeaderboardTable::setItems));
     }
 
     private void loadAvailableContests() {
-        List<LeaderboardContest> contests = leaderboardDB.getAllLeaderboardContests();
-        ObservableList<LeaderboardContest> observableContests = FXCollections.observableArrayList(contests);
-        availableContestsListView.setItems(observableContests);
+        // Contests may have been created or edited since the cached searches ran
+        contestSearches.clearCache();
+        contestSearches.submitNow(contestSearchField.getText().trim());
+    }
+
+    /**
+     * All contests for an empty query, otherwise the best matches (background thread)
+     */
+    private List<LeaderboardContest> searchContests(String query) {
+        return query.isEmpty()
+            ? leaderboardDB.getAllLeaderboardContests()
+            : leaderboardDB.searchLeaderboardContests(query, null, SEARCH_LIMIT);
     }
 
     private void loadRegisteredContests() {
-        List<LeaderboardContest> allContests = leaderboardDB.getAllLeaderboardContests();
-        ObservableList<LeaderboardContest> registeredContests = FXCollections.observableArrayList();
-        
-        for (LeaderboardContest contest : allContests) {
-            if (leaderboardDB.isUserRegisteredForContest(contest.getContestId(), currentUsername)) {
-                registeredContests.add(contest);
+        String username = currentUsername;
+        BackgroundTasks.load(() -> {
+            List<LeaderboardContest> registered = new ArrayList<>();
+            for (LeaderboardContest contest : leaderboardDB.getAllLeaderboardContests()) {
+                if (leaderboardDB.isUserRegisteredForContest(contest.getContestId(), username)) {
+                    registered.add(contest);
+                }
             }
-        }
-        
+            return registered;
+        }, this::showRegisteredContests);
+    }
+
+    private void showRegisteredContests(List<LeaderboardContest> registered) {
+        ObservableList<LeaderboardContest> registeredContests = FXCollections.observableArrayList(registered);
         registeredContestsListView.setItems(registeredContests);
         contestStandingsComboBox.setItems(registeredContests);
         myRegistrationsLabel.setText("My Registrations (" + registeredContests.size() + ")");
@@ -215,19 +268,25 @@ public class UserLeaderboardController {
     }
 
     private void loadCombinedLeaderboard() {
-        // Refresh the combined leaderboard calculation before loading
-        leaderboardDB.refreshCombinedLeaderboard();
-        
-        List<CombinedLeaderboardEntry> leaderboard = leaderboardDB.getCombinedLeaderboard();
-        ObservableList<CombinedLeaderboardEntry> observableLeaderboard = FXCollections.observableArrayList(leaderboard);
-        combinedLeaderboardTable.setItems(observableLeaderboard);
+        combinedLeaderboardTable.getSortOrder().clear();
+        BackgroundTasks.load(() -> {
+            // Refresh the combined leaderboard calculation before loading
+            leaderboardDB.refreshCombinedLeaderboard();
+            return PagedObservableList.load(CombinedLeaderboardController.combinedSource(null, false));
+        }, combinedLeaderboardTable::setItems);
     }
 
     private void updateRegisterButtonState() {
         if (selectedContest != null) {
-            boolean isRegistered = leaderboardDB.isUserRegisteredForContest(selectedContest.getContestId(), currentUsername);
-            registerButton.setDisable(isRegistered);
-            unregisterButton.setDisable(!isRegistered);
+            LeaderboardContest contest = selectedContest;
+            String username = currentUsername;
+            BackgroundTasks.load(() -> leaderboardDB.isUserRegisteredForContest(contest.getContestId(), username),
+                isRegistered -> {
+                    if (contest == selectedContest) {
+                        registerButton.setDisable(isRegistered);
+                        unregisterButton.setDisable(!isRegistered);
+                    }
+                });
         }
     }
 
@@ -238,13 +297,16 @@ public class UserLeaderboardController {
             return;
         }
 
-        if (leaderboardDB.registerUserForLeaderboardContest(selectedContest.getContestId(), currentUsername)) {
-            showSuccess("Successfully registered for " + selectedContest.getContestName());
-            loadRegisteredContests();
-            updateRegisterButtonState();
-        } else {
-            showError("Failed to register for contest");
-        }
+        LeaderboardContest contest = selectedContest;
+        String username = currentUsername;
+        BackgroundTasks.write(registrationKey(contest, username),
+            () -> leaderboardDB.registerUserForLeaderboardContest(contest.getContestId(), username),
+            () -> {
+                showSuccess("Successfully registered for " + contest.getContestName());
+                loadRegisteredContests();
+                updateRegisterButtonState();
+            },
+            error -> showError("Failed to register for contest"));
     }
 
     @FXML
@@ -254,13 +316,23 @@ public class UserLeaderboardController {
             return;
         }
 
-        if (leaderboardDB.unregisterUserFromLeaderboardContest(selectedContest.getContestId(), currentUsername)) {
-            showSuccess("Successfully unregistered from " + selectedContest.getContestName());
-            loadRegisteredContests();
-            updateRegisterButtonState();
-        } else {
-            showError("Failed to unregister from contest");
-        }
+        LeaderboardContest contest = selectedContest;
+        String username = currentUsername;
+        BackgroundTasks.write(registrationKey(contest, username),
+            () -> leaderboardDB.unregisterUserFromLeaderboardContest(contest.getContestId(), username),
+            () -> {
+                showSuccess("Successfully unregistered from " + contest.getContestName());
+                loadRegisteredContests();
+                updateRegisterButtonState();
+            },
+            error -> showError("Failed to unregister from contest"));
+    }
+
+    /**
+     * Coalescing key of a user's registration, so a register and unregister queued together keep only the last
+     */
+    private static String registrationKey(LeaderboardContest contest, String username) {
+        return "leaderboard_registrations:" + contest.getContestId() + ":" + username;
     }
 
     @FXML
@@ -285,33 +357,44 @@ public class UserLeaderboardController {
     }
 
     private void loadContestStandings(String contestId) {
-        List<LeaderboardEntry> standings = leaderboardDB.getContestStandings(contestId);
-        ObservableList<LeaderboardEntry> observableStandings = FXCollections.observableArrayList(standings);
-        contestStandingsTable.setItems(observableStandings);
+        // Only the most recently requested contest is shown
+        if (standingsTask != null) {
+            standingsTask.cancel();
+        }
+        standingsContestId = contestId;
+        standingsTask = PagedObservableList.open(standingsSource(contestId, standingsSortColumn, standingsSortDescending),
+            contestStandingsTable::setItems);
+    }
+
+    /**
+     * A contest's standings, walked with keyset cursors in rank order
+     */
+    private PageSource<LeaderboardEntry> standingsSource(String contestId, String column, boolean descending) {
+        if (column != null) {
+            return new PageSource<>() {
+                @Override public int count() { return leaderboardDB.countStandings(contestId, null); }
+                @Override public List<LeaderboardEntry> fetch(int offset, int limit) {
+                    return leaderboardDB.getStandingsSlice(contestId, column, descending, null, offset, limit);
+                }
+            };
+        }
+        return new PagedObservableList.KeysetSource<>() {
+            @Override public int count() { return leaderboardDB.countStandings(contestId, null); }
+            @Override protected StandingsPage<LeaderboardEntry> page(StandingsPage.Cursor after, int limit) {
+                return leaderboardDB.getStandingsPage(contestId, after, limit);
+            }
+            @Override protected List<LeaderboardEntry> slice(int offset, int limit) {
+                return leaderboardDB.getStandingsSlice(contestId, "rank", false, null, offset, limit);
+            }
+        };
     }
 
     @FXML
     private void handleBack() {
+        contestSearches.cancel();
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/Profile.fxml"));
-            if (loader.getLocation() == null) {
-                showError("Cannot find Profile.fxml file");
-                return;
-            }
-            
-            Parent root = loader.load();
-            
-            ProfileController controller = loader.getController();
-            controller.setUser(new com.contestpredictor.model.User(currentUsername, "", 0, 0, currentUsername));
-            
             Stage stage = (Stage) backButton.getScene().getWindow();
-            Scene scene = new Scene(root, stage.getWidth(), stage.getHeight());
-            
-            String stylesheet = getClass().getResource("/css/styles.css").toExternalForm();
-            scene.getStylesheets().add(stylesheet);
-            
-            stage.setTitle("Profile");
-            stage.setScene(scene);
+            ViewCache.getInstance().show(stage, ViewCache.PROFILE, "Profile");
         } catch (Exception e) {
             System.err.println("Error navigating back: " + e.getMessage());
             e.printStackTrace();
@@ -319,6 +402,17 @@ public class UserLeaderboardController {
         }
     }
 
+    /**
+     * Reload the logged-in user's contests and the leaderboards
+     */
+    @Override
+    public void refresh() {
+        User currentUser = UserDatabase.getInstance().getCurrentUser();
+        if (currentUser != null) {
+            setCurrentUsername(currentUser.getUsername());
+        }
+    }
+
     public void setCurrentUsername(String username) {
         this.currentUsername = username;
         loadRegisteredContests();
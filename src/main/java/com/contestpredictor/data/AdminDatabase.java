@@ -11,14 +11,8 @@ import java.time.format.DateTimeFormatter;
  */
 public class AdminDatabase {
     private static AdminDatabase instance;
-    private Connection connection;
     
     private AdminDatabase() {
-        try {
-            connection = DriverManager.getConnection("jdbc:sqlite:contest_predictor.db");
-        } catch (SQLException e) {
-            System.err.println("Failed to connect to database: " + e.getMessage());
-        }
     }
     
     public static AdminDatabase getInstance() {
@@ -28,6 +22,13 @@ public class AdminDatabase {
         return instance;
     }
     
+    /**
+     * The application connection; inside a write this is the single writer's connection
+     */
+    private Connection connection() {
+        return DatabaseManager.getInstance().getConnection();
+    }
+    
     /**
      * Authenticate admin user
      * @param username Admin username
@@ -37,7 +38,7 @@ public class AdminDatabase {
     public Admin authenticate(String username, String password) {
         String sql = "SELECT * FROM admins WHERE username = ? AND password = ? AND is_active = 1";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (PreparedStatement pstmt = connection().prepareStatement(sql)) {
             pstmt.setString(1, username);
             pstmt.setString(2, password);
             
@@ -72,24 +73,26 @@ public class AdminDatabase {
      * Save or update admin (simplified without email)
      */
     public boolean saveAdmin(Admin admin) {
-        String sql = "INSERT OR REPLACE INTO admins (admin_id, username, password, email, full_name, created_at, is_active) " +
-                     "VALUES (?, ?, ?, '', ?, ?, ?)";
+        return WriteBehindQueue.getInstance().write(() -> {
+            String sql = "INSERT OR REPLACE INTO admins (admin_id, username, password, email, full_name, created_at, is_active) " +
+                         "VALUES (?, ?, ?, '', ?, ?, ?)";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, admin.getAdminId());
-            pstmt.setString(2, admin.getUsername());
-            pstmt.setString(3, admin.getPassword());
-            pstmt.setString(4, admin.getFullName());
-            pstmt.setString(5, admin.getCreatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-            pstmt.setInt(6, admin.isActive() ? 1 : 0);
+            try (PreparedStatement pstmt = connection().prepareStatement(sql)) {
+                pstmt.setString(1, admin.getAdminId());
+                pstmt.setString(2, admin.getUsername());
+                pstmt.setString(3, admin.getPassword());
+                pstmt.setString(4, admin.getFullName());
+                pstmt.setString(5, admin.getCreatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+                pstmt.setInt(6, admin.isActive() ? 1 : 0);
             
-            pstmt.executeUpdate();
-            return true;
-        } catch (SQLException e) {
-            System.err.println("Failed to save admin: " + e.getMessage());
-            e.printStackTrace();
-            return false;
-        }
+                pstmt.executeUpdate();
+                return true;
+            } catch (SQLException e) {
+                System.err.println("Failed to save admin: " + e.getMessage());
+                e.printStackTrace();
+                return false;
+            }
+        });
     }
     
     /**
@@ -98,7 +101,7 @@ public class AdminDatabase {
     public boolean adminExists(String username) {
         String sql = "SELECT COUNT(*) FROM admins WHERE username = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (PreparedStatement pstmt = connection().prepareStatement(sql)) {
             pstmt.setString(1, username);
             ResultSet rs = pstmt.executeQuery();
             
@@ -118,7 +121,7 @@ public class AdminDatabase {
     public Admin getAdminByUsername(String username) {
         String sql = "SELECT * FROM admins WHERE username = ? AND is_active = 1";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (PreparedStatement pstmt = connection().prepareStatement(sql)) {
             pstmt.setString(1, username);
             ResultSet rs = pstmt.executeQuery();
             
@@ -171,15 +174,17 @@ public class AdminDatabase {
      * Deactivate admin account
      */
     public boolean deactivateAdmin(String username) {
-        String sql = "UPDATE admins SET is_active = 0 WHERE username = ?";
+        return WriteBehindQueue.getInstance().write(() -> {
+            String sql = "UPDATE admins SET is_active = 0 WHERE username = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, username);
-            int rowsAffected = pstmt.executeUpdate();
-            return rowsAffected > 0;
-        } catch (SQLException e) {
-            System.err.println("Error deactivating admin: " + e.getMessage());
-            return false;
-        }
+            try (PreparedStatement pstmt = connection().prepareStatement(sql)) {
+                pstmt.setString(1, username);
+                int rowsAffected = pstmt.executeUpdate();
+                return rowsAffected > 0;
+            } catch (SQLException e) {
+                System.err.println("Error deactivating admin: " + e.getMessage());
+                return false;
+            }
+        });
     }
 }
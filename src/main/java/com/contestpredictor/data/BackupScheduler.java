@@ -0,0 +1,274 @@
+package com.contestpredictor.data;
+
+import org.sqlite.SQLiteConnection;
+import org.sqlite.core.Codes;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Takes periodic online backups of the database on a background thread and
+ * returns free pages to the file system afterwards.
+ * Backups use SQLite's online backup API a few pages at a time with a pause
+ * between steps, so the app's own queries and writes are never locked out for
+ * long. The newest backups are kept and older ones are deleted.
+ */
+public class BackupScheduler {
+    private static final String BACKUP_DIR = "backups";
+    private static final String BACKUP_PREFIX = "contest_predictor-";
+    private static final String BACKUP_SUFFIX = ".db";
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private static final long INITIAL_DELAY_MINUTES = 5;
+    private static final long INTERVAL_MINUTES = 60;
+    private static final int RETAINED_BACKUPS = 5;
+
+    private static final int PAGES_PER_STEP = 64;
+    private static final int STEP_PAUSE_MS = 10;
+    private static final int BUSY_RETRIES = 100;
+    private static final int VACUUM_CHUNK_PAGES = 256;
+    private static final double FREE_PAGE_THRESHOLD = 0.10;
+
+    private static BackupScheduler instance;
+
+    private final Path directory;
+    private final int retainedBackups;
+    private final ScheduledExecutorService executor;
+    private boolean started;
+
+    private final AtomicLong completedBackups = new AtomicLong();
+    private final AtomicLong failedBackups = new AtomicLong();
+    private volatile BackupResult lastResult;
+
+    private BackupScheduler(Path directory, int retainedBackups) {
+        this.directory = directory;
+        this.retainedBackups = retainedBackups;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sqlite-backup");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    public static synchronized BackupScheduler getInstance() {
+        if (instance == null) {
+            instance = new BackupScheduler(Paths.get(BACKUP_DIR), RETAINED_BACKUPS);
+        }
+        return instance;
+    }
+
+    /**
+     * Start the periodic backups. Calling it again has no effect.
+     */
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        executor.scheduleWithFixedDelay(this::runScheduled, INITIAL_DELAY_MINUTES, INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Queue a backup right away, e.g. before a bulk import
+     * @return Future completed with the backup metrics, or exceptionally if it failed
+     */
+    public CompletableFuture<BackupResult> backupNow() {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return backup();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Stop scheduling backups. A backup that is already running is abandoned with the process.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void runScheduled() {
+        try {
+            backup();
+        } catch (Exception e) {
+            // Keep the schedule alive; the next run tries again
+        }
+    }
+
+    private BackupResult backup() throws SQLException, IOException {
+        long start = System.nanoTime();
+        Path temp = null;
+        try {
+            Files.createDirectories(directory);
+            Path target = directory.resolve(BACKUP_PREFIX + LocalDateTime.now().format(STAMP) + BACKUP_SUFFIX);
+            temp = target.resolveSibling(target.getFileName() + ".tmp");
+
+            long reclaimedPages;
+            try (Connection conn = DriverManager.getConnection(DatabaseManager.DB_URL)) {
+                // Pausing between steps lets other connections take the lock in between
+                int rc = ((SQLiteConnection) conn).getDatabase().backup("main", temp.toString(),
+                        (remaining, pageCount) -> pause(), STEP_PAUSE_MS, BUSY_RETRIES, PAGES_PER_STEP);
+                if (rc != Codes.SQLITE_OK && rc != Codes.SQLITE_DONE) {
+                    throw new SQLException("Online backup failed with code " + rc);
+                }
+                reclaimedPages = compact(conn);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            rotate();
+
+            BackupResult result = new BackupResult(target, Files.size(target),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), reclaimedPages, LocalDateTime.now());
+            lastResult = result;
+            completedBackups.incrementAndGet();
+            System.out.println("Database backup written: " + result);
+            return result;
+        } catch (SQLException | IOException e) {
+            failedBackups.incrementAndGet();
+            System.err.println("Database backup failed: " + e.getMessage());
+            throw e;
+        } finally {
+            // Already moved into place on success; a failed backup leaves a partial copy behind
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    System.err.println("Failed to delete partial backup " + temp + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Release free pages in small incremental-vacuum steps once enough of the file is unused.
+     * Only files created with incremental auto-vacuum can do this; older files are left as they are.
+     * @return Number of pages returned to the file system
+     */
+    private long compact(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            if (queryLong(stmt, "PRAGMA auto_vacuum") != 2) { // 2 = INCREMENTAL
+                return 0;
+            }
+            long freePages = queryLong(stmt, "PRAGMA freelist_count");
+            long pageCount = queryLong(stmt, "PRAGMA page_count");
+            if (pageCount == 0 || (double) freePages / pageCount < FREE_PAGE_THRESHOLD) {
+                return 0;
+            }
+
+            long reclaimed = 0;
+            while (freePages > 0) {
+                // Vacuuming writes to the file, so it goes through the single writer like any other write
+                boolean vacuumed = WriteBehindQueue.getInstance().write(() -> {
+                    try (Statement vacuum = DatabaseManager.getInstance().getConnection().createStatement()) {
+                        // executeUpdate steps the pragma to completion; execute() frees a single page
+                        vacuum.executeUpdate("PRAGMA incremental_vacuum(" + VACUUM_CHUNK_PAGES + ")");
+                        return true;
+                    }
+                });
+                long remaining = queryLong(stmt, "PRAGMA freelist_count");
+                if (!vacuumed || remaining >= freePages) {
+                    break;
+                }
+                reclaimed += freePages - remaining;
+                freePages = remaining;
+                pause();
+            }
+            return reclaimed;
+        }
+    }
+
+    private long queryLong(Statement stmt, String sql) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * Delete the oldest backups beyond the retention count
+     */
+    private void rotate() throws IOException {
+        List<Path> backups = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, BACKUP_PREFIX + "*" + BACKUP_SUFFIX)) {
+            for (Path file : files) {
+                backups.add(file);
+            }
+        }
+        // Timestamps in the names sort chronologically
+        Collections.sort(backups);
+        for (int i = 0; i < backups.size() - retainedBackups; i++) {
+            Files.deleteIfExists(backups.get(i));
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(STEP_PAUSE_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public BackupResult getLastResult() {
+        return lastResult;
+    }
+
+    public long getCompletedBackups() {
+        return completedBackups.get();
+    }
+
+    public long getFailedBackups() {
+        return failedBackups.get();
+    }
+
+    /**
+     * Metrics for one completed backup
+     */
+    public static class BackupResult {
+        private final Path file;
+        private final long sizeBytes;
+        private final long durationMillis;
+        private final long reclaimedPages;
+        private final LocalDateTime completedAt;
+
+        public BackupResult(Path file, long sizeBytes, long durationMillis, long reclaimedPages, LocalDateTime completedAt) {
+            this.file = file;
+            this.sizeBytes = sizeBytes;
+            this.durationMillis = durationMillis;
+            this.reclaimedPages = reclaimedPages;
+            this.completedAt = completedAt;
+        }
+
+        public Path getFile() { return file; }
+        public long getSizeBytes() { return sizeBytes; }
+        public long getDurationMillis() { return durationMillis; }
+        public long getReclaimedPages() { return reclaimedPages; }
+        public LocalDateTime getCompletedAt() { return completedAt; }
+
+        @Override
+        public String toString() {
+            return String.format("%s, %d bytes in %d ms, %d pages reclaimed",
+                    file.getFileName(), sizeBytes, durationMillis, reclaimedPages);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.contestpredictor.data;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outbox of row changes for incremental sync to Firebase.
+ * Triggers append one (table, key, op) row per insert, update and delete, in the
+ * same statement as the change itself, so the log never misses or invents a change.
+ * The sequence number is the version: consumers remember the last sequence they
+ * pushed and only read what came after it. Acknowledged rows are pruned.
+ */
+public class ChangeLog {
+    public static final String OP_UPSERT = "upsert";
+    public static final String OP_DELETE = "delete";
+
+    // Synced tables and the column that identifies a document
+    private static final Map<String, String> KEY_COLUMNS = new LinkedHashMap<>();
+    static {
+        KEY_COLUMNS.put("users", "username");
+        KEY_COLUMNS.put("admins", "username");
+        KEY_COLUMNS.put("contests", "contest_id");
+        KEY_COLUMNS.put("contest_registrations", "id");
+        KEY_COLUMNS.put("participants", "id");
+        KEY_COLUMNS.put("rating_history", "id");
+        KEY_COLUMNS.put("leaderboard_contests", "contest_id");
+        KEY_COLUMNS.put("leaderboard_registrations", "id");
+        KEY_COLUMNS.put("leaderboard_entries", "id");
+        KEY_COLUMNS.put("combined_leaderboard", "username");
+    }
+
+    private static class Holder {
+        private static final ChangeLog INSTANCE = new ChangeLog();
+    }
+
+    private ChangeLog() {
+    }
+
+    public static ChangeLog getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Create the log, the consumer offsets and the capture triggers.
+     * Called by DatabaseManager after the synced tables exist.
+     */
+    static void createTables(Statement stmt) throws SQLException {
+        stmt.execute("CREATE TABLE IF NOT EXISTS change_log (" +
+                "seq INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "table_name TEXT NOT NULL," +
+                "row_key TEXT NOT NULL," +
+                "op TEXT NOT NULL," +
+                "changed_at INTEGER NOT NULL" +
+                ")");
+        stmt.execute("CREATE TABLE IF NOT EXISTS sync_offsets (" +
+                "consumer TEXT PRIMARY KEY," +
+                "acked_seq INTEGER NOT NULL" +
+                ")");
+
+        for (Map.Entry<String, String> entry : KEY_COLUMNS.entrySet()) {
+            String table = entry.getKey();
+            String key = entry.getValue();
+            String insert = "INSERT INTO change_log (table_name, row_key, op, changed_at) VALUES ('" + table + "', ";
+            String now = ", CAST(strftime('%s', 'now') AS INTEGER)); END";
+            stmt.execute("CREATE TRIGGER IF NOT EXISTS changelog_" + table + "_insert AFTER INSERT ON " + table +
+                    " BEGIN " + insert + "NEW." + key + ", '" + OP_UPSERT + "'" + now);
+            stmt.execute("CREATE TRIGGER IF NOT EXISTS changelog_" + table + "_update AFTER UPDATE ON " + table +
+                    " BEGIN " + insert + "NEW." + key + ", '" + OP_UPSERT + "'" + now);
+            stmt.execute("CREATE TRIGGER IF NOT EXISTS changelog_" + table + "_delete AFTER DELETE ON " + table +
+                    " BEGIN " + insert + "OLD." + key + ", '" + OP_DELETE + "'" + now);
+        }
+    }
+
+    private Connection connection() {
+        return DatabaseManager.getInstance().getConnection();
+    }
+
+    /**
+     * Read the changes recorded after a sequence number, oldest first
+     */
+    public List<Change> readAfter(long seq, int limit) {
+        List<Change> changes = new ArrayList<>();
+        String sql = "SELECT seq, table_name, row_key, op FROM change_log WHERE seq > ? ORDER BY seq LIMIT ?";
+        try (PreparedStatement pstmt = connection().prepareStatement(sql)) {
+            pstmt.setLong(1, seq);
+            pstmt.setInt(2, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    changes.add(new Change(rs.getLong("seq"), rs.getString("table_name"),
+                            rs.getString("row_key"), rs.getString("op")));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Failed to read change log: " + e.getMessage());
+        }
+        return changes;
+    }
+
+    /**
+     * Last sequence number the consumer has pushed, or 0 if it never acknowledged anything
+     */
+    public long getAcknowledged(String consumer) {
+        try (PreparedStatement pstmt = connection().prepareStatement(
+                "SELECT acked_seq FROM sync_offsets WHERE consumer = ?")) {
+            pstmt.setString(1, consumer);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        } catch (SQLException e) {
+            System.err.println("Failed to read sync offset: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Record that the consumer has pushed every change up to and including seq,
+     * and drop the log rows every consumer is done with
+     */
+    public boolean acknowledge(String consumer, long seq) {
+        return WriteBehindQueue.getInstance().write(() -> {
+            Connection conn = connection();
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "INSERT OR REPLACE INTO sync_offsets (consumer, acked_seq) VALUES (?, ?)")) {
+                pstmt.setString(1, consumer);
+                pstmt.setLong(2, seq);
+                pstmt.executeUpdate();
+            }
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("DELETE FROM change_log WHERE seq <= (SELECT MIN(acked_seq) FROM sync_offsets)");
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Sequence number of the newest recorded change, or 0 if nothing was ever recorded
+     */
+    public long getLatestSeq() {
+        try (Statement stmt = connection().createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT seq FROM sqlite_sequence WHERE name = 'change_log'")) {
+            return rs.next() ? rs.getLong(1) : 0;
+        } catch (SQLException e) {
+            System.err.println("Failed to read change log sequence: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Number of changes the consumer has not pushed yet
+     */
+    public long countPending(String consumer) {
+        try (PreparedStatement pstmt = connection().prepareStatement(
+                "SELECT COUNT(*) FROM change_log WHERE seq > ?")) {
+            pstmt.setLong(1, getAcknowledged(consumer));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        } catch (SQLException e) {
+            System.err.println("Failed to count pending changes: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Load the current contents of a changed row as column name to value
+     * @return The row, or null if it no longer exists
+     */
+    public Map<String, Object> loadRow(String table, String key) throws SQLException {
+        String keyColumn = KEY_COLUMNS.get(table);
+        if (keyColumn == null) {
+            throw new SQLException("Table is not captured by the change log: " + table);
+        }
+        try (PreparedStatement pstmt = connection().prepareStatement(
+                "SELECT * FROM " + table + " WHERE " + keyColumn + " = ?")) {
+            if (keyColumn.equals("id")) {
+                pstmt.setLong(1, Long.parseLong(key));
+            } else {
+                pstmt.setString(1, key);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                ResultSetMetaData meta = rs.getMetaData();
+                Map<String, Object> row = new LinkedHashMap<>();
+                for (int i = 1; i <= meta.getColumnCount(); i++) {
+                    int type = meta.getColumnType(i);
+                    Object value = type == Types.BLOB ? rs.getBytes(i) : rs.getObject(i);
+                    row.put(meta.getColumnName(i), value);
+                }
+                return row;
+            }
+        }
+    }
+
+    /**
+     * One captured change
+     */
+    public static class Change {
+        private final long seq;
+        private final String table;
+        private final String key;
+        private final String op;
+
+        public Change(long seq, String table, String key, String op) {
+            this.seq = seq;
+            this.table = table;
+            this.key = key;
+            this.op = op;
+        }
+
+        public long getSeq() { return seq; }
+        public String getTable() { return table; }
+        public String getKey() { return key; }
+        public String getOp() { return op; }
+
+        public boolean isDelete() {
+            return OP_DELETE.equals(op);
+        }
+    }
+}
@@ -4,11 +4,20 @@ import com.contestpredictor.model.Contest;
 import com.contestpredictor.model.Participant;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class ContestDatabase {
-    private static ContestDatabase instance;
+    // Copy-on-write: screens iterate while background threads add or delete contests
     private List<Contest> contests;
+    private final Map<String, Contest> contestsById = new ConcurrentHashMap<>();
+    private final ContestNameIndex nameIndex = new ContestNameIndex();
     private DatabaseManager dbManager;
 
     private ContestDatabase() {
@@ -23,18 +32,27 @@ public class ContestDatabase {
             // Initialize with default contests if database is empty
             initializeContests();
             // Save to database
+            int saved = 0;
             for (Contest contest : contests) {
-                dbManager.saveContest(contest);
+                if (dbManager.saveContest(contest)) {
+                    saved++;
+                }
             }
-            System.out.println("Initialized " + contests.size() + " contests to database");
+            System.out.println("Initialized " + saved + " of " + contests.size() + " contests to database");
+        }
+        contests = new CopyOnWriteArrayList<>(contests);
+        for (Contest contest : contests) {
+            contestsById.put(contest.getContestId(), contest);
+            nameIndex.add(contest.getContestId(), contest.getContestName());
         }
     }
 
+    private static class Holder {
+        private static final ContestDatabase INSTANCE = new ContestDatabase();
+    }
+
     public static ContestDatabase getInstance() {
-        if (instance == null) {
-            instance = new ContestDatabase();
-        }
-        return instance;
+        return Holder.INSTANCE;
     }
 
     private void initializeContests() {
@@ -412,43 +430,125 @@ public class ContestDatabase {
         return futureContests;
     }
 
-    public List<Contest> searchContests(String query) {
+    /**
+     * Search contests by name or id, best matches first
+     * @param past true for past contests only, false for upcoming only, null for both
+     */
+    public List<Contest> searchContests(String query, Boolean past, int limit) {
         List<Contest> results = new ArrayList<>();
-        String lowerQuery = query.toLowerCase();
-        for (Contest contest : contests) {
-            if (contest.getContestName().toLowerCase().contains(lowerQuery) ||
-                contest.getContestId().toLowerCase().contains(lowerQuery)) {
+        for (String id : dbManager.searchContestIds(query, past, limit)) {
+            Contest contest = contestsById.get(id);
+            if (contest != null) {
                 results.add(contest);
             }
         }
         return results;
     }
 
+    /**
+     * Search contest names and ids in memory as the user types.
+     * Unlike {@link #searchContests}, query words also match inside words, e.g. "301" finds "ABC301".
+     * @param past true for past contests only, false for upcoming only, null for both
+     */
+    public List<Contest> searchContestsAsYouType(String query, Boolean past, int limit) {
+        return nameIndex.search(query, limit, id -> {
+            Contest contest = contestsById.get(id);
+            return contest != null && (past == null || contest.isPast() == past) ? contest : null;
+        });
+    }
+
     public Contest getContestById(String id) {
+        return id == null ? null : contestsById.get(id);
+    }
+
+    /**
+     * Get the memory-mapped final standings of a past contest.
+     * The snapshot is written by the write that stores the contest's final rows, never
+     * by a reader, and is dropped when the standings change.
+     * @return Snapshot, or null if there is none, e.g. for upcoming contests
+     */
+    public StandingsSnapshot getStandingsSnapshot(String id) {
+        Contest contest = getContestById(id);
+        if (contest == null || !contest.isPast()) {
+            return null;
+        }
+        return StandingsSnapshotStore.getInstance().getContestSnapshot(id);
+    }
+
+    /**
+     * Count the participants of each contest without loading lazy standings; call it off the FX thread
+     * @return Participant count per contest id
+     */
+    public Map<String, Integer> countParticipants(List<Contest> contests) {
+        Map<String, Integer> counts = new HashMap<>();
+        List<String> stored = new ArrayList<>();
         for (Contest contest : contests) {
-            if (contest.getContestId().equals(id)) {
-                return contest;
+            if (contest.isParticipantsLazy()) {
+                stored.add(contest.getContestId());
+            } else {
+                counts.put(contest.getContestId(), contest.getParticipants().size());
             }
         }
-        return null;
+        counts.putAll(dbManager.countParticipantsByContest(stored));
+        return counts;
     }
 
     public List<Contest> getAllContests() {
         return contests;
     }
     
+    /**
+     * Save a contest's recomputed results and make the in-memory contest read them back
+     * @return true if the results were written
+     */
+    public boolean saveParticipantResults(String contestId, List<Participant> participants) {
+        boolean saved = dbManager.saveParticipantResults(contestId, participants);
+        invalidateParticipants(contestId);
+        return saved;
+    }
+    
+    /**
+     * Drop the participants a contest holds in memory, so the next access reads the
+     * current rows from the database, e.g. after its standings were saved or imported
+     */
+    public void invalidateParticipants(String contestId) {
+        Contest contest = getContestById(contestId);
+        if (contest == null) {
+            return;
+        }
+        Runnable invalidate = () -> {
+            if (contest.isParticipantsLazy()) {
+                contest.discardLoadedParticipants();
+            } else {
+                contest.setParticipantLoader(() -> dbManager.getParticipantsByContest(contestId));
+            }
+        };
+        // Inside a write, repeat once it commits, like DatabaseManager.invalidateContest
+        invalidate.run();
+        WriteBehindQueue.getInstance().afterCommit(invalidate);
+    }
+    
     /**
      * Save contest created by admin
      */
-    public boolean saveContestWithAdmin(Contest contest) {
+    public synchronized boolean saveContestWithAdmin(Contest contest) {
         try {
             // Check if contest ID already exists
             if (getContestById(contest.getContestId()) != null) {
                 return false;
             }
             
-            contests.add(contest);
-            dbManager.saveContestWithAdmin(contest);
+            // Write first, so a failed save never leaves a contest in memory that is not in the database
+            if (!dbManager.saveContestWithAdmin(contest)) {
+                return false;
+            }
+            // Called from inside a write, the contest only becomes visible once that write commits
+            WriteBehindQueue.getInstance().onCommit(() -> {
+                if (contestsById.putIfAbsent(contest.getContestId(), contest) == null) {
+                    contests.add(contest);
+                    nameIndex.add(contest.getContestId(), contest.getContestName());
+                }
+            });
             return true;
         } catch (Exception e) {
             System.err.println("Failed to save contest: " + e.getMessage());
@@ -460,39 +560,33 @@ public class ContestDatabase {
      * Delete a contest by ID
      */
     public boolean deleteContest(String contestId) {
+        return deleteContests(Collections.singletonList(contestId));
+    }
+    
+    /**
+     * Delete several contests and all their dependent rows in one transaction
+     * @return true if every contest existed and was deleted
+     */
+    public synchronized boolean deleteContests(List<String> contestIds) {
         try {
-            // Remove from in-memory list
-            Contest toRemove = null;
+            Set<String> ids = new HashSet<>(contestIds);
+            List<Contest> toRemove = new ArrayList<>();
             for (Contest contest : contests) {
-                if (contest.getContestId().equals(contestId)) {
-                    toRemove = contest;
-                    break;
+                if (ids.contains(contest.getContestId())) {
+                    toRemove.add(contest);
                 }
             }
             
-            if (toRemove != null) {
-                contests.remove(toRemove);
-                
-                // Delete from database
-                String sql = "DELETE FROM contests WHERE contest_id = ?";
-                java.sql.Connection conn = java.sql.DriverManager.getConnection("jdbc:sqlite:contest_predictor.db");
-                java.sql.PreparedStatement pstmt = conn.prepareStatement(sql);
-                pstmt.setString(1, contestId);
-                pstmt.executeUpdate();
-                pstmt.close();
-                
-                // Also delete participants
-                sql = "DELETE FROM participants WHERE contest_id = ?";
-                pstmt = conn.prepareStatement(sql);
-                pstmt.setString(1, contestId);
-                pstmt.executeUpdate();
-                pstmt.close();
-                conn.close();
-                
-                return true;
+            if (toRemove.size() != ids.size() || !dbManager.deleteContests(ids)) {
+                return false;
             }
-            
-            return false;
+            // Unindex first so a concurrent search never finds an id that is no longer mapped
+            for (String id : ids) {
+                nameIndex.remove(id);
+            }
+            contests.removeAll(toRemove);
+            contestsById.keySet().removeAll(ids);
+            return true;
         } catch (Exception e) {
             System.err.println("Failed to delete contest: " + e.getMessage());
             e.printStackTrace();
@@ -0,0 +1,324 @@
+package com.contestpredictor.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * In-memory trigram index over contest ids and names for as-you-type search.
+ * Every word is indexed with two leading and one trailing pad character, so
+ * one- and two-letter query words match the start of a word and longer ones
+ * match anywhere inside a word. A query intersects the sorted posting lists of
+ * its trigrams, checks the few candidates against their text and keeps the
+ * best ones in a bounded heap; contests sharing no trigram are never visited.
+ */
+public class ContestNameIndex {
+    private static final char PAD = ' ';
+    // Renumber the documents once removed ones are at least this many and half of all numbers
+    private static final int MIN_COMPACT_REMOVED = 64;
+
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final Map<String, Integer> docs = new HashMap<>();
+    // Indexed by document number; entries of removed contests are null
+    private final List<String> ids = new ArrayList<>();
+    private final List<String> idTexts = new ArrayList<>();
+    private final List<String> nameTexts = new ArrayList<>();
+    private int removed;
+
+    /**
+     * Index a contest, replacing its previous entry if there is one
+     */
+    public synchronized void add(String contestId, String contestName) {
+        remove(contestId);
+        index(contestId, normalize(contestId), normalize(contestName));
+    }
+
+    private void index(String contestId, String idText, String nameText) {
+        int doc = ids.size();
+        ids.add(contestId);
+        idTexts.add(idText);
+        nameTexts.add(nameText);
+        docs.put(contestId, doc);
+        // Document numbers only grow, so appending keeps every posting list sorted
+        for (long trigram : documentTrigrams(idText, nameText)) {
+            postings.computeIfAbsent(trigram, key -> new Postings()).add(doc);
+        }
+    }
+
+    public synchronized void remove(String contestId) {
+        Integer doc = docs.remove(contestId);
+        if (doc == null) {
+            return;
+        }
+        for (long trigram : documentTrigrams(idTexts.get(doc), nameTexts.get(doc))) {
+            Postings list = postings.get(trigram);
+            if (list != null && list.remove(doc) && list.size == 0) {
+                postings.remove(trigram);
+            }
+        }
+        ids.set(doc, null);
+        idTexts.set(doc, null);
+        nameTexts.set(doc, null);
+        removed++;
+        if (removed >= MIN_COMPACT_REMOVED && removed * 2 >= ids.size()) {
+            compact();
+        }
+    }
+
+    /**
+     * Renumber the remaining documents without the gaps left by removed ones
+     */
+    private void compact() {
+        List<String> liveIds = new ArrayList<>(docs.size());
+        List<String> liveIdTexts = new ArrayList<>(docs.size());
+        List<String> liveNameTexts = new ArrayList<>(docs.size());
+        for (int doc = 0; doc < ids.size(); doc++) {
+            if (ids.get(doc) != null) {
+                liveIds.add(ids.get(doc));
+                liveIdTexts.add(idTexts.get(doc));
+                liveNameTexts.add(nameTexts.get(doc));
+            }
+        }
+        postings.clear();
+        docs.clear();
+        ids.clear();
+        idTexts.clear();
+        nameTexts.clear();
+        removed = 0;
+        for (int i = 0; i < liveIds.size(); i++) {
+            index(liveIds.get(i), liveIdTexts.get(i), liveNameTexts.get(i));
+        }
+    }
+
+    public synchronized int size() {
+        return docs.size();
+    }
+
+    /**
+     * Find the contests whose id or name contains every word of the query
+     * @param lookup Maps a matching contest id to the value returned, or to null to leave it out
+     * @return Up to limit values, most relevant first
+     */
+    public synchronized <T> List<T> search(String query, int limit, Function<String, T> lookup) {
+        List<String> words = words(normalize(query));
+        if (words.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        Set<Long> trigrams = new LinkedHashSet<>();
+        for (String word : words) {
+            queryTrigrams(word, trigrams);
+        }
+        Postings[] lists = new Postings[trigrams.size()];
+        int count = 0;
+        for (long trigram : trigrams) {
+            Postings list = postings.get(trigram);
+            if (list == null) {
+                return new ArrayList<>();
+            }
+            lists[count++] = list;
+        }
+        // Drive the intersection from the shortest list
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+
+        // Min-heap on relevance holding the best matches seen so far
+        PriorityQueue<Match<T>> best = new PriorityQueue<>(Math.min(limit, 1024), Comparator.reverseOrder());
+        int[] positions = new int[lists.length];
+        Postings shortest = lists[0];
+        candidates:
+        for (int i = 0; i < shortest.size; i++) {
+            int doc = shortest.values[i];
+            for (int l = 1; l < lists.length; l++) {
+                positions[l] = lists[l].seek(doc, positions[l]);
+                if (positions[l] == lists[l].size) {
+                    break candidates;
+                }
+                if (lists[l].values[positions[l]] != doc) {
+                    continue candidates;
+                }
+            }
+            int score = score(idTexts.get(doc), nameTexts.get(doc), words);
+            if (score < 0) {
+                continue;
+            }
+            T value = lookup.apply(ids.get(doc));
+            if (value == null) {
+                continue;
+            }
+            Match<T> match = new Match<>(ids.get(doc), value, score, nameTexts.get(doc).length());
+            if (best.size() < limit) {
+                best.add(match);
+            } else if (match.compareTo(best.peek()) < 0) {
+                best.poll();
+                best.add(match);
+            }
+        }
+
+        List<T> results = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            results.add(best.poll().value);
+        }
+        Collections.reverse(results);
+        return results;
+    }
+
+    /**
+     * Relevance of a candidate, or -1 if some query word does not actually occur.
+     * Trigrams only narrow the candidates down; a word like "abcab" shares all its
+     * trigrams with "abcxbcab" without occurring in it.
+     */
+    private static int score(String id, String name, List<String> words) {
+        int score = 0;
+        for (String word : words) {
+            boolean prefixOnly = word.length() < 3;
+            if (id.equals(word)) {
+                score += 100;
+            } else if (id.startsWith(word)) {
+                score += 60;
+            } else if (startsWord(name, word)) {
+                score += 40;
+            } else if (startsWord(id, word)) {
+                score += 30;
+            } else if (!prefixOnly && id.contains(word)) {
+                score += 20;
+            } else if (!prefixOnly && name.contains(word)) {
+                score += 10;
+            } else {
+                return -1;
+            }
+        }
+        return score;
+    }
+
+    private static boolean startsWord(String text, String word) {
+        for (int at = text.indexOf(word); at >= 0; at = text.indexOf(word, at + 1)) {
+            if (at == 0 || !Character.isLetterOrDigit(text.charAt(at - 1))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Set<Long> documentTrigrams(String idText, String nameText) {
+        Set<Long> trigrams = new LinkedHashSet<>();
+        for (String word : words(idText + " " + nameText)) {
+            String padded = "" + PAD + PAD + word + PAD;
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(trigram(padded, i));
+            }
+        }
+        return trigrams;
+    }
+
+    /**
+     * Trigrams a document must contain for a query word: the word start for short
+     * words, every trigram inside the word otherwise
+     */
+    private static void queryTrigrams(String word, Set<Long> trigrams) {
+        if (word.length() < 3) {
+            String padded = (word.length() == 1 ? "" + PAD + PAD : "" + PAD) + word;
+            trigrams.add(trigram(padded, 0));
+            return;
+        }
+        for (int i = 0; i + 3 <= word.length(); i++) {
+            trigrams.add(trigram(word, i));
+        }
+    }
+
+    private static long trigram(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Sorted, growable list of document numbers
+     */
+    private static class Postings {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int doc) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = doc;
+        }
+
+        boolean remove(int doc) {
+            int index = Arrays.binarySearch(values, 0, size, doc);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(values, index + 1, values, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        /**
+         * Index of the first value >= doc at or after from, or size if there is none.
+         * Gallops ahead before the binary search, since callers seek in increasing order.
+         */
+        int seek(int doc, int from) {
+            int step = 1;
+            int low = from;
+            int high = from;
+            while (high < size && values[high] < doc) {
+                low = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            int index = Arrays.binarySearch(values, low, Math.min(high + 1, size), doc);
+            return index >= 0 ? index : -index - 1;
+        }
+    }
+
+    private static class Match<T> implements Comparable<Match<T>> {
+        private final String contestId;
+        private final T value;
+        private final int score;
+        private final int nameLength;
+
+        Match(String contestId, T value, int score, int nameLength) {
+            this.contestId = contestId;
+            this.value = value;
+            this.score = score;
+            this.nameLength = nameLength;
+        }
+
+        /**
+         * Higher scores first, then shorter names, then ids in order
+         */
+        @Override
+        public int compareTo(Match<T> other) {
+            if (score != other.score) {
+                return Integer.compare(other.score, score);
+            }
+            if (nameLength != other.nameLength) {
+                return Integer.compare(nameLength, other.nameLength);
+            }
+            return contestId.compareTo(other.contestId);
+        }
+    }
+}
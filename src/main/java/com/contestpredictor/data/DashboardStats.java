@@ -0,0 +1,34 @@
+package com.contestpredictor.data;
+
+/**
+ * Row counts shown on the admin dashboard, read from the trigger-maintained stats table
+ */
+public class DashboardStats {
+    private final long contests;
+    private final long futureContests;
+    private final long users;
+    private final long participants;
+
+    public DashboardStats(long contests, long futureContests, long users, long participants) {
+        this.contests = contests;
+        this.futureContests = futureContests;
+        this.users = users;
+        this.participants = participants;
+    }
+
+    public long getContests() {
+        return contests;
+    }
+
+    public long getFutureContests() {
+        return futureContests;
+    }
+
+    public long getUsers() {
+        return users;
+    }
+
+    public long getParticipants() {
+        return participants;
+    }
+}
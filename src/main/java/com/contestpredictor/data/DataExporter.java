@@ -0,0 +1,288 @@
+package com.contestpredictor.data;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams query results to JSON or CSV files.
+ * Rows go from the cursor straight to the writer one at a time, so memory use
+ * does not depend on the size of the table. Files whose name ends in ".gz" are
+ * gzip-compressed. Output is written to a temporary file and moved into place
+ * when complete, so a failed export never leaves a truncated file behind.
+ *
+ * Exports read through the shared connection; rows written while an export is
+ * running may or may not be included.
+ */
+public class DataExporter {
+    private static final int FETCH_SIZE = 1000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // Bookkeeping tables that are derived from the data and rebuilt by triggers
+    private static final Set<String> SKIPPED_TABLES = Set.of("stats", "change_log", "sync_offsets");
+
+    public enum Format {
+        JSON("json"),
+        CSV("csv");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * Format matching a file name such as "standings.csv" or "ratings.json.gz"; JSON unless it names CSV
+         */
+        public static Format forFile(Path file) {
+            String name = file.getFileName().toString().toLowerCase();
+            return name.endsWith(".csv") || name.endsWith(".csv.gz") ? CSV : JSON;
+        }
+    }
+
+    private final DatabaseManager dbManager = DatabaseManager.getInstance();
+
+    /**
+     * Export the standings of a contest, ordered by rank.
+     * Leaderboard contests export their entries, regular contests their participants.
+     * The column names are ones the result importer accepts, so a file can be imported again.
+     */
+    public ExportResult exportContestStandings(String contestId, Path file, Format format) throws IOException, SQLException {
+        String sql = isLeaderboardContest(contestId)
+                ? "SELECT rank, username, solve_count, total_penalty, total_time, status " +
+                  "FROM leaderboard_entries WHERE contest_id = ? ORDER BY rank, username"
+                : "SELECT rank, username, problems_solved, total_penalty, current_rating, " +
+                  "predicted_rating, rating_change FROM participants WHERE contest_id = ? ORDER BY rank, username";
+        return exportQuery(file, format, sql, contestId);
+    }
+
+    /**
+     * Export every user's rating and rating history, highest rated first
+     */
+    public ExportResult exportRatings(Path file, Format format) throws IOException, SQLException {
+        return exportQuery(file, format,
+                "SELECT username, full_name, current_rating, contests_participated, rating_history " +
+                "FROM users ORDER BY current_rating DESC, username");
+    }
+
+    /**
+     * Export every data table to its own compressed file, named after the table
+     * @return One result per table
+     */
+    public List<ExportResult> exportDatabase(Path directory, Format format) throws IOException, SQLException {
+        Files.createDirectories(directory);
+        List<ExportResult> results = new ArrayList<>();
+        for (String table : listTables()) {
+            results.add(exportTable(table, directory.resolve(table + "." + format.getExtension() + ".gz"), format));
+        }
+        return results;
+    }
+
+    /**
+     * Export all columns of one table
+     */
+    public ExportResult exportTable(String table, Path file, Format format) throws IOException, SQLException {
+        if (!listTables().contains(table)) {
+            throw new SQLException("Unknown table: " + table);
+        }
+        return exportQuery(file, format, "SELECT * FROM \"" + table + "\"");
+    }
+
+    /**
+     * Stream the rows of a query to a file
+     * @param params Values bound to the query's placeholders in order
+     */
+    public ExportResult exportQuery(Path file, Format format, String sql, Object... params) throws IOException, SQLException {
+        long start = System.nanoTime();
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        long rows;
+        try (PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                pstmt.setObject(i + 1, params[i]);
+            }
+            pstmt.setFetchSize(FETCH_SIZE);
+            try (ResultSet rs = pstmt.executeQuery();
+                 Writer writer = openWriter(temp)) {
+                rows = format == Format.JSON ? writeJson(rs, writer) : writeCsv(rs, writer);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | SQLException e) {
+            Files.deleteIfExists(temp);
+            System.err.println("Export to " + file + " failed: " + e.getMessage());
+            throw e;
+        }
+        return new ExportResult(file, rows, Files.size(file),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private Writer openWriter(Path file) throws IOException {
+        OutputStream out = Files.newOutputStream(file);
+        if (file.getFileName().toString().endsWith(".gz.tmp")) {
+            out = new GZIPOutputStream(out, BUFFER_SIZE);
+        }
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    /**
+     * Write the rows as an array of objects keyed by column name
+     */
+    private long writeJson(ResultSet rs, Writer out) throws IOException, SQLException {
+        String[] columns = columnNames(rs.getMetaData());
+        long rows = 0;
+        JsonWriter json = new JsonWriter(out);
+        json.beginArray();
+        while (rs.next()) {
+            json.beginObject();
+            for (int i = 0; i < columns.length; i++) {
+                json.name(columns[i]);
+                Object value = rs.getObject(i + 1);
+                if (value == null) {
+                    json.nullValue();
+                } else if (value instanceof Number) {
+                    json.value((Number) value);
+                } else if (value instanceof byte[]) {
+                    json.value(Base64.getEncoder().encodeToString((byte[]) value));
+                } else {
+                    json.value(value.toString());
+                }
+            }
+            json.endObject();
+            rows++;
+        }
+        json.endArray();
+        json.flush();
+        return rows;
+    }
+
+    /**
+     * Write a header line of column names followed by one line per row.
+     * Nulls are written as empty fields and binary values as Base64.
+     */
+    private long writeCsv(ResultSet rs, Writer out) throws IOException, SQLException {
+        String[] columns = columnNames(rs.getMetaData());
+        writeCsvLine(out, columns);
+        String[] fields = new String[columns.length];
+        long rows = 0;
+        while (rs.next()) {
+            for (int i = 0; i < columns.length; i++) {
+                Object value = rs.getObject(i + 1);
+                fields[i] = value == null ? ""
+                        : value instanceof byte[] ? Base64.getEncoder().encodeToString((byte[]) value)
+                        : value.toString();
+            }
+            writeCsvLine(out, fields);
+            rows++;
+        }
+        return rows;
+    }
+
+    private void writeCsvLine(Writer out, String[] fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            String field = fields[i];
+            if (field.indexOf(',') >= 0 || field.indexOf('"') >= 0
+                    || field.indexOf('\n') >= 0 || field.indexOf('\r') >= 0) {
+                out.write('"');
+                out.write(field.replace("\"", "\"\""));
+                out.write('"');
+            } else {
+                out.write(field);
+            }
+        }
+        out.write('\n');
+    }
+
+    private String[] columnNames(ResultSetMetaData meta) throws SQLException {
+        String[] columns = new String[meta.getColumnCount()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = meta.getColumnLabel(i + 1);
+        }
+        return columns;
+    }
+
+    private boolean isLeaderboardContest(String contestId) throws SQLException {
+        try (PreparedStatement pstmt = dbManager.getConnection().prepareStatement(
+                "SELECT 1 FROM leaderboard_contests WHERE contest_id = ?")) {
+            pstmt.setString(1, contestId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private List<String> listTables() throws SQLException {
+        List<String> tables = new ArrayList<>();
+        try (PreparedStatement pstmt = dbManager.getConnection().prepareStatement(
+                // Full-text indexes are virtual tables backed by shadow tables named <index>_<suffix>;
+                // both are rebuilt from the contest rows, so neither is exported
+                "SELECT name FROM sqlite_master t WHERE type = 'table' AND name NOT LIKE 'sqlite_%' " +
+                "AND sql NOT LIKE 'CREATE VIRTUAL TABLE%' AND NOT EXISTS (" +
+                "SELECT 1 FROM sqlite_master v WHERE v.type = 'table' AND v.sql LIKE 'CREATE VIRTUAL TABLE%' " +
+                "AND t.name LIKE replace(v.name, '_', '\\_') || '\\_%' ESCAPE '\\') ORDER BY name");
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                String name = rs.getString(1);
+                if (!SKIPPED_TABLES.contains(name)) {
+                    tables.add(name);
+                }
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * Metrics for one exported file
+     */
+    public static class ExportResult {
+        private final Path file;
+        private final long rows;
+        private final long sizeBytes;
+        private final long durationMillis;
+
+        public ExportResult(Path file, long rows, long sizeBytes, long durationMillis) {
+            this.file = file;
+            this.rows = rows;
+            this.sizeBytes = sizeBytes;
+            this.durationMillis = durationMillis;
+        }
+
+        public Path getFile() { return file; }
+        public long getRows() { return rows; }
+        public long getSizeBytes() { return sizeBytes; }
+        public long getDurationMillis() { return durationMillis; }
+
+        @Override
+        public String toString() {
+            return String.format("%s, %d rows, %d bytes in %d ms",
+                    file.getFileName(), rows, sizeBytes, durationMillis);
+        }
+    }
+}
@@ -2,44 +2,102 @@ package com.contestpredictor.data;
 
 import com.contestpredictor.model.Contest;
 import com.contestpredictor.model.Participant;
+import com.contestpredictor.model.RatingSeries;
 import com.contestpredictor.model.User;
 
 import java.sql.*;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * SQLite Database Manager for persisting contest, user, and participant data
  */
 public class DatabaseManager {
-    private static DatabaseManager instance;
-    private static final String DB_URL = "jdbc:sqlite:contest_predictor.db";
+    static final String DB_URL = "jdbc:sqlite:contest_predictor.db";
+    private static final String SAVE_USER_SQL = "INSERT OR REPLACE INTO users (username, password, full_name, current_rating, " +
+            "contests_participated, rating_history, email, firebase_uid, rating_series) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final long PARTICIPANT_CACHE_BUDGET = 8L * 1024 * 1024;
+    private static final long CONTEST_CACHE_BUDGET = 1024L * 1024;
+    private static final long PARTICIPANT_WEIGHT = 96; // Approximate bytes per cached Participant
+    // Keys of the counters kept in the stats table by triggers
+    private static final String STAT_USERS = "users";
+    private static final String STAT_CONTESTS = "contests";
+    private static final String STAT_FUTURE_CONTESTS = "future_contests";
+    private static final String STAT_PARTICIPANTS = "participants";
+    // Tables whose rows belong to a contest and go with it on delete
+    private static final String[] CONTEST_CHILD_TABLES = {"contest_registrations", "participants", "rating_history"};
+    // Participant columns with an index on (contest_id, column)
+    public static final Set<String> PARTICIPANT_SORT_COLUMNS = Set.of("rank", "username", "current_rating", "rating_change");
+    static final int BUSY_TIMEOUT_MS = 5000;
     private Connection connection;
+    // Used only by the WriteBehindQueue writer, so its transactions never touch the readers' connection
+    private Connection writeConnection;
+    
+    // Read-through caches, invalidated by every write that touches a contest
+    private final WeightedLruCache<String, List<Participant>> participantsCache =
+            new WeightedLruCache<>("participants", PARTICIPANT_CACHE_BUDGET,
+                    list -> 64 + list.size() * PARTICIPANT_WEIGHT);
+    private final WeightedLruCache<String, Contest> contestCache =
+            new WeightedLruCache<>("contests", CONTEST_CACHE_BUDGET,
+                    contest -> 128 + 2L * (contest.getContestId().length() + contest.getContestName().length()));
 
     private DatabaseManager() {
         try {
-            connection = DriverManager.getConnection(DB_URL);
+            connection = open();
             initializeTables();
+            writeConnection = open();
         } catch (SQLException e) {
             System.err.println("Failed to connect to database: " + e.getMessage());
             e.printStackTrace();
         }
     }
 
+    // Initialized by the JVM on first use, once and visible to every thread
+    private static class Holder {
+        private static final DatabaseManager INSTANCE = new DatabaseManager();
+    }
+
     public static DatabaseManager getInstance() {
-        if (instance == null) {
-            instance = new DatabaseManager();
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Open a connection in WAL mode, so reads on one connection go on while the
+     * writer commits on the other
+     */
+    private static Connection open() throws SQLException {
+        Connection conn = DriverManager.getConnection(DB_URL);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT_MS);
+            // Only takes effect on a new, still empty file, so it must come before WAL mode is set;
+            // converting an existing file would take a full VACUUM that holds the write lock throughout
+            stmt.execute("PRAGMA auto_vacuum = INCREMENTAL");
+            stmt.execute("PRAGMA journal_mode = WAL");
         }
-        return instance;
+        return conn;
+    }
+
+    /**
+     * Run a mutation on the single writer thread and wait for it, see WriteBehindQueue
+     */
+    private boolean write(WriteBehindQueue.WriteOperation operation) {
+        return WriteBehindQueue.getInstance().write(operation);
     }
 
     /**
-     * Get the database connection
+     * Get the database connection: the writer's own connection inside a write
+     * operation, the shared read connection everywhere else
      */
     public Connection getConnection() {
-        return connection;
+        return WriteBehindQueue.isWriting() ? writeConnection : connection;
     }
 
     /**
@@ -47,7 +105,7 @@ public class DatabaseManager {
      */
     private void initializeTables() {
         try {
-            Statement stmt = connection.createStatement();
+            Statement stmt = getConnection().createStatement();
 
             // Users table (with Firebase fields)
             stmt.execute("CREATE TABLE IF NOT EXISTS users (" +
@@ -58,7 +116,8 @@ public class DatabaseManager {
                     "contests_participated INTEGER NOT NULL," +
                     "rating_history TEXT," + // Stored as comma-separated values
                     "email TEXT," +
-                    "firebase_uid TEXT" +
+                    "firebase_uid TEXT," +
+                    "rating_series BLOB" + // Delta/varint encoded RatingSeries
                     ")");
             
             // Add email and firebase_uid columns if they don't exist (for existing databases)
@@ -72,6 +131,11 @@ public class DatabaseManager {
             } catch (SQLException e) {
                 // Column already exists, ignore
             }
+            try {
+                stmt.execute("ALTER TABLE users ADD COLUMN rating_series BLOB");
+            } catch (SQLException e) {
+                // Column already exists, ignore
+            }
 
             // Admins table
             stmt.execute("CREATE TABLE IF NOT EXISTS admins (" +
@@ -89,6 +153,7 @@ public class DatabaseManager {
                     "contest_id TEXT PRIMARY KEY," +
                     "contest_name TEXT NOT NULL," +
                     "date_time TEXT NOT NULL," +
+                    "date_time_epoch INTEGER," + // Epoch seconds (UTC), used for reads and range queries
                     "duration INTEGER NOT NULL," +
                     "is_past INTEGER NOT NULL," + // 0 = false, 1 = true
                     "created_by_admin TEXT," +
@@ -102,6 +167,7 @@ public class DatabaseManager {
                     "contest_id TEXT NOT NULL," +
                     "username TEXT NOT NULL," +
                     "registered_at TEXT NOT NULL," +
+                    "registered_at_epoch INTEGER," +
                     "FOREIGN KEY (contest_id) REFERENCES contests(contest_id)," +
                     "UNIQUE(contest_id, username)" +
                     ")");
@@ -138,12 +204,15 @@ public class DatabaseManager {
                     "contest_name TEXT NOT NULL," +
                     "description TEXT," +
                     "start_date TEXT NOT NULL," +
+                    "start_date_epoch INTEGER," +
                     "end_date TEXT NOT NULL," +
+                    "end_date_epoch INTEGER," +
                     "max_problems INTEGER NOT NULL," +
                     "is_active INTEGER DEFAULT 1," +
                     "standings_finalized INTEGER DEFAULT 0," +
                     "created_by_admin TEXT NOT NULL," +
-                    "created_at TEXT NOT NULL" +
+                    "created_at TEXT NOT NULL," +
+                    "created_at_epoch INTEGER" +
                     ")");
             
             // Leaderboard Registrations table
@@ -152,6 +221,7 @@ public class DatabaseManager {
                     "contest_id TEXT NOT NULL," +
                     "username TEXT NOT NULL," +
                     "registered_at TEXT NOT NULL," +
+                    "registered_at_epoch INTEGER," +
                     "FOREIGN KEY (contest_id) REFERENCES leaderboard_contests(contest_id)," +
                     "UNIQUE(contest_id, username)" +
                     ")");
@@ -182,6 +252,34 @@ public class DatabaseManager {
                     "last_updated TEXT" +
                     ")");
             
+            // Epoch-second date columns for databases created before they existed
+            migrateTemporalColumns(stmt);
+            
+            // Indexes for login and password-reset lookups
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_users_email ON users(email)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_users_firebase_uid ON users(firebase_uid)");
+            
+            // Indexes for rank-ordered keyset pagination and per-user rank lookups
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_participants_contest_rank ON participants(contest_id, rank)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_participants_contest_user ON participants(contest_id, username)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_leaderboard_entries_contest_rank ON leaderboard_entries(contest_id, rank)");
+            
+            // Indexes for the other orders the standings tables can be sorted in
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_participants_contest_rating ON participants(contest_id, current_rating)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_participants_contest_change ON participants(contest_id, rating_change)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_combined_leaderboard_rank ON combined_leaderboard(overall_rank)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_combined_leaderboard_solves ON combined_leaderboard(total_solves)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_combined_leaderboard_contests ON combined_leaderboard(contests_participated)");
+            
+            // Row counters for the admin dashboard
+            createStatsTable(stmt);
+            
+            // Change capture for incremental Firebase sync
+            ChangeLog.createTables(stmt);
+            
+            // Full-text search over contest names and ids
+            createSearchIndex(stmt);
+            
             // Create default admin if not exists
             createDefaultAdmin();
 
@@ -193,17 +291,173 @@ public class DatabaseManager {
         }
     }
     
+    /**
+     * Add and backfill INTEGER epoch-second (UTC) columns next to the TEXT date columns.
+     * Reads use the epoch columns so rows no longer need LocalDateTime.parse, and date
+     * range queries can use an index. The TEXT columns are still written for the
+     * export/migration tools that read them.
+     */
+    private void migrateTemporalColumns(Statement stmt) throws SQLException {
+        String[][] columns = {
+            {"contests", "date_time"},
+            {"contest_registrations", "registered_at"},
+            {"leaderboard_contests", "start_date"},
+            {"leaderboard_contests", "end_date"},
+            {"leaderboard_contests", "created_at"},
+            {"leaderboard_registrations", "registered_at"}
+        };
+        for (String[] column : columns) {
+            String table = column[0];
+            String epochColumn = column[1] + "_epoch";
+            try {
+                stmt.execute("ALTER TABLE " + table + " ADD COLUMN " + epochColumn + " INTEGER");
+            } catch (SQLException e) {
+                // Column already exists, ignore
+            }
+            // strftime understands both the ISO and the "yyyy-MM-dd HH:mm:ss" formats used in the TEXT columns
+            stmt.execute("UPDATE " + table + " SET " + epochColumn + " = CAST(strftime('%s', " + column[1] + ") AS INTEGER) " +
+                    "WHERE " + epochColumn + " IS NULL");
+        }
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_contests_date_time_epoch ON contests(date_time_epoch)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_leaderboard_contests_start_epoch ON leaderboard_contests(start_date_epoch)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_leaderboard_contests_created_epoch ON leaderboard_contests(created_at_epoch)");
+    }
+    
+    /**
+     * Create the stats table and the triggers that keep its counters in step with
+     * the users, contests and participants tables. Triggers run inside the writing
+     * statement, so a counter commits or rolls back together with the rows it counts.
+     */
+    private void createStatsTable(Statement stmt) throws SQLException {
+        stmt.execute("CREATE TABLE IF NOT EXISTS stats (" +
+                "name TEXT PRIMARY KEY," +
+                "value INTEGER NOT NULL" +
+                ")");
+
+        // INSERT OR REPLACE does not fire delete triggers (recursive_triggers is off),
+        // so the row being replaced is taken back out before the insert counts it again
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS stats_users_replace BEFORE INSERT ON users BEGIN " +
+                "UPDATE stats SET value = value - (SELECT COUNT(*) FROM users WHERE username = NEW.username) " +
+                "WHERE name = '" + STAT_USERS + "'; END");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS stats_users_insert AFTER INSERT ON users BEGIN " +
+                "UPDATE stats SET value = value + 1 WHERE name = '" + STAT_USERS + "'; END");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS stats_users_delete AFTER DELETE ON users BEGIN " +
+                "UPDATE stats SET value = value - 1 WHERE name = '" + STAT_USERS + "'; END");
+
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS stats_contests_replace BEFORE INSERT ON contests BEGIN " +
+                "UPDATE stats SET value = value - (SELECT COUNT(*) FROM contests WHERE contest_id = NEW.contest_id) " +
+                "WHERE name = '" + STAT_CONTESTS + "'; " +
+                "UPDATE stats SET value = value - (SELECT COUNT(*) FROM contests WHERE contest_id = NEW.contest_id AND is_past = 0) " +
+                "WHERE name = '" + STAT_FUTURE_CONTESTS + "'; END");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS stats_contests_insert AFTER INSERT ON contests BEGIN " +
+                "UPDATE stats SET value = value + 1 WHERE name = '" + STAT_CONTESTS + "'; " +
+                "UPDATE stats SET value = value + (NEW.is_past = 0) WHERE name = '" + STAT_FUTURE_CONTESTS + "'; END");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS stats_contests_update AFTER UPDATE OF is_past ON contests BEGIN " +
+                "UPDATE stats SET value = value + (NEW.is_past = 0) - (OLD.is_past = 0) " +
+                "WHERE name = '" + STAT_FUTURE_CONTESTS + "'; END");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS stats_contests_delete AFTER DELETE ON contests BEGIN " +
+                "UPDATE stats SET value = value - 1 WHERE name = '" + STAT_CONTESTS + "'; " +
+                "UPDATE stats SET value = value - (OLD.is_past = 0) WHERE name = '" + STAT_FUTURE_CONTESTS + "'; END");
+
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS stats_participants_insert AFTER INSERT ON participants BEGIN " +
+                "UPDATE stats SET value = value + 1 WHERE name = '" + STAT_PARTICIPANTS + "'; END");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS stats_participants_delete AFTER DELETE ON participants BEGIN " +
+                "UPDATE stats SET value = value - 1 WHERE name = '" + STAT_PARTICIPANTS + "'; END");
+
+        // Seed counters that do not exist yet; the triggers above already exist, so nothing is missed
+        stmt.execute("INSERT OR IGNORE INTO stats (name, value) SELECT '" + STAT_USERS + "', COUNT(*) FROM users");
+        stmt.execute("INSERT OR IGNORE INTO stats (name, value) SELECT '" + STAT_CONTESTS + "', COUNT(*) FROM contests");
+        stmt.execute("INSERT OR IGNORE INTO stats (name, value) SELECT '" + STAT_FUTURE_CONTESTS + "', COUNT(*) FROM contests WHERE is_past = 0");
+        stmt.execute("INSERT OR IGNORE INTO stats (name, value) SELECT '" + STAT_PARTICIPANTS + "', COUNT(*) FROM participants");
+    }
+    
+    /**
+     * Create FTS5 indexes over the contest tables and the triggers that keep them in step.
+     * The indexes are external-content tables keyed by rowid, so they store only the
+     * tokens and searches join back to the contest rows for filtering.
+     */
+    private void createSearchIndex(Statement stmt) throws SQLException {
+        createSearchIndex(stmt, "contests", "contest_id, contest_name");
+        createSearchIndex(stmt, "leaderboard_contests", "contest_id, contest_name, description");
+    }
+
+    private void createSearchIndex(Statement stmt, String table, String columns) throws SQLException {
+        String index = table + "_fts";
+        boolean exists;
+        try (ResultSet rs = stmt.executeQuery("SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = '" + index + "'")) {
+            exists = rs.next();
+        }
+        stmt.execute("CREATE VIRTUAL TABLE IF NOT EXISTS " + index + " USING fts5(" + columns + ", " +
+                "content='" + table + "', content_rowid='rowid', " +
+                "tokenize='unicode61 remove_diacritics 2', prefix='1 2 3')");
+
+        String newValues = "NEW." + columns.replace(", ", ", NEW.");
+        String oldValues = "OLD." + columns.replace(", ", ", OLD.");
+        String insert = "INSERT INTO " + index + " (rowid, " + columns + ") VALUES (NEW.rowid, " + newValues + "); ";
+        String delete = "INSERT INTO " + index + " (" + index + ", rowid, " + columns + ") VALUES ('delete', OLD.rowid, " + oldValues + "); ";
+        // INSERT OR REPLACE does not fire delete triggers, so the replaced row is removed from the index first
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS " + index + "_replace BEFORE INSERT ON " + table + " BEGIN " +
+                "INSERT INTO " + index + " (" + index + ", rowid, " + columns + ") SELECT 'delete', rowid, " + columns +
+                " FROM " + table + " WHERE contest_id = NEW.contest_id; END");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS " + index + "_insert AFTER INSERT ON " + table + " BEGIN " + insert + "END");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS " + index + "_delete AFTER DELETE ON " + table + " BEGIN " + delete + "END");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS " + index + "_update AFTER UPDATE OF " + columns + " ON " + table +
+                " BEGIN " + delete + insert + "END");
+
+        if (!exists) {
+            // Index the rows written before the index existed
+            stmt.execute("INSERT INTO " + index + " (" + index + ") VALUES ('rebuild')");
+        }
+    }
+
+    /**
+     * Turn free text into an FTS5 query that requires every word, each as a prefix.
+     * Words are quoted, so FTS5 operators in the input are matched literally.
+     * @return The query, or null if the text has no words
+     */
+    static String toMatchQuery(String text) {
+        StringBuilder query = new StringBuilder();
+        for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                if (query.length() > 0) {
+                    query.append(' ');
+                }
+                query.append('"').append(word).append("\"*");
+            }
+        }
+        return query.length() == 0 ? null : query.toString();
+    }
+
+    /**
+     * Convert a date to the epoch seconds stored in the *_epoch columns
+     */
+    static long toEpochSeconds(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+    
+    /**
+     * Read an epoch-second column, falling back to parsing its TEXT twin for rows
+     * the backfill could not convert
+     */
+    static long readEpochSeconds(ResultSet rs, String textColumn, DateTimeFormatter format) throws SQLException {
+        long epoch = rs.getLong(textColumn + "_epoch");
+        if (rs.wasNull()) {
+            return toEpochSeconds(LocalDateTime.parse(rs.getString(textColumn), format));
+        }
+        return epoch;
+    }
+    
     /**
      * Create default admin account
      */
     private void createDefaultAdmin() {
         String checkSql = "SELECT COUNT(*) FROM admins WHERE username = 'admin'";
-        try (Statement stmt = connection.createStatement();
+        try (Statement stmt = getConnection().createStatement();
              ResultSet rs = stmt.executeQuery(checkSql)) {
             
             if (rs.next() && rs.getInt(1) == 0) {
                 String insertSql = "INSERT INTO admins (admin_id, username, password, email, full_name, created_at, is_active) VALUES (?, ?, ?, ?, ?, ?, ?)";
-                try (PreparedStatement pstmt = connection.prepareStatement(insertSql)) {
+                try (PreparedStatement pstmt = getConnection().prepareStatement(insertSql)) {
                     pstmt.setString(1, "ADMIN_DEFAULT");
                     pstmt.setString(2, "admin");
                     pstmt.setString(3, "admin1234"); // In production, this should be hashed
@@ -223,31 +477,61 @@ public class DatabaseManager {
     /**
      * Save a user to the database (with Firebase fields)
      */
-    public void saveUser(User user) {
-        String sql = "INSERT OR REPLACE INTO users (username, password, full_name, current_rating, contests_participated, rating_history, email, firebase_uid) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, user.getUsername());
-            pstmt.setString(2, user.getPassword());
-            pstmt.setString(3, user.getFullName());
-            pstmt.setInt(4, user.getCurrentRating());
-            pstmt.setInt(5, user.getContestsParticipated());
-            
-            // Convert rating history to comma-separated string
-            StringBuilder history = new StringBuilder();
-            for (int i = 0; i < user.getRatingHistory().size(); i++) {
-                history.append(user.getRatingHistory().get(i));
-                if (i < user.getRatingHistory().size() - 1) {
-                    history.append(",");
+    public boolean saveUser(User user) {
+        return write(() -> {
+            try (PreparedStatement pstmt = getConnection().prepareStatement(SAVE_USER_SQL)) {
+                bindUser(pstmt, user);
+                pstmt.executeUpdate();
+                return true;
+            } catch (SQLException e) {
+                System.err.println("Failed to save user: " + e.getMessage());
+                return false;
+            }
+        });
+    }
+
+    /**
+     * Save several users as one batched transaction
+     */
+    public boolean saveUsers(Collection<User> users) {
+        if (users.isEmpty()) {
+            return true;
+        }
+        return write(() -> {
+            try (PreparedStatement pstmt = getConnection().prepareStatement(SAVE_USER_SQL)) {
+                for (User user : users) {
+                    bindUser(pstmt, user);
+                    pstmt.addBatch();
                 }
+                pstmt.executeBatch();
+                return true;
+            } catch (SQLException e) {
+                System.err.println("Failed to save users: " + e.getMessage());
+                return false;
             }
-            pstmt.setString(6, history.toString());
-            pstmt.setString(7, user.getEmail());
-            pstmt.setString(8, user.getFirebaseUid());
-            
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            System.err.println("Failed to save user: " + e.getMessage());
+        });
+    }
+
+    private void bindUser(PreparedStatement pstmt, User user) throws SQLException {
+        pstmt.setString(1, user.getUsername());
+        pstmt.setString(2, user.getPassword());
+        pstmt.setString(3, user.getFullName());
+        pstmt.setInt(4, user.getCurrentRating());
+        pstmt.setInt(5, user.getContestsParticipated());
+        
+        // The comma-separated column is still written for the Firebase export tools
+        RatingSeries series = user.getRatingSeries();
+        StringBuilder history = new StringBuilder();
+        for (int rating : series.toArray()) {
+            if (history.length() > 0) {
+                history.append(",");
+            }
+            history.append(rating);
         }
+        pstmt.setString(6, history.toString());
+        pstmt.setString(7, user.getEmail());
+        pstmt.setString(8, user.getFirebaseUid());
+        pstmt.setBytes(9, series.toBytes());
     }
 
     /**
@@ -255,38 +539,12 @@ public class DatabaseManager {
      */
     public User loadUser(String username) {
         String sql = "SELECT * FROM users WHERE username = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
             pstmt.setString(1, username);
             ResultSet rs = pstmt.executeQuery();
             
             if (rs.next()) {
-                User user = new User(
-                    rs.getString("username"),
-                    rs.getString("password"),
-                    rs.getInt("current_rating"),
-                    rs.getInt("contests_participated"),
-                    rs.getString("full_name")
-                );
-                
-                // Parse rating history
-                String historyStr = rs.getString("rating_history");
-                if (historyStr != null && !historyStr.isEmpty()) {
-                    user.getRatingHistory().clear();
-                    String[] ratings = historyStr.split(",");
-                    for (String rating : ratings) {
-                        user.getRatingHistory().add(Integer.parseInt(rating.trim()));
-                    }
-                }
-                
-                // Load Firebase fields (handle null for older databases)
-                try {
-                    user.setEmail(rs.getString("email"));
-                    user.setFirebaseUid(rs.getString("firebase_uid"));
-                } catch (SQLException e) {
-                    // Columns might not exist in older databases
-                }
-                
-                return user;
+                return mapUser(rs);
             }
         } catch (SQLException e) {
             System.err.println("Failed to load user: " + e.getMessage());
@@ -294,69 +552,137 @@ public class DatabaseManager {
         return null;
     }
 
+    /**
+     * Load every user with a single query
+     */
+    public List<User> loadAllUsers() {
+        List<User> users = new ArrayList<>();
+        try (Statement stmt = getConnection().createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT * FROM users")) {
+            while (rs.next()) {
+                users.add(mapUser(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Failed to load users: " + e.getMessage());
+        }
+        return users;
+    }
+
+    private User mapUser(ResultSet rs) throws SQLException {
+        User user = new User(
+            rs.getString("username"),
+            rs.getString("password"),
+            rs.getInt("current_rating"),
+            rs.getInt("contests_participated"),
+            rs.getString("full_name")
+        );
+        
+        // Rows written before the encoded column existed only have the comma-separated history
+        byte[] seriesBytes = rs.getBytes("rating_series");
+        String historyStr = rs.getString("rating_history");
+        if (seriesBytes != null && seriesBytes.length > 0) {
+            user.setRatingSeries(RatingSeries.fromBytes(seriesBytes));
+        } else if (historyStr != null && !historyStr.isEmpty()) {
+            RatingSeries series = new RatingSeries();
+            for (String rating : historyStr.split(",")) {
+                series.add(Integer.parseInt(rating.trim()));
+            }
+            user.setRatingSeries(series);
+        }
+        
+        // Load Firebase fields (handle null for older databases)
+        try {
+            user.setEmail(rs.getString("email"));
+            user.setFirebaseUid(rs.getString("firebase_uid"));
+        } catch (SQLException e) {
+            // Columns might not exist in older databases
+        }
+        
+        return user;
+    }
+
     /**
      * Save a contest to the database
+     * @return true if the contest and its participants were written
      */
-    public void saveContest(Contest contest) {
-        String sql = "INSERT OR REPLACE INTO contests (contest_id, contest_name, date_time, duration, is_past) VALUES (?, ?, ?, ?, ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, contest.getContestId());
-            pstmt.setString(2, contest.getContestName());
-            pstmt.setString(3, contest.getDateTime().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-            pstmt.setInt(4, contest.getDuration());
-            pstmt.setInt(5, contest.isPast() ? 1 : 0);
+    public boolean saveContest(Contest contest) {
+        return write(() -> {
+            String sql = "INSERT OR REPLACE INTO contests (contest_id, contest_name, date_time, duration, is_past, date_time_epoch) VALUES (?, ?, ?, ?, ?, ?)";
+            try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
+                pstmt.setString(1, contest.getContestId());
+                pstmt.setString(2, contest.getContestName());
+                pstmt.setString(3, contest.getDateTime().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+                pstmt.setInt(4, contest.getDuration());
+                pstmt.setInt(5, contest.isPast() ? 1 : 0);
+                pstmt.setLong(6, contest.getDateTimeEpochSeconds());
             
-            pstmt.executeUpdate();
+                pstmt.executeUpdate();
             
-            // Save participants
-            saveParticipants(contest);
-        } catch (SQLException e) {
-            System.err.println("Failed to save contest: " + e.getMessage());
-        }
+                // Save participants unless they are still the ones stored in the database
+                if (!contest.isParticipantsLazy()) {
+                    saveParticipants(contest);
+                }
+            } catch (SQLException e) {
+                System.err.println("Failed to save contest: " + e.getMessage());
+                return false;
+            } finally {
+                invalidateContest(contest.getContestId());
+            }
+            snapshotPastContest(contest.getContestId());
+            return true;
+        });
     }
     
     /**
      * Save a contest with admin support (enhanced version)
+     * @return true if the contest and its participants were written
      */
-    public void saveContestWithAdmin(Contest contest) {
-        String sql = "INSERT OR REPLACE INTO contests (contest_id, contest_name, date_time, duration, is_past, created_by_admin, max_participants, registration_open) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, contest.getContestId());
-            pstmt.setString(2, contest.getContestName());
-            pstmt.setString(3, contest.getDateTime().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-            pstmt.setInt(4, contest.getDuration());
-            pstmt.setInt(5, contest.isPast() ? 1 : 0);
-            pstmt.setString(6, contest.getCreatedByAdmin());
-            pstmt.setInt(7, contest.getMaxParticipants());
-            pstmt.setInt(8, contest.isRegistrationOpen() ? 1 : 0);
+    public boolean saveContestWithAdmin(Contest contest) {
+        return write(() -> {
+            String sql = "INSERT OR REPLACE INTO contests (contest_id, contest_name, date_time, duration, is_past, created_by_admin, max_participants, registration_open, date_time_epoch) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+            try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
+                pstmt.setString(1, contest.getContestId());
+                pstmt.setString(2, contest.getContestName());
+                pstmt.setString(3, contest.getDateTime().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+                pstmt.setInt(4, contest.getDuration());
+                pstmt.setInt(5, contest.isPast() ? 1 : 0);
+                pstmt.setString(6, contest.getCreatedByAdmin());
+                pstmt.setInt(7, contest.getMaxParticipants());
+                pstmt.setInt(8, contest.isRegistrationOpen() ? 1 : 0);
+                pstmt.setLong(9, contest.getDateTimeEpochSeconds());
             
-            pstmt.executeUpdate();
+                pstmt.executeUpdate();
             
-            // Save participants if any
-            if (contest.getParticipants() != null && !contest.getParticipants().isEmpty()) {
-                saveParticipants(contest);
+                // Save participants if any
+                if (!contest.isParticipantsLazy() && !contest.getParticipants().isEmpty()) {
+                    saveParticipants(contest);
+                }
+            } catch (SQLException e) {
+                System.err.println("Failed to save contest with admin: " + e.getMessage());
+                return false;
+            } finally {
+                invalidateContest(contest.getContestId());
             }
-        } catch (SQLException e) {
-            System.err.println("Failed to save contest with admin: " + e.getMessage());
-        }
+            snapshotPastContest(contest.getContestId());
+            return true;
+        });
     }
 
     /**
-     * Save participants for a contest
+     * Save participants for a contest. Throws on failure, so the caller's write rolls back
+     * instead of committing a partial list.
      */
-    private void saveParticipants(Contest contest) {
+    private void saveParticipants(Contest contest) throws SQLException {
         // First, delete existing participants for this contest
         String deleteSql = "DELETE FROM participants WHERE contest_id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(deleteSql)) {
+        try (PreparedStatement pstmt = getConnection().prepareStatement(deleteSql)) {
             pstmt.setString(1, contest.getContestId());
             pstmt.executeUpdate();
-        } catch (SQLException e) {
-            System.err.println("Failed to delete old participants: " + e.getMessage());
         }
         
         // Insert new participants
         String insertSql = "INSERT INTO participants (contest_id, username, current_rating, problems_solved, total_penalty, rank, predicted_rating, rating_change) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(insertSql)) {
+        try (PreparedStatement pstmt = getConnection().prepareStatement(insertSql)) {
             for (Participant p : contest.getParticipants()) {
                 pstmt.setString(1, contest.getContestId());
                 pstmt.setString(2, p.getUsername());
@@ -368,8 +694,6 @@ public class DatabaseManager {
                 pstmt.setInt(8, p.getRatingChange());
                 pstmt.executeUpdate();
             }
-        } catch (SQLException e) {
-            System.err.println("Failed to save participants: " + e.getMessage());
         }
     }
 
@@ -377,24 +701,43 @@ public class DatabaseManager {
      * Load a contest from the database
      */
     public Contest loadContest(String contestId) {
+        Contest header = contestCache.get(contestId, this::queryContestHeader);
+        return header != null ? toContest(header) : null;
+    }
+
+    /**
+     * Copy a cached contest row into a fresh contest whose participants load on first access
+     */
+    private Contest toContest(Contest header) {
+        Contest contest = new Contest(
+            header.getContestId(),
+            header.getContestName(),
+            header.getDateTimeEpochSeconds(),
+            header.getDuration(),
+            header.isPast()
+        );
+        contest.setCreatedByAdmin(header.getCreatedByAdmin());
+        contest.setMaxParticipants(header.getMaxParticipants());
+        contest.setRegistrationOpen(header.isRegistrationOpen());
+        
+        // Participants are loaded on first access, so listing contests stays cheap
+        String contestId = header.getContestId();
+        contest.setParticipantLoader(() -> getParticipantsByContest(contestId));
+        
+        return contest;
+    }
+
+    /**
+     * Query the contest row without participants (cache loader)
+     */
+    private Contest queryContestHeader(String contestId) {
         String sql = "SELECT * FROM contests WHERE contest_id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
             pstmt.setString(1, contestId);
             ResultSet rs = pstmt.executeQuery();
             
             if (rs.next()) {
-                Contest contest = new Contest(
-                    rs.getString("contest_id"),
-                    rs.getString("contest_name"),
-                    LocalDateTime.parse(rs.getString("date_time"), DateTimeFormatter.ISO_LOCAL_DATE_TIME),
-                    rs.getInt("duration"),
-                    rs.getInt("is_past") == 1
-                );
-                
-                // Load participants
-                loadParticipantsForContest(contest);
-                
-                return contest;
+                return mapContestHeader(rs);
             }
         } catch (SQLException e) {
             System.err.println("Failed to load contest: " + e.getMessage());
@@ -402,60 +745,98 @@ public class DatabaseManager {
         return null;
     }
 
+    private static Contest mapContestHeader(ResultSet rs) throws SQLException {
+        Contest header = new Contest(
+            rs.getString("contest_id"),
+            rs.getString("contest_name"),
+            readEpochSeconds(rs, "date_time", DateTimeFormatter.ISO_LOCAL_DATE_TIME),
+            rs.getInt("duration"),
+            rs.getInt("is_past") == 1
+        );
+        header.setCreatedByAdmin(rs.getString("created_by_admin"));
+        header.setMaxParticipants(rs.getInt("max_participants"));
+        header.setRegistrationOpen(rs.getInt("registration_open") == 1);
+        return header;
+    }
+
     /**
-     * Load participants for a contest
+     * Load all contests from the database
      */
-    private void loadParticipantsForContest(Contest contest) {
-        String sql = "SELECT * FROM participants WHERE contest_id = ? ORDER BY rank ASC";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, contest.getContestId());
-            ResultSet rs = pstmt.executeQuery();
+    public List<Contest> loadAllContests() {
+        List<Contest> contests = new ArrayList<>();
+        String sql = "SELECT * FROM contests";
+        try (Statement stmt = getConnection().createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
             
             while (rs.next()) {
-                Participant p = new Participant(
-                    rs.getString("username"),
-                    rs.getInt("current_rating"),
-                    rs.getInt("problems_solved"),
-                    rs.getInt("total_penalty")
-                );
-                p.setRank(rs.getInt("rank"));
-                p.setPredictedRating(rs.getInt("predicted_rating"));
-                p.setRatingChange(rs.getInt("rating_change"));
-                
-                contest.addParticipant(p);
+                contests.add(toContest(mapContestHeader(rs)));
             }
         } catch (SQLException e) {
-            System.err.println("Failed to load participants: " + e.getMessage());
+            System.err.println("Failed to load contests: " + e.getMessage());
         }
+        return contests;
     }
 
     /**
-     * Load all contests from the database
+     * Load the contests scheduled in [from, to), e.g. the next 7 days, using the date index
      */
-    public List<Contest> loadAllContests() {
+    public List<Contest> loadContestsBetween(LocalDateTime from, LocalDateTime to) {
         List<Contest> contests = new ArrayList<>();
-        String sql = "SELECT contest_id FROM contests";
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        String sql = "SELECT * FROM contests WHERE date_time_epoch >= ? AND date_time_epoch < ? ORDER BY date_time_epoch";
+        try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
+            pstmt.setLong(1, toEpochSeconds(from));
+            pstmt.setLong(2, toEpochSeconds(to));
+            ResultSet rs = pstmt.executeQuery();
             
             while (rs.next()) {
-                Contest contest = loadContest(rs.getString("contest_id"));
-                if (contest != null) {
-                    contests.add(contest);
-                }
+                contests.add(toContest(mapContestHeader(rs)));
             }
         } catch (SQLException e) {
-            System.err.println("Failed to load contests: " + e.getMessage());
+            System.err.println("Failed to load contests by date: " + e.getMessage());
         }
         return contests;
     }
 
+    /**
+     * Search contest names and ids through the full-text index, best matches first.
+     * Every word of the query must match the start of a word in the name or id.
+     * @param past true for past contests only, false for upcoming only, null for both
+     * @return Matching contest ids, at most limit of them
+     */
+    public List<String> searchContestIds(String text, Boolean past, int limit) {
+        List<String> ids = new ArrayList<>();
+        String match = toMatchQuery(text);
+        if (match == null) {
+            return ids;
+        }
+        // A match on the id weighs more than one in the name
+        String sql = "SELECT c.contest_id FROM contests_fts JOIN contests c ON c.rowid = contests_fts.rowid " +
+                "WHERE contests_fts MATCH ?" + (past == null ? "" : " AND c.is_past = ?") +
+                " ORDER BY bm25(contests_fts, 4.0, 1.0) LIMIT ?";
+        try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
+            int index = 1;
+            pstmt.setString(index++, match);
+            if (past != null) {
+                pstmt.setInt(index++, past ? 1 : 0);
+            }
+            pstmt.setInt(index, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getString(1));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Failed to search contests: " + e.getMessage());
+        }
+        return ids;
+    }
+
     /**
      * Check if database has contests
      */
     public boolean hasContests() {
         String sql = "SELECT COUNT(*) FROM contests";
-        try (Statement stmt = connection.createStatement();
+        try (Statement stmt = getConnection().createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             if (rs.next()) {
                 return rs.getInt(1) > 0;
@@ -470,112 +851,453 @@ public class DatabaseManager {
      * Get participants by contest ID
      */
     public List<Participant> getParticipantsByContest(String contestId) {
+        List<Participant> cached = participantsCache.get(contestId, this::queryParticipantsByContest);
+        List<Participant> participants = new ArrayList<>(cached.size());
+        for (Participant p : cached) {
+            participants.add(new Participant(p));
+        }
+        return participants;
+    }
+    
+    /**
+     * Query participants ordered by rank (cache loader, returns an unmodifiable snapshot)
+     */
+    private List<Participant> queryParticipantsByContest(String contestId) {
         List<Participant> participants = new ArrayList<>();
         String sql = "SELECT * FROM participants WHERE contest_id = ? ORDER BY rank ASC";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
             pstmt.setString(1, contestId);
             ResultSet rs = pstmt.executeQuery();
             
             while (rs.next()) {
-                Participant p = new Participant(
-                    rs.getString("username"),
-                    rs.getInt("current_rating"),
-                    rs.getInt("problems_solved"),
-                    rs.getInt("total_penalty")
-                );
-                p.setRank(rs.getInt("rank"));
-                p.setPredictedRating(rs.getInt("predicted_rating"));
-                p.setRatingChange(rs.getInt("rating_change"));
-                
-                participants.add(p);
+                participants.add(mapParticipant(rs));
             }
         } catch (SQLException e) {
             System.err.println("Failed to get participants: " + e.getMessage());
         }
         
-        return participants;
+        return Collections.unmodifiableList(participants);
     }
     
     /**
-     * Save a single participant to a contest
+     * Get one rank-ordered page of a contest's participants using keyset pagination
+     * @param contestId Contest to read
+     * @param after Cursor returned by the previous page, or StandingsPage.Cursor.START
+     * @param limit Maximum number of participants in the page; 0 or less gives an empty last page
      */
-    public boolean saveParticipant(String contestId, Participant participant) {
-        String sql = "INSERT INTO participants (contest_id, username, current_rating, problems_solved, total_penalty, rank, predicted_rating, rating_change) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    public StandingsPage<Participant> getParticipantsPage(String contestId, StandingsPage.Cursor after, int limit) {
+        if (limit <= 0) {
+            return StandingsPage.empty();
+        }
+        List<Participant> participants = new ArrayList<>();
+        StandingsPage.Cursor next = null;
+        String sql = "SELECT * FROM participants WHERE contest_id = ? AND (rank, id) > (?, ?) " +
+                     "ORDER BY rank ASC, id ASC LIMIT ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
             pstmt.setString(1, contestId);
-            pstmt.setString(2, participant.getUsername());
-            pstmt.setInt(3, participant.getCurrentRating());
-            pstmt.setInt(4, participant.getProblemsSolved());
-            pstmt.setInt(5, participant.getTotalPenalty());
-            pstmt.setInt(6, participant.getRank());
-            pstmt.setInt(7, participant.getPredictedRating());
-            pstmt.setInt(8, participant.getRatingChange());
+            pstmt.setInt(2, after.getRank());
+            pstmt.setLong(3, after.getRowId());
+            pstmt.setInt(4, limit + 1); // One extra row tells us whether another page exists
+            ResultSet rs = pstmt.executeQuery();
             
-            pstmt.executeUpdate();
-            return true;
+            long lastRowId = 0;
+            while (rs.next()) {
+                if (participants.size() == limit) {
+                    Participant last = participants.get(limit - 1);
+                    next = new StandingsPage.Cursor(last.getRank(), lastRowId);
+                    break;
+                }
+                participants.add(mapParticipant(rs));
+                lastRowId = rs.getLong("id");
+            }
         } catch (SQLException e) {
-            System.err.println("Failed to save participant: " + e.getMessage());
-            return false;
+            System.err.println("Failed to get participants page: " + e.getMessage());
         }
+        
+        return new StandingsPage<>(participants, next);
     }
     
     /**
-     * Remove a participant from a contest
+     * Get a page of participants ranked strictly after the given rank
      */
-    public boolean removeParticipant(String contestId, String username) {
-        String sql = "DELETE FROM participants WHERE contest_id = ? AND username = ?";
+    public StandingsPage<Participant> getStandingsPage(String contestId, int afterRank, int limit) {
+        return getParticipantsPage(contestId, StandingsPage.Cursor.afterRank(afterRank), limit);
+    }
+    
+    /**
+     * Count a contest's participants
+     * @param usernamePrefix Only count usernames starting with this, or null for all
+     */
+    public int countParticipants(String contestId, String usernamePrefix) {
+        String sql = "SELECT COUNT(*) FROM participants WHERE contest_id = ?" + usernameRange(usernamePrefix);
+        
+        try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
+            pstmt.setString(1, contestId);
+            bindUsernameRange(pstmt, 2, usernamePrefix);
+            ResultSet rs = pstmt.executeQuery();
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (SQLException e) {
+            System.err.println("Failed to count participants: " + e.getMessage());
+            return 0;
+        }
+    }
+    
+    /**
+     * Count the participants of several contests in one query, e.g. for a list of contest cards
+     * @return Participant count per contest id; contests without participants are left out
+     */
+    public Map<String, Integer> countParticipantsByContest(Collection<String> contestIds) {
+        Map<String, Integer> counts = new HashMap<>();
+        if (contestIds.isEmpty()) {
+            return counts;
+        }
+        String sql = "SELECT contest_id, COUNT(*) FROM participants WHERE contest_id IN (" +
+                     String.join(",", Collections.nCopies(contestIds.size(), "?")) + ") GROUP BY contest_id";
+        
+        try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
+            int index = 1;
+            for (String contestId : contestIds) {
+                pstmt.setString(index++, contestId);
+            }
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                counts.put(rs.getString(1), rs.getInt(2));
+            }
+        } catch (SQLException e) {
+            System.err.println("Failed to count participants: " + e.getMessage());
+        }
+        return counts;
+    }
+    
+    /**
+     * Get the participants at positions [offset, offset + limit) of a contest in the given order.
+     * Only columns with an index can be sorted on; any other column falls back to rank.
+     * Sequential reads from the top are cheaper through getParticipantsPage.
+     * @param sortColumn One of PARTICIPANT_SORT_COLUMNS
+     * @param usernamePrefix Only return usernames starting with this, or null for all
+     */
+    public List<Participant> getParticipantsSlice(String contestId, String sortColumn, boolean descending,
+                                                  String usernamePrefix, int offset, int limit) {
+        List<Participant> participants = new ArrayList<>();
+        if (!PARTICIPANT_SORT_COLUMNS.contains(sortColumn)) {
+            System.err.println("Participants cannot be sorted by " + sortColumn + ", using rank");
+            sortColumn = "rank";
+        }
+        String direction = descending ? " DESC" : " ASC";
+        String sql = "SELECT * FROM participants WHERE contest_id = ?" + usernameRange(usernamePrefix) +
+                     " ORDER BY " + sortColumn + direction + ", id" + direction + " LIMIT ? OFFSET ?";
+        
+        try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
+            pstmt.setString(1, contestId);
+            int index = bindUsernameRange(pstmt, 2, usernamePrefix);
+            pstmt.setInt(index, limit);
+            pstmt.setInt(index + 1, offset);
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                participants.add(mapParticipant(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Failed to get participants slice: " + e.getMessage());
+        }
+        
+        return participants;
+    }
+    
+    /**
+     * SQL condition matching usernames that start with a prefix, as a range the
+     * (contest_id, username) indexes can seek to; empty when there is no prefix
+     */
+    static String usernameRange(String usernamePrefix) {
+        return usernamePrefix == null || usernamePrefix.isEmpty() ? "" : " AND username >= ? AND username < ?";
+    }
+    
+    /**
+     * Bind the parameters of usernameRange starting at index
+     * @return The index of the next parameter
+     */
+    static int bindUsernameRange(PreparedStatement pstmt, int index, String usernamePrefix) throws SQLException {
+        if (usernamePrefix == null || usernamePrefix.isEmpty()) {
+            return index;
+        }
+        pstmt.setString(index, usernamePrefix);
+        pstmt.setString(index + 1, usernamePrefix + Character.MAX_VALUE);
+        return index + 2;
+    }
+    
+    /**
+     * Look up a user's rank in a contest without loading the standings
+     * @return The rank, or -1 if the user did not participate
+     */
+    public int findRankOf(String contestId, String username) {
+        String sql = "SELECT rank FROM participants WHERE contest_id = ? AND username = ? LIMIT 1";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
             pstmt.setString(1, contestId);
             pstmt.setString(2, username);
-            
-            int rowsAffected = pstmt.executeUpdate();
-            return rowsAffected > 0;
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) {
+                return rs.getInt("rank");
+            }
+        } catch (SQLException e) {
+            System.err.println("Failed to find rank: " + e.getMessage());
+        }
+        return -1;
+    }
+    
+    private Participant mapParticipant(ResultSet rs) throws SQLException {
+        Participant p = new Participant(
+            rs.getString("username"),
+            rs.getInt("current_rating"),
+            rs.getInt("problems_solved"),
+            rs.getInt("total_penalty")
+        );
+        p.setRank(rs.getInt("rank"));
+        p.setPredictedRating(rs.getInt("predicted_rating"));
+        p.setRatingChange(rs.getInt("rating_change"));
+        return p;
+    }
+    
+    /**
+     * Delete contests together with their registrations, participants and rating
+     * history as one write, so either all rows go or none do, and a batch of
+     * contests costs one transaction.
+     * @return true if the delete was committed
+     */
+    public boolean deleteContests(Collection<String> contestIds) {
+        if (contestIds.isEmpty()) {
+            return true;
+        }
+        // The writer runs each operation in its own savepoint, so a failure leaves every row in place
+        return write(() -> {
+            try {
+                for (String table : CONTEST_CHILD_TABLES) {
+                    deleteByContest(table, contestIds);
+                }
+                deleteByContest("contests", contestIds);
+                return true;
+            } catch (SQLException e) {
+                System.err.println("Failed to delete contests: " + e.getMessage());
+                return false;
+            } finally {
+                for (String contestId : contestIds) {
+                    invalidateContest(contestId);
+                }
+            }
+        });
+    }
+    
+    private void deleteByContest(String table, Collection<String> contestIds) throws SQLException {
+        try (PreparedStatement pstmt = getConnection().prepareStatement("DELETE FROM " + table + " WHERE contest_id = ?")) {
+            for (String contestId : contestIds) {
+                pstmt.setString(1, contestId);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+    
+    /**
+     * Drop cached rows for a contest after it was written or deleted.
+     * Dropped again once the write commits, since readers use their own connection
+     * and may cache the old rows in between.
+     */
+    public void invalidateContest(String contestId) {
+        Runnable invalidate = () -> {
+            contestCache.invalidate(contestId);
+            participantsCache.invalidate(contestId);
+            StandingsSnapshotStore.getInstance().discardContestSnapshot(contestId);
+        };
+        invalidate.run();
+        WriteBehindQueue.getInstance().afterCommit(invalidate);
+    }
+    
+    /**
+     * Write the binary standings snapshot of a past contest once the current write commits.
+     * Called inside the write that stored the contest's final rows, after its invalidation,
+     * so the rows are read on the writer's connection and no later write can slip in between.
+     * Contests whose standings change afterwards lose the snapshot until this runs again.
+     */
+    void snapshotPastContest(String contestId) {
+        Contest header = queryContestHeader(contestId);
+        if (header == null || !header.isPast()) {
+            return;
+        }
+        List<Participant> participants = queryParticipantsByContest(contestId);
+        if (!participants.isEmpty()) {
+            WriteBehindQueue.getInstance().onCommit(() -> StandingsSnapshotStore.getInstance()
+                .saveContestSnapshot(contestId, header.getDateTime(), participants));
+        }
+    }
+    
+    /**
+     * Drop cached standings for a contest after one of its participants changed
+     */
+    private void invalidateParticipants(String contestId) {
+        Runnable invalidate = () -> {
+            participantsCache.invalidate(contestId);
+            StandingsSnapshotStore.getInstance().discardContestSnapshot(contestId);
+        };
+        invalidate.run();
+        WriteBehindQueue.getInstance().afterCommit(invalidate);
+    }
+    
+    /**
+     * Read the row counters maintained by the stats triggers
+     */
+    public DashboardStats getDashboardStats() {
+        Map<String, Long> values = new HashMap<>();
+        try (Statement stmt = getConnection().createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT name, value FROM stats")) {
+            while (rs.next()) {
+                values.put(rs.getString("name"), rs.getLong("value"));
+            }
         } catch (SQLException e) {
-            System.err.println("Failed to remove participant: " + e.getMessage());
-            return false;
+            System.err.println("Failed to load dashboard stats: " + e.getMessage());
         }
+        return new DashboardStats(values.getOrDefault(STAT_CONTESTS, 0L),
+                values.getOrDefault(STAT_FUTURE_CONTESTS, 0L),
+                values.getOrDefault(STAT_USERS, 0L),
+                values.getOrDefault(STAT_PARTICIPANTS, 0L));
+    }
+
+    /**
+     * Hit/miss statistics for the contest and participant caches
+     */
+    public List<WeightedLruCache.Stats> getCacheStats() {
+        List<WeightedLruCache.Stats> stats = new ArrayList<>();
+        stats.add(contestCache.stats());
+        stats.add(participantsCache.stats());
+        return stats;
+    }
+    
+    /**
+     * Save a single participant to a contest
+     */
+    public boolean saveParticipant(String contestId, Participant participant) {
+        return write(() -> {
+            String sql = "INSERT INTO participants (contest_id, username, current_rating, problems_solved, total_penalty, rank, predicted_rating, rating_change) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        
+            try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
+                pstmt.setString(1, contestId);
+                pstmt.setString(2, participant.getUsername());
+                pstmt.setInt(3, participant.getCurrentRating());
+                pstmt.setInt(4, participant.getProblemsSolved());
+                pstmt.setInt(5, participant.getTotalPenalty());
+                pstmt.setInt(6, participant.getRank());
+                pstmt.setInt(7, participant.getPredictedRating());
+                pstmt.setInt(8, participant.getRatingChange());
+            
+                pstmt.executeUpdate();
+                return true;
+            } catch (SQLException e) {
+                System.err.println("Failed to save participant: " + e.getMessage());
+                return false;
+            } finally {
+                invalidateParticipants(contestId);
+            }
+        });
+    }
+    
+    /**
+     * Remove a participant from a contest
+     */
+    public boolean removeParticipant(String contestId, String username) {
+        return write(() -> {
+            String sql = "DELETE FROM participants WHERE contest_id = ? AND username = ?";
+        
+            try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
+                pstmt.setString(1, contestId);
+                pstmt.setString(2, username);
+            
+                int rowsAffected = pstmt.executeUpdate();
+                return rowsAffected > 0;
+            } catch (SQLException e) {
+                System.err.println("Failed to remove participant: " + e.getMessage());
+                return false;
+            } finally {
+                invalidateParticipants(contestId);
+            }
+        });
     }
     
     /**
      * Update participant's solve count and penalty
      */
     public boolean updateParticipantSolveCount(String contestId, String username, int problemsSolved, int totalPenalty) {
-        String sql = "UPDATE participants SET problems_solved = ?, total_penalty = ? WHERE contest_id = ? AND username = ?";
+        return write(() -> {
+            String sql = "UPDATE participants SET problems_solved = ?, total_penalty = ? WHERE contest_id = ? AND username = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, problemsSolved);
-            pstmt.setInt(2, totalPenalty);
-            pstmt.setString(3, contestId);
-            pstmt.setString(4, username);
+            try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
+                pstmt.setInt(1, problemsSolved);
+                pstmt.setInt(2, totalPenalty);
+                pstmt.setString(3, contestId);
+                pstmt.setString(4, username);
             
-            int rowsAffected = pstmt.executeUpdate();
-            return rowsAffected > 0;
-        } catch (SQLException e) {
-            System.err.println("Failed to update participant solve count: " + e.getMessage());
-            return false;
-        }
+                int rowsAffected = pstmt.executeUpdate();
+                return rowsAffected > 0;
+            } catch (SQLException e) {
+                System.err.println("Failed to update participant solve count: " + e.getMessage());
+                return false;
+            } finally {
+                invalidateParticipants(contestId);
+            }
+        });
+    }
+    
+    /**
+     * Save the ranks, rating predictions and solve counts of a contest's participants
+     * as one write
+     */
+    public boolean saveParticipantResults(String contestId, List<Participant> participants) {
+        return write(() -> {
+            String sql = "UPDATE participants SET problems_solved = ?, total_penalty = ?, rank = ?, predicted_rating = ?, rating_change = ? WHERE contest_id = ? AND username = ?";
+        
+            try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
+                for (Participant p : participants) {
+                    pstmt.setInt(1, p.getProblemsSolved());
+                    pstmt.setInt(2, p.getTotalPenalty());
+                    pstmt.setInt(3, p.getRank());
+                    pstmt.setInt(4, p.getPredictedRating());
+                    pstmt.setInt(5, p.getRatingChange());
+                    pstmt.setString(6, contestId);
+                    pstmt.setString(7, p.getUsername());
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            } catch (SQLException e) {
+                System.err.println("Failed to save participant results: " + e.getMessage());
+                return false;
+            } finally {
+                invalidateParticipants(contestId);
+            }
+            snapshotPastContest(contestId);
+            return true;
+        });
     }
     
     /**
      * Register a user for a contest
      */
     public boolean registerUserForContest(String contestId, String username) {
-        String sql = "INSERT OR IGNORE INTO contest_registrations (contest_id, username, registered_at) VALUES (?, ?, ?)";
+        return write(() -> {
+            String sql = "INSERT OR IGNORE INTO contest_registrations (contest_id, username, registered_at, registered_at_epoch) VALUES (?, ?, ?, ?)";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, contestId);
-            pstmt.setString(2, username);
-            pstmt.setString(3, LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
+                LocalDateTime now = LocalDateTime.now();
+                pstmt.setString(1, contestId);
+                pstmt.setString(2, username);
+                pstmt.setString(3, now.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+                pstmt.setLong(4, toEpochSeconds(now));
             
-            int rowsAffected = pstmt.executeUpdate();
-            return rowsAffected > 0;
-        } catch (SQLException e) {
-            System.err.println("Failed to register user for contest: " + e.getMessage());
-            return false;
-        }
+                int rowsAffected = pstmt.executeUpdate();
+                return rowsAffected > 0;
+            } catch (SQLException e) {
+                System.err.println("Failed to register user for contest: " + e.getMessage());
+                return false;
+            }
+        });
     }
     
     /**
@@ -583,9 +1305,9 @@ public class DatabaseManager {
      */
     public List<String> getRegisteredUsers(String contestId) {
         List<String> users = new ArrayList<>();
-        String sql = "SELECT username FROM contest_registrations WHERE contest_id = ? ORDER BY registered_at";
+        String sql = "SELECT username FROM contest_registrations WHERE contest_id = ? ORDER BY registered_at_epoch, id";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
             pstmt.setString(1, contestId);
             ResultSet rs = pstmt.executeQuery();
             
@@ -605,7 +1327,7 @@ public class DatabaseManager {
     public boolean isUserRegisteredForContest(String contestId, String username) {
         String sql = "SELECT COUNT(*) FROM contest_registrations WHERE contest_id = ? AND username = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
             pstmt.setString(1, contestId);
             pstmt.setString(2, username);
             
@@ -625,6 +1347,9 @@ public class DatabaseManager {
      */
     public void close() {
         try {
+            if (writeConnection != null && !writeConnection.isClosed()) {
+                writeConnection.close();
+            }
             if (connection != null && !connection.isClosed()) {
                 connection.close();
                 System.out.println("Database connection closed");
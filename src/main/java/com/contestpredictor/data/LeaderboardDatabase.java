@@ -12,19 +12,34 @@ import java.util.*;
  * Handles creation, registration, standings, and aggregation of leaderboard contests
  */
 public class LeaderboardDatabase {
-    private static LeaderboardDatabase instance;
+    // Columns the paged standings can be sorted on, each backed by an index
+    public static final Set<String> ENTRY_SORT_COLUMNS = Set.of("rank", "username");
+    public static final Set<String> COMBINED_SORT_COLUMNS =
+            Set.of("overall_rank", "username", "total_solves", "contests_participated");
+    // Rank a contest's entries by solves, then penalty; ties keep the order the entries were added in
+    static final String RANK_ENTRIES_SQL = "UPDATE leaderboard_entries SET rank = ranked.position FROM (" +
+            "SELECT id, ROW_NUMBER() OVER (ORDER BY solve_count DESC, total_penalty ASC, id) AS position " +
+            "FROM leaderboard_entries WHERE contest_id = ?) AS ranked " +
+            "WHERE leaderboard_entries.id = ranked.id";
+
     private DatabaseManager dbManager;
     private DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    
+    // Read-through cache of per-contest standings, invalidated by every entry write
+    private final WeightedLruCache<String, List<LeaderboardEntry>> standingsCache =
+            new WeightedLruCache<>("leaderboard standings", 4L * 1024 * 1024,
+                    list -> 64 + list.size() * 112L);
 
     private LeaderboardDatabase() {
         dbManager = DatabaseManager.getInstance();
     }
 
+    private static class Holder {
+        private static final LeaderboardDatabase INSTANCE = new LeaderboardDatabase();
+    }
+
     public static LeaderboardDatabase getInstance() {
-        if (instance == null) {
-            instance = new LeaderboardDatabase();
-        }
-        return instance;
+        return Holder.INSTANCE;
     }
 
     // ============ LEADERBOARD CONTEST OPERATIONS ============
@@ -33,31 +48,37 @@ public class LeaderboardDatabase {
      * Create a new leaderboard contest
      */
     public boolean createLeaderboardContest(LeaderboardContest contest) {
-        try {
-            String sql = "INSERT INTO leaderboard_contests " +
-                    "(contest_id, contest_name, description, start_date, end_date, max_problems, " +
-                    "is_active, standings_finalized, created_by_admin, created_at) " +
-                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        return WriteBehindQueue.getInstance().write(() -> {
+            try {
+                String sql = "INSERT INTO leaderboard_contests " +
+                        "(contest_id, contest_name, description, start_date, end_date, max_problems, " +
+                        "is_active, standings_finalized, created_by_admin, created_at, " +
+                        "start_date_epoch, end_date_epoch, created_at_epoch) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
             
-            java.sql.PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
-            pstmt.setString(1, contest.getContestId());
-            pstmt.setString(2, contest.getContestName());
-            pstmt.setString(3, contest.getDescription());
-            pstmt.setString(4, contest.getStartDate().format(formatter));
-            pstmt.setString(5, contest.getEndDate().format(formatter));
-            pstmt.setInt(6, contest.getMaxProblems());
-            pstmt.setInt(7, contest.isActive() ? 1 : 0);
-            pstmt.setInt(8, contest.isStandings_finalized() ? 1 : 0);
-            pstmt.setString(9, contest.getCreatedByAdmin());
-            pstmt.setString(10, contest.getCreatedAt().format(formatter));
+                java.sql.PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+                pstmt.setString(1, contest.getContestId());
+                pstmt.setString(2, contest.getContestName());
+                pstmt.setString(3, contest.getDescription());
+                pstmt.setString(4, contest.getStartDate().format(formatter));
+                pstmt.setString(5, contest.getEndDate().format(formatter));
+                pstmt.setInt(6, contest.getMaxProblems());
+                pstmt.setInt(7, contest.isActive() ? 1 : 0);
+                pstmt.setInt(8, contest.isStandings_finalized() ? 1 : 0);
+                pstmt.setString(9, contest.getCreatedByAdmin());
+                pstmt.setString(10, contest.getCreatedAt().format(formatter));
+                pstmt.setLong(11, contest.getStartDateEpochSeconds());
+                pstmt.setLong(12, contest.getEndDateEpochSeconds());
+                pstmt.setLong(13, contest.getCreatedAtEpochSeconds());
             
-            pstmt.executeUpdate();
-            pstmt.close();
-            return true;
-        } catch (Exception e) {
-            System.err.println("Error creating leaderboard contest: " + e.getMessage());
-            return false;
-        }
+                pstmt.executeUpdate();
+                pstmt.close();
+                return true;
+            } catch (Exception e) {
+                System.err.println("Error creating leaderboard contest: " + e.getMessage());
+                return false;
+            }
+        });
     }
 
     /**
@@ -66,7 +87,7 @@ public class LeaderboardDatabase {
     public List<LeaderboardContest> getAllLeaderboardContests() {
         List<LeaderboardContest> contests = new ArrayList<>();
         try {
-            String sql = "SELECT * FROM leaderboard_contests ORDER BY created_at DESC";
+            String sql = "SELECT * FROM leaderboard_contests ORDER BY created_at_epoch DESC";
             System.out.println("DEBUG LeaderboardDatabase: Executing query: " + sql);
             java.sql.Statement stmt = dbManager.getConnection().createStatement();
             java.sql.ResultSet rs = stmt.executeQuery(sql);
@@ -78,19 +99,7 @@ public class LeaderboardDatabase {
                 String contestName = rs.getString("contest_name");
                 System.out.println("DEBUG LeaderboardDatabase: Found contest " + count + ": " + contestId + " - " + contestName);
                 
-                LeaderboardContest contest = new LeaderboardContest(
-                    contestId,
-                    contestName,
-                    rs.getString("description"),
-                    LocalDateTime.parse(rs.getString("start_date"), formatter),
-                    LocalDateTime.parse(rs.getString("end_date"), formatter),
-                    rs.getInt("max_problems"),
-                    rs.getString("created_by_admin")
-                );
-                contest.setActive(rs.getInt("is_active") == 1);
-                contest.setStandings_finalized(rs.getInt("standings_finalized") == 1);
-                contest.setCreatedAt(LocalDateTime.parse(rs.getString("created_at"), formatter));
-                contests.add(contest);
+                contests.add(mapContest(rs));
             }
             System.out.println("DEBUG LeaderboardDatabase: Total contests loaded: " + count);
             rs.close();
@@ -107,28 +116,15 @@ public class LeaderboardDatabase {
      * Get a specific leaderboard contest by ID
      */
     public LeaderboardContest getLeaderboardContestById(String contestId) {
-        try {
-            String sql = "SELECT * FROM leaderboard_contests WHERE contest_id = ?";
-            java.sql.PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        String sql = "SELECT * FROM leaderboard_contests WHERE contest_id = ?";
+        // Closed on every path: an open result set keeps the reader on an old snapshot
+        try (java.sql.PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
             pstmt.setString(1, contestId);
-            java.sql.ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                LeaderboardContest contest = new LeaderboardContest(
-                    rs.getString("contest_id"),
-                    rs.getString("contest_name"),
-                    rs.getString("description"),
-                    LocalDateTime.parse(rs.getString("start_date"), formatter),
-                    LocalDateTime.parse(rs.getString("end_date"), formatter),
-                    rs.getInt("max_problems"),
-                    rs.getString("created_by_admin")
-                );
-                contest.setActive(rs.getInt("is_active") == 1);
-                contest.setStandings_finalized(rs.getInt("standings_finalized") == 1);
-                return contest;
+            try (java.sql.ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapContest(rs);
+                }
             }
-            rs.close();
-            pstmt.close();
         } catch (Exception e) {
             System.err.println("Error retrieving leaderboard contest: " + e.getMessage());
         }
@@ -139,18 +135,98 @@ public class LeaderboardDatabase {
      * Update leaderboard contest status
      */
     public boolean updateLeaderboardContestStatus(String contestId, boolean isActive) {
+        return WriteBehindQueue.getInstance().write(() -> {
+            try {
+                String sql = "UPDATE leaderboard_contests SET is_active = ? WHERE contest_id = ?";
+                java.sql.PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+                pstmt.setInt(1, isActive ? 1 : 0);
+                pstmt.setString(2, contestId);
+                pstmt.executeUpdate();
+                pstmt.close();
+                return true;
+            } catch (Exception e) {
+                System.err.println("Error updating leaderboard contest status: " + e.getMessage());
+                return false;
+            }
+        });
+    }
+
+    /**
+     * Get the leaderboard contests starting in [from, to), using the start date index
+     */
+    public List<LeaderboardContest> getLeaderboardContestsStartingBetween(LocalDateTime from, LocalDateTime to) {
+        List<LeaderboardContest> contests = new ArrayList<>();
         try {
-            String sql = "UPDATE leaderboard_contests SET is_active = ? WHERE contest_id = ?";
+            String sql = "SELECT * FROM leaderboard_contests WHERE start_date_epoch >= ? AND start_date_epoch < ? " +
+                    "ORDER BY start_date_epoch";
             java.sql.PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
-            pstmt.setInt(1, isActive ? 1 : 0);
-            pstmt.setString(2, contestId);
-            pstmt.executeUpdate();
+            pstmt.setLong(1, DatabaseManager.toEpochSeconds(from));
+            pstmt.setLong(2, DatabaseManager.toEpochSeconds(to));
+            java.sql.ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                contests.add(mapContest(rs));
+            }
+            rs.close();
             pstmt.close();
-            return true;
         } catch (Exception e) {
-            System.err.println("Error updating leaderboard contest status: " + e.getMessage());
-            return false;
+            System.err.println("Error retrieving leaderboard contests by date: " + e.getMessage());
+        }
+        return contests;
+    }
+
+    /**
+     * Search leaderboard contest names, ids and descriptions through the full-text index, best matches first
+     * @param ended true for contests that have ended only, false for ones still running or upcoming, null for both
+     */
+    public List<LeaderboardContest> searchLeaderboardContests(String text, Boolean ended, int limit) {
+        List<LeaderboardContest> contests = new ArrayList<>();
+        String match = DatabaseManager.toMatchQuery(text);
+        if (match == null) {
+            return contests;
+        }
+        String sql = "SELECT l.* FROM leaderboard_contests_fts " +
+                "JOIN leaderboard_contests l ON l.rowid = leaderboard_contests_fts.rowid " +
+                "WHERE leaderboard_contests_fts MATCH ?" +
+                (ended == null ? "" : ended ? " AND l.end_date_epoch < ?" : " AND l.end_date_epoch >= ?") +
+                " ORDER BY bm25(leaderboard_contests_fts, 4.0, 2.0, 1.0) LIMIT ?";
+        try (java.sql.PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
+            int index = 1;
+            pstmt.setString(index++, match);
+            if (ended != null) {
+                pstmt.setLong(index++, DatabaseManager.toEpochSeconds(LocalDateTime.now()));
+            }
+            pstmt.setInt(index, limit);
+            try (java.sql.ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    contests.add(mapContest(rs));
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Error searching leaderboard contests: " + e.getMessage());
         }
+        return contests;
+    }
+
+    /**
+     * Build a contest from the current row, reading dates from the epoch columns
+     */
+    private LeaderboardContest mapContest(java.sql.ResultSet rs) throws java.sql.SQLException {
+        LeaderboardContest contest = new LeaderboardContest(
+            rs.getString("contest_id"),
+            rs.getString("contest_name"),
+            rs.getString("description"),
+            null,
+            null,
+            rs.getInt("max_problems"),
+            rs.getString("created_by_admin")
+        );
+        contest.setStartDateEpochSeconds(DatabaseManager.readEpochSeconds(rs, "start_date", formatter));
+        contest.setEndDateEpochSeconds(DatabaseManager.readEpochSeconds(rs, "end_date", formatter));
+        contest.setCreatedAtEpochSeconds(DatabaseManager.readEpochSeconds(rs, "created_at", formatter));
+        contest.setActive(rs.getInt("is_active") == 1);
+        contest.setStandings_finalized(rs.getInt("standings_finalized") == 1);
+        return contest;
     }
 
     // ============ USER REGISTRATION OPERATIONS ============
@@ -159,38 +235,44 @@ public class LeaderboardDatabase {
      * Register a user for a leaderboard contest
      */
     public boolean registerUserForLeaderboardContest(String contestId, String username) {
-        try {
-            String sql = "INSERT INTO leaderboard_registrations (contest_id, username, registered_at) " +
-                    "VALUES (?, ?, ?)";
-            java.sql.PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
-            pstmt.setString(1, contestId);
-            pstmt.setString(2, username);
-            pstmt.setString(3, LocalDateTime.now().format(formatter));
-            pstmt.executeUpdate();
-            pstmt.close();
-            return true;
-        } catch (Exception e) {
-            System.err.println("Error registering user for leaderboard contest: " + e.getMessage());
-            return false;
-        }
+        return WriteBehindQueue.getInstance().write(() -> {
+            try {
+                String sql = "INSERT INTO leaderboard_registrations (contest_id, username, registered_at, registered_at_epoch) " +
+                        "VALUES (?, ?, ?, ?)";
+                java.sql.PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+                LocalDateTime now = LocalDateTime.now();
+                pstmt.setString(1, contestId);
+                pstmt.setString(2, username);
+                pstmt.setString(3, now.format(formatter));
+                pstmt.setLong(4, DatabaseManager.toEpochSeconds(now));
+                pstmt.executeUpdate();
+                pstmt.close();
+                return true;
+            } catch (Exception e) {
+                System.err.println("Error registering user for leaderboard contest: " + e.getMessage());
+                return false;
+            }
+        });
     }
 
     /**
      * Unregister a user from a leaderboard contest
      */
     public boolean unregisterUserFromLeaderboardContest(String contestId, String username) {
-        try {
-            String sql = "DELETE FROM leaderboard_registrations WHERE contest_id = ? AND username = ?";
-            java.sql.PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
-            pstmt.setString(1, contestId);
-            pstmt.setString(2, username);
-            pstmt.executeUpdate();
-            pstmt.close();
-            return true;
-        } catch (Exception e) {
-            System.err.println("Error unregistering user from leaderboard contest: " + e.getMessage());
-            return false;
-        }
+        return WriteBehindQueue.getInstance().write(() -> {
+            try {
+                String sql = "DELETE FROM leaderboard_registrations WHERE contest_id = ? AND username = ?";
+                java.sql.PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+                pstmt.setString(1, contestId);
+                pstmt.setString(2, username);
+                pstmt.executeUpdate();
+                pstmt.close();
+                return true;
+            } catch (Exception e) {
+                System.err.println("Error unregistering user from leaderboard contest: " + e.getMessage());
+                return false;
+            }
+        });
     }
 
     /**
@@ -219,7 +301,7 @@ public class LeaderboardDatabase {
     public List<String> getRegisteredUsersForContest(String contestId) {
         List<String> users = new ArrayList<>();
         try {
-            String sql = "SELECT username FROM leaderboard_registrations WHERE contest_id = ? ORDER BY registered_at";
+            String sql = "SELECT username FROM leaderboard_registrations WHERE contest_id = ? ORDER BY registered_at_epoch, id";
             System.out.println("DEBUG LeaderboardDatabase: Getting registered users for contest: " + contestId);
             java.sql.PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
             pstmt.setString(1, contestId);
@@ -248,59 +330,75 @@ public class LeaderboardDatabase {
      * Add or update leaderboard entry for a user in a contest
      */
     public boolean addLeaderboardEntry(LeaderboardEntry entry) {
-        try {
-            String checkSql = "SELECT id FROM leaderboard_entries WHERE contest_id = ? AND username = ?";
-            java.sql.PreparedStatement checkStmt = dbManager.getConnection().prepareStatement(checkSql);
-            checkStmt.setString(1, entry.getContestId());
-            checkStmt.setString(2, entry.getUsername());
-            java.sql.ResultSet rs = checkStmt.executeQuery();
+        return WriteBehindQueue.getInstance().write(() -> {
+            try {
+                String checkSql = "SELECT id FROM leaderboard_entries WHERE contest_id = ? AND username = ?";
+                java.sql.PreparedStatement checkStmt = dbManager.getConnection().prepareStatement(checkSql);
+                checkStmt.setString(1, entry.getContestId());
+                checkStmt.setString(2, entry.getUsername());
+                java.sql.ResultSet rs = checkStmt.executeQuery();
             
-            boolean exists = rs.next();
-            rs.close();
-            checkStmt.close();
+                boolean exists = rs.next();
+                rs.close();
+                checkStmt.close();
             
-            String sql;
-            if (exists) {
-                sql = "UPDATE leaderboard_entries SET rank = ?, solve_count = ?, total_penalty = ?, " +
-                      "total_time = ?, status = ? WHERE contest_id = ? AND username = ?";
-            } else {
-                sql = "INSERT INTO leaderboard_entries (contest_id, username, rank, solve_count, " +
-                      "total_penalty, total_time, status) VALUES (?, ?, ?, ?, ?, ?, ?)";
-            }
+                String sql;
+                if (exists) {
+                    sql = "UPDATE leaderboard_entries SET rank = ?, solve_count = ?, total_penalty = ?, " +
+                          "total_time = ?, status = ? WHERE contest_id = ? AND username = ?";
+                } else {
+                    sql = "INSERT INTO leaderboard_entries (contest_id, username, rank, solve_count, " +
+                          "total_penalty, total_time, status) VALUES (?, ?, ?, ?, ?, ?, ?)";
+                }
             
-            java.sql.PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+                java.sql.PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
             
-            if (exists) {
-                pstmt.setInt(1, entry.getRank());
-                pstmt.setInt(2, entry.getSolveCount());
-                pstmt.setInt(3, entry.getTotalPenalty());
-                pstmt.setLong(4, entry.getTotalTime());
-                pstmt.setString(5, entry.getStatus());
-                pstmt.setString(6, entry.getContestId());
-                pstmt.setString(7, entry.getUsername());
-            } else {
-                pstmt.setString(1, entry.getContestId());
-                pstmt.setString(2, entry.getUsername());
-                pstmt.setInt(3, entry.getRank());
-                pstmt.setInt(4, entry.getSolveCount());
-                pstmt.setInt(5, entry.getTotalPenalty());
-                pstmt.setLong(6, entry.getTotalTime());
-                pstmt.setString(7, entry.getStatus());
-            }
+                if (exists) {
+                    pstmt.setInt(1, entry.getRank());
+                    pstmt.setInt(2, entry.getSolveCount());
+                    pstmt.setInt(3, entry.getTotalPenalty());
+                    pstmt.setLong(4, entry.getTotalTime());
+                    pstmt.setString(5, entry.getStatus());
+                    pstmt.setString(6, entry.getContestId());
+                    pstmt.setString(7, entry.getUsername());
+                } else {
+                    pstmt.setString(1, entry.getContestId());
+                    pstmt.setString(2, entry.getUsername());
+                    pstmt.setInt(3, entry.getRank());
+                    pstmt.setInt(4, entry.getSolveCount());
+                    pstmt.setInt(5, entry.getTotalPenalty());
+                    pstmt.setLong(6, entry.getTotalTime());
+                    pstmt.setString(7, entry.getStatus());
+                }
             
-            pstmt.executeUpdate();
-            pstmt.close();
-            return true;
-        } catch (Exception e) {
-            System.err.println("Error adding/updating leaderboard entry: " + e.getMessage());
-            return false;
-        }
+                pstmt.executeUpdate();
+                pstmt.close();
+                return true;
+            } catch (Exception e) {
+                System.err.println("Error adding/updating leaderboard entry: " + e.getMessage());
+                return false;
+            } finally {
+                invalidateStandings(entry.getContestId());
+            }
+        });
     }
 
     /**
      * Get standings for a specific contest
      */
     public List<LeaderboardEntry> getContestStandings(String contestId) {
+        List<LeaderboardEntry> cached = standingsCache.get(contestId, this::queryContestStandings);
+        List<LeaderboardEntry> standings = new ArrayList<>(cached.size());
+        for (LeaderboardEntry entry : cached) {
+            standings.add(new LeaderboardEntry(entry));
+        }
+        return standings;
+    }
+
+    /**
+     * Query standings ordered by rank (cache loader, returns an unmodifiable snapshot)
+     */
+    private List<LeaderboardEntry> queryContestStandings(String contestId) {
         List<LeaderboardEntry> standings = new ArrayList<>();
         try {
             String sql = "SELECT * FROM leaderboard_entries WHERE contest_id = ? ORDER BY rank ASC";
@@ -309,58 +407,291 @@ public class LeaderboardDatabase {
             java.sql.ResultSet rs = pstmt.executeQuery();
             
             while (rs.next()) {
-                LeaderboardEntry entry = new LeaderboardEntry(
-                    rs.getString("username"),
-                    rs.getString("contest_id"),
-                    rs.getInt("rank"),
-                    rs.getInt("solve_count"),
-                    rs.getInt("total_penalty"),
-                    rs.getLong("total_time")
-                );
-                entry.setStatus(rs.getString("status"));
-                standings.add(entry);
+                standings.add(mapEntry(rs));
             }
             rs.close();
             pstmt.close();
         } catch (Exception e) {
             System.err.println("Error retrieving contest standings: " + e.getMessage());
         }
-        return standings;
+        return Collections.unmodifiableList(standings);
     }
 
     /**
-     * Delete a single leaderboard entry for a user in a contest
+     * Get one rank-ordered page of a contest's standings using keyset pagination
+     * @param contestId Contest to read
+     * @param after Cursor returned by the previous page, or StandingsPage.Cursor.START
+     * @param limit Maximum number of entries in the page; 0 or less gives an empty last page
      */
-    public boolean deleteLeaderboardEntry(String contestId, String username) {
+    public StandingsPage<LeaderboardEntry> getStandingsPage(String contestId, StandingsPage.Cursor after, int limit) {
+        if (limit <= 0) {
+            return StandingsPage.empty();
+        }
+        List<LeaderboardEntry> entries = new ArrayList<>();
+        StandingsPage.Cursor next = null;
         try {
-            String sql = "DELETE FROM leaderboard_entries WHERE contest_id = ? AND username = ?";
+            String sql = "SELECT * FROM leaderboard_entries WHERE contest_id = ? AND (rank, id) > (?, ?) " +
+                         "ORDER BY rank ASC, id ASC LIMIT ?";
             java.sql.PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
             pstmt.setString(1, contestId);
-            pstmt.setString(2, username);
-            int affected = pstmt.executeUpdate();
+            pstmt.setInt(2, after.getRank());
+            pstmt.setLong(3, after.getRowId());
+            pstmt.setInt(4, limit + 1); // One extra row tells us whether another page exists
+            java.sql.ResultSet rs = pstmt.executeQuery();
+            
+            long lastRowId = 0;
+            while (rs.next()) {
+                if (entries.size() == limit) {
+                    next = new StandingsPage.Cursor(entries.get(limit - 1).getRank(), lastRowId);
+                    break;
+                }
+                entries.add(mapEntry(rs));
+                lastRowId = rs.getLong("id");
+            }
+            rs.close();
             pstmt.close();
-            return affected > 0;
         } catch (Exception e) {
-            System.err.println("Error deleting leaderboard entry: " + e.getMessage());
-            return false;
+            System.err.println("Error retrieving standings page: " + e.getMessage());
         }
+        return new StandingsPage<>(entries, next);
     }
 
     /**
-     * Delete leaderboard entries for a contest (for re-calculation)
+     * Get a page of standings ranked strictly after the given rank
      */
-    public boolean deleteContestStandings(String contestId) {
+    public StandingsPage<LeaderboardEntry> getStandingsPage(String contestId, int afterRank, int limit) {
+        return getStandingsPage(contestId, StandingsPage.Cursor.afterRank(afterRank), limit);
+    }
+
+    /**
+     * Count a contest's standings entries
+     * @param usernamePrefix Only count usernames starting with this, or null for all
+     */
+    public int countStandings(String contestId, String usernamePrefix) {
+        return count("SELECT COUNT(*) FROM leaderboard_entries WHERE contest_id = ?", contestId, usernamePrefix);
+    }
+
+    /**
+     * Get the entries at positions [offset, offset + limit) of a contest's standings in the given order
+     * @param sortColumn One of ENTRY_SORT_COLUMNS; any other column falls back to rank
+     * @param usernamePrefix Only return usernames starting with this, or null for all
+     */
+    public List<LeaderboardEntry> getStandingsSlice(String contestId, String sortColumn, boolean descending,
+                                                    String usernamePrefix, int offset, int limit) {
+        List<LeaderboardEntry> entries = new ArrayList<>();
+        if (!ENTRY_SORT_COLUMNS.contains(sortColumn)) {
+            System.err.println("Standings cannot be sorted by " + sortColumn + ", using rank");
+            sortColumn = "rank";
+        }
+        String direction = descending ? " DESC" : " ASC";
         try {
-            String sql = "DELETE FROM leaderboard_entries WHERE contest_id = ?";
+            String sql = "SELECT * FROM leaderboard_entries WHERE contest_id = ?" +
+                         DatabaseManager.usernameRange(usernamePrefix) +
+                         " ORDER BY " + sortColumn + direction + ", id" + direction + " LIMIT ? OFFSET ?";
             java.sql.PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
             pstmt.setString(1, contestId);
-            pstmt.executeUpdate();
+            int index = DatabaseManager.bindUsernameRange(pstmt, 2, usernamePrefix);
+            pstmt.setInt(index, limit);
+            pstmt.setInt(index + 1, offset);
+            java.sql.ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                entries.add(mapEntry(rs));
+            }
+            rs.close();
             pstmt.close();
-            return true;
         } catch (Exception e) {
-            System.err.println("Error deleting contest standings: " + e.getMessage());
-            return false;
+            System.err.println("Error retrieving standings slice: " + e.getMessage());
         }
+        return entries;
+    }
+
+    public int countRegistrations(String contestId) {
+        return count("SELECT COUNT(*) FROM leaderboard_registrations WHERE contest_id = ?", contestId, null);
+    }
+
+    /**
+     * Count users registered for a contest who have no standings entry yet
+     */
+    public int countUnrankedRegistrations(String contestId, String usernamePrefix) {
+        return count("SELECT COUNT(*) FROM leaderboard_registrations r WHERE r.contest_id = ? " +
+                     "AND NOT EXISTS (SELECT 1 FROM leaderboard_entries e " +
+                     "WHERE e.contest_id = r.contest_id AND e.username = r.username)", contestId, usernamePrefix);
+    }
+
+    /**
+     * Get users registered for a contest who have no standings entry yet, in registration order
+     */
+    public List<String> getUnrankedRegistrations(String contestId, String usernamePrefix, int offset, int limit) {
+        List<String> usernames = new ArrayList<>();
+        try {
+            String sql = "SELECT r.username FROM leaderboard_registrations r WHERE r.contest_id = ? " +
+                         "AND NOT EXISTS (SELECT 1 FROM leaderboard_entries e " +
+                         "WHERE e.contest_id = r.contest_id AND e.username = r.username)" +
+                         DatabaseManager.usernameRange(usernamePrefix) + " ORDER BY r.id LIMIT ? OFFSET ?";
+            java.sql.PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+            pstmt.setString(1, contestId);
+            int index = DatabaseManager.bindUsernameRange(pstmt, 2, usernamePrefix);
+            pstmt.setInt(index, limit);
+            pstmt.setInt(index + 1, offset);
+            java.sql.ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                usernames.add(rs.getString("username"));
+            }
+            rs.close();
+            pstmt.close();
+        } catch (Exception e) {
+            System.err.println("Error retrieving unranked registrations: " + e.getMessage());
+        }
+        return usernames;
+    }
+
+    private int count(String sql, String contestId, String usernamePrefix) {
+        try {
+            java.sql.PreparedStatement pstmt = dbManager.getConnection().prepareStatement(
+                    sql + DatabaseManager.usernameRange(usernamePrefix));
+            pstmt.setString(1, contestId);
+            DatabaseManager.bindUsernameRange(pstmt, 2, usernamePrefix);
+            java.sql.ResultSet rs = pstmt.executeQuery();
+            int count = rs.next() ? rs.getInt(1) : 0;
+            rs.close();
+            pstmt.close();
+            return count;
+        } catch (Exception e) {
+            System.err.println("Error counting standings: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Look up a user's rank in a contest without loading the standings
+     * @return The rank, or -1 if the user has no entry
+     */
+    public int findRankOf(String contestId, String username) {
+        try {
+            String sql = "SELECT rank FROM leaderboard_entries WHERE contest_id = ? AND username = ?";
+            java.sql.PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+            pstmt.setString(1, contestId);
+            pstmt.setString(2, username);
+            java.sql.ResultSet rs = pstmt.executeQuery();
+            int rank = rs.next() ? rs.getInt("rank") : -1;
+            rs.close();
+            pstmt.close();
+            return rank;
+        } catch (Exception e) {
+            System.err.println("Error finding rank: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    private LeaderboardEntry mapEntry(java.sql.ResultSet rs) throws java.sql.SQLException {
+        LeaderboardEntry entry = new LeaderboardEntry(
+            rs.getString("username"),
+            rs.getString("contest_id"),
+            rs.getInt("rank"),
+            rs.getInt("solve_count"),
+            rs.getInt("total_penalty"),
+            rs.getLong("total_time")
+        );
+        entry.setStatus(rs.getString("status"));
+        return entry;
+    }
+
+    /**
+     * Get the memory-mapped standings of a finalized contest, or null if it has none
+     */
+    public StandingsSnapshot getStandingsSnapshot(String contestId) {
+        return StandingsSnapshotStore.getInstance().getLeaderboardSnapshot(contestId);
+    }
+
+    /**
+     * Drop cached standings now and again once the write commits, see DatabaseManager.invalidateContest
+     */
+    void invalidateStandings(String contestId) {
+        Runnable invalidate = () -> {
+            standingsCache.invalidate(contestId);
+            StandingsSnapshotStore.getInstance().discardLeaderboardSnapshot(contestId);
+        };
+        invalidate.run();
+        WriteBehindQueue.getInstance().afterCommit(invalidate);
+    }
+
+    /**
+     * Hit/miss statistics for the standings cache
+     */
+    public WeightedLruCache.Stats getStandingsCacheStats() {
+        return standingsCache.stats();
+    }
+
+    /**
+     * Delete a single leaderboard entry for a user in a contest
+     */
+    public boolean deleteLeaderboardEntry(String contestId, String username) {
+        return WriteBehindQueue.getInstance().write(() -> {
+            try {
+                String sql = "DELETE FROM leaderboard_entries WHERE contest_id = ? AND username = ?";
+                java.sql.PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+                pstmt.setString(1, contestId);
+                pstmt.setString(2, username);
+                int affected = pstmt.executeUpdate();
+                pstmt.close();
+                return affected > 0;
+            } catch (Exception e) {
+                System.err.println("Error deleting leaderboard entry: " + e.getMessage());
+                return false;
+            } finally {
+                invalidateStandings(contestId);
+            }
+        });
+    }
+
+    /**
+     * Delete leaderboard entries for a contest (for re-calculation)
+     */
+    public boolean deleteContestStandings(String contestId) {
+        return WriteBehindQueue.getInstance().write(() -> {
+            try {
+                String sql = "DELETE FROM leaderboard_entries WHERE contest_id = ?";
+                java.sql.PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+                pstmt.setString(1, contestId);
+                pstmt.executeUpdate();
+                pstmt.close();
+                return true;
+            } catch (Exception e) {
+                System.err.println("Error deleting contest standings: " + e.getMessage());
+                return false;
+            } finally {
+                invalidateStandings(contestId);
+            }
+        });
+    }
+
+    /**
+     * Recompute a contest's ranks from solves and penalty in one write. Registered users
+     * without an entry get an empty one first, in registration order, so they are ranked too.
+     */
+    public boolean rerankStandings(String contestId) {
+        return WriteBehindQueue.getInstance().write(() -> {
+            try (java.sql.PreparedStatement addMissing = dbManager.getConnection().prepareStatement(
+                         "INSERT INTO leaderboard_entries (contest_id, username, rank, solve_count, total_penalty, total_time) " +
+                         "SELECT r.contest_id, r.username, 0, 0, 0, 0 FROM leaderboard_registrations r " +
+                         "WHERE r.contest_id = ? AND NOT EXISTS (SELECT 1 FROM leaderboard_entries e " +
+                         "WHERE e.contest_id = r.contest_id AND e.username = r.username) " +
+                         "ORDER BY r.registered_at_epoch, r.id");
+                 java.sql.PreparedStatement rank = dbManager.getConnection().prepareStatement(RANK_ENTRIES_SQL)) {
+                addMissing.setString(1, contestId);
+                addMissing.executeUpdate();
+                rank.setString(1, contestId);
+                rank.executeUpdate();
+                return true;
+            } catch (Exception e) {
+                System.err.println("Error ranking contest standings: " + e.getMessage());
+                return false;
+            } finally {
+                invalidateStandings(contestId);
+            }
+        });
     }
 
     // ============ COMBINED LEADERBOARD OPERATIONS ============
@@ -370,67 +701,69 @@ public class LeaderboardDatabase {
      * This aggregates all contest standings into an overall ranking
      */
     public boolean updateCombinedLeaderboard() {
-        try {
-            // Get all contests with finalized standings
-            String contestSql = "SELECT contest_id FROM leaderboard_contests WHERE standings_finalized = 1";
-            java.sql.Statement contestStmt = dbManager.getConnection().createStatement();
-            java.sql.ResultSet contestRs = contestStmt.executeQuery(contestSql);
+        return WriteBehindQueue.getInstance().write(() -> {
+            try {
+                // Get all contests with finalized standings
+                String contestSql = "SELECT contest_id FROM leaderboard_contests WHERE standings_finalized = 1";
+                java.sql.Statement contestStmt = dbManager.getConnection().createStatement();
+                java.sql.ResultSet contestRs = contestStmt.executeQuery(contestSql);
             
-            Map<String, Integer> userTotalSolves = new HashMap<>();
-            Map<String, Integer> userTotalPenalty = new HashMap<>();
-            Map<String, Integer> userContestCount = new HashMap<>();
+                Map<String, Integer> userTotalSolves = new HashMap<>();
+                Map<String, Integer> userTotalPenalty = new HashMap<>();
+                Map<String, Integer> userContestCount = new HashMap<>();
             
-            while (contestRs.next()) {
-                String contestId = contestRs.getString("contest_id");
-                List<LeaderboardEntry> standings = getContestStandings(contestId);
+                while (contestRs.next()) {
+                    String contestId = contestRs.getString("contest_id");
+                    List<LeaderboardEntry> standings = getContestStandings(contestId);
                 
-                for (LeaderboardEntry entry : standings) {
-                    String username = entry.getUsername();
-                    userTotalSolves.put(username, userTotalSolves.getOrDefault(username, 0) + entry.getSolveCount());
-                    userTotalPenalty.put(username, userTotalPenalty.getOrDefault(username, 0) + entry.getTotalPenalty());
-                    userContestCount.put(username, userContestCount.getOrDefault(username, 0) + 1);
+                    for (LeaderboardEntry entry : standings) {
+                        String username = entry.getUsername();
+                        userTotalSolves.put(username, userTotalSolves.getOrDefault(username, 0) + entry.getSolveCount());
+                        userTotalPenalty.put(username, userTotalPenalty.getOrDefault(username, 0) + entry.getTotalPenalty());
+                        userContestCount.put(username, userContestCount.getOrDefault(username, 0) + 1);
+                    }
                 }
-            }
-            contestRs.close();
-            contestStmt.close();
+                contestRs.close();
+                contestStmt.close();
             
-            // Clear existing combined leaderboard
-            String clearSql = "DELETE FROM combined_leaderboard";
-            java.sql.Statement clearStmt = dbManager.getConnection().createStatement();
-            clearStmt.executeUpdate(clearSql);
-            clearStmt.close();
+                // Clear existing combined leaderboard
+                String clearSql = "DELETE FROM combined_leaderboard";
+                java.sql.Statement clearStmt = dbManager.getConnection().createStatement();
+                clearStmt.executeUpdate(clearSql);
+                clearStmt.close();
             
-            // Sort users by total solves (descending) then by total penalty (ascending)
-            List<String> sortedUsers = new ArrayList<>(userTotalSolves.keySet());
-            sortedUsers.sort((a, b) -> {
-                int comparesolves = Integer.compare(userTotalSolves.get(b), userTotalSolves.get(a));
-                if (comparesolves != 0) return comparesolves;
-                return Integer.compare(userTotalPenalty.get(a), userTotalPenalty.get(b));
-            });
+                // Sort users by total solves (descending) then by total penalty (ascending)
+                List<String> sortedUsers = new ArrayList<>(userTotalSolves.keySet());
+                sortedUsers.sort((a, b) -> {
+                    int comparesolves = Integer.compare(userTotalSolves.get(b), userTotalSolves.get(a));
+                    if (comparesolves != 0) return comparesolves;
+                    return Integer.compare(userTotalPenalty.get(a), userTotalPenalty.get(b));
+                });
             
-            // Insert sorted users into combined leaderboard with ranks
-            String insertSql = "INSERT INTO combined_leaderboard " +
-                    "(username, total_solves, total_penalty, overall_rank, contests_participated, last_updated) " +
-                    "VALUES (?, ?, ?, ?, ?, ?)";
+                // Insert sorted users into combined leaderboard with ranks
+                String insertSql = "INSERT INTO combined_leaderboard " +
+                        "(username, total_solves, total_penalty, overall_rank, contests_participated, last_updated) " +
+                        "VALUES (?, ?, ?, ?, ?, ?)";
             
-            for (int i = 0; i < sortedUsers.size(); i++) {
-                String username = sortedUsers.get(i);
-                java.sql.PreparedStatement pstmt = dbManager.getConnection().prepareStatement(insertSql);
-                pstmt.setString(1, username);
-                pstmt.setInt(2, userTotalSolves.get(username));
-                pstmt.setInt(3, userTotalPenalty.get(username));
-                pstmt.setInt(4, i + 1); // 1-based ranking
-                pstmt.setInt(5, userContestCount.get(username));
-                pstmt.setString(6, LocalDateTime.now().format(formatter));
-                pstmt.executeUpdate();
-                pstmt.close();
-            }
+                for (int i = 0; i < sortedUsers.size(); i++) {
+                    String username = sortedUsers.get(i);
+                    java.sql.PreparedStatement pstmt = dbManager.getConnection().prepareStatement(insertSql);
+                    pstmt.setString(1, username);
+                    pstmt.setInt(2, userTotalSolves.get(username));
+                    pstmt.setInt(3, userTotalPenalty.get(username));
+                    pstmt.setInt(4, i + 1); // 1-based ranking
+                    pstmt.setInt(5, userContestCount.get(username));
+                    pstmt.setString(6, LocalDateTime.now().format(formatter));
+                    pstmt.executeUpdate();
+                    pstmt.close();
+                }
             
-            return true;
-        } catch (Exception e) {
-            System.err.println("Error updating combined leaderboard: " + e.getMessage());
-            return false;
-        }
+                return true;
+            } catch (Exception e) {
+                System.err.println("Error updating combined leaderboard: " + e.getMessage());
+                return false;
+            }
+        });
     }
 
     /**
@@ -461,6 +794,56 @@ public class LeaderboardDatabase {
         return leaderboard;
     }
 
+    public int countCombinedLeaderboard() {
+        try {
+            java.sql.Statement stmt = dbManager.getConnection().createStatement();
+            java.sql.ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM combined_leaderboard");
+            int count = rs.next() ? rs.getInt(1) : 0;
+            rs.close();
+            stmt.close();
+            return count;
+        } catch (Exception e) {
+            System.err.println("Error counting combined leaderboard: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Get the combined leaderboard entries at positions [offset, offset + limit) in the given order
+     * @param sortColumn One of COMBINED_SORT_COLUMNS; any other column falls back to overall rank
+     */
+    public List<CombinedLeaderboardEntry> getCombinedLeaderboardSlice(String sortColumn, boolean descending, int offset, int limit) {
+        List<CombinedLeaderboardEntry> leaderboard = new ArrayList<>();
+        if (!COMBINED_SORT_COLUMNS.contains(sortColumn)) {
+            System.err.println("Combined leaderboard cannot be sorted by " + sortColumn + ", using overall rank");
+            sortColumn = "overall_rank";
+        }
+        String direction = descending ? " DESC" : " ASC";
+        try {
+            String sql = "SELECT * FROM combined_leaderboard ORDER BY " + sortColumn + direction +
+                         ", id" + direction + " LIMIT ? OFFSET ?";
+            java.sql.PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+            pstmt.setInt(1, limit);
+            pstmt.setInt(2, offset);
+            java.sql.ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                leaderboard.add(new CombinedLeaderboardEntry(
+                    rs.getString("username"),
+                    rs.getInt("total_solves"),
+                    rs.getInt("total_penalty"),
+                    rs.getInt("overall_rank"),
+                    rs.getInt("contests_participated")
+                ));
+            }
+            rs.close();
+            pstmt.close();
+        } catch (Exception e) {
+            System.err.println("Error retrieving combined leaderboard slice: " + e.getMessage());
+        }
+        return leaderboard;
+    }
+
     /**
      * Refresh the combined leaderboard by recalculating from all finalized contests
      */
@@ -477,20 +860,27 @@ public class LeaderboardDatabase {
      * Finalize standings for a contest (mark standings as finalized)
      */
     public boolean finalizeContestStandings(String contestId) {
-        try {
-            String sql = "UPDATE leaderboard_contests SET standings_finalized = 1 WHERE contest_id = ?";
-            java.sql.PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
-            pstmt.setString(1, contestId);
-            pstmt.executeUpdate();
-            pstmt.close();
+        return WriteBehindQueue.getInstance().write(() -> {
+            try {
+                String sql = "UPDATE leaderboard_contests SET standings_finalized = 1 WHERE contest_id = ?";
+                java.sql.PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+                pstmt.setString(1, contestId);
+                pstmt.executeUpdate();
+                pstmt.close();
             
-            // Update combined leaderboard after finalizing standings
-            updateCombinedLeaderboard();
+                // Final standings never change again, so write them once as a binary snapshot
+                LeaderboardContest contest = getLeaderboardContestById(contestId);
+                StandingsSnapshotStore.getInstance().saveLeaderboardSnapshot(contestId,
+                    contest != null ? contest.getEndDate() : null, getContestStandings(contestId));
             
-            return true;
-        } catch (Exception e) {
-            System.err.println("Error finalizing contest standings: " + e.getMessage());
-            return false;
-        }
+                // Update combined leaderboard after finalizing standings
+                updateCombinedLeaderboard();
+            
+                return true;
+            } catch (Exception e) {
+                System.err.println("Error finalizing contest standings: " + e.getMessage());
+                return false;
+            }
+        });
     }
 }
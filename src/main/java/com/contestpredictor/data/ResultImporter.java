@@ -0,0 +1,605 @@
+package com.contestpredictor.data;
+
+import com.contestpredictor.model.LeaderboardContest;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Bulk import of contest results from CSV or JSON files.
+ * Files are read as a stream and processed in chunks: each chunk is validated,
+ * its usernames are resolved with one query, and it is written as one batched
+ * transaction through the single writer. Imported users are registered for the
+ * contest if they were not already, and ranks are recomputed from solves and
+ * penalty once the whole file is in, the same way the standings editors rank.
+ *
+ * Rows need a username and a solve count; penalty and time default to 0.
+ * Accepted column names: username, solved (solve_count, problems_solved),
+ * penalty (total_penalty) and time (total_time). A JSON file holds an array of
+ * row objects, either at the top level or under "results". When a user appears
+ * more than once, the last row wins.
+ */
+public class ResultImporter {
+    private static final int CHUNK_SIZE = 5000;
+    private static final int LOOKUP_BATCH = 500;
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final DatabaseManager dbManager = DatabaseManager.getInstance();
+
+    /**
+     * Import standings into a leaderboard contest
+     * @throws IllegalStateException If the contest's standings are already finalized
+     */
+    public ImportResult importLeaderboardEntries(String contestId, Path file, Consumer<ImportProgress> progress) throws IOException {
+        LeaderboardDatabase leaderboardDB = LeaderboardDatabase.getInstance();
+        LeaderboardContest contest = leaderboardDB.getLeaderboardContestById(contestId);
+        if (contest != null && contest.isStandings_finalized()) {
+            throw new IllegalStateException("This contest's standings have already been finalized.");
+        }
+        ImportResult result = run(file, progress, chunk -> writeLeaderboardChunk(contestId, chunk));
+        boolean ranked = WriteBehindQueue.getInstance().write(() -> rerank(LeaderboardDatabase.RANK_ENTRIES_SQL, contestId));
+        leaderboardDB.invalidateStandings(contestId);
+        return ranked ? result : result.withRankingFailed();
+    }
+
+    /**
+     * Import standings into a regular contest. Participants keep their current
+     * rating; rating changes come from generating the contest results afterwards.
+     */
+    public ImportResult importContestParticipants(String contestId, Path file, Consumer<ImportProgress> progress) throws IOException {
+        ImportResult result = run(file, progress, chunk -> writeParticipantChunk(contestId, chunk));
+        boolean ranked = WriteBehindQueue.getInstance().write(() -> {
+            rerank("UPDATE participants SET rank = ranked.position FROM (" +
+                    "SELECT id, ROW_NUMBER() OVER (ORDER BY problems_solved DESC, total_penalty ASC, id) AS position " +
+                    "FROM participants WHERE contest_id = ?) AS ranked " +
+                    "WHERE participants.id = ranked.id", contestId);
+            dbManager.invalidateContest(contestId);
+            dbManager.snapshotPastContest(contestId);
+            return true;
+        });
+        ContestDatabase.getInstance().invalidateParticipants(contestId);
+        return ranked ? result : result.withRankingFailed();
+    }
+
+    private interface ChunkWriter {
+        boolean write(List<ResultRow> rows);
+    }
+
+    private ImportResult run(Path file, Consumer<ImportProgress> progress, ChunkWriter writer) throws IOException {
+        long start = System.nanoTime();
+        long totalBytes = Files.size(file);
+        List<String> errors = new ArrayList<>();
+        long read = 0;
+        long imported = 0;
+        long rejected = 0;
+        long duplicates = 0;
+        // Users written by earlier chunks; a later row of one of them replaces the earlier one
+        Set<String> importedUsers = new HashSet<>();
+
+        try (CountingInputStream in = new CountingInputStream(Files.newInputStream(file));
+             RowReader reader = openReader(file, new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            Map<String, ResultRow> chunk = new LinkedHashMap<>();
+            ResultRow row;
+            do {
+                row = reader.next();
+                if (row != null) {
+                    read++;
+                    String error = row.validate();
+                    if (error == null) {
+                        if (chunk.remove(row.username) != null) {
+                            duplicates++; // The earlier row of this user is replaced, not imported
+                        }
+                        chunk.put(row.username, row);
+                    } else {
+                        rejected++;
+                        addError(errors, "Row " + row.line + ": " + error);
+                    }
+                }
+                if (chunk.size() >= CHUNK_SIZE || (row == null && !chunk.isEmpty())) {
+                    List<ResultRow> resolved = resolveUsers(chunk.values());
+                    for (ResultRow missing : chunk.values()) {
+                        if (missing.currentRating == null) {
+                            rejected++;
+                            addError(errors, "Row " + missing.line + ": unknown user '" + missing.username + "'");
+                        }
+                    }
+                    if (!resolved.isEmpty()) {
+                        if (writer.write(resolved)) {
+                            for (ResultRow written : resolved) {
+                                if (importedUsers.add(written.username)) {
+                                    imported++;
+                                } else {
+                                    duplicates++;
+                                }
+                            }
+                        } else {
+                            rejected += resolved.size();
+                            addError(errors, "Rows up to " + resolved.get(resolved.size() - 1).line + ": write failed");
+                        }
+                    }
+                    chunk.clear();
+                    if (progress != null) {
+                        progress.accept(new ImportProgress(read, imported, rejected, in.getCount(), totalBytes));
+                    }
+                }
+            } while (row != null);
+        }
+
+        return new ImportResult(read, imported, rejected, duplicates, errors, true,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private RowReader openReader(Path file, Reader reader) throws IOException {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".json") ? new JsonRowReader(reader) : new CsvRowReader(reader);
+    }
+
+    private void addError(List<String> errors, String error) {
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(error);
+        }
+    }
+
+    /**
+     * Look up the chunk's usernames in batches and attach each user's current rating
+     * @return Rows whose user exists
+     */
+    private List<ResultRow> resolveUsers(Iterable<ResultRow> rows) {
+        List<ResultRow> all = new ArrayList<>();
+        rows.forEach(all::add);
+        Map<String, Integer> ratings = new HashMap<>();
+        Connection conn = dbManager.getConnection();
+        for (int from = 0; from < all.size(); from += LOOKUP_BATCH) {
+            List<ResultRow> batch = all.subList(from, Math.min(all.size(), from + LOOKUP_BATCH));
+            String placeholders = String.join(",", Collections.nCopies(batch.size(), "?"));
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "SELECT username, current_rating FROM users WHERE username IN (" + placeholders + ")")) {
+                for (int i = 0; i < batch.size(); i++) {
+                    pstmt.setString(i + 1, batch.get(i).username);
+                }
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        ratings.put(rs.getString(1), rs.getInt(2));
+                    }
+                }
+            } catch (SQLException e) {
+                System.err.println("Failed to resolve imported usernames: " + e.getMessage());
+            }
+        }
+
+        List<ResultRow> resolved = new ArrayList<>(all.size());
+        for (ResultRow row : all) {
+            row.currentRating = ratings.get(row.username);
+            if (row.currentRating != null) {
+                resolved.add(row);
+            }
+        }
+        return resolved;
+    }
+
+    private boolean writeLeaderboardChunk(String contestId, List<ResultRow> rows) {
+        return WriteBehindQueue.getInstance().write(() -> {
+            Connection conn = dbManager.getConnection();
+            LocalDateTime now = LocalDateTime.now();
+            try (PreparedStatement register = conn.prepareStatement(
+                         "INSERT OR IGNORE INTO leaderboard_registrations (contest_id, username, registered_at, registered_at_epoch) " +
+                         "VALUES (?, ?, ?, ?)");
+                 PreparedStatement upsert = conn.prepareStatement(
+                         "INSERT INTO leaderboard_entries (contest_id, username, rank, solve_count, total_penalty, total_time, status) " +
+                         "VALUES (?, ?, 0, ?, ?, ?, 'Completed') " +
+                         "ON CONFLICT(contest_id, username) DO UPDATE SET solve_count = excluded.solve_count, " +
+                         "total_penalty = excluded.total_penalty, total_time = excluded.total_time")) {
+                String registeredAt = now.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+                for (ResultRow row : rows) {
+                    register.setString(1, contestId);
+                    register.setString(2, row.username);
+                    register.setString(3, registeredAt);
+                    register.setLong(4, DatabaseManager.toEpochSeconds(now));
+                    register.addBatch();
+
+                    upsert.setString(1, contestId);
+                    upsert.setString(2, row.username);
+                    upsert.setInt(3, row.solved);
+                    upsert.setInt(4, row.penalty);
+                    upsert.setLong(5, row.time);
+                    upsert.addBatch();
+                }
+                register.executeBatch();
+                upsert.executeBatch();
+            }
+            return true;
+        });
+    }
+
+    private boolean writeParticipantChunk(String contestId, List<ResultRow> rows) {
+        return WriteBehindQueue.getInstance().write(() -> {
+            Connection conn = dbManager.getConnection();
+            LocalDateTime now = LocalDateTime.now();
+            try (PreparedStatement register = conn.prepareStatement(
+                         "INSERT OR IGNORE INTO contest_registrations (contest_id, username, registered_at, registered_at_epoch) " +
+                         "VALUES (?, ?, ?, ?)");
+                 PreparedStatement delete = conn.prepareStatement(
+                         "DELETE FROM participants WHERE contest_id = ? AND username = ?");
+                 PreparedStatement insert = conn.prepareStatement(
+                         "INSERT INTO participants (contest_id, username, current_rating, problems_solved, total_penalty, " +
+                         "rank, predicted_rating, rating_change) VALUES (?, ?, ?, ?, ?, 0, ?, 0)")) {
+                String registeredAt = now.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+                for (ResultRow row : rows) {
+                    register.setString(1, contestId);
+                    register.setString(2, row.username);
+                    register.setString(3, registeredAt);
+                    register.setLong(4, DatabaseManager.toEpochSeconds(now));
+                    register.addBatch();
+
+                    delete.setString(1, contestId);
+                    delete.setString(2, row.username);
+                    delete.addBatch();
+
+                    insert.setString(1, contestId);
+                    insert.setString(2, row.username);
+                    insert.setInt(3, row.currentRating);
+                    insert.setInt(4, row.solved);
+                    insert.setInt(5, row.penalty);
+                    insert.setInt(6, row.currentRating);
+                    insert.addBatch();
+                }
+                register.executeBatch();
+                delete.executeBatch();
+                insert.executeBatch();
+            }
+            return true;
+        });
+    }
+
+    private boolean rerank(String sql, String contestId) throws SQLException {
+        try (PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
+            pstmt.setString(1, contestId);
+            pstmt.executeUpdate();
+            return true;
+        }
+    }
+
+    /**
+     * One row of a result file
+     */
+    private static class ResultRow {
+        private final long line;
+        private String username;
+        private Integer solved;
+        private int penalty;
+        private long time;
+        private String parseError;
+        private Integer currentRating; // Set once the username is resolved
+
+        ResultRow(long line) {
+            this.line = line;
+        }
+
+        void set(String column, String value) {
+            String name = column.trim().toLowerCase(Locale.ROOT);
+            String text = value == null ? "" : value.trim();
+            try {
+                switch (name) {
+                    case "username":
+                        username = text;
+                        break;
+                    case "solved":
+                    case "solve_count":
+                    case "problems_solved":
+                        solved = text.isEmpty() ? null : Integer.parseInt(text);
+                        break;
+                    case "penalty":
+                    case "total_penalty":
+                        penalty = text.isEmpty() ? 0 : Integer.parseInt(text);
+                        break;
+                    case "time":
+                    case "total_time":
+                        time = text.isEmpty() ? 0 : Long.parseLong(text);
+                        break;
+                    default:
+                        // Other columns (rank, rating, ...) are not imported
+                }
+            } catch (NumberFormatException e) {
+                parseError = "'" + text + "' is not a valid " + name;
+            }
+        }
+
+        String validate() {
+            if (parseError != null) {
+                return parseError;
+            }
+            if (username == null || username.isEmpty()) {
+                return "missing username";
+            }
+            if (solved == null) {
+                return "missing solve count";
+            }
+            if (solved < 0 || penalty < 0 || time < 0) {
+                return "negative values are not allowed";
+            }
+            return null;
+        }
+    }
+
+    private interface RowReader extends AutoCloseable {
+        /**
+         * @return The next row, or null at the end of the file
+         */
+        ResultRow next() throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    /**
+     * Reads comma-separated rows after a header line. Quoted fields may contain
+     * commas and doubled quotes but not line breaks.
+     */
+    private static class CsvRowReader implements RowReader {
+        private final BufferedReader reader;
+        private final List<String> header;
+        private long line = 1;
+
+        CsvRowReader(Reader reader) throws IOException {
+            this.reader = new BufferedReader(reader, 1 << 16);
+            String first = this.reader.readLine();
+            if (first != null && first.startsWith("\uFEFF")) {
+                first = first.substring(1);
+            }
+            this.header = first == null ? Collections.emptyList() : split(first);
+        }
+
+        @Override
+        public ResultRow next() throws IOException {
+            String text;
+            do {
+                text = reader.readLine();
+                line++;
+                if (text == null) {
+                    return null;
+                }
+            } while (text.trim().isEmpty());
+
+            ResultRow row = new ResultRow(line);
+            List<String> fields = split(text);
+            for (int i = 0; i < header.size() && i < fields.size(); i++) {
+                row.set(header.get(i), fields.get(i));
+            }
+            return row;
+        }
+
+        private static List<String> split(String text) {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    /**
+     * Reads row objects one at a time with a streaming JSON parser
+     */
+    private static class JsonRowReader implements RowReader {
+        private final JsonReader reader;
+        private long index;
+
+        JsonRowReader(Reader reader) throws IOException {
+            this.reader = new JsonReader(new BufferedReader(reader, 1 << 16));
+            if (this.reader.peek() == JsonToken.BEGIN_OBJECT) {
+                this.reader.beginObject();
+                while (this.reader.hasNext() && !this.reader.nextName().equals("results")) {
+                    this.reader.skipValue();
+                }
+            }
+            if (this.reader.peek() != JsonToken.BEGIN_ARRAY) {
+                throw new IOException("Expected an array of results");
+            }
+            this.reader.beginArray();
+        }
+
+        @Override
+        public ResultRow next() throws IOException {
+            if (!reader.hasNext()) {
+                return null;
+            }
+            ResultRow row = new ResultRow(++index);
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                JsonToken token = reader.peek();
+                if (token == JsonToken.STRING || token == JsonToken.NUMBER) {
+                    row.set(name, reader.nextString());
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+            return row;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    /**
+     * Counts bytes read so progress can be reported as a fraction of the file
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+
+    /**
+     * Progress after a chunk has been written
+     */
+    public static class ImportProgress {
+        private final long rowsRead;
+        private final long imported;
+        private final long rejected;
+        private final long bytesRead;
+        private final long totalBytes;
+
+        public ImportProgress(long rowsRead, long imported, long rejected, long bytesRead, long totalBytes) {
+            this.rowsRead = rowsRead;
+            this.imported = imported;
+            this.rejected = rejected;
+            this.bytesRead = bytesRead;
+            this.totalBytes = totalBytes;
+        }
+
+        public long getRowsRead() { return rowsRead; }
+        public long getImported() { return imported; }
+        public long getRejected() { return rejected; }
+
+        public double getFraction() {
+            return totalBytes == 0 ? 1.0 : Math.min(1.0, (double) bytesRead / totalBytes);
+        }
+    }
+
+    /**
+     * Outcome of an import, with the first few rejected rows explained
+     */
+    public static class ImportResult {
+        private final long rowsRead;
+        private final long imported;
+        private final long rejected;
+        private final long duplicates;
+        private final List<String> errors;
+        private final boolean ranked;
+        private final long durationMillis;
+
+        public ImportResult(long rowsRead, long imported, long rejected, long duplicates,
+                            List<String> errors, boolean ranked, long durationMillis) {
+            this.rowsRead = rowsRead;
+            this.imported = imported;
+            this.rejected = rejected;
+            this.duplicates = duplicates;
+            this.errors = errors;
+            this.ranked = ranked;
+            this.durationMillis = durationMillis;
+        }
+
+        /**
+         * The same result for an import whose ranks could not be recomputed afterwards
+         */
+        ImportResult withRankingFailed() {
+            return new ImportResult(rowsRead, imported, rejected, duplicates, errors, false, durationMillis);
+        }
+
+        public long getRowsRead() { return rowsRead; }
+        public long getImported() { return imported; }
+        public long getRejected() { return rejected; }
+        /** Rows replaced by a later row of the same user, anywhere in the file */
+        public long getDuplicates() { return duplicates; }
+        public List<String> getErrors() { return errors; }
+        /** Whether the standings were re-ranked after the rows were written */
+        public boolean isRanked() { return ranked; }
+        public long getDurationMillis() { return durationMillis; }
+
+        /**
+         * Summary for display, listing the first few rejected rows
+         */
+        public String describe(int maxErrors) {
+            StringBuilder text = new StringBuilder(String.format("%d rows imported, %d rejected (%.1f s)",
+                    imported, rejected, durationMillis / 1000.0));
+            if (duplicates > 0) {
+                text.append("\n").append(duplicates).append(" repeated rows were replaced by a later row of the same user");
+            }
+            if (!ranked) {
+                text.append("\nRanks could not be recomputed; generate the results again to rank the standings");
+            }
+            for (int i = 0; i < errors.size() && i < maxErrors; i++) {
+                text.append("\n• ").append(errors.get(i));
+            }
+            if (rejected > maxErrors && !errors.isEmpty()) {
+                text.append("\n…");
+            }
+            return text.toString();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d rows read, %d imported, %d duplicates, %d rejected in %d ms%s",
+                    rowsRead, imported, duplicates, rejected, durationMillis, ranked ? "" : ", ranking failed");
+        }
+    }
+}
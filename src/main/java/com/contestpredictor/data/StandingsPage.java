@@ -0,0 +1,71 @@
+package com.contestpredictor.data;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of a rank-ordered standings query.
+ * Pages are fetched by keyset (rank, row id) rather than OFFSET, so walking
+ * a huge contest costs the same per page no matter how deep the page is.
+ */
+public class StandingsPage<T> {
+    private final List<T> items;
+    private final Cursor nextCursor;
+
+    public StandingsPage(List<T> items, Cursor nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * A page with no items and no following page
+     */
+    public static <T> StandingsPage<T> empty() {
+        return new StandingsPage<>(Collections.emptyList(), null);
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Cursor for the following page, or null if this was the last page
+     */
+    public Cursor getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+
+    /**
+     * Position just after the last row of a page. Row ids break ties between equal ranks.
+     */
+    public static class Cursor {
+        public static final Cursor START = new Cursor(Integer.MIN_VALUE, Long.MIN_VALUE);
+
+        private final int rank;
+        private final long rowId;
+
+        public Cursor(int rank, long rowId) {
+            this.rank = rank;
+            this.rowId = rowId;
+        }
+
+        /**
+         * Cursor positioned after every row with a rank up to and including the given rank
+         */
+        public static Cursor afterRank(int rank) {
+            return new Cursor(rank, Long.MAX_VALUE);
+        }
+
+        public int getRank() {
+            return rank;
+        }
+
+        public long getRowId() {
+            return rowId;
+        }
+    }
+}
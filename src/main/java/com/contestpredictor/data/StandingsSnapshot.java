@@ -0,0 +1,256 @@
+package com.contestpredictor.data;
+
+import com.contestpredictor.model.LeaderboardEntry;
+import com.contestpredictor.model.Participant;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only, memory-mapped view of the final standings of a contest.
+ *
+ * File layout (little endian):
+ * <pre>
+ * header     magic int, version int, record count int, dictionary size int,
+ *            dictionary offset long, contest time (epoch seconds, UTC) long
+ * records    one fixed-width record per participant, in rank order:
+ *            username id, rank, solved, penalty, rating, predicted rating,
+ *            rating change (ints), total time (long)
+ * dictionary int offset per username id, then length-prefixed UTF-8 names
+ * </pre>
+ * Accessors read straight from the mapping, so paging through a snapshot
+ * never creates Participant objects unless a caller asks for them.
+ */
+public class StandingsSnapshot {
+    private static final int MAGIC = 0x43525053; // "CRPS"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int RECORD_SIZE = 7 * Integer.BYTES + Long.BYTES;
+
+    private static final int USERNAME_OFFSET = 0;
+    private static final int RANK_OFFSET = 4;
+    private static final int SOLVED_OFFSET = 8;
+    private static final int PENALTY_OFFSET = 12;
+    private static final int RATING_OFFSET = 16;
+    private static final int PREDICTED_OFFSET = 20;
+    private static final int CHANGE_OFFSET = 24;
+    private static final int TIME_OFFSET = 28;
+
+    private final MappedByteBuffer buffer;
+    private final int size;
+    private final int dictionarySize;
+    private final int dictionaryOffset;
+    private final long contestEpochSeconds;
+
+    private StandingsSnapshot(MappedByteBuffer buffer) throws IOException {
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a standings snapshot");
+        }
+        this.buffer = buffer;
+        this.size = buffer.getInt(8);
+        this.dictionarySize = buffer.getInt(12);
+        this.dictionaryOffset = (int) buffer.getLong(16);
+        this.contestEpochSeconds = buffer.getLong(24);
+    }
+
+    /**
+     * Map an existing snapshot file read-only
+     */
+    public static StandingsSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new StandingsSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Write the standings of a regular contest (participants in rank order)
+     */
+    public static void writeParticipants(Path file, LocalDateTime contestTime, List<Participant> participants) throws IOException {
+        Writer writer = new Writer(participants.size());
+        for (Participant p : participants) {
+            writer.add(p.getUsername(), p.getRank(), p.getProblemsSolved(), p.getTotalPenalty(),
+                    p.getCurrentRating(), p.getPredictedRating(), p.getRatingChange(), 0);
+        }
+        writer.writeTo(file, contestTime);
+    }
+
+    /**
+     * Write the standings of a leaderboard contest (entries in rank order)
+     */
+    public static void writeLeaderboardEntries(Path file, LocalDateTime contestTime, List<LeaderboardEntry> entries) throws IOException {
+        Writer writer = new Writer(entries.size());
+        for (LeaderboardEntry e : entries) {
+            writer.add(e.getUsername(), e.getRank(), e.getSolveCount(), e.getTotalPenalty(),
+                    0, 0, 0, e.getTotalTime());
+        }
+        writer.writeTo(file, contestTime);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public LocalDateTime getContestTime() {
+        return LocalDateTime.ofEpochSecond(contestEpochSeconds, 0, ZoneOffset.UTC);
+    }
+
+    public String getUsername(int index) {
+        int id = field(index, USERNAME_OFFSET);
+        int position = buffer.getInt(dictionaryOffset + id * Integer.BYTES);
+        int length = buffer.getInt(position);
+        byte[] bytes = new byte[length];
+        ByteBuffer view = buffer.duplicate();
+        view.position(position + Integer.BYTES);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public int getRank(int index) {
+        return field(index, RANK_OFFSET);
+    }
+
+    public int getProblemsSolved(int index) {
+        return field(index, SOLVED_OFFSET);
+    }
+
+    public int getTotalPenalty(int index) {
+        return field(index, PENALTY_OFFSET);
+    }
+
+    public int getCurrentRating(int index) {
+        return field(index, RATING_OFFSET);
+    }
+
+    public int getPredictedRating(int index) {
+        return field(index, PREDICTED_OFFSET);
+    }
+
+    public int getRatingChange(int index) {
+        return field(index, CHANGE_OFFSET);
+    }
+
+    public long getTotalTime(int index) {
+        return buffer.getLong(recordOffset(index) + TIME_OFFSET);
+    }
+
+    /**
+     * Materialize one page of participants, e.g. for the visible rows of a table
+     */
+    public List<Participant> getParticipantPage(int from, int limit) {
+        int to = Math.min(size, from + limit);
+        List<Participant> page = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) {
+            Participant p = new Participant(getUsername(i), getCurrentRating(i),
+                    getProblemsSolved(i), getTotalPenalty(i), getRank(i));
+            p.setPredictedRating(getPredictedRating(i));
+            p.setRatingChange(getRatingChange(i));
+            page.add(p);
+        }
+        return page;
+    }
+
+    /**
+     * Materialize one page of leaderboard entries for the given contest
+     */
+    public List<LeaderboardEntry> getLeaderboardPage(String contestId, int from, int limit) {
+        int to = Math.min(size, from + limit);
+        List<LeaderboardEntry> page = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) {
+            page.add(new LeaderboardEntry(getUsername(i), contestId, getRank(i),
+                    getProblemsSolved(i), getTotalPenalty(i), getTotalTime(i)));
+        }
+        return page;
+    }
+
+    private int field(int index, int offset) {
+        return buffer.getInt(recordOffset(index) + offset);
+    }
+
+    private int recordOffset(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for snapshot of size " + size);
+        }
+        return HEADER_SIZE + index * RECORD_SIZE;
+    }
+
+    /**
+     * Accumulates records and the username dictionary before writing the file
+     */
+    private static class Writer {
+        private final ByteBuffer records;
+        private final Map<String, Integer> usernameIds = new HashMap<>();
+        private final List<byte[]> usernames = new ArrayList<>();
+        private int count;
+
+        Writer(int capacity) {
+            records = ByteBuffer.allocate(capacity * RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        void add(String username, int rank, int solved, int penalty, int rating,
+                 int predicted, int change, long totalTime) {
+            Integer id = usernameIds.get(username);
+            if (id == null) {
+                id = usernames.size();
+                usernameIds.put(username, id);
+                usernames.add(username.getBytes(StandardCharsets.UTF_8));
+            }
+            records.putInt(id).putInt(rank).putInt(solved).putInt(penalty)
+                    .putInt(rating).putInt(predicted).putInt(change).putLong(totalTime);
+            count++;
+        }
+
+        void writeTo(Path file, LocalDateTime contestTime) throws IOException {
+            int dictionaryOffset = HEADER_SIZE + count * RECORD_SIZE;
+            int stringsSize = 0;
+            for (byte[] name : usernames) {
+                stringsSize += Integer.BYTES + name.length;
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(count).putInt(usernames.size())
+                    .putLong(dictionaryOffset)
+                    .putLong(contestTime == null ? 0 : contestTime.toEpochSecond(ZoneOffset.UTC));
+            header.flip();
+
+            ByteBuffer dictionary = ByteBuffer.allocate(usernames.size() * Integer.BYTES + stringsSize)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            int position = dictionaryOffset + usernames.size() * Integer.BYTES;
+            for (byte[] name : usernames) {
+                dictionary.putInt(position);
+                position += Integer.BYTES + name.length;
+            }
+            for (byte[] name : usernames) {
+                dictionary.putInt(name.length).put(name);
+            }
+            dictionary.flip();
+            records.flip();
+
+            // Write to a temporary file first so readers never map a half-written snapshot
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                while (header.hasRemaining()) channel.write(header);
+                while (records.hasRemaining()) channel.write(records);
+                while (dictionary.hasRemaining()) channel.write(dictionary);
+                channel.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+}
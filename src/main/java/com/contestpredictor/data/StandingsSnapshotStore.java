@@ -0,0 +1,130 @@
+package com.contestpredictor.data;
+
+import com.contestpredictor.model.LeaderboardEntry;
+import com.contestpredictor.model.Participant;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the binary standings snapshots of finalized contests on disk
+ * and hands out memory-mapped views of them
+ */
+public class StandingsSnapshotStore {
+    private static final String SNAPSHOT_DIR = "snapshots";
+    private static StandingsSnapshotStore instance;
+
+    private final Path directory;
+    private final Map<Path, StandingsSnapshot> openSnapshots = new ConcurrentHashMap<>();
+    // Files that could not be deleted (e.g. still mapped on Windows) and must not be served
+    private final Set<Path> staleFiles = ConcurrentHashMap.newKeySet();
+
+    private StandingsSnapshotStore(Path directory) {
+        this.directory = directory;
+    }
+
+    public static synchronized StandingsSnapshotStore getInstance() {
+        if (instance == null) {
+            instance = new StandingsSnapshotStore(Paths.get(SNAPSHOT_DIR));
+        }
+        return instance;
+    }
+
+    /**
+     * Get the snapshot of a regular contest, or null if none was written
+     */
+    public StandingsSnapshot getContestSnapshot(String contestId) {
+        return open(fileFor("contest", contestId));
+    }
+
+    /**
+     * Get the snapshot of a leaderboard contest, or null if none was written
+     */
+    public StandingsSnapshot getLeaderboardSnapshot(String contestId) {
+        return open(fileFor("leaderboard", contestId));
+    }
+
+    public boolean saveContestSnapshot(String contestId, LocalDateTime contestTime, List<Participant> participants) {
+        Path file = fileFor("contest", contestId);
+        try {
+            openSnapshots.remove(file);
+            StandingsSnapshot.writeParticipants(file, contestTime, participants);
+            staleFiles.remove(file);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Failed to write standings snapshot for " + contestId + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    public boolean saveLeaderboardSnapshot(String contestId, LocalDateTime contestTime, List<LeaderboardEntry> entries) {
+        Path file = fileFor("leaderboard", contestId);
+        try {
+            openSnapshots.remove(file);
+            StandingsSnapshot.writeLeaderboardEntries(file, contestTime, entries);
+            staleFiles.remove(file);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Failed to write leaderboard snapshot for " + contestId + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Drop the snapshot of a regular contest after its standings changed
+     */
+    public void discardContestSnapshot(String contestId) {
+        discard(fileFor("contest", contestId));
+    }
+
+    /**
+     * Drop the snapshot of a leaderboard contest after its standings changed
+     */
+    public void discardLeaderboardSnapshot(String contestId) {
+        discard(fileFor("leaderboard", contestId));
+    }
+
+    private StandingsSnapshot open(Path file) {
+        if (staleFiles.contains(file)) {
+            return null;
+        }
+        StandingsSnapshot snapshot = openSnapshots.get(file);
+        if (snapshot != null || !Files.exists(file)) {
+            return snapshot;
+        }
+        try {
+            snapshot = StandingsSnapshot.open(file);
+            openSnapshots.put(file, snapshot);
+            return snapshot;
+        } catch (IOException e) {
+            System.err.println("Failed to open standings snapshot " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void discard(Path file) {
+        openSnapshots.remove(file);
+        try {
+            Files.deleteIfExists(file);
+            staleFiles.remove(file);
+        } catch (IOException e) {
+            staleFiles.add(file);
+        }
+    }
+
+    private Path fileFor(String kind, String contestId) {
+        // Contest IDs are admin-entered, so keep only filename-safe characters
+        String safeId = contestId.replaceAll("[^A-Za-z0-9_-]", "_");
+        if (!safeId.equals(contestId)) {
+            safeId += "-" + Integer.toHexString(contestId.hashCode());
+        }
+        return directory.resolve(kind + "-" + safeId + ".snap");
+    }
+}
@@ -5,98 +5,195 @@ import com.contestpredictor.util.FirebaseAuthService;
 import com.contestpredictor.util.FirebaseAuthService.FirebaseAuthResult;
 import com.contestpredictor.util.SessionManager;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class UserDatabase {
-    private static UserDatabase instance;
     private Map<String, User> users;
-    private User currentUser;
+    // Secondary indexes over users, updated by putUser/indexUser on every change
+    private final Map<String, User> usersByEmail = new ConcurrentHashMap<>();
+    private final Map<String, User> usersByFirebaseUid = new ConcurrentHashMap<>();
+    private volatile User currentUser;
     private DatabaseManager dbManager;
     private FirebaseAuthService firebaseAuth;
     private SessionManager sessionManager;
 
     private UserDatabase() {
-        users = new HashMap<>();
+        users = new ConcurrentHashMap<>();
         dbManager = DatabaseManager.getInstance();
         firebaseAuth = FirebaseAuthService.getInstance();
         sessionManager = SessionManager.getInstance();
         initializeUsers();
     }
 
+    private static class Holder {
+        private static final UserDatabase INSTANCE = new UserDatabase();
+    }
+
     public static UserDatabase getInstance() {
-        if (instance == null) {
-            instance = new UserDatabase();
-        }
-        return instance;
+        return Holder.INSTANCE;
     }
 
     private void initializeUsers() {
         // Creating 30 predefined user accounts
         // Format: username, password, currentRating, contestsParticipated, fullName
         
-        // Try to load from database first, if not exist create new
-        createOrLoadUser("user001", "pass001", 1200, 15, "Alex Johnson");
-        createOrLoadUser("user002", "pass002", 1450, 22, "Sarah Williams");
-        createOrLoadUser("user003", "pass003", 980, 8, "Michael Chen");
-        createOrLoadUser("user004", "pass004", 1650, 35, "Emily Davis");
-        createOrLoadUser("user005", "pass005", 1100, 12, "David Martinez");
+        // Load every stored user with one query, then write only the seed accounts that changed
+        for (User user : dbManager.loadAllUsers()) {
+            putUser(user);
+        }
+        List<User> changed = new ArrayList<>();
+        
+        createOrLoadUser(changed, "user001", "pass001", 1200, 15, "Alex Johnson");
+        createOrLoadUser(changed, "user002", "pass002", 1450, 22, "Sarah Williams");
+        createOrLoadUser(changed, "user003", "pass003", 980, 8, "Michael Chen");
+        createOrLoadUser(changed, "user004", "pass004", 1650, 35, "Emily Davis");
+        createOrLoadUser(changed, "user005", "pass005", 1100, 12, "David Martinez");
+        
+        createOrLoadUser(changed, "user006", "pass006", 1820, 48, "Jessica Brown");
+        createOrLoadUser(changed, "user007", "pass007", 750, 5, "Christopher Lee");
+        createOrLoadUser(changed, "user008", "pass008", 1550, 28, "Amanda Taylor");
+        createOrLoadUser(changed, "user009", "pass009", 1380, 19, "Daniel Garcia");
+        createOrLoadUser(changed, "user010", "pass010", 1920, 55, "Jennifer Wilson");
         
-        createOrLoadUser("user006", "pass006", 1820, 48, "Jessica Brown");
-        createOrLoadUser("user007", "pass007", 750, 5, "Christopher Lee");
-        createOrLoadUser("user008", "pass008", 1550, 28, "Amanda Taylor");
-        createOrLoadUser("user009", "pass009", 1380, 19, "Daniel Garcia");
-        createOrLoadUser("user010", "pass010", 1920, 55, "Jennifer Wilson");
+        createOrLoadUser(changed, "user011", "pass011", 1050, 10, "Matthew Anderson");
+        createOrLoadUser(changed, "user012", "pass012", 1700, 40, "Lisa Thomas");
+        createOrLoadUser(changed, "user013", "pass013", 890, 7, "Ryan Moore");
+        createOrLoadUser(changed, "user014", "pass014", 1490, 25, "Nicole Jackson");
+        createOrLoadUser(changed, "user015", "pass015", 1250, 17, "Kevin White");
         
-        createOrLoadUser("user011", "pass011", 1050, 10, "Matthew Anderson");
-        createOrLoadUser("user012", "pass012", 1700, 40, "Lisa Thomas");
-        createOrLoadUser("user013", "pass013", 890, 7, "Ryan Moore");
-        createOrLoadUser("user014", "pass014", 1490, 25, "Nicole Jackson");
-        createOrLoadUser("user015", "pass015", 1250, 17, "Kevin White");
+        createOrLoadUser(changed, "user016", "pass016", 1600, 32, "Rachel Harris");
+        createOrLoadUser(changed, "user017", "pass017", 1150, 14, "Brandon Martin");
+        createOrLoadUser(changed, "user018", "pass018", 1780, 45, "Michelle Thompson");
+        createOrLoadUser(changed, "user019", "pass019", 950, 9, "Jason Garcia");
+        createOrLoadUser(changed, "user020", "pass020", 2050, 60, "Lauren Martinez");
         
-        createOrLoadUser("user016", "pass016", 1600, 32, "Rachel Harris");
-        createOrLoadUser("user017", "pass017", 1150, 14, "Brandon Martin");
-        createOrLoadUser("user018", "pass018", 1780, 45, "Michelle Thompson");
-        createOrLoadUser("user019", "pass019", 950, 9, "Jason Garcia");
-        createOrLoadUser("user020", "pass020", 2050, 60, "Lauren Martinez");
+        createOrLoadUser(changed, "user021", "pass021", 1320, 20, "Andrew Robinson");
+        createOrLoadUser(changed, "user022", "pass022", 1470, 26, "Stephanie Clark");
+        createOrLoadUser(changed, "user023", "pass023", 820, 6, "Justin Rodriguez");
+        createOrLoadUser(changed, "user024", "pass024", 1590, 30, "Ashley Lewis");
+        createOrLoadUser(changed, "user025", "pass025", 1210, 16, "Tyler Lee");
         
-        createOrLoadUser("user021", "pass021", 1320, 20, "Andrew Robinson");
-        createOrLoadUser("user022", "pass022", 1470, 26, "Stephanie Clark");
-        createOrLoadUser("user023", "pass023", 820, 6, "Justin Rodriguez");
-        createOrLoadUser("user024", "pass024", 1590, 30, "Ashley Lewis");
-        createOrLoadUser("user025", "pass025", 1210, 16, "Tyler Lee");
+        createOrLoadUser(changed, "user026", "pass026", 1850, 50, "Megan Walker");
+        createOrLoadUser(changed, "user027", "pass027", 1080, 11, "Eric Hall");
+        createOrLoadUser(changed, "user028", "pass028", 1680, 38, "Brittany Allen");
+        createOrLoadUser(changed, "user029", "pass029", 1410, 23, "Jonathan Young");
+        createOrLoadUser(changed, "user030", "pass030", 1950, 58, "Samantha King");
         
-        createOrLoadUser("user026", "pass026", 1850, 50, "Megan Walker");
-        createOrLoadUser("user027", "pass027", 1080, 11, "Eric Hall");
-        createOrLoadUser("user028", "pass028", 1680, 38, "Brittany Allen");
-        createOrLoadUser("user029", "pass029", 1410, 23, "Jonathan Young");
-        createOrLoadUser("user030", "pass030", 1950, 58, "Samantha King");
+        dbManager.saveUsers(changed);
     }
     
-    private void createOrLoadUser(String username, String password, int rating, int contests, String fullName) {
-        User user = dbManager.loadUser(username);
+    private void createOrLoadUser(List<User> changed, String username, String password, int rating, int contests, String fullName) {
+        User user = users.get(username);
         if (user == null) {
             // User doesn't exist, create new user with specified credentials
             user = new User(username, password, rating, contests, fullName);
-            dbManager.saveUser(user);
-        } else {
-            // User exists but verify/update password to match expected password
+            putUser(user);
+            changed.add(user);
+        } else if (!user.getPassword().equals(password)) {
             // This ensures predefined users always have their correct passwords
-            if (!user.getPassword().equals(password)) {
-                // Update password in memory
-                user = new User(username, password, user.getCurrentRating(), 
-                               user.getContestsParticipated(), user.getFullName());
-                // Preserve rating history
-                User existingUser = dbManager.loadUser(username);
-                if (existingUser != null && existingUser.getRatingHistory() != null) {
-                    user.getRatingHistory().clear();
-                    user.getRatingHistory().addAll(existingUser.getRatingHistory());
-                }
-                // Save with corrected password
-                dbManager.saveUser(user);
-            }
+            user.setPassword(password);
+            changed.add(user);
+        }
+    }
+    
+    /**
+     * Add a user unless the username is taken, atomically with respect to other threads
+     * @return true if the user was added
+     */
+    private boolean putUserIfAbsent(User user) {
+        if (users.putIfAbsent(user.getUsername(), user) != null) {
+            return false;
+        }
+        indexUser(user);
+        return true;
+    }
+    
+    /**
+     * Add or replace a user and refresh the email and Firebase UID indexes
+     */
+    private void putUser(User user) {
+        User previous = users.put(user.getUsername(), user);
+        if (previous != null && previous != user) {
+            removeFromIndex(usersByEmail, previous.getEmail(), previous);
+            removeFromIndex(usersByFirebaseUid, previous.getFirebaseUid(), previous);
+        }
+        indexUser(user);
+    }
+    
+    /**
+     * Release a username claimed by putUserIfAbsent, e.g. when the registration failed
+     */
+    private void removeUser(User user) {
+        if (users.remove(user.getUsername(), user)) {
+            removeFromIndex(usersByEmail, user.getEmail(), user);
+            removeFromIndex(usersByFirebaseUid, user.getFirebaseUid(), user);
+        }
+    }
+    
+    /**
+     * Index a user under its current email and Firebase UID, e.g. after either was set
+     */
+    private void indexUser(User user) {
+        if (user.getEmail() != null && !user.getEmail().isEmpty()) {
+            usersByEmail.put(user.getEmail(), user);
+        }
+        if (user.getFirebaseUid() != null && !user.getFirebaseUid().isEmpty()) {
+            usersByFirebaseUid.put(user.getFirebaseUid(), user);
+        }
+    }
+    
+    private void removeFromIndex(Map<String, User> index, String key, User user) {
+        if (key != null) {
+            index.remove(key, user);
+        }
+    }
+    
+    /**
+     * Find a user by email in O(1)
+     * @return The user, or null if no user has this email
+     */
+    public User getUserByEmail(String email) {
+        return lookup(usersByEmail, email, User::getEmail);
+    }
+    
+    /**
+     * Find a user by Firebase UID in O(1)
+     * @return The user, or null if no user has this UID
+     */
+    public User getUserByFirebaseUid(String firebaseUid) {
+        return lookup(usersByFirebaseUid, firebaseUid, User::getFirebaseUid);
+    }
+    
+    private User lookup(Map<String, User> index, String key, java.util.function.Function<User, String> field) {
+        if (key == null) {
+            return null;
         }
-        users.put(username, user);
+        User user = index.get(key);
+        if (user != null && !key.equals(field.apply(user))) {
+            // The field was changed on the User object after it was indexed
+            index.remove(key, user);
+            indexUser(user);
+            return null;
+        }
+        return user;
+    }
+    
+    /**
+     * Resolve a login or reset identifier: username, then email, then the part before '@'
+     */
+    private User findByUsernameOrEmail(String usernameOrEmail) {
+        User user = users.get(usernameOrEmail);
+        if (user == null) {
+            user = getUserByEmail(usernameOrEmail);
+        }
+        if (user == null) {
+            user = users.get(extractUsernameFromEmail(usernameOrEmail));
+        }
+        return user;
     }
 
     public User authenticate(String username, String password) {
@@ -132,13 +229,17 @@ public class UserDatabase {
                     user = new User(username, password, 1000, 0, username);
                     user.setEmail(email);
                     user.setFirebaseUid(result.getUserId());
-                    users.put(username, user);
-                    dbManager.saveUser(user);
+                    if (putUserIfAbsent(user)) {
+                        dbManager.saveUser(user);
+                    } else {
+                        user = users.get(username); // Created by a concurrent login
+                    }
                 } else {
                     // Update Firebase UID if not set
                     if (user.getFirebaseUid() == null || user.getFirebaseUid().isEmpty()) {
                         user.setFirebaseUid(result.getUserId());
                         user.setEmail(email);
+                        indexUser(user);
                         dbManager.saveUser(user);
                     }
                 }
@@ -173,24 +274,8 @@ public class UserDatabase {
      */
     private AuthResult tryLocalAuthentication(String usernameOrEmail, String password, 
                                               boolean rememberMe, String firebaseError) {
-        // Try direct username match first
-        User user = users.get(usernameOrEmail);
-        
-        // If not found, try to find by email
-        if (user == null) {
-            for (User u : users.values()) {
-                if (usernameOrEmail.equals(u.getEmail())) {
-                    user = u;
-                    break;
-                }
-            }
-        }
-        
-        // If still not found, extract username from email
-        if (user == null) {
-            String username = extractUsernameFromEmail(usernameOrEmail);
-            user = users.get(username);
-        }
+        // Username first, then email, then the username part of an email
+        User user = findByUsernameOrEmail(usernameOrEmail);
         
         if (user != null && user.getPassword().equals(password)) {
             currentUser = user;
@@ -251,7 +336,9 @@ public class UserDatabase {
         
         // Create new user with initial rating of 1000 and 0 contests
         User newUser = new User(username, password, 1000, 0, fullName);
-        users.put(username, newUser);
+        if (!putUserIfAbsent(newUser)) {
+            return false; // Registered concurrently under the same username
+        }
         currentUser = newUser;
         
         // Save to database
@@ -279,15 +366,20 @@ public class UserDatabase {
         
         // Try Firebase registration if enabled
         if (firebaseAuth.isFirebaseEnabled()) {
+            // Claim the username before creating the Firebase account; there is no way to
+            // delete that account again if a concurrent registration took the name meanwhile
+            User newUser = new User(username, password, 1000, 0, fullName);
+            newUser.setEmail(email);
+            if (!putUserIfAbsent(newUser)) {
+                return new AuthResult(false, null, "Username already exists. Please use a different email.");
+            }
+            
             FirebaseAuthResult result = firebaseAuth.signUp(email, password);
             
             if (result.isSuccess()) {
-                // Firebase registration successful - create local user
-                User newUser = new User(username, password, 1000, 0, fullName);
-                newUser.setEmail(email);
+                // Firebase registration successful - complete the local user
                 newUser.setFirebaseUid(result.getUserId());
-                
-                users.put(username, newUser);
+                indexUser(newUser);
                 currentUser = newUser;
                 dbManager.saveUser(newUser);
                 
@@ -304,6 +396,7 @@ public class UserDatabase {
                 
                 return new AuthResult(true, newUser, "Registration successful!");
             } else {
+                removeUser(newUser);
                 return new AuthResult(false, null, result.getMessage());
             }
         } else {
@@ -315,7 +408,9 @@ public class UserDatabase {
             User newUser = new User(username, password, 1000, 0, fullName);
             newUser.setEmail(email);
             
-            users.put(username, newUser);
+            if (!putUserIfAbsent(newUser)) {
+                return new AuthResult(false, null, "Username already exists. Please use a different email.");
+            }
             currentUser = newUser;
             dbManager.saveUser(newUser);
             
@@ -342,10 +437,24 @@ public class UserDatabase {
         this.currentUser = user;
         // Save updated user to database
         if (user != null) {
+            putUser(user);
             dbManager.saveUser(user);
         }
     }
 
+    /**
+     * Set the current user and persist it through the write-behind queue
+     * @return Future completed once the user row is committed
+     */
+    public CompletableFuture<Void> setCurrentUserAsync(User user) {
+        this.currentUser = user;
+        if (user == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        putUser(user);
+        return WriteBehindQueue.getInstance().submit("users:" + user.getUsername(), () -> dbManager.saveUser(user));
+    }
+
     public Map<String, User> getAllUsers() {
         return users;
     }
@@ -384,25 +493,8 @@ public class UserDatabase {
      * @return true if password was updated successfully
      */
     public boolean updatePasswordByEmail(String email, String newPassword) {
-        // Find user by email
-        User foundUser = null;
-        String foundUsername = null;
-        
-        for (Map.Entry<String, User> entry : users.entrySet()) {
-            User user = entry.getValue();
-            if (email.equals(user.getEmail()) || email.equals(entry.getKey())) {
-                foundUser = user;
-                foundUsername = entry.getKey();
-                break;
-            }
-        }
-        
-        // Also check by extracting username from email
-        if (foundUser == null) {
-            String username = extractUsernameFromEmail(email);
-            foundUser = users.get(username);
-            foundUsername = username;
-        }
+        // Find user by username or email
+        User foundUser = findByUsernameOrEmail(email);
         
         if (foundUser != null) {
             // Update password in memory
@@ -416,10 +508,10 @@ public class UserDatabase {
             // Update in database
             dbManager.saveUser(foundUser);
             
-            // Update in users map
-            users.put(foundUsername, foundUser);
+            // Refresh the email index
+            indexUser(foundUser);
             
-            System.out.println("Password updated successfully in SQLite for: " + foundUsername);
+            System.out.println("Password updated successfully in SQLite for: " + foundUser.getUsername());
             return true;
         }
         
@@ -461,24 +553,7 @@ public class UserDatabase {
      */
     public PasswordResetResult syncAndUpdatePassword(String email, String newPassword, String oldPassword) {
         // Find user in SQLite
-        User foundUser = null;
-        String foundUsername = null;
-        
-        for (Map.Entry<String, User> entry : users.entrySet()) {
-            User user = entry.getValue();
-            if (email.equals(user.getEmail()) || email.equals(entry.getKey())) {
-                foundUser = user;
-                foundUsername = entry.getKey();
-                break;
-            }
-        }
-        
-        // Also check by extracting username from email
-        if (foundUser == null) {
-            String username = extractUsernameFromEmail(email);
-            foundUser = users.get(username);
-            foundUsername = username;
-        }
+        User foundUser = findByUsernameOrEmail(email);
         
         if (foundUser == null) {
             return new PasswordResetResult(false, "User not found with email: " + email, false);
@@ -580,7 +655,7 @@ public class UserDatabase {
             foundUser.setEmail(email);
         }
         dbManager.saveUser(foundUser);
-        users.put(foundUsername, foundUser);
+        indexUser(foundUser);
         
         String finalMessage = "Password updated in SQLite. " + firebaseMessage;
         return new PasswordResetResult(true, finalMessage, firebaseSynced);
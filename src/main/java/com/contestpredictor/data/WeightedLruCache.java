@@ -0,0 +1,151 @@
+package com.contestpredictor.data;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Read-through LRU cache bounded by total entry weight instead of entry count.
+ * Used by the data layer to keep recently viewed contests and standings in memory.
+ * Values are stored as given, so callers must cache snapshots they never mutate.
+ */
+public class WeightedLruCache<K, V> {
+    private final String name;
+    private final long maxWeight;
+    private final ToLongFunction<V> weigher;
+    private final LinkedHashMap<K, V> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<K, Long> weights = new LinkedHashMap<>();
+    private long totalWeight;
+    private long invalidations;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param name Name shown in statistics
+     * @param maxWeight Memory budget in the units returned by the weigher (bytes, roughly)
+     * @param weigher Estimates the weight of a cached value
+     */
+    public WeightedLruCache(String name, long maxWeight, ToLongFunction<V> weigher) {
+        this.name = name;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    /**
+     * Return the cached value for the key, loading and caching it on a miss.
+     * A value loaded while the cache was invalidated is returned but not cached.
+     */
+    public V get(K key, Function<K, V> loader) {
+        long generation;
+        synchronized (this) {
+            V cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+            generation = invalidations;
+        }
+
+        V loaded = loader.apply(key);
+        if (loaded == null) {
+            return null;
+        }
+
+        synchronized (this) {
+            if (generation == invalidations) {
+                put(key, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    private void put(K key, V value) {
+        long weight = weigher.applyAsLong(value);
+        if (weight > maxWeight) {
+            return;
+        }
+        remove(key);
+        entries.put(key, value);
+        weights.put(key, weight);
+        totalWeight += weight;
+
+        Iterator<Map.Entry<K, V>> eldest = entries.entrySet().iterator();
+        while (totalWeight > maxWeight && eldest.hasNext()) {
+            K eldestKey = eldest.next().getKey();
+            eldest.remove();
+            totalWeight -= weights.remove(eldestKey);
+            evictions++;
+        }
+    }
+
+    private void remove(K key) {
+        if (entries.remove(key) != null) {
+            totalWeight -= weights.remove(key);
+        }
+    }
+
+    /**
+     * Drop the entry for a key after the underlying rows changed
+     */
+    public synchronized void invalidate(K key) {
+        invalidations++;
+        remove(key);
+    }
+
+    public synchronized void invalidateAll() {
+        invalidations++;
+        entries.clear();
+        weights.clear();
+        totalWeight = 0;
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(name, hits, misses, evictions, entries.size(), totalWeight, maxWeight);
+    }
+
+    /**
+     * Point-in-time cache statistics
+     */
+    public static class Stats {
+        private final String name;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final int size;
+        private final long weight;
+        private final long maxWeight;
+
+        public Stats(String name, long hits, long misses, long evictions, int size, long weight, long maxWeight) {
+            this.name = name;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.size = size;
+            this.weight = weight;
+            this.maxWeight = maxWeight;
+        }
+
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getEvictions() { return evictions; }
+        public int getSize() { return size; }
+        public long getWeight() { return weight; }
+        public long getMaxWeight() { return maxWeight; }
+
+        public double getHitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0.0 : (double) hits / requests;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d hits, %d misses (%.1f%%), %d evictions, %d entries, %d/%d bytes",
+                    name, hits, misses, getHitRate() * 100, evictions, size, weight, maxWeight);
+        }
+    }
+}
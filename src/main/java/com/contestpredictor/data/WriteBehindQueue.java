@@ -0,0 +1,363 @@
+package com.contestpredictor.data;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single writer for the SQLite database. Every data-layer mutation runs on one
+ * writer thread with its own connection, which drains pending writes and commits
+ * up to MAX_BATCH_SIZE of them as one transaction, so writers never contend for
+ * the lock and readers never see the writer's transaction state.
+ * UI handlers submit() and return immediately; a submit to a full queue is
+ * rejected rather than blocking the caller. Data-layer methods call write() and
+ * wait for their own operation. Writes submitted under the same key before the
+ * writer picks them up are coalesced: only the latest operation runs, and every
+ * caller's future completes with its outcome.
+ */
+public class WriteBehindQueue {
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final long GROUP_COMMIT_WINDOW_MS = 5;
+    private static final int MAX_BATCH_SIZE = 256;
+    private static WriteBehindQueue instance;
+    // True on a thread while it runs write operations; DatabaseManager hands it the writer's connection
+    private static final ThreadLocal<Boolean> WRITING = ThreadLocal.withInitial(() -> false);
+
+    /**
+     * A single data-layer write. Returning false marks the write as failed,
+     * which matches the boolean convention of the existing database methods.
+     */
+    @FunctionalInterface
+    public interface WriteOperation {
+        boolean execute() throws Exception;
+    }
+
+    private static class PendingWrite {
+        private WriteOperation operation;
+        private final List<CompletableFuture<Void>> waiters = new ArrayList<>();
+    }
+
+    private final LinkedHashMap<String, PendingWrite> pending = new LinkedHashMap<>();
+    private final int capacity;
+    private final Thread writerThread;
+    private volatile boolean running = true;
+
+    private final AtomicLong committedWrites = new AtomicLong();
+    private final AtomicLong coalescedWrites = new AtomicLong();
+    private final AtomicLong failedWrites = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong writeSequence = new AtomicLong();
+    // Callers blocked in write(); while any wait, batches commit without the grouping delay
+    private final AtomicInteger blockingWriters = new AtomicInteger();
+    // Work to run once the current batch has committed; only touched by the writer thread
+    private final List<Runnable> afterCommit = new ArrayList<>();
+    // Whether the batch whose afterCommit work is running was committed
+    private boolean batchCommitted;
+
+    private WriteBehindQueue(int capacity) {
+        this.capacity = capacity;
+        this.writerThread = new Thread(this::runWriter, "sqlite-write-behind");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    public static synchronized WriteBehindQueue getInstance() {
+        if (instance == null) {
+            instance = new WriteBehindQueue(DEFAULT_CAPACITY);
+        }
+        return instance;
+    }
+
+    /**
+     * Queue a write under a coalescing key such as "participants:CF918:user001".
+     * Never blocks: if the queue is full and the key is not already pending, the
+     * returned future fails with a RejectedExecutionException.
+     * @param key Identity of the row (or logical record) being written
+     * @param operation The write to run on the writer thread
+     * @return Future completed once the write is committed, or exceptionally on failure
+     */
+    public CompletableFuture<Void> submit(String key, WriteOperation operation) {
+        return enqueue(key, operation, false);
+    }
+
+    private CompletableFuture<Void> enqueue(String key, WriteOperation operation, boolean waitForSpace) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        synchronized (pending) {
+            try {
+                PendingWrite write = pending.get(key);
+                while (write == null && pending.size() >= capacity && running) {
+                    if (!waitForSpace) {
+                        future.completeExceptionally(new RejectedExecutionException(
+                                "Write-behind queue is full (" + capacity + " pending writes)"));
+                        return future;
+                    }
+                    pending.wait();
+                    write = pending.get(key);
+                }
+                if (!running) {
+                    future.completeExceptionally(new IllegalStateException("Write-behind queue is shut down"));
+                    return future;
+                }
+                if (write == null) {
+                    write = new PendingWrite();
+                    pending.put(key, write);
+                } else {
+                    coalescedWrites.incrementAndGet();
+                }
+                write.operation = operation;
+                write.waiters.add(future);
+                pending.notifyAll();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.completeExceptionally(e);
+            }
+        }
+        return future;
+    }
+
+    /**
+     * Run a write on the writer thread and wait for it to commit.
+     * Called from the writer thread itself (a write made by another write) or after
+     * shutdown, the operation runs directly instead. Waits for room when the queue is full.
+     * Callers that need the failure itself use submit, whose future fails with it.
+     * @return true if the write was committed, false if it failed; failures the operation
+     *         did not report itself, such as a thrown exception or a failed commit, are logged
+     */
+    public boolean write(WriteOperation operation) {
+        if (Thread.currentThread() == writerThread || !running) {
+            return runInline(operation);
+        }
+        blockingWriters.incrementAndGet();
+        try {
+            enqueue("__write__:" + writeSequence.incrementAndGet(), operation, true).join();
+            return true;
+        } catch (CompletionException e) {
+            logFailure(e.getCause());
+            return false;
+        } finally {
+            blockingWriters.decrementAndGet();
+        }
+    }
+
+    private boolean runInline(WriteOperation operation) {
+        boolean nested = WRITING.get();
+        WRITING.set(true);
+        try {
+            Throwable failure = executeInSavepoint(DatabaseManager.getInstance().getConnection(), operation);
+            logFailure(failure);
+            return failure == null;
+        } catch (SQLException e) {
+            System.err.println("Write failed: " + e.getMessage());
+            return false;
+        } finally {
+            WRITING.set(nested);
+        }
+    }
+
+    /**
+     * Whether the current thread is running a write operation
+     */
+    static boolean isWriting() {
+        return WRITING.get();
+    }
+
+    /**
+     * Run work once the write being executed is committed (or rolled back), e.g. to drop
+     * cached rows so a reader cannot cache them again from before the commit.
+     * Outside the writer thread the work runs right away.
+     */
+    void afterCommit(Runnable work) {
+        if (Thread.currentThread() == writerThread) {
+            afterCommit.add(work);
+        } else {
+            work.run();
+        }
+    }
+
+    /**
+     * Run work once the write being executed is committed, but not if its batch is
+     * rolled back. It runs in order with the afterCommit work, so work registered after
+     * an invalidation runs after it. Outside the writer thread the work runs right away.
+     */
+    void onCommit(Runnable work) {
+        afterCommit(() -> {
+            if (batchCommitted || Thread.currentThread() != writerThread) {
+                work.run();
+            }
+        });
+    }
+
+    /**
+     * Get a future that completes once everything queued so far has been written.
+     * Waits for room when the queue is full, so call it off the FX thread.
+     */
+    public CompletableFuture<Void> flush() {
+        return enqueue("__flush__:" + System.nanoTime(), () -> true, true);
+    }
+
+    /**
+     * Stop accepting writes, drain what is pending and wait for the writer to finish
+     */
+    public void shutdown() {
+        synchronized (pending) {
+            running = false;
+            pending.notifyAll();
+        }
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runWriter() {
+        WRITING.set(true);
+        while (true) {
+            List<PendingWrite> batch;
+            synchronized (pending) {
+                try {
+                    while (pending.isEmpty() && running) {
+                        pending.wait();
+                    }
+                    // Give closely spaced edits a moment to join the same transaction
+                    if (running && pending.size() < MAX_BATCH_SIZE && blockingWriters.get() == 0) {
+                        pending.wait(GROUP_COMMIT_WINDOW_MS);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    running = false;
+                }
+                if (pending.isEmpty()) {
+                    if (!running) {
+                        return;
+                    }
+                    continue;
+                }
+                batch = new ArrayList<>(Math.min(pending.size(), MAX_BATCH_SIZE));
+                Iterator<PendingWrite> oldest = pending.values().iterator();
+                while (oldest.hasNext() && batch.size() < MAX_BATCH_SIZE) {
+                    batch.add(oldest.next());
+                    oldest.remove();
+                }
+                pending.notifyAll();
+            }
+            commitBatch(batch);
+        }
+    }
+
+    private void commitBatch(List<PendingWrite> batch) {
+        Connection connection = DatabaseManager.getInstance().getConnection();
+        List<Throwable> outcomes = new ArrayList<>(batch.size());
+        try {
+            connection.setAutoCommit(false);
+            for (PendingWrite write : batch) {
+                outcomes.add(executeInSavepoint(connection, write.operation));
+            }
+            connection.commit();
+            batchCommitted = true;
+        } catch (SQLException e) {
+            batchCommitted = false;
+            System.err.println("Write-behind batch failed: " + e.getMessage());
+            try {
+                connection.rollback();
+            } catch (SQLException rollbackError) {
+                System.err.println("Failed to roll back write-behind batch: " + rollbackError.getMessage());
+            }
+            outcomes.clear();
+            for (int i = 0; i < batch.size(); i++) {
+                outcomes.add(e);
+            }
+        } finally {
+            try {
+                connection.setAutoCommit(true);
+            } catch (SQLException e) {
+                System.err.println("Failed to restore auto-commit: " + e.getMessage());
+            }
+        }
+        for (Runnable work : afterCommit) {
+            work.run();
+        }
+        afterCommit.clear();
+
+        batches.incrementAndGet();
+        for (int i = 0; i < batch.size(); i++) {
+            Throwable failure = outcomes.get(i);
+            for (CompletableFuture<Void> waiter : batch.get(i).waiters) {
+                if (failure == null) {
+                    waiter.complete(null);
+                } else {
+                    waiter.completeExceptionally(failure);
+                }
+            }
+            if (failure == null) {
+                committedWrites.incrementAndGet();
+            } else {
+                failedWrites.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Run one operation inside a savepoint so a failed write is undone
+     * without discarding the rest of the batch
+     * @return null on success, otherwise the failure
+     */
+    private Throwable executeInSavepoint(Connection connection, WriteOperation operation) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("SAVEPOINT write_op");
+            Throwable failure = execute(operation);
+            if (failure != null) {
+                stmt.execute("ROLLBACK TO write_op");
+            }
+            stmt.execute("RELEASE write_op");
+            return failure;
+        }
+    }
+
+    private Throwable execute(WriteOperation operation) {
+        try {
+            return operation.execute() ? null : new RejectedWriteException();
+        } catch (Exception e) {
+            return e;
+        }
+    }
+
+    /**
+     * Log why a write failed, unless the operation returned false and so already reported it
+     */
+    private static void logFailure(Throwable failure) {
+        if (failure != null && !(failure instanceof RejectedWriteException)) {
+            System.err.println("Write failed: " + failure);
+        }
+    }
+
+    /**
+     * Failure of an operation that returned false
+     */
+    private static class RejectedWriteException extends SQLException {
+        RejectedWriteException() {
+            super("Write was rejected by the database");
+        }
+    }
+
+    public long getCommittedWrites() {
+        return committedWrites.get();
+    }
+
+    public long getCoalescedWrites() {
+        return coalescedWrites.get();
+    }
+
+    public long getFailedWrites() {
+        return failedWrites.get();
+    }
+}
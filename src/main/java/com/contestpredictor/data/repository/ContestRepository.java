@@ -0,0 +1,29 @@
+package com.contestpredictor.data.repository;
+
+import com.contestpredictor.model.Contest;
+
+import java.util.List;
+
+/**
+ * Storage for regular contests (without their standings)
+ */
+public interface ContestRepository {
+
+    /**
+     * @return The contest, or null if it does not exist
+     */
+    Contest findById(String contestId);
+
+    List<Contest> findAll();
+
+    /**
+     * Insert or replace a contest together with its participants
+     * @return true if the contest was stored
+     */
+    boolean save(Contest contest);
+
+    /**
+     * @return true if a contest was deleted
+     */
+    boolean delete(String contestId);
+}
@@ -0,0 +1,77 @@
+package com.contestpredictor.data.repository;
+
+import com.contestpredictor.model.Contest;
+import com.contestpredictor.model.Participant;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lock-free in-memory contest repository for benchmarks, load tests and batch replays
+ */
+public class InMemoryContestRepository implements ContestRepository {
+    // Stored contests always hold their own participant list, which is never changed after it is stored
+    private final ConcurrentHashMap<String, Contest> contests = new ConcurrentHashMap<>();
+
+    @Override
+    public Contest findById(String contestId) {
+        Contest contest = contests.get(contestId);
+        return contest != null ? copyOut(contest) : null;
+    }
+
+    @Override
+    public List<Contest> findAll() {
+        List<Contest> all = new ArrayList<>(contests.size());
+        for (Contest contest : contests.values()) {
+            all.add(copyOut(contest));
+        }
+        return all;
+    }
+
+    @Override
+    public boolean save(Contest contest) {
+        contests.compute(contest.getContestId(), (id, stored) -> {
+            // Lazy participants are unchanged since they were loaded, so like the SQLite store keep the
+            // stored ones instead of running the loader
+            List<Participant> participants = contest.isParticipantsLazy()
+                    ? (stored != null ? stored.getParticipants() : new ArrayList<>())
+                    : copyParticipants(contest.getParticipants());
+            Contest copy = copyHeader(contest);
+            copy.setParticipants(participants);
+            return copy;
+        });
+        return true;
+    }
+
+    @Override
+    public boolean delete(String contestId) {
+        return contests.remove(contestId) != null;
+    }
+
+    /**
+     * Copy a stored contest whose participants are only copied when they are read
+     */
+    private static Contest copyOut(Contest stored) {
+        Contest copy = copyHeader(stored);
+        List<Participant> participants = stored.getParticipants();
+        copy.setParticipantLoader(() -> copyParticipants(participants));
+        return copy;
+    }
+
+    private static Contest copyHeader(Contest source) {
+        Contest copy = new Contest(source.getContestId(), source.getContestName(), source.getDateTime(),
+                source.getDuration(), source.isPast(), source.getCreatedByAdmin(), source.getMaxParticipants());
+        copy.setRegistrationOpen(source.isRegistrationOpen());
+        copy.setRegisteredUsers(new ArrayList<>(source.getRegisteredUsers()));
+        return copy;
+    }
+
+    private static List<Participant> copyParticipants(List<Participant> source) {
+        List<Participant> copy = new ArrayList<>(source.size());
+        for (Participant p : source) {
+            copy.add(new Participant(p));
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,99 @@
+package com.contestpredictor.data.repository;
+
+import com.contestpredictor.data.StandingsPage;
+import com.contestpredictor.model.LeaderboardContest;
+import com.contestpredictor.model.LeaderboardEntry;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free in-memory leaderboard repository for benchmarks, load tests and batch replays
+ */
+public class InMemoryLeaderboardRepository implements LeaderboardRepository {
+    private final ConcurrentHashMap<String, LeaderboardContest> contests = new ConcurrentHashMap<>();
+    // contest id -> (username -> registration sequence number)
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, Long>> registrations = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, RankedIndex<LeaderboardEntry>> standings = new ConcurrentHashMap<>();
+    private final AtomicLong registrationSequence = new AtomicLong();
+
+    @Override
+    public boolean createContest(LeaderboardContest contest) {
+        return contests.putIfAbsent(contest.getContestId(), copy(contest)) == null;
+    }
+
+    @Override
+    public LeaderboardContest findContestById(String contestId) {
+        LeaderboardContest contest = contests.get(contestId);
+        return contest != null ? copy(contest) : null;
+    }
+
+    @Override
+    public List<LeaderboardContest> findAllContests() {
+        List<LeaderboardContest> all = new ArrayList<>(contests.size());
+        for (LeaderboardContest contest : contests.values()) {
+            all.add(copy(contest));
+        }
+        all.sort(Comparator.comparing(LeaderboardContest::getCreatedAt).reversed());
+        return all;
+    }
+
+    @Override
+    public boolean registerUser(String contestId, String username) {
+        return registrations.computeIfAbsent(contestId, id -> new ConcurrentHashMap<>())
+                .putIfAbsent(username, registrationSequence.incrementAndGet()) == null;
+    }
+
+    @Override
+    public List<String> findRegisteredUsers(String contestId) {
+        Map<String, Long> registered = registrations.get(contestId);
+        List<String> users = new ArrayList<>();
+        if (registered != null) {
+            registered.entrySet().stream()
+                    .sorted(Map.Entry.comparingByValue())
+                    .forEach(entry -> users.add(entry.getKey()));
+        }
+        return users;
+    }
+
+    @Override
+    public boolean saveEntry(LeaderboardEntry entry) {
+        standings.computeIfAbsent(entry.getContestId(), id -> new RankedIndex<>(LeaderboardEntry::new))
+                .put(entry.getUsername(), entry.getRank(), entry);
+        return true;
+    }
+
+    @Override
+    public boolean deleteEntry(String contestId, String username) {
+        RankedIndex<LeaderboardEntry> index = standings.get(contestId);
+        return index != null && index.remove(username);
+    }
+
+    @Override
+    public List<LeaderboardEntry> findStandings(String contestId) {
+        RankedIndex<LeaderboardEntry> index = standings.get(contestId);
+        return index != null ? index.all() : new ArrayList<>();
+    }
+
+    @Override
+    public StandingsPage<LeaderboardEntry> findStandingsPage(String contestId, StandingsPage.Cursor after, int limit) {
+        RankedIndex<LeaderboardEntry> index = standings.get(contestId);
+        return index != null ? index.page(after, limit) : new StandingsPage<>(new ArrayList<>(), null);
+    }
+
+    private static LeaderboardContest copy(LeaderboardContest source) {
+        LeaderboardContest copy = new LeaderboardContest(source.getContestId(), source.getContestName(),
+                source.getDescription(), source.getStartDate(), source.getEndDate(),
+                source.getMaxProblems(), source.getCreatedByAdmin());
+        copy.setCreatedAt(source.getCreatedAt());
+        copy.setActive(source.isActive());
+        copy.setStandings_finalized(source.isStandings_finalized());
+        copy.setRegisteredUsers(new ArrayList<>(source.getRegisteredUsers()));
+        copy.setTotalParticipants(source.getTotalParticipants());
+        return copy;
+    }
+}
@@ -0,0 +1,59 @@
+package com.contestpredictor.data.repository;
+
+import com.contestpredictor.data.StandingsPage;
+import com.contestpredictor.model.Participant;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lock-free in-memory participant repository for benchmarks, load tests and batch replays
+ */
+public class InMemoryParticipantRepository implements ParticipantRepository {
+    private final ConcurrentHashMap<String, RankedIndex<Participant>> standings = new ConcurrentHashMap<>();
+
+    @Override
+    public List<Participant> findByContest(String contestId) {
+        RankedIndex<Participant> index = standings.get(contestId);
+        return index != null ? index.all() : new ArrayList<>();
+    }
+
+    @Override
+    public StandingsPage<Participant> findPage(String contestId, StandingsPage.Cursor after, int limit) {
+        RankedIndex<Participant> index = standings.get(contestId);
+        return index != null ? index.page(after, limit) : new StandingsPage<>(new ArrayList<>(), null);
+    }
+
+    @Override
+    public int findRankOf(String contestId, String username) {
+        RankedIndex<Participant> index = standings.get(contestId);
+        return index != null ? index.rankOf(username) : -1;
+    }
+
+    @Override
+    public boolean save(String contestId, Participant participant) {
+        standings.computeIfAbsent(contestId, id -> new RankedIndex<>(Participant::new))
+                .append(participant.getUsername(), participant.getRank(), participant);
+        return true;
+    }
+
+    @Override
+    public boolean updateSolveCount(String contestId, String username, int problemsSolved, int totalPenalty) {
+        RankedIndex<Participant> index = standings.get(contestId);
+        Participant participant = index != null ? index.get(username) : null;
+        if (participant == null) {
+            return false;
+        }
+        participant.setProblemsSolved(problemsSolved);
+        participant.setTotalPenalty(totalPenalty);
+        index.put(username, participant.getRank(), participant);
+        return true;
+    }
+
+    @Override
+    public boolean remove(String contestId, String username) {
+        RankedIndex<Participant> index = standings.get(contestId);
+        return index != null && index.remove(username);
+    }
+}
@@ -0,0 +1,58 @@
+package com.contestpredictor.data.repository;
+
+import com.contestpredictor.model.SessionData;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free in-memory session repository for benchmarks, load tests and batch replays
+ */
+public class InMemorySessionRepository implements SessionRepository {
+    private final ConcurrentHashMap<String, StoredSession> sessions = new ConcurrentHashMap<>();
+    // Logical clock instead of wall time so "most recent" is well defined under load
+    private final AtomicLong clock = new AtomicLong();
+
+    @Override
+    public boolean save(SessionData session) {
+        sessions.put(session.getUsername(), new StoredSession(session, clock.incrementAndGet()));
+        return true;
+    }
+
+    @Override
+    public SessionData findLatestRemembered() {
+        StoredSession latest = null;
+        for (StoredSession stored : sessions.values()) {
+            if (stored.session.isRememberMe() && (latest == null || stored.lastLogin > latest.lastLogin)) {
+                latest = stored;
+            }
+        }
+        return latest != null ? latest.session : null;
+    }
+
+    @Override
+    public void delete(String username) {
+        sessions.remove(username);
+    }
+
+    @Override
+    public void deleteAll() {
+        sessions.clear();
+    }
+
+    @Override
+    public void touch(String username) {
+        sessions.computeIfPresent(username,
+                (name, stored) -> new StoredSession(stored.session, clock.incrementAndGet()));
+    }
+
+    private static final class StoredSession {
+        private final SessionData session;
+        private final long lastLogin;
+
+        private StoredSession(SessionData session, long lastLogin) {
+            this.session = session;
+            this.lastLogin = lastLogin;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.contestpredictor.data.repository;
+
+import com.contestpredictor.model.RatingSeries;
+import com.contestpredictor.model.User;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lock-free in-memory user repository for benchmarks, load tests and batch replays
+ */
+public class InMemoryUserRepository implements UserRepository {
+    private final ConcurrentHashMap<String, User> users = new ConcurrentHashMap<>();
+
+    @Override
+    public User findByUsername(String username) {
+        User user = users.get(username);
+        return user != null ? copy(user) : null;
+    }
+
+    @Override
+    public boolean save(User user) {
+        users.put(user.getUsername(), copy(user));
+        return true;
+    }
+
+    private static User copy(User source) {
+        User copy = new User(source.getUsername(), source.getPassword(), source.getCurrentRating(),
+                source.getContestsParticipated(), source.getFullName());
+        copy.setRatingSeries(RatingSeries.fromBytes(source.getRatingSeries().toBytes()));
+        copy.setEmail(source.getEmail());
+        copy.setFirebaseUid(source.getFirebaseUid());
+        return copy;
+    }
+}
@@ -0,0 +1,43 @@
+package com.contestpredictor.data.repository;
+
+import com.contestpredictor.data.StandingsPage;
+import com.contestpredictor.model.LeaderboardContest;
+import com.contestpredictor.model.LeaderboardEntry;
+
+import java.util.List;
+
+/**
+ * Storage for leaderboard contests, their registrations and their standings
+ */
+public interface LeaderboardRepository {
+
+    boolean createContest(LeaderboardContest contest);
+
+    /**
+     * @return The contest, or null if it does not exist
+     */
+    LeaderboardContest findContestById(String contestId);
+
+    List<LeaderboardContest> findAllContests();
+
+    boolean registerUser(String contestId, String username);
+
+    List<String> findRegisteredUsers(String contestId);
+
+    /**
+     * Insert or update the entry of a user in a contest
+     */
+    boolean saveEntry(LeaderboardEntry entry);
+
+    boolean deleteEntry(String contestId, String username);
+
+    /**
+     * @return All entries of a contest ordered by rank
+     */
+    List<LeaderboardEntry> findStandings(String contestId);
+
+    /**
+     * @return One rank-ordered page starting after the cursor
+     */
+    StandingsPage<LeaderboardEntry> findStandingsPage(String contestId, StandingsPage.Cursor after, int limit);
+}
@@ -0,0 +1,33 @@
+package com.contestpredictor.data.repository;
+
+import com.contestpredictor.data.StandingsPage;
+import com.contestpredictor.model.Participant;
+
+import java.util.List;
+
+/**
+ * Storage for the participants (standings) of regular contests
+ */
+public interface ParticipantRepository {
+
+    /**
+     * @return All participants of a contest ordered by rank
+     */
+    List<Participant> findByContest(String contestId);
+
+    /**
+     * @return One rank-ordered page starting after the cursor
+     */
+    StandingsPage<Participant> findPage(String contestId, StandingsPage.Cursor after, int limit);
+
+    /**
+     * @return The user's rank, or -1 if the user did not participate
+     */
+    int findRankOf(String contestId, String username);
+
+    boolean save(String contestId, Participant participant);
+
+    boolean updateSolveCount(String contestId, String username, int problemsSolved, int totalPenalty);
+
+    boolean remove(String contestId, String username);
+}
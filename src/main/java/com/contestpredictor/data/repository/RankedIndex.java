@@ -0,0 +1,128 @@
+package com.contestpredictor.data.repository;
+
+import com.contestpredictor.data.StandingsPage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * Lock-free, rank-ordered standings of one contest for the in-memory repositories.
+ * Rows are ordered by (rank, row id) exactly like the SQLite keyset queries, so
+ * cursors behave the same against either store. Values are copied on the way in
+ * and out, so callers never share mutable rows with the index.
+ */
+class RankedIndex<T> {
+    private final ConcurrentSkipListMap<Key, T> byRank = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<String, Key> byUsername = new ConcurrentHashMap<>();
+    private final AtomicLong rowIds = new AtomicLong();
+    private final UnaryOperator<T> copier;
+
+    RankedIndex(UnaryOperator<T> copier) {
+        this.copier = copier;
+    }
+
+    /**
+     * Insert or replace the row of a user, keeping its row id on replacement
+     */
+    void put(String username, int rank, T value) {
+        T copy = copier.apply(value);
+        while (true) {
+            Key old = byUsername.get(username);
+            Key key = new Key(rank, old != null ? old.rowId : rowIds.incrementAndGet());
+            // Publish the row first, then claim the user's slot; whoever loses the race withdraws its row
+            byRank.put(key, copy);
+            boolean claimed = old == null
+                    ? byUsername.putIfAbsent(username, key) == null
+                    : byUsername.replace(username, old, key);
+            if (claimed) {
+                if (old != null && !old.equals(key)) {
+                    byRank.remove(old);
+                }
+                return;
+            }
+            byRank.remove(key, copy);
+        }
+    }
+
+    /**
+     * Add a row even if the user already has one, like a plain SQL INSERT
+     */
+    void append(String username, int rank, T value) {
+        Key key = new Key(rank, rowIds.incrementAndGet());
+        byRank.put(key, copier.apply(value));
+        byUsername.putIfAbsent(username, key);
+    }
+
+    T get(String username) {
+        Key key = byUsername.get(username);
+        T value = key != null ? byRank.get(key) : null;
+        return value != null ? copier.apply(value) : null;
+    }
+
+    boolean remove(String username) {
+        Key key = byUsername.remove(username);
+        return key != null && byRank.remove(key) != null;
+    }
+
+    int rankOf(String username) {
+        Key key = byUsername.get(username);
+        return key != null ? key.rank : -1;
+    }
+
+    List<T> all() {
+        List<T> rows = new ArrayList<>(byRank.size());
+        for (T value : byRank.values()) {
+            rows.add(copier.apply(value));
+        }
+        return rows;
+    }
+
+    StandingsPage<T> page(StandingsPage.Cursor after, int limit) {
+        if (limit <= 0) {
+            return StandingsPage.empty();
+        }
+        List<T> rows = new ArrayList<>();
+        StandingsPage.Cursor next = null;
+        Key last = null;
+        for (Map.Entry<Key, T> entry : byRank.tailMap(new Key(after.getRank(), after.getRowId()), false).entrySet()) {
+            if (rows.size() == limit) {
+                next = new StandingsPage.Cursor(last.rank, last.rowId);
+                break;
+            }
+            rows.add(copier.apply(entry.getValue()));
+            last = entry.getKey();
+        }
+        return new StandingsPage<>(rows, next);
+    }
+
+    private static final class Key implements Comparable<Key> {
+        private final int rank;
+        private final long rowId;
+
+        private Key(int rank, long rowId) {
+            this.rank = rank;
+            this.rowId = rowId;
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            int byRankOrder = Integer.compare(rank, other.rank);
+            return byRankOrder != 0 ? byRankOrder : Long.compare(rowId, other.rowId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && ((Key) o).rank == rank && ((Key) o).rowId == rowId;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * rank + Long.hashCode(rowId);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.contestpredictor.data.repository;
+
+import com.contestpredictor.model.SessionData;
+
+/**
+ * Storage for persisted login sessions
+ */
+public interface SessionRepository {
+
+    /**
+     * Replace any existing session of the same user
+     */
+    boolean save(SessionData session);
+
+    /**
+     * @return The most recently used remember-me session, or null if there is none
+     */
+    SessionData findLatestRemembered();
+
+    void delete(String username);
+
+    void deleteAll();
+
+    /**
+     * Record that the user's session was just used
+     */
+    void touch(String username);
+}
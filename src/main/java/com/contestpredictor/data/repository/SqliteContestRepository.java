@@ -0,0 +1,41 @@
+package com.contestpredictor.data.repository;
+
+import com.contestpredictor.data.ContestDatabase;
+import com.contestpredictor.data.DatabaseManager;
+import com.contestpredictor.model.Contest;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Production contest repository backed by the SQLite data layer
+ */
+public class SqliteContestRepository implements ContestRepository {
+
+    @Override
+    public Contest findById(String contestId) {
+        return DatabaseManager.getInstance().loadContest(contestId);
+    }
+
+    @Override
+    public List<Contest> findAll() {
+        return DatabaseManager.getInstance().loadAllContests();
+    }
+
+    @Override
+    public boolean save(Contest contest) {
+        return DatabaseManager.getInstance().saveContestWithAdmin(contest);
+    }
+
+    @Override
+    public boolean delete(String contestId) {
+        // Goes through ContestDatabase so its in-memory contest list stays in sync
+        if (ContestDatabase.getInstance().getContestById(contestId) != null) {
+            return ContestDatabase.getInstance().deleteContest(contestId);
+        }
+        // Saved through this repository only, so ContestDatabase never held it
+        DatabaseManager dbManager = DatabaseManager.getInstance();
+        return dbManager.loadContest(contestId) != null
+                && dbManager.deleteContests(Collections.singletonList(contestId));
+    }
+}
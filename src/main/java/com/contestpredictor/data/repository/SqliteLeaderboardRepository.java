@@ -0,0 +1,59 @@
+package com.contestpredictor.data.repository;
+
+import com.contestpredictor.data.LeaderboardDatabase;
+import com.contestpredictor.data.StandingsPage;
+import com.contestpredictor.model.LeaderboardContest;
+import com.contestpredictor.model.LeaderboardEntry;
+
+import java.util.List;
+
+/**
+ * Production leaderboard repository backed by the SQLite data layer
+ */
+public class SqliteLeaderboardRepository implements LeaderboardRepository {
+
+    @Override
+    public boolean createContest(LeaderboardContest contest) {
+        return LeaderboardDatabase.getInstance().createLeaderboardContest(contest);
+    }
+
+    @Override
+    public LeaderboardContest findContestById(String contestId) {
+        return LeaderboardDatabase.getInstance().getLeaderboardContestById(contestId);
+    }
+
+    @Override
+    public List<LeaderboardContest> findAllContests() {
+        return LeaderboardDatabase.getInstance().getAllLeaderboardContests();
+    }
+
+    @Override
+    public boolean registerUser(String contestId, String username) {
+        return LeaderboardDatabase.getInstance().registerUserForLeaderboardContest(contestId, username);
+    }
+
+    @Override
+    public List<String> findRegisteredUsers(String contestId) {
+        return LeaderboardDatabase.getInstance().getRegisteredUsersForContest(contestId);
+    }
+
+    @Override
+    public boolean saveEntry(LeaderboardEntry entry) {
+        return LeaderboardDatabase.getInstance().addLeaderboardEntry(entry);
+    }
+
+    @Override
+    public boolean deleteEntry(String contestId, String username) {
+        return LeaderboardDatabase.getInstance().deleteLeaderboardEntry(contestId, username);
+    }
+
+    @Override
+    public List<LeaderboardEntry> findStandings(String contestId) {
+        return LeaderboardDatabase.getInstance().getContestStandings(contestId);
+    }
+
+    @Override
+    public StandingsPage<LeaderboardEntry> findStandingsPage(String contestId, StandingsPage.Cursor after, int limit) {
+        return LeaderboardDatabase.getInstance().getStandingsPage(contestId, after, limit);
+    }
+}
@@ -0,0 +1,43 @@
+package com.contestpredictor.data.repository;
+
+import com.contestpredictor.data.DatabaseManager;
+import com.contestpredictor.data.StandingsPage;
+import com.contestpredictor.model.Participant;
+
+import java.util.List;
+
+/**
+ * Production participant repository backed by the SQLite data layer
+ */
+public class SqliteParticipantRepository implements ParticipantRepository {
+
+    @Override
+    public List<Participant> findByContest(String contestId) {
+        return DatabaseManager.getInstance().getParticipantsByContest(contestId);
+    }
+
+    @Override
+    public StandingsPage<Participant> findPage(String contestId, StandingsPage.Cursor after, int limit) {
+        return DatabaseManager.getInstance().getParticipantsPage(contestId, after, limit);
+    }
+
+    @Override
+    public int findRankOf(String contestId, String username) {
+        return DatabaseManager.getInstance().findRankOf(contestId, username);
+    }
+
+    @Override
+    public boolean save(String contestId, Participant participant) {
+        return DatabaseManager.getInstance().saveParticipant(contestId, participant);
+    }
+
+    @Override
+    public boolean updateSolveCount(String contestId, String username, int problemsSolved, int totalPenalty) {
+        return DatabaseManager.getInstance().updateParticipantSolveCount(contestId, username, problemsSolved, totalPenalty);
+    }
+
+    @Override
+    public boolean remove(String contestId, String username) {
+        return DatabaseManager.getInstance().removeParticipant(contestId, username);
+    }
+}
@@ -0,0 +1,150 @@
+package com.contestpredictor.data.repository;
+
+import com.contestpredictor.data.DatabaseManager;
+import com.contestpredictor.data.WriteBehindQueue;
+import com.contestpredictor.model.SessionData;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Production session repository storing sessions in the user_sessions table
+ */
+public class SqliteSessionRepository implements SessionRepository {
+
+    public SqliteSessionRepository() {
+        initializeSessionTable();
+    }
+
+    /**
+     * Initialize session table in SQLite
+     */
+    private void initializeSessionTable() {
+        try (Statement stmt = connection().createStatement()) {
+            // Sessions table for persistent login
+            stmt.execute("CREATE TABLE IF NOT EXISTS user_sessions (" +
+                    "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                    "username TEXT UNIQUE NOT NULL," +
+                    "firebase_uid TEXT," +
+                    "email TEXT," +
+                    "id_token TEXT," +
+                    "refresh_token TEXT," +
+                    "token_expiration INTEGER," +
+                    "remember_me INTEGER DEFAULT 1," +
+                    "last_login TEXT NOT NULL," +
+                    "created_at TEXT NOT NULL" +
+                    ")");
+            System.out.println("Session table initialized");
+        } catch (SQLException e) {
+            System.err.println("Failed to initialize session table: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean save(SessionData session) {
+        return WriteBehindQueue.getInstance().write(() -> {
+            Connection conn = connection();
+            String now = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+            try {
+                // Delete any existing session for this user
+                String deleteSql = "DELETE FROM user_sessions WHERE username = ?";
+                try (PreparedStatement deleteStmt = conn.prepareStatement(deleteSql)) {
+                    deleteStmt.setString(1, session.getUsername());
+                    deleteStmt.executeUpdate();
+                }
+
+                // Insert new session
+                String insertSql = "INSERT INTO user_sessions (username, firebase_uid, email, id_token, " +
+                        "refresh_token, token_expiration, remember_me, last_login, created_at) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+                try (PreparedStatement pstmt = conn.prepareStatement(insertSql)) {
+                    pstmt.setString(1, session.getUsername());
+                    pstmt.setString(2, session.getFirebaseUid());
+                    pstmt.setString(3, session.getEmail());
+                    pstmt.setString(4, session.getIdToken());
+                    pstmt.setString(5, session.getRefreshToken());
+                    pstmt.setLong(6, session.getTokenExpiration());
+                    pstmt.setInt(7, session.isRememberMe() ? 1 : 0);
+                    pstmt.setString(8, now);
+                    pstmt.setString(9, now);
+                    pstmt.executeUpdate();
+                }
+                return true;
+            } catch (SQLException e) {
+                System.err.println("Failed to save session: " + e.getMessage());
+                return false;
+            }
+        });
+    }
+
+    @Override
+    public SessionData findLatestRemembered() {
+        // Get the most recent session with remember_me enabled
+        String sql = "SELECT * FROM user_sessions WHERE remember_me = 1 ORDER BY last_login DESC LIMIT 1";
+        try (Statement stmt = connection().createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            if (rs.next()) {
+                return new SessionData(
+                        rs.getString("username"),
+                        rs.getString("firebase_uid"),
+                        rs.getString("email"),
+                        rs.getString("id_token"),
+                        rs.getString("refresh_token"),
+                        rs.getLong("token_expiration"),
+                        rs.getInt("remember_me") == 1);
+            }
+        } catch (SQLException e) {
+            System.err.println("Failed to load session: " + e.getMessage());
+        }
+        return null;
+    }
+
+    @Override
+    public void delete(String username) {
+        WriteBehindQueue.getInstance().write(() -> {
+            String sql = "DELETE FROM user_sessions WHERE username = ?";
+            try (PreparedStatement pstmt = connection().prepareStatement(sql)) {
+                pstmt.setString(1, username);
+                pstmt.executeUpdate();
+                return true;
+            } catch (SQLException e) {
+                System.err.println("Failed to clear session: " + e.getMessage());
+                return false;
+            }
+        });
+    }
+
+    @Override
+    public void deleteAll() {
+        WriteBehindQueue.getInstance().write(() -> {
+            try (Statement stmt = connection().createStatement()) {
+                stmt.executeUpdate("DELETE FROM user_sessions");
+                return true;
+            } catch (SQLException e) {
+                System.err.println("Failed to clear all sessions: " + e.getMessage());
+                return false;
+            }
+        });
+    }
+
+    @Override
+    public void touch(String username) {
+        WriteBehindQueue.getInstance().write(() -> {
+            String sql = "UPDATE user_sessions SET last_login = ? WHERE username = ?";
+            try (PreparedStatement pstmt = connection().prepareStatement(sql)) {
+                pstmt.setString(1, LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+                pstmt.setString(2, username);
+                pstmt.executeUpdate();
+                return true;
+            } catch (SQLException e) {
+                System.err.println("Failed to update last login: " + e.getMessage());
+                return false;
+            }
+        });
+    }
+
+    private Connection connection() {
+        return DatabaseManager.getInstance().getConnection();
+    }
+}
@@ -0,0 +1,20 @@
+package com.contestpredictor.data.repository;
+
+import com.contestpredictor.data.DatabaseManager;
+import com.contestpredictor.model.User;
+
+/**
+ * Production user repository backed by the SQLite data layer
+ */
+public class SqliteUserRepository implements UserRepository {
+
+    @Override
+    public User findByUsername(String username) {
+        return DatabaseManager.getInstance().loadUser(username);
+    }
+
+    @Override
+    public boolean save(User user) {
+        return DatabaseManager.getInstance().saveUser(user);
+    }
+}
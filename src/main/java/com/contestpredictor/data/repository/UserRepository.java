@@ -0,0 +1,19 @@
+package com.contestpredictor.data.repository;
+
+import com.contestpredictor.model.User;
+
+/**
+ * Storage for user accounts
+ */
+public interface UserRepository {
+
+    /**
+     * @return The user, or null if it does not exist
+     */
+    User findByUsername(String username);
+
+    /**
+     * Insert or replace a user
+     */
+    boolean save(User user);
+}
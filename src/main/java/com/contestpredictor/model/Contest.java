@@ -1,16 +1,25 @@
 package com.contestpredictor.model;
 
+import java.lang.ref.SoftReference;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 public class Contest {
+    private static final long NO_TIME = Long.MIN_VALUE;
+    
     private String contestId;
     private String contestName;
-    private LocalDateTime dateTime;
+    private LocalDateTime dateTime; // Resolved lazily from dateTimeEpoch when loaded from the database
+    private long dateTimeEpoch = NO_TIME; // Epoch seconds (UTC)
     private int duration; // in minutes
     private boolean isPast;
-    private List<Participant> participants;
+    // The participant fields are read and replaced from several threads, always under the contest's lock
+    private List<Participant> participants; // Built or changed in memory; null while loaded lazily
+    private Supplier<List<Participant>> participantLoader;
+    private SoftReference<List<Participant>> loadedParticipants; // Released by the GC under memory pressure
     private List<String> registeredUsers; // List of usernames registered for this contest
     private String createdByAdmin; // Admin who created this contest
     private int maxParticipants; // Maximum number of participants allowed
@@ -19,7 +28,7 @@ public class Contest {
     public Contest(String contestId, String contestName, LocalDateTime dateTime, int duration, boolean isPast) {
         this.contestId = contestId;
         this.contestName = contestName;
-        this.dateTime = dateTime;
+        setDateTime(dateTime);
         this.duration = duration;
         this.isPast = isPast;
         this.participants = new ArrayList<>();
@@ -28,6 +37,12 @@ public class Contest {
         this.registrationOpen = true;
     }
     
+    // Constructor used by the data layer; the LocalDateTime is only built when first requested
+    public Contest(String contestId, String contestName, long dateTimeEpochSeconds, int duration, boolean isPast) {
+        this(contestId, contestName, (LocalDateTime) null, duration, isPast);
+        this.dateTimeEpoch = dateTimeEpochSeconds;
+    }
+    
     // Constructor with admin support
     public Contest(String contestId, String contestName, LocalDateTime dateTime, int duration, 
                    boolean isPast, String createdByAdmin, int maxParticipants) {
@@ -36,7 +51,9 @@ public class Contest {
         this.maxParticipants = maxParticipants;
     }
 
-    public void addParticipant(Participant participant) {
+    public synchronized void addParticipant(Participant participant) {
+        // Keep the list strongly reachable so the added participant is not lost on reload
+        this.participants = getParticipants();
         this.participants.add(participant);
     }
     
@@ -90,11 +107,19 @@ public class Contest {
     }
 
     public LocalDateTime getDateTime() {
+        if (dateTime == null && dateTimeEpoch != NO_TIME) {
+            dateTime = LocalDateTime.ofEpochSecond(dateTimeEpoch, 0, ZoneOffset.UTC);
+        }
         return dateTime;
     }
 
     public void setDateTime(LocalDateTime dateTime) {
         this.dateTime = dateTime;
+        this.dateTimeEpoch = dateTime != null ? dateTime.toEpochSecond(ZoneOffset.UTC) : NO_TIME;
+    }
+    
+    public long getDateTimeEpochSeconds() {
+        return dateTimeEpoch;
     }
 
     public int getDuration() {
@@ -113,12 +138,50 @@ public class Contest {
         isPast = past;
     }
 
-    public List<Participant> getParticipants() {
-        return participants;
+    /**
+     * Get the participants, loading them on first access for contests read from the database.
+     * A lazily loaded list may be dropped under memory pressure and reloaded later, so changes
+     * that must stay in memory go through addParticipant or setParticipants.
+     */
+    public synchronized List<Participant> getParticipants() {
+        if (participants != null) {
+            return participants;
+        }
+        List<Participant> loaded = loadedParticipants != null ? loadedParticipants.get() : null;
+        if (loaded == null) {
+            loaded = new ArrayList<>(participantLoader.get());
+            loadedParticipants = new SoftReference<>(loaded);
+        }
+        return loaded;
     }
 
-    public void setParticipants(List<Participant> participants) {
+    public synchronized void setParticipants(List<Participant> participants) {
         this.participants = participants;
+        this.participantLoader = null;
+        this.loadedParticipants = null;
+    }
+    
+    /**
+     * Load participants on demand instead of holding them, used by the data layer
+     */
+    public synchronized void setParticipantLoader(Supplier<List<Participant>> participantLoader) {
+        this.participants = null;
+        this.participantLoader = participantLoader;
+        this.loadedParticipants = null;
+    }
+    
+    /**
+     * Forget participants held in memory so the next access reads them through the loader again
+     */
+    public synchronized void discardLoadedParticipants() {
+        this.loadedParticipants = null;
+    }
+    
+    /**
+     * Whether the participants still come from the loader, i.e. were not built or changed in memory
+     */
+    public synchronized boolean isParticipantsLazy() {
+        return participants == null;
     }
     
     public List<String> getRegisteredUsers() {
@@ -1,6 +1,7 @@
 package com.contestpredictor.model;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -9,16 +10,22 @@ import java.util.List;
  * Part of the "KUET Team Formation Contest Leaderboard" system
  */
 public class LeaderboardContest {
+    private static final long NO_TIME = Long.MIN_VALUE;
+    
     private String contestId;
     private String contestName;
     private String description;
+    // Dates loaded from the database arrive as epoch seconds (UTC) and are converted on first access
     private LocalDateTime startDate;
+    private long startDateEpoch = NO_TIME;
     private LocalDateTime endDate;
+    private long endDateEpoch = NO_TIME;
     private int maxProblems; // Number of problems in the contest
     private boolean isActive; // Whether this contest is currently accepting registrations
     private boolean standings_finalized; // Whether final standings have been determined
     private String createdByAdmin;
     private LocalDateTime createdAt;
+    private long createdAtEpoch = NO_TIME;
     private List<String> registeredUsers; // Usernames of registered participants
     private int totalParticipants;
 
@@ -28,11 +35,11 @@ public class LeaderboardContest {
         this.contestId = contestId;
         this.contestName = contestName;
         this.description = description;
-        this.startDate = startDate;
-        this.endDate = endDate;
+        setStartDate(startDate);
+        setEndDate(endDate);
         this.maxProblems = maxProblems;
         this.createdByAdmin = createdByAdmin;
-        this.createdAt = LocalDateTime.now();
+        setCreatedAt(LocalDateTime.now());
         this.isActive = true;
         this.standings_finalized = false;
         this.registeredUsers = new ArrayList<>();
@@ -65,19 +72,45 @@ public class LeaderboardContest {
     }
 
     public LocalDateTime getStartDate() {
+        if (startDate == null && startDateEpoch != NO_TIME) {
+            startDate = toDateTime(startDateEpoch);
+        }
         return startDate;
     }
 
     public void setStartDate(LocalDateTime startDate) {
         this.startDate = startDate;
+        this.startDateEpoch = toEpoch(startDate);
+    }
+
+    public long getStartDateEpochSeconds() {
+        return startDateEpoch;
+    }
+
+    public void setStartDateEpochSeconds(long epochSeconds) {
+        this.startDate = null;
+        this.startDateEpoch = epochSeconds;
     }
 
     public LocalDateTime getEndDate() {
+        if (endDate == null && endDateEpoch != NO_TIME) {
+            endDate = toDateTime(endDateEpoch);
+        }
         return endDate;
     }
 
     public void setEndDate(LocalDateTime endDate) {
         this.endDate = endDate;
+        this.endDateEpoch = toEpoch(endDate);
+    }
+
+    public long getEndDateEpochSeconds() {
+        return endDateEpoch;
+    }
+
+    public void setEndDateEpochSeconds(long epochSeconds) {
+        this.endDate = null;
+        this.endDateEpoch = epochSeconds;
     }
 
     public int getMaxProblems() {
@@ -113,11 +146,32 @@ public class LeaderboardContest {
     }
 
     public LocalDateTime getCreatedAt() {
+        if (createdAt == null && createdAtEpoch != NO_TIME) {
+            createdAt = toDateTime(createdAtEpoch);
+        }
         return createdAt;
     }
 
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
+        this.createdAtEpoch = toEpoch(createdAt);
+    }
+
+    public long getCreatedAtEpochSeconds() {
+        return createdAtEpoch;
+    }
+
+    public void setCreatedAtEpochSeconds(long epochSeconds) {
+        this.createdAt = null;
+        this.createdAtEpoch = epochSeconds;
+    }
+
+    private static LocalDateTime toDateTime(long epochSeconds) {
+        return LocalDateTime.ofEpochSecond(epochSeconds, 0, ZoneOffset.UTC);
+    }
+
+    private static long toEpoch(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.toEpochSecond(ZoneOffset.UTC) : NO_TIME;
     }
 
     public List<String> getRegisteredUsers() {
@@ -162,8 +216,8 @@ public class LeaderboardContest {
         return "LeaderboardContest{" +
                 "contestId='" + contestId + '\'' +
                 ", contestName='" + contestName + '\'' +
-                ", startDate=" + startDate +
-                ", endDate=" + endDate +
+                ", startDate=" + getStartDate() +
+                ", endDate=" + getEndDate() +
                 ", isActive=" + isActive +
                 ", standings_finalized=" + standings_finalized +
                 '}';
@@ -24,6 +24,17 @@ public class LeaderboardEntry {
         this.status = "Completed";
     }
 
+    // Copy constructor
+    public LeaderboardEntry(LeaderboardEntry other) {
+        this.username = other.username;
+        this.contestId = other.contestId;
+        this.rank = other.rank;
+        this.solveCount = other.solveCount;
+        this.totalPenalty = other.totalPenalty;
+        this.totalTime = other.totalTime;
+        this.status = other.status;
+    }
+
     // Getters and Setters
     public String getUsername() {
         return username;
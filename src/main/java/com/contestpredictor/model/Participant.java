@@ -30,6 +30,17 @@ public class Participant {
         this.ratingChange = 0;
     }
 
+    // Copy constructor
+    public Participant(Participant other) {
+        this.username = other.username;
+        this.currentRating = other.currentRating;
+        this.problemsSolved = other.problemsSolved;
+        this.totalPenalty = other.totalPenalty;
+        this.rank = other.rank;
+        this.predictedRating = other.predictedRating;
+        this.ratingChange = other.ratingChange;
+    }
+
     // Getters and Setters
     public String getUsername() {
         return username;
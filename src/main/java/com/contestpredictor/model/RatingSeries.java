@@ -0,0 +1,222 @@
+package com.contestpredictor.model;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Append-only rating history stored as zigzag varint deltas.
+ * A typical rating change fits in one or two bytes, so thousands of rated
+ * contests take a few kilobytes. Max, min and last are kept up to date on
+ * every append; arbitrary range maxima are answered in O(1) from a sparse
+ * table that is built on first use and rebuilt after the series changes.
+ */
+public class RatingSeries {
+    private byte[] data;
+    private int length; // Bytes of data in use
+    private int size;
+    private int first;
+    private int last;
+    private int max = Integer.MIN_VALUE;
+    private int min = Integer.MAX_VALUE;
+
+    private int[] values; // Decoded on demand
+    private int[][] sparseMax; // sparseMax[k][i] = max of values[i .. i + 2^k)
+
+    public RatingSeries() {
+        this.data = new byte[16];
+    }
+
+    /**
+     * Decode a series written by {@link #toBytes()}
+     */
+    public static RatingSeries fromBytes(byte[] bytes) {
+        RatingSeries series = new RatingSeries();
+        if (bytes == null) {
+            return series;
+        }
+        series.data = Arrays.copyOf(bytes, Math.max(16, bytes.length));
+        series.length = bytes.length;
+        int position = 0;
+        int value = 0;
+        while (position < bytes.length) {
+            int shift = 0;
+            int raw = 0;
+            byte b;
+            do {
+                b = bytes[position++];
+                raw |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            value += (raw >>> 1) ^ -(raw & 1);
+            series.track(value);
+        }
+        return series;
+    }
+
+    public void add(int rating) {
+        int delta = size == 0 ? rating : rating - last;
+        int zigzag = (delta << 1) ^ (delta >> 31);
+        ensureCapacity(length + 5);
+        while ((zigzag & ~0x7F) != 0) {
+            data[length++] = (byte) ((zigzag & 0x7F) | 0x80);
+            zigzag >>>= 7;
+        }
+        data[length++] = (byte) zigzag;
+        track(rating);
+        values = null;
+        sparseMax = null;
+    }
+
+    private void track(int rating) {
+        if (size == 0) {
+            first = rating;
+        }
+        last = rating;
+        max = Math.max(max, rating);
+        min = Math.min(min, rating);
+        size++;
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed > data.length) {
+            data = Arrays.copyOf(data, Math.max(needed, data.length * 2));
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Encoded size in bytes
+     */
+    public int getEncodedSize() {
+        return length;
+    }
+
+    public int getFirst() {
+        requireNonEmpty();
+        return first;
+    }
+
+    public int getLast() {
+        requireNonEmpty();
+        return last;
+    }
+
+    public int getMax() {
+        requireNonEmpty();
+        return max;
+    }
+
+    public int getMin() {
+        requireNonEmpty();
+        return min;
+    }
+
+    public int get(int index) {
+        checkIndex(index);
+        return decoded()[index];
+    }
+
+    /**
+     * Highest rating between two positions
+     * @param from First index, inclusive
+     * @param to Last index, exclusive
+     */
+    public int rangeMax(int from, int to) {
+        if (from < 0 || to > size || from >= to) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") out of bounds for series of size " + size);
+        }
+        int[][] table = sparseTable();
+        int level = 31 - Integer.numberOfLeadingZeros(to - from);
+        return Math.max(table[level][from], table[level][to - (1 << level)]);
+    }
+
+    /**
+     * Encoded form for storage; the series can be rebuilt with {@link #fromBytes(byte[])}
+     */
+    public byte[] toBytes() {
+        return Arrays.copyOf(data, length);
+    }
+
+    public int[] toArray() {
+        return decoded().clone();
+    }
+
+    /**
+     * Read-only list view of the ratings
+     */
+    public List<Integer> asList() {
+        return new AbstractList<Integer>() {
+            @Override
+            public Integer get(int index) {
+                return RatingSeries.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private int[] decoded() {
+        if (values == null) {
+            int[] result = new int[size];
+            int position = 0;
+            int value = 0;
+            for (int i = 0; i < size; i++) {
+                int shift = 0;
+                int raw = 0;
+                byte b;
+                do {
+                    b = data[position++];
+                    raw |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while ((b & 0x80) != 0);
+                value += (raw >>> 1) ^ -(raw & 1);
+                result[i] = value;
+            }
+            values = result;
+        }
+        return values;
+    }
+
+    private int[][] sparseTable() {
+        if (sparseMax == null) {
+            int[] level0 = decoded();
+            int levels = 32 - Integer.numberOfLeadingZeros(Math.max(1, size));
+            int[][] table = new int[levels][];
+            table[0] = level0;
+            for (int k = 1; k < levels; k++) {
+                int half = 1 << (k - 1);
+                int[] previous = table[k - 1];
+                int[] current = new int[size - (1 << k) + 1];
+                for (int i = 0; i < current.length; i++) {
+                    current[i] = Math.max(previous[i], previous[i + half]);
+                }
+                table[k] = current;
+            }
+            sparseMax = table;
+        }
+        return sparseMax;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for series of size " + size);
+        }
+    }
+
+    private void requireNonEmpty() {
+        if (size == 0) {
+            throw new IllegalStateException("Rating series is empty");
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.contestpredictor.model;
+
+/**
+ * A persisted login session: the local user and, when signed in through Firebase, its tokens
+ */
+public class SessionData {
+    private final String username;
+    private final String firebaseUid;
+    private final String email;
+    private final String idToken;
+    private final String refreshToken;
+    private final long tokenExpiration;
+    private final boolean rememberMe;
+    
+    public SessionData(String username, String firebaseUid, String email,
+                      String idToken, String refreshToken, long tokenExpiration,
+                      boolean rememberMe) {
+        this.username = username;
+        this.firebaseUid = firebaseUid;
+        this.email = email;
+        this.idToken = idToken;
+        this.refreshToken = refreshToken;
+        this.tokenExpiration = tokenExpiration;
+        this.rememberMe = rememberMe;
+    }
+    
+    public String getUsername() { return username; }
+    public String getFirebaseUid() { return firebaseUid; }
+    public String getEmail() { return email; }
+    public String getIdToken() { return idToken; }
+    public String getRefreshToken() { return refreshToken; }
+    public long getTokenExpiration() { return tokenExpiration; }
+    public boolean isRememberMe() { return rememberMe; }
+}
@@ -1,6 +1,5 @@
 package com.contestpredictor.model;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class User {
@@ -9,7 +8,7 @@ public class User {
     private int currentRating;
     private int contestsParticipated;
     private String fullName;
-    private List<Integer> ratingHistory;
+    private RatingSeries ratingHistory;
     
     // Firebase-related fields
     private String email;
@@ -21,7 +20,7 @@ public class User {
         this.currentRating = currentRating;
         this.contestsParticipated = contestsParticipated;
         this.fullName = fullName;
-        this.ratingHistory = new ArrayList<>();
+        this.ratingHistory = new RatingSeries();
         this.ratingHistory.add(currentRating); // Add initial rating
     }
 
@@ -66,10 +65,21 @@ public class User {
         this.fullName = fullName;
     }
 
+    /**
+     * Read-only view of the rating history; use addRatingToHistory to extend it
+     */
     public List<Integer> getRatingHistory() {
+        return ratingHistory.asList();
+    }
+
+    public RatingSeries getRatingSeries() {
         return ratingHistory;
     }
 
+    public void setRatingSeries(RatingSeries ratingHistory) {
+        this.ratingHistory = ratingHistory;
+    }
+
     public void addRatingToHistory(int rating) {
         this.ratingHistory.add(rating);
         this.currentRating = rating;
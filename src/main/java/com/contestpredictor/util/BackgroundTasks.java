@@ -0,0 +1,91 @@
+package com.contestpredictor.util;
+
+import com.contestpredictor.data.WriteBehindQueue;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs data loading off the JavaFX Application Thread.
+ * The work runs on a small shared pool; the result is handed to the callback
+ * on the FX thread, where the controller swaps it into its controls.
+ * Writes are queued on the database writer instead and report back the same way.
+ */
+public final class BackgroundTasks {
+    private static final int THREADS = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    private static final AtomicInteger threadCount = new AtomicInteger();
+
+    private static final ExecutorService executor = createExecutor();
+
+    private BackgroundTasks() {
+    }
+
+    private static ExecutorService createExecutor() {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(THREADS, THREADS, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "background-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * Run work in the background and pass its result to onLoaded on the FX thread.
+     * Failures are logged.
+     * @return The task, which can be cancelled to drop the result
+     */
+    public static <T> Task<T> load(Callable<T> work, Consumer<T> onLoaded) {
+        return load(work, onLoaded, error -> {
+            System.err.println("Background task failed: " + error.getMessage());
+            error.printStackTrace();
+        });
+    }
+
+    /**
+     * Run work in the background; onLoaded or onFailed is called on the FX thread when it finishes.
+     * Neither is called if the task is cancelled first.
+     */
+    public static <T> Task<T> load(Callable<T> work, Consumer<T> onLoaded, Consumer<Throwable> onFailed) {
+        Task<T> task = new Task<T>() {
+            @Override
+            protected T call() throws Exception {
+                return work.call();
+            }
+        };
+        task.setOnSucceeded(event -> onLoaded.accept(task.getValue()));
+        task.setOnFailed(event -> onFailed.accept(task.getException()));
+        executor.execute(task);
+        return task;
+    }
+
+    /**
+     * Queue a write on the single database writer without waiting for it.
+     * onWritten or onFailed is called on the FX thread once the write has committed or failed;
+     * a write whose operation returns false counts as failed.
+     * @param key Coalescing key of the record written, see WriteBehindQueue.submit
+     */
+    public static void write(String key, WriteBehindQueue.WriteOperation operation,
+                             Runnable onWritten, Consumer<Throwable> onFailed) {
+        WriteBehindQueue.getInstance().submit(key, operation).whenComplete((ignored, error) ->
+                Platform.runLater(() -> {
+                    if (error == null) {
+                        onWritten.run();
+                    } else {
+                        onFailed.accept(error);
+                    }
+                }));
+    }
+
+    public static void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -1,11 +1,8 @@
 package com.contestpredictor.util;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import java.io.*;
-import java.sql.*;
-import java.util.*;
-import com.contestpredictor.data.DatabaseManager;
+import java.nio.file.Paths;
+import com.contestpredictor.data.DataExporter;
 
 /**
  * Complete utility to export ALL SQLite data to JSON for Firebase migration
@@ -13,9 +10,11 @@ import com.contestpredictor.data.DatabaseManager;
  * Exports: users, admins, contests, registrations, participants, rating_history,
  *          leaderboard_contests, leaderboard_registrations, leaderboard_entries, 
  *          combined_leaderboard, and sessions
+ * Rows are streamed from the database to the files, so the export runs in constant memory.
+ * Numeric columns are read through COALESCE so NULLs are still written as 0, as the upload script expects.
  */
 public class CompleteSQLiteToFirebaseMigration {
-    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    private static final DataExporter exporter = new DataExporter();
     private static final String EXPORT_DIR = "temp/migration_export/";
     
     public static void main(String[] args) {
@@ -61,32 +60,14 @@ public class CompleteSQLiteToFirebaseMigration {
     private static void exportUsersToJson() throws Exception {
         System.out.println("1. Exporting users...");
         
-        String sql = "SELECT username, password, full_name, current_rating, " +
-                    "contests_participated, rating_history, email, firebase_uid FROM users";
+        String sql = "SELECT username, password, full_name, " +
+                    "COALESCE(current_rating, 0) AS current_rating, " +
+                    "COALESCE(contests_participated, 0) AS contests_participated, " +
+                    "rating_history, email, firebase_uid FROM users";
         
-        List<Map<String, Object>> users = new ArrayList<>();
-        
-        try (Connection conn = DatabaseManager.getInstance().getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            while (rs.next()) {
-                Map<String, Object> user = new LinkedHashMap<>();
-                user.put("username", rs.getString("username"));
-                user.put("password", rs.getString("password"));
-                user.put("full_name", rs.getString("full_name"));
-                user.put("current_rating", rs.getInt("current_rating"));
-                user.put("contests_participated", rs.getInt("contests_participated"));
-                user.put("rating_history", rs.getString("rating_history"));
-                user.put("email", rs.getString("email"));
-                user.put("firebase_uid", rs.getString("firebase_uid"));
-                
-                users.add(user);
-            }
-        }
-        
-        saveToJson(users, EXPORT_DIR + "users.json");
-        System.out.println("   ✓ Exported " + users.size() + " users");
+        DataExporter.ExportResult result = exporter.exportQuery(
+                Paths.get(EXPORT_DIR + "users.json"), DataExporter.Format.JSON, sql);
+        System.out.println("   ✓ Exported " + result.getRows() + " users");
     }
     
     /**
@@ -95,30 +76,12 @@ public class CompleteSQLiteToFirebaseMigration {
     private static void exportAdminsToJson() throws Exception {
         System.out.println("2. Exporting admins...");
         
-        String sql = "SELECT admin_id, username, password, email, full_name, created_at, is_active FROM admins";
-        
-        List<Map<String, Object>> admins = new ArrayList<>();
-        
-        try (Connection conn = DatabaseManager.getInstance().getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            while (rs.next()) {
-                Map<String, Object> admin = new LinkedHashMap<>();
-                admin.put("admin_id", rs.getInt("admin_id"));
-                admin.put("username", rs.getString("username"));
-                admin.put("password", rs.getString("password"));
-                admin.put("email", rs.getString("email"));
-                admin.put("full_name", rs.getString("full_name"));
-                admin.put("created_at", rs.getString("created_at"));
-                admin.put("is_active", rs.getInt("is_active"));
-                
-                admins.add(admin);
-            }
-        }
+        String sql = "SELECT admin_id, username, password, email, full_name, created_at, " +
+                    "COALESCE(is_active, 0) AS is_active FROM admins";
         
-        saveToJson(admins, EXPORT_DIR + "admins.json");
-        System.out.println("   ✓ Exported " + admins.size() + " admins");
+        DataExporter.ExportResult result = exporter.exportQuery(
+                Paths.get(EXPORT_DIR + "admins.json"), DataExporter.Format.JSON, sql);
+        System.out.println("   ✓ Exported " + result.getRows() + " admins");
     }
     
     /**
@@ -127,32 +90,14 @@ public class CompleteSQLiteToFirebaseMigration {
     private static void exportContestsToJson() throws Exception {
         System.out.println("3. Exporting contests...");
         
-        String sql = "SELECT contest_id, contest_name, date_time, duration, is_past, " +
-                    "created_by_admin, max_participants, registration_open FROM contests";
-        
-        List<Map<String, Object>> contests = new ArrayList<>();
+        String sql = "SELECT contest_id, contest_name, date_time, " +
+                    "COALESCE(duration, 0) AS duration, COALESCE(is_past, 0) AS is_past, " +
+                    "created_by_admin, COALESCE(max_participants, 0) AS max_participants, " +
+                    "COALESCE(registration_open, 0) AS registration_open FROM contests";
         
-        try (Connection conn = DatabaseManager.getInstance().getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            while (rs.next()) {
-                Map<String, Object> contest = new LinkedHashMap<>();
-                contest.put("contest_id", rs.getString("contest_id"));
-                contest.put("contest_name", rs.getString("contest_name"));
-                contest.put("date_time", rs.getString("date_time"));
-                contest.put("duration", rs.getInt("duration"));
-                contest.put("is_past", rs.getInt("is_past"));
-                contest.put("created_by_admin", rs.getString("created_by_admin"));
-                contest.put("max_participants", rs.getInt("max_participants"));
-                contest.put("registration_open", rs.getInt("registration_open"));
-                
-                contests.add(contest);
-            }
-        }
-        
-        saveToJson(contests, EXPORT_DIR + "contests.json");
-        System.out.println("   ✓ Exported " + contests.size() + " contests");
+        DataExporter.ExportResult result = exporter.exportQuery(
+                Paths.get(EXPORT_DIR + "contests.json"), DataExporter.Format.JSON, sql);
+        System.out.println("   ✓ Exported " + result.getRows() + " contests");
     }
     
     /**
@@ -163,25 +108,9 @@ public class CompleteSQLiteToFirebaseMigration {
         
         String sql = "SELECT id, contest_id, username, registered_at FROM contest_registrations";
         
-        List<Map<String, Object>> registrations = new ArrayList<>();
-        
-        try (Connection conn = DatabaseManager.getInstance().getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            while (rs.next()) {
-                Map<String, Object> registration = new LinkedHashMap<>();
-                registration.put("id", rs.getInt("id"));
-                registration.put("contest_id", rs.getString("contest_id"));
-                registration.put("username", rs.getString("username"));
-                registration.put("registered_at", rs.getString("registered_at"));
-                
-                registrations.add(registration);
-            }
-        }
-        
-        saveToJson(registrations, EXPORT_DIR + "contest_registrations.json");
-        System.out.println("   ✓ Exported " + registrations.size() + " contest registrations");
+        DataExporter.ExportResult result = exporter.exportQuery(
+                Paths.get(EXPORT_DIR + "contest_registrations.json"), DataExporter.Format.JSON, sql);
+        System.out.println("   ✓ Exported " + result.getRows() + " contest registrations");
     }
     
     /**
@@ -190,33 +119,16 @@ public class CompleteSQLiteToFirebaseMigration {
     private static void exportParticipantsToJson() throws Exception {
         System.out.println("5. Exporting participants...");
         
-        String sql = "SELECT id, contest_id, username, current_rating, problems_solved, " +
-                    "total_penalty, rank, predicted_rating, rating_change FROM participants";
-        
-        List<Map<String, Object>> participants = new ArrayList<>();
-        
-        try (Connection conn = DatabaseManager.getInstance().getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            while (rs.next()) {
-                Map<String, Object> participant = new LinkedHashMap<>();
-                participant.put("id", rs.getInt("id"));
-                participant.put("contest_id", rs.getString("contest_id"));
-                participant.put("username", rs.getString("username"));
-                participant.put("current_rating", rs.getInt("current_rating"));
-                participant.put("problems_solved", rs.getInt("problems_solved"));
-                participant.put("total_penalty", rs.getInt("total_penalty"));
-                participant.put("rank", rs.getInt("rank"));
-                participant.put("predicted_rating", rs.getInt("predicted_rating"));
-                participant.put("rating_change", rs.getInt("rating_change"));
-                
-                participants.add(participant);
-            }
-        }
+        String sql = "SELECT id, contest_id, username, " +
+                    "COALESCE(current_rating, 0) AS current_rating, " +
+                    "COALESCE(problems_solved, 0) AS problems_solved, " +
+                    "COALESCE(total_penalty, 0) AS total_penalty, COALESCE(rank, 0) AS rank, " +
+                    "COALESCE(predicted_rating, 0) AS predicted_rating, " +
+                    "COALESCE(rating_change, 0) AS rating_change FROM participants";
         
-        saveToJson(participants, EXPORT_DIR + "participants.json");
-        System.out.println("   ✓ Exported " + participants.size() + " participants");
+        DataExporter.ExportResult result = exporter.exportQuery(
+                Paths.get(EXPORT_DIR + "participants.json"), DataExporter.Format.JSON, sql);
+        System.out.println("   ✓ Exported " + result.getRows() + " participants");
     }
     
     /**
@@ -225,30 +137,13 @@ public class CompleteSQLiteToFirebaseMigration {
     private static void exportRatingHistoryToJson() throws Exception {
         System.out.println("6. Exporting rating history...");
         
-        String sql = "SELECT id, contest_id, username, old_rating, new_rating, delta, contest_date FROM rating_history";
+        String sql = "SELECT id, contest_id, username, COALESCE(old_rating, 0) AS old_rating, " +
+                    "COALESCE(new_rating, 0) AS new_rating, COALESCE(delta, 0) AS delta, " +
+                    "contest_date FROM rating_history";
         
-        List<Map<String, Object>> history = new ArrayList<>();
-        
-        try (Connection conn = DatabaseManager.getInstance().getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            while (rs.next()) {
-                Map<String, Object> record = new LinkedHashMap<>();
-                record.put("id", rs.getInt("id"));
-                record.put("contest_id", rs.getString("contest_id"));
-                record.put("username", rs.getString("username"));
-                record.put("old_rating", rs.getInt("old_rating"));
-                record.put("new_rating", rs.getInt("new_rating"));
-                record.put("delta", rs.getInt("delta"));
-                record.put("contest_date", rs.getString("contest_date"));
-                
-                history.add(record);
-            }
-        }
-        
-        saveToJson(history, EXPORT_DIR + "rating_history.json");
-        System.out.println("   ✓ Exported " + history.size() + " rating history records");
+        DataExporter.ExportResult result = exporter.exportQuery(
+                Paths.get(EXPORT_DIR + "rating_history.json"), DataExporter.Format.JSON, sql);
+        System.out.println("   ✓ Exported " + result.getRows() + " rating history records");
     }
     
     /**
@@ -258,33 +153,14 @@ public class CompleteSQLiteToFirebaseMigration {
         System.out.println("7. Exporting leaderboard contests...");
         
         String sql = "SELECT contest_id, contest_name, description, start_date, end_date, " +
-                    "max_problems, is_active, standings_finalized, created_by_admin, created_at FROM leaderboard_contests";
-        
-        List<Map<String, Object>> contests = new ArrayList<>();
-        
-        try (Connection conn = DatabaseManager.getInstance().getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            while (rs.next()) {
-                Map<String, Object> contest = new LinkedHashMap<>();
-                contest.put("contest_id", rs.getString("contest_id"));
-                contest.put("contest_name", rs.getString("contest_name"));
-                contest.put("description", rs.getString("description"));
-                contest.put("start_date", rs.getString("start_date"));
-                contest.put("end_date", rs.getString("end_date"));
-                contest.put("max_problems", rs.getInt("max_problems"));
-                contest.put("is_active", rs.getInt("is_active"));
-                contest.put("standings_finalized", rs.getInt("standings_finalized"));
-                contest.put("created_by_admin", rs.getString("created_by_admin"));
-                contest.put("created_at", rs.getString("created_at"));
-                
-                contests.add(contest);
-            }
-        }
-        
-        saveToJson(contests, EXPORT_DIR + "leaderboard_contests.json");
-        System.out.println("   ✓ Exported " + contests.size() + " leaderboard contests");
+                    "COALESCE(max_problems, 0) AS max_problems, " +
+                    "COALESCE(is_active, 0) AS is_active, " +
+                    "COALESCE(standings_finalized, 0) AS standings_finalized, created_by_admin, " +
+                    "created_at FROM leaderboard_contests";
+        
+        DataExporter.ExportResult result = exporter.exportQuery(
+                Paths.get(EXPORT_DIR + "leaderboard_contests.json"), DataExporter.Format.JSON, sql);
+        System.out.println("   ✓ Exported " + result.getRows() + " leaderboard contests");
     }
     
     /**
@@ -295,25 +171,9 @@ public class CompleteSQLiteToFirebaseMigration {
         
         String sql = "SELECT id, contest_id, username, registered_at FROM leaderboard_registrations";
         
-        List<Map<String, Object>> registrations = new ArrayList<>();
-        
-        try (Connection conn = DatabaseManager.getInstance().getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            while (rs.next()) {
-                Map<String, Object> registration = new LinkedHashMap<>();
-                registration.put("id", rs.getInt("id"));
-                registration.put("contest_id", rs.getString("contest_id"));
-                registration.put("username", rs.getString("username"));
-                registration.put("registered_at", rs.getString("registered_at"));
-                
-                registrations.add(registration);
-            }
-        }
-        
-        saveToJson(registrations, EXPORT_DIR + "leaderboard_registrations.json");
-        System.out.println("   ✓ Exported " + registrations.size() + " leaderboard registrations");
+        DataExporter.ExportResult result = exporter.exportQuery(
+                Paths.get(EXPORT_DIR + "leaderboard_registrations.json"), DataExporter.Format.JSON, sql);
+        System.out.println("   ✓ Exported " + result.getRows() + " leaderboard registrations");
     }
     
     /**
@@ -322,32 +182,14 @@ public class CompleteSQLiteToFirebaseMigration {
     private static void exportLeaderboardEntriesToJson() throws Exception {
         System.out.println("9. Exporting leaderboard entries...");
         
-        String sql = "SELECT id, contest_id, username, rank, solve_count, total_penalty, " +
-                    "total_time, status FROM leaderboard_entries";
-        
-        List<Map<String, Object>> entries = new ArrayList<>();
-        
-        try (Connection conn = DatabaseManager.getInstance().getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            while (rs.next()) {
-                Map<String, Object> entry = new LinkedHashMap<>();
-                entry.put("id", rs.getInt("id"));
-                entry.put("contest_id", rs.getString("contest_id"));
-                entry.put("username", rs.getString("username"));
-                entry.put("rank", rs.getInt("rank"));
-                entry.put("solve_count", rs.getInt("solve_count"));
-                entry.put("total_penalty", rs.getInt("total_penalty"));
-                entry.put("total_time", rs.getInt("total_time"));
-                entry.put("status", rs.getString("status"));
-                
-                entries.add(entry);
-            }
-        }
+        String sql = "SELECT id, contest_id, username, COALESCE(rank, 0) AS rank, " +
+                    "COALESCE(solve_count, 0) AS solve_count, " +
+                    "COALESCE(total_penalty, 0) AS total_penalty, " +
+                    "COALESCE(total_time, 0) AS total_time, status FROM leaderboard_entries";
         
-        saveToJson(entries, EXPORT_DIR + "leaderboard_entries.json");
-        System.out.println("   ✓ Exported " + entries.size() + " leaderboard entries");
+        DataExporter.ExportResult result = exporter.exportQuery(
+                Paths.get(EXPORT_DIR + "leaderboard_entries.json"), DataExporter.Format.JSON, sql);
+        System.out.println("   ✓ Exported " + result.getRows() + " leaderboard entries");
     }
     
     /**
@@ -356,32 +198,15 @@ public class CompleteSQLiteToFirebaseMigration {
     private static void exportCombinedLeaderboardToJson() throws Exception {
         System.out.println("10. Exporting combined leaderboard...");
         
-        String sql = "SELECT id, username, total_solves, total_penalty, overall_rank, " +
-                    "contests_participated, status, last_updated FROM combined_leaderboard";
+        String sql = "SELECT id, username, COALESCE(total_solves, 0) AS total_solves, " +
+                    "COALESCE(total_penalty, 0) AS total_penalty, " +
+                    "COALESCE(overall_rank, 0) AS overall_rank, " +
+                    "COALESCE(contests_participated, 0) AS contests_participated, status, " +
+                    "last_updated FROM combined_leaderboard";
         
-        List<Map<String, Object>> leaderboard = new ArrayList<>();
-        
-        try (Connection conn = DatabaseManager.getInstance().getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            while (rs.next()) {
-                Map<String, Object> entry = new LinkedHashMap<>();
-                entry.put("id", rs.getInt("id"));
-                entry.put("username", rs.getString("username"));
-                entry.put("total_solves", rs.getInt("total_solves"));
-                entry.put("total_penalty", rs.getInt("total_penalty"));
-                entry.put("overall_rank", rs.getInt("overall_rank"));
-                entry.put("contests_participated", rs.getInt("contests_participated"));
-                entry.put("status", rs.getString("status"));
-                entry.put("last_updated", rs.getString("last_updated"));
-                
-                leaderboard.add(entry);
-            }
-        }
-        
-        saveToJson(leaderboard, EXPORT_DIR + "combined_leaderboard.json");
-        System.out.println("   ✓ Exported " + leaderboard.size() + " combined leaderboard entries");
+        DataExporter.ExportResult result = exporter.exportQuery(
+                Paths.get(EXPORT_DIR + "combined_leaderboard.json"), DataExporter.Format.JSON, sql);
+        System.out.println("   ✓ Exported " + result.getRows() + " combined leaderboard entries");
     }
     
     /**
@@ -391,36 +216,12 @@ public class CompleteSQLiteToFirebaseMigration {
         System.out.println("11. Exporting sessions...");
         
         String sql = "SELECT username, firebase_uid, email, id_token, refresh_token, " +
-                    "token_expiration, last_login, remember_me FROM user_sessions";
+                    "COALESCE(token_expiration, 0) AS token_expiration, " +
+                    "COALESCE(last_login, 0) AS last_login, " +
+                    "COALESCE(remember_me, 0) AS remember_me FROM user_sessions";
         
-        List<Map<String, Object>> sessions = new ArrayList<>();
-        
-        try (Connection conn = DatabaseManager.getInstance().getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            while (rs.next()) {
-                Map<String, Object> session = new LinkedHashMap<>();
-                session.put("username", rs.getString("username"));
-                session.put("firebase_uid", rs.getString("firebase_uid"));
-                session.put("email", rs.getString("email"));
-                session.put("id_token", rs.getString("id_token"));
-                session.put("refresh_token", rs.getString("refresh_token"));
-                session.put("token_expiration", rs.getLong("token_expiration"));
-                session.put("last_login", rs.getLong("last_login"));
-                session.put("remember_me", rs.getInt("remember_me"));
-                
-                sessions.add(session);
-            }
-        }
-        
-        saveToJson(sessions, EXPORT_DIR + "sessions.json");
-        System.out.println("   ✓ Exported " + sessions.size() + " sessions");
-    }
-    
-    private static void saveToJson(List<Map<String, Object>> data, String filename) throws IOException {
-        try (FileWriter writer = new FileWriter(filename)) {
-            gson.toJson(data, writer);
-        }
+        DataExporter.ExportResult result = exporter.exportQuery(
+                Paths.get(EXPORT_DIR + "sessions.json"), DataExporter.Format.JSON, sql);
+        System.out.println("   ✓ Exported " + result.getRows() + " sessions");
     }
 }
@@ -87,6 +87,13 @@ public class FirebaseAuthService {
                 && !apiKey.equals("YOUR_API_KEY_HERE");
     }
     
+    /**
+     * Get the configured Firebase project ID (empty if not configured)
+     */
+    public String getProjectId() {
+        return projectId == null ? "" : projectId;
+    }
+    
     /**
      * Sign up a new user with email and password
      * @param email User's email address
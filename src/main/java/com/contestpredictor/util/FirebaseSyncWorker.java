@@ -0,0 +1,283 @@
+package com.contestpredictor.util;
+
+import com.contestpredictor.data.ChangeLog;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Pushes rows changed since the last sync to Firestore.
+ * Reads the change log after the last acknowledged sequence number, keeps only
+ * the latest change per document, and writes or deletes just those documents.
+ * The offset only moves past changes that were pushed, so a failed run is
+ * retried from the same point. Collections and document IDs match the ones
+ * used by the one-off migration tools, which seed the remote copy.
+ */
+public class FirebaseSyncWorker {
+    private static final String CONSUMER = "firestore";
+    private static final String FIRESTORE_URL = "https://firestore.googleapis.com/v1/projects/%s/databases/(default)/documents";
+    private static final long INITIAL_DELAY_SECONDS = 30;
+    private static final long INTERVAL_SECONDS = 60;
+    private static final int BATCH_SIZE = 500;
+
+    // Document ID prefixes for tables keyed by row id, as written by the migration tools
+    private static final Map<String, String> ID_PREFIXES = new LinkedHashMap<>();
+    static {
+        ID_PREFIXES.put("contest_registrations", "reg_");
+        ID_PREFIXES.put("participants", "part_");
+        ID_PREFIXES.put("rating_history", "history_");
+        ID_PREFIXES.put("leaderboard_registrations", "lbreg_");
+        ID_PREFIXES.put("leaderboard_entries", "lbentry_");
+    }
+
+    private static FirebaseSyncWorker instance;
+
+    private final String documentsUrl;
+    private final Supplier<String> idTokenSupplier;
+    private final ChangeLog changeLog = ChangeLog.getInstance();
+    private final HttpClient httpClient;
+    private final Gson gson = new Gson();
+    private final ScheduledExecutorService executor;
+    private boolean started;
+
+    private final AtomicLong pushedDocuments = new AtomicLong();
+    private final AtomicLong failedPushes = new AtomicLong();
+
+    /**
+     * @param documentsUrl Base URL of the documents resource, e.g. a local stub server in tests
+     * @param idTokenSupplier Supplies the bearer token for requests; may return null
+     */
+    public FirebaseSyncWorker(String documentsUrl, Supplier<String> idTokenSupplier) {
+        this.documentsUrl = documentsUrl;
+        this.idTokenSupplier = idTokenSupplier;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "firebase-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static synchronized FirebaseSyncWorker getInstance() {
+        if (instance == null) {
+            FirebaseAuthService auth = FirebaseAuthService.getInstance();
+            String url = auth.isFirebaseEnabled() && !auth.getProjectId().isEmpty()
+                    ? String.format(FIRESTORE_URL, auth.getProjectId())
+                    : null;
+            instance = new FirebaseSyncWorker(url, auth::getCurrentIdToken);
+        }
+        return instance;
+    }
+
+    /**
+     * Start syncing periodically. Calling it again has no effect.
+     * Without a Firebase configuration the pending changes are dropped on the same
+     * schedule instead, so the log does not grow for the rest of the session; a remote
+     * copy has to be seeded by the migration tools anyway.
+     */
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        if (documentsUrl == null) {
+            executor.scheduleWithFixedDelay(this::discardPending, 0, INTERVAL_SECONDS, TimeUnit.SECONDS);
+            return;
+        }
+        executor.scheduleWithFixedDelay(this::runScheduled, INITIAL_DELAY_SECONDS, INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Queue a sync right away
+     * @return Future completed with the number of documents pushed
+     */
+    public CompletableFuture<Integer> syncNow() {
+        return CompletableFuture.supplyAsync(this::sync, executor);
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void runScheduled() {
+        try {
+            sync();
+        } catch (Exception e) {
+            // Keep the schedule alive; the next run retries from the same offset
+            System.err.println("Firebase sync failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Acknowledge every logged change without pushing it, which prunes the log
+     */
+    private void discardPending() {
+        long latest = changeLog.getLatestSeq();
+        if (latest > changeLog.getAcknowledged(CONSUMER)) {
+            changeLog.acknowledge(CONSUMER, latest);
+        }
+    }
+
+    /**
+     * Push everything changed since the last acknowledged offset
+     * @return Number of documents pushed
+     */
+    private int sync() {
+        if (documentsUrl == null) {
+            return 0;
+        }
+        int pushed = 0;
+        long acked = changeLog.getAcknowledged(CONSUMER);
+        List<ChangeLog.Change> batch = changeLog.readAfter(acked, BATCH_SIZE);
+        while (!batch.isEmpty()) {
+            // Latest change per document, in the order of those latest changes
+            Map<String, ChangeLog.Change> latest = new LinkedHashMap<>();
+            for (ChangeLog.Change change : batch) {
+                String document = change.getTable() + "/" + change.getKey();
+                latest.remove(document);
+                latest.put(document, change);
+            }
+
+            // Every change up to a pushed document's latest change is either that
+            // document's or superseded by a later change still in the log
+            long pushedThrough = acked;
+            for (ChangeLog.Change change : latest.values()) {
+                if (!push(change)) {
+                    failedPushes.incrementAndGet();
+                    if (pushedThrough > acked) {
+                        changeLog.acknowledge(CONSUMER, pushedThrough);
+                    }
+                    return pushed;
+                }
+                pushedThrough = change.getSeq();
+                pushed++;
+                pushedDocuments.incrementAndGet();
+            }
+
+            acked = batch.get(batch.size() - 1).getSeq();
+            if (!changeLog.acknowledge(CONSUMER, acked)) {
+                return pushed;
+            }
+            batch = changeLog.readAfter(acked, BATCH_SIZE);
+        }
+        if (pushed > 0) {
+            System.out.println("Firebase sync pushed " + pushed + " documents");
+        }
+        return pushed;
+    }
+
+    private boolean push(ChangeLog.Change change) {
+        try {
+            String url = documentsUrl + "/" + change.getTable() + "/" + documentId(change);
+            Map<String, Object> row = change.isDelete() ? null : changeLog.loadRow(change.getTable(), change.getKey());
+
+            HttpRequest.Builder request = HttpRequest.newBuilder()
+                    .uri(URI.create(url))
+                    .timeout(Duration.ofSeconds(30));
+            String idToken = idTokenSupplier.get();
+            if (idToken != null) {
+                request.header("Authorization", "Bearer " + idToken);
+            }
+            if (row == null) {
+                request.DELETE();
+            } else {
+                JsonObject document = new JsonObject();
+                document.add("fields", toFields(row));
+                request.header("Content-Type", "application/json")
+                        .method("PATCH", HttpRequest.BodyPublishers.ofString(gson.toJson(document)));
+            }
+
+            HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            int status = response.statusCode();
+            // A document that is already gone counts as deleted
+            if ((status >= 200 && status < 300) || (row == null && status == 404)) {
+                return true;
+            }
+            System.err.println("Firebase sync failed for " + change.getTable() + "/" + change.getKey() + ": " + status);
+            return false;
+        } catch (SQLException | IOException e) {
+            System.err.println("Firebase sync failed for " + change.getTable() + "/" + change.getKey() + ": " + e.getMessage());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private String documentId(ChangeLog.Change change) {
+        String id = ID_PREFIXES.getOrDefault(change.getTable(), "") + change.getKey().replace("/", "_");
+        return URLEncoder.encode(id, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+    /**
+     * Convert a row to Firestore typed fields with camelCase names, as the migration tools do
+     */
+    private JsonObject toFields(Map<String, Object> row) {
+        JsonObject fields = new JsonObject();
+        for (Map.Entry<String, Object> column : row.entrySet()) {
+            Object value = column.getValue();
+            if (value == null) {
+                continue; // PATCH replaces the document, so a missing field reads as null
+            }
+            JsonObject field = new JsonObject();
+            if (value instanceof Integer || value instanceof Long) {
+                field.addProperty("integerValue", value.toString());
+            } else if (value instanceof Number) {
+                field.addProperty("doubleValue", ((Number) value).doubleValue());
+            } else if (value instanceof byte[]) {
+                field.addProperty("bytesValue", Base64.getEncoder().encodeToString((byte[]) value));
+            } else {
+                field.addProperty("stringValue", value.toString());
+            }
+            fields.add(camelCase(column.getKey()), field);
+        }
+        return fields;
+    }
+
+    private static String camelCase(String column) {
+        StringBuilder name = new StringBuilder(column.length());
+        boolean upper = false;
+        for (char c : column.toCharArray()) {
+            if (c == '_') {
+                upper = true;
+            } else {
+                name.append(upper ? Character.toUpperCase(c) : c);
+                upper = false;
+            }
+        }
+        return name.toString();
+    }
+
+    public long getPendingChanges() {
+        return changeLog.countPending(CONSUMER);
+    }
+
+    public long getPushedDocuments() {
+        return pushedDocuments.get();
+    }
+
+    public long getFailedPushes() {
+        return failedPushes.get();
+    }
+}
@@ -0,0 +1,105 @@
+package com.contestpredictor.util;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logs when the JavaFX Application Thread stops responding for longer than a threshold.
+ * A background thread keeps one probe queued on the FX thread at a time. A probe
+ * that has waited past the threshold means the FX thread is busy with something
+ * else, so its stack is logged while the stall is still going on; the full
+ * duration is logged once the probe finally runs.
+ */
+public class FxStallWatchdog {
+    private static final long THRESHOLD_MS = 50;
+    private static final long CHECK_INTERVAL_MS = 10;
+    private static final int LOGGED_FRAMES = 12;
+
+    private static FxStallWatchdog instance;
+
+    private final ScheduledExecutorService executor;
+    private boolean started;
+
+    private volatile Thread fxThread;
+    private volatile long probePostedAt; // nanoTime of the queued probe, 0 when none is queued
+    private volatile boolean stallReported;
+
+    private final AtomicLong stalls = new AtomicLong();
+    private final AtomicLong longestStallMillis = new AtomicLong();
+
+    private FxStallWatchdog() {
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fx-stall-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static synchronized FxStallWatchdog getInstance() {
+        if (instance == null) {
+            instance = new FxStallWatchdog();
+        }
+        return instance;
+    }
+
+    /**
+     * Start watching. Calling it again has no effect.
+     */
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        executor.scheduleWithFixedDelay(this::check, CHECK_INTERVAL_MS, CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void check() {
+        long postedAt = probePostedAt;
+        if (postedAt == 0) {
+            long now = System.nanoTime();
+            probePostedAt = now;
+            Platform.runLater(() -> probe(now));
+            return;
+        }
+
+        long waitingMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - postedAt);
+        Thread thread = fxThread;
+        if (waitingMillis > THRESHOLD_MS && !stallReported && thread != null) {
+            stallReported = true;
+            StringBuilder trace = new StringBuilder("FX thread stalled for more than " + waitingMillis + " ms in:");
+            StackTraceElement[] frames = thread.getStackTrace();
+            for (int i = 0; i < Math.min(LOGGED_FRAMES, frames.length); i++) {
+                trace.append("\n\tat ").append(frames[i]);
+            }
+            System.err.println(trace);
+        }
+    }
+
+    private void probe(long postedAt) {
+        fxThread = Thread.currentThread();
+        long stallMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - postedAt);
+        if (stallMillis > THRESHOLD_MS) {
+            stalls.incrementAndGet();
+            longestStallMillis.accumulateAndGet(stallMillis, Math::max);
+            System.err.println("FX thread stall: " + stallMillis + " ms");
+        }
+        stallReported = false;
+        probePostedAt = 0;
+    }
+
+    public long getStalls() {
+        return stalls.get();
+    }
+
+    public long getLongestStallMillis() {
+        return longestStallMillis.get();
+    }
+}
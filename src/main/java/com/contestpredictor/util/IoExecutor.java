@@ -0,0 +1,260 @@
+package com.contestpredictor.util;
+
+import javafx.application.Platform;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Shared executor for blocking network calls made from the screens (Firebase, Codeforces).
+ * Tasks are keyed by the controller that started them and a name, so a second click
+ * while a call is still running reuses it instead of starting another one, and a
+ * controller can cancel everything it started when the user navigates away.
+ * On a JDK with virtual threads every task gets its own virtual thread; otherwise a
+ * bounded pool of platform threads is used. Either way at most MAX_CONCURRENT calls
+ * are in flight at once.
+ */
+public class IoExecutor {
+    private static final int MAX_CONCURRENT = 16;
+    private static final long SLOW_TASK_MS = 2000;
+
+    private static IoExecutor instance;
+
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+    private final Semaphore permits = new Semaphore(MAX_CONCURRENT);
+    private final Map<TaskKey, IoTask<?>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, LatencyStats> stats = new ConcurrentHashMap<>();
+
+    private IoExecutor() {
+        ExecutorService virtual = createVirtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        this.executor = virtual != null ? virtual : createPlatformThreadExecutor();
+    }
+
+    public static synchronized IoExecutor getInstance() {
+        if (instance == null) {
+            instance = new IoExecutor();
+        }
+        return instance;
+    }
+
+    /**
+     * Thread-per-task executor on virtual threads, looked up reflectively so the
+     * code still compiles and runs on Java 11. Returns null when not available.
+     */
+    private static ExecutorService createVirtualThreadExecutor() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, "io-", 1L);
+            ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            Method perTask = java.util.concurrent.Executors.class
+                    .getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) perTask.invoke(null, factory);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static ExecutorService createPlatformThreadExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(MAX_CONCURRENT, MAX_CONCURRENT, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "io-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * Run a blocking call in the background. onSuccess or onFailure runs on the FX
+     * thread when it finishes, unless the task was cancelled first.
+     * @param owner The controller starting the call, used for cancelAll
+     * @param name Identifies the call within the owner and groups its latency stats
+     * @return The running task; the already running one if owner started a task
+     *         with this name that has not finished yet
+     */
+    public <T> Future<?> submit(Object owner, String name, Callable<T> work,
+                                Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        TaskKey key = new TaskKey(owner, name);
+        IoTask<T> task = new IoTask<>(key, work, onSuccess, onFailure);
+        IoTask<?> running = inFlight.putIfAbsent(key, task);
+        if (running != null) {
+            return running.future;
+        }
+        executor.execute(task.future);
+        return task.future;
+    }
+
+    /**
+     * Cancel every unfinished task started by owner. Their callbacks will not run.
+     * Calls already under way are not interrupted, since a write such as an account
+     * sign-up may be half done; they finish and their result is dropped.
+     */
+    public void cancelAll(Object owner) {
+        for (IoTask<?> task : inFlight.values()) {
+            if (task.key.owner == owner) {
+                task.cancel();
+            }
+        }
+    }
+
+    public boolean isUsingVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Latency of completed tasks, by task name
+     */
+    public Map<String, LatencyStats> getLatencyStats() {
+        return Collections.unmodifiableMap(new TreeMap<>(stats));
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void record(String name, long millis, boolean failed) {
+        stats.computeIfAbsent(name, key -> new LatencyStats()).record(millis, failed);
+        if (millis > SLOW_TASK_MS) {
+            System.err.println("Slow I/O task " + name + ": " + millis + " ms");
+        }
+    }
+
+    private class IoTask<T> {
+        private final TaskKey key;
+        private final Callable<T> work;
+        private final Consumer<T> onSuccess;
+        private final Consumer<Throwable> onFailure;
+        private final long submittedAt = System.nanoTime();
+        // Created before the task is published in inFlight, so a duplicate submit never sees it unset
+        private final FutureTask<Void> future = new FutureTask<>(this::run, null);
+        private volatile boolean cancelled;
+
+        IoTask(TaskKey key, Callable<T> work, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+            this.key = key;
+            this.work = work;
+            this.onSuccess = onSuccess;
+            this.onFailure = onFailure;
+        }
+
+        void run() {
+            T result = null;
+            Throwable error = null;
+            try {
+                permits.acquire();
+                try {
+                    result = work.call();
+                } finally {
+                    permits.release();
+                }
+            } catch (Throwable e) {
+                error = e;
+            } finally {
+                inFlight.remove(key, this);
+            }
+            if (cancelled) {
+                return;
+            }
+            record(key.name, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - submittedAt), error != null);
+
+            T value = result;
+            Throwable failure = error;
+            Platform.runLater(() -> {
+                if (cancelled) {
+                    return;
+                }
+                if (failure == null) {
+                    onSuccess.accept(value);
+                } else {
+                    onFailure.accept(failure);
+                }
+            });
+        }
+
+        void cancel() {
+            cancelled = true;
+            inFlight.remove(key, this);
+            future.cancel(false);
+        }
+    }
+
+    /**
+     * Owner compared by identity, since controllers do not define equals
+     */
+    private static class TaskKey {
+        private final Object owner;
+        private final String name;
+
+        TaskKey(Object owner, String name) {
+            this.owner = owner;
+            this.name = name;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof TaskKey)) {
+                return false;
+            }
+            TaskKey other = (TaskKey) o;
+            return owner == other.owner && name.equals(other.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(owner) + name.hashCode();
+        }
+    }
+
+    /**
+     * Running totals for one task name
+     */
+    public static class LatencyStats {
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong totalMillis = new AtomicLong();
+        private final AtomicLong maxMillis = new AtomicLong();
+
+        void record(long millis, boolean failed) {
+            count.incrementAndGet();
+            if (failed) {
+                failures.incrementAndGet();
+            }
+            totalMillis.addAndGet(millis);
+            maxMillis.accumulateAndGet(millis, Math::max);
+        }
+
+        public long getCount() { return count.get(); }
+        public long getFailures() { return failures.get(); }
+        public long getMaxMillis() { return maxMillis.get(); }
+
+        public long getAverageMillis() {
+            long n = count.get();
+            return n == 0 ? 0 : totalMillis.get() / n;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d calls (%d failed), avg %d ms, max %d ms",
+                    getCount(), getFailures(), getAverageMillis(), getMaxMillis());
+        }
+    }
+}
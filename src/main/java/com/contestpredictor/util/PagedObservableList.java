@@ -0,0 +1,280 @@
+package com.contestpredictor.util;
+
+import com.contestpredictor.data.StandingsPage;
+import javafx.collections.ObservableListBase;
+import javafx.concurrent.Task;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+
+/**
+ * Read-only observable list over a large result set that is fetched a page at a time.
+ * A TableView only asks for the rows it is displaying, so only those pages (plus a
+ * page on either side) are read, and at most MAX_CACHED_PAGES stay in memory.
+ * Rows that have not arrived yet are null and show as empty rows; a change event
+ * fills them in when their page is loaded.
+ *
+ * The list has a fixed size. When the same rows change values or positions, reload
+ * applies just the differences; for a new order, a new filter or a different number
+ * of rows, load a new list and set it on the table.
+ */
+public class PagedObservableList<T> extends ObservableListBase<T> {
+    public static final int PAGE_SIZE = 200;
+    private static final int PREFETCH_PAGES = 1;
+    private static final int PREFETCH_ROWS = PAGE_SIZE / 4;
+    private static final int MAX_CACHED_PAGES = 20;
+
+    /**
+     * Where the rows come from. Called on background threads, possibly concurrently.
+     */
+    public interface PageSource<T> {
+        int count();
+
+        /**
+         * Rows at positions [offset, offset + limit)
+         */
+        List<T> fetch(int offset, int limit);
+    }
+
+    private PageSource<T> source;
+    private final int size;
+    private final Set<Integer> loading = new HashSet<>();
+    private final Map<Integer, List<T>> pages = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+    // Page most recently displayed; requests far from it are dropped before they are read
+    private volatile int visiblePage;
+
+    private PagedObservableList(PageSource<T> source, int size, List<T> firstPage) {
+        this.source = source;
+        this.size = size;
+        pages.put(0, firstPage);
+    }
+
+    /**
+     * Count the rows and read the first page (background thread)
+     */
+    public static <T> PagedObservableList<T> load(PageSource<T> source) {
+        int size = source.count();
+        return new PagedObservableList<>(source, size, size == 0 ? Collections.emptyList() : source.fetch(0, PAGE_SIZE));
+    }
+
+    /**
+     * Load a list in the background and pass it to onLoaded on the FX thread
+     */
+    public static <T> Task<PagedObservableList<T>> open(PageSource<T> source, Consumer<PagedObservableList<T>> onLoaded) {
+        return BackgroundTasks.load(() -> load(source), onLoaded);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The row at index, or null while its page is being loaded
+     */
+    @Override
+    public T get(int index) {
+        Objects.checkIndex(index, size);
+        int page = index / PAGE_SIZE;
+        int row = index % PAGE_SIZE;
+        visiblePage = page;
+        List<T> rows = pages.get(page);
+        if (rows == null) {
+            for (int p = page - PREFETCH_PAGES; p <= page + PREFETCH_PAGES; p++) {
+                request(p);
+            }
+            return null;
+        }
+        if (row < PREFETCH_ROWS) {
+            request(page - 1);
+        } else if (row >= PAGE_SIZE - PREFETCH_ROWS) {
+            request(page + 1);
+        }
+        return row < rows.size() ? rows.get(row) : null;
+    }
+
+    /**
+     * Search the loaded pages only; rows that are not in memory are never read for this
+     */
+    @Override
+    public int indexOf(Object o) {
+        for (Map.Entry<Integer, List<T>> entry : pages.entrySet()) {
+            int row = entry.getValue().indexOf(o);
+            if (row >= 0) {
+                return entry.getKey() * PAGE_SIZE + row;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return indexOf(o);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    /**
+     * Re-read the pages in memory from a source with the same rows, e.g. after they were
+     * re-ranked, and apply only the differences. A position whose row is unchanged (by
+     * unchanged) keeps its object; only the other positions are replaced and redraw.
+     * Pages not in memory are read from the new source when they are displayed.
+     * @param onDone Called on the FX thread with false if the number of rows differs,
+     *               in which case nothing was applied and a new list should be loaded
+     */
+    public Task<Map<Integer, List<T>>> reload(PageSource<T> newSource, BiPredicate<T, T> unchanged,
+                                              Consumer<Boolean> onDone) {
+        List<Integer> cached = new ArrayList<>(pages.keySet());
+        return BackgroundTasks.load(() -> {
+            if (newSource.count() != size) {
+                return null;
+            }
+            // Ascending, so a keyset source can follow on from the previous page
+            Collections.sort(cached);
+            Map<Integer, List<T>> fresh = new TreeMap<>();
+            for (int page : cached) {
+                int offset = page * PAGE_SIZE;
+                fresh.put(page, newSource.fetch(offset, Math.min(PAGE_SIZE, size - offset)));
+            }
+            return fresh;
+        }, fresh -> {
+            if (fresh == null) {
+                onDone.accept(false);
+                return;
+            }
+            source = newSource;
+            beginChange();
+            for (Map.Entry<Integer, List<T>> entry : fresh.entrySet()) {
+                applyPage(entry.getKey(), entry.getValue(), unchanged);
+            }
+            endChange();
+            onDone.accept(true);
+        });
+    }
+
+    private void applyPage(int page, List<T> freshRows, BiPredicate<T, T> unchanged) {
+        int offset = page * PAGE_SIZE;
+        List<T> rows = pages.getOrDefault(page, Collections.emptyList());
+        List<T> merged = new ArrayList<>(freshRows.size());
+        for (int i = 0; i < freshRows.size(); i++) {
+            T current = i < rows.size() ? rows.get(i) : null;
+            T fresh = freshRows.get(i);
+            if (current != null && unchanged.test(current, fresh)) {
+                merged.add(current);
+            } else {
+                merged.add(fresh);
+                nextReplace(offset + i, offset + i + 1, Collections.singletonList(current));
+            }
+        }
+        pages.put(page, merged);
+    }
+
+    private void request(int page) {
+        if (page < 0 || page * PAGE_SIZE >= size || pages.containsKey(page) || !loading.add(page)) {
+            return;
+        }
+        int offset = page * PAGE_SIZE;
+        int limit = Math.min(PAGE_SIZE, size - offset);
+        PageSource<T> from = source;
+        BackgroundTasks.load(() -> {
+            // Scrolled past it while it was queued
+            if (Math.abs(page - visiblePage) > PREFETCH_PAGES) {
+                return null;
+            }
+            return from.fetch(offset, limit);
+        }, rows -> {
+            loading.remove(page);
+            if (from != source) {
+                // Read before a reload; read it again from the new source
+                request(page);
+            } else if (rows != null) {
+                pages.put(page, rows);
+                beginChange();
+                nextReplace(offset, offset + limit, Collections.nCopies(limit, null));
+                endChange();
+            }
+        }, error -> {
+            loading.remove(page);
+            System.err.println("Failed to load rows " + offset + "-" + (offset + limit) + ": " + error.getMessage());
+        });
+    }
+
+    /**
+     * Make a table sort by reloading its data in the new order instead of sorting
+     * its items in place, which a paged list cannot do
+     * @param sortColumns Columns that can be sorted, mapped to the name passed to onSort;
+     *                    the table's other columns are made unsortable
+     * @param onSort Receives the sort column name (null when the order is cleared) and
+     *               whether it is descending; only called when the order changes
+     */
+    public static <S> void sortThrough(TableView<S> table, Map<TableColumn<S, ?>, String> sortColumns,
+                                       BiConsumer<String, Boolean> onSort) {
+        for (TableColumn<S, ?> column : table.getColumns()) {
+            column.setSortable(sortColumns.containsKey(column));
+        }
+        String[] current = {null};
+        table.setSortPolicy(t -> {
+            String column = null;
+            boolean descending = false;
+            if (!t.getSortOrder().isEmpty()) {
+                TableColumn<S, ?> first = t.getSortOrder().get(0);
+                column = sortColumns.get(first);
+                descending = first.getSortType() == TableColumn.SortType.DESCENDING;
+            }
+            String key = column == null ? null : column + (descending ? " desc" : " asc");
+            if (!Objects.equals(key, current[0])) {
+                current[0] = key;
+                onSort.accept(column, descending);
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Source in rank order. Reading on from where the previous page ended follows
+     * the keyset cursor that page returned; jumping elsewhere falls back to an
+     * offset read.
+     */
+    public abstract static class KeysetSource<T> implements PageSource<T> {
+        // Cursor positioned just before the row at each offset a page has ended at
+        private final Map<Integer, StandingsPage.Cursor> cursors = new ConcurrentHashMap<>();
+
+        protected abstract StandingsPage<T> page(StandingsPage.Cursor after, int limit);
+
+        protected abstract List<T> slice(int offset, int limit);
+
+        @Override
+        public List<T> fetch(int offset, int limit) {
+            StandingsPage.Cursor after = offset == 0 ? StandingsPage.Cursor.START : cursors.get(offset);
+            if (after == null) {
+                return slice(offset, limit);
+            }
+            StandingsPage<T> page = page(after, limit);
+            if (page.hasMore()) {
+                cursors.put(offset + page.getItems().size(), page.getNextCursor());
+            }
+            return page.getItems();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.contestpredictor.util;
+
+import javafx.animation.PauseTransition;
+import javafx.concurrent.Task;
+import javafx.util.Duration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs searches for a text field as the user types. Used from the FX thread only.
+ * A query waits out a short quiet period before it runs, so a burst of keystrokes
+ * becomes one search. Searches run in the background; starting a new one cancels
+ * the previous one, and a result that arrives after a newer query was submitted is
+ * dropped, so results always match the latest query. Recent results are cached.
+ */
+public class SearchPipeline<Q, R> {
+    private final Function<Q, R> search;
+    private final Consumer<R> onResults;
+    private final PauseTransition debounce;
+    private final Map<Q, R> cache;
+
+    private Q pending;
+    private Task<R> inFlight;
+    private long generation;
+
+    /**
+     * @param debounceMillis Quiet period after the last submit before the query runs
+     * @param cacheSize Number of recent query results kept
+     * @param search Runs a query (background thread)
+     * @param onResults Receives the results of the latest query (FX thread)
+     */
+    public SearchPipeline(long debounceMillis, int cacheSize, Function<Q, R> search, Consumer<R> onResults) {
+        this.search = search;
+        this.onResults = onResults;
+        this.debounce = new PauseTransition(Duration.millis(debounceMillis));
+        this.debounce.setOnFinished(event -> run(pending));
+        this.cache = new LinkedHashMap<>(cacheSize, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Q, R> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Run the query once no other query has been submitted for the debounce period
+     */
+    public void submit(Q query) {
+        pending = query;
+        generation++;
+        debounce.playFromStart();
+    }
+
+    /**
+     * Run the query right away, e.g. when the user presses Enter
+     */
+    public void submitNow(Q query) {
+        debounce.stop();
+        generation++;
+        run(query);
+    }
+
+    /**
+     * Drop any pending or running query
+     */
+    public void cancel() {
+        debounce.stop();
+        generation++;
+        cancelInFlight();
+    }
+
+    /**
+     * Forget cached results, e.g. after the searched data changed
+     */
+    public void clearCache() {
+        cache.clear();
+    }
+
+    private void run(Q query) {
+        cancelInFlight();
+        R cached = cache.get(query);
+        if (cached != null) {
+            onResults.accept(cached);
+            return;
+        }
+        long runGeneration = generation;
+        inFlight = BackgroundTasks.load(() -> search.apply(query), results -> {
+            cache.put(query, results);
+            if (runGeneration == generation) {
+                inFlight = null;
+                onResults.accept(results);
+            }
+        });
+    }
+
+    private void cancelInFlight() {
+        if (inFlight != null) {
+            // Not interrupted: searches share the database connection and finish quickly
+            inFlight.cancel(false);
+            inFlight = null;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.contestpredictor.util;
+
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the scenes of the screens a user moves between most, so going back to one
+ * reuses its nodes, controller and applied styles instead of loading the FXML again.
+ * Screens can be preloaded right after login, each in its own turn of the FX thread
+ * so the profile stays responsive while they load. At most MAX_VIEWS
+ * scenes are kept; the least recently shown one is dropped first. Other screens are
+ * loaded fresh on every visit. Used from the FX thread only.
+ */
+public class ViewCache {
+    public static final String PROFILE = "/fxml/Profile.fxml";
+    public static final String SEARCH_CONTEST = "/fxml/SearchContest.fxml";
+    public static final String USER_LEADERBOARD = "/fxml/UserLeaderboard.fxml";
+    public static final String PREDICTOR = "/fxml/Predictor.fxml";
+
+    private static final Set<String> CACHED_VIEWS = Set.of(PROFILE, SEARCH_CONTEST, USER_LEADERBOARD, PREDICTOR);
+    private static final int MAX_VIEWS = 3;
+    private static final String STYLESHEET = "/css/styles.css";
+
+    /**
+     * Implemented by controllers of cached screens. Called when the screen is shown
+     * again, so it can re-read data that may have changed while it was hidden.
+     */
+    public interface Refreshable {
+        void refresh();
+    }
+
+    private static ViewCache instance;
+
+    private final Map<String, View> views = new LinkedHashMap<>(8, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, View> eldest) {
+            return size() > MAX_VIEWS;
+        }
+    };
+    private final Set<String> preloading = new HashSet<>();
+    // Bumped by clear, so a preload started for the previous user is dropped
+    private long generation;
+
+    private ViewCache() {
+    }
+
+    public static synchronized ViewCache getInstance() {
+        if (instance == null) {
+            instance = new ViewCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Show a screen in the stage, keeping the window's size, maximized and full-screen state.
+     * A cached screen is reused and refreshed; any other screen is loaded.
+     * @return The screen's controller
+     */
+    @SuppressWarnings("unchecked")
+    public <C> C show(Stage stage, String fxmlPath, String title) throws IOException {
+        View view = views.get(fxmlPath);
+        if (view != null) {
+            if (view.controller instanceof Refreshable) {
+                ((Refreshable) view.controller).refresh();
+            }
+        } else {
+            view = load(fxmlPath, stage.getWidth(), stage.getHeight());
+            if (CACHED_VIEWS.contains(fxmlPath)) {
+                views.put(fxmlPath, view);
+            }
+        }
+        install(stage, view.scene, title);
+        return (C) view.controller;
+    }
+
+    /**
+     * Start a user's session: drop the previous user's screens, show the profile and
+     * preload the screens usually opened from it
+     */
+    public void showProfileAfterLogin(Stage stage) throws IOException {
+        clear();
+        show(stage, PROFILE, "Profile - Contest Rating Predictor");
+        preload(SEARCH_CONTEST, USER_LEADERBOARD);
+    }
+
+    /**
+     * Load cached screens that are likely to be opened next once the FX thread is idle.
+     * FXML loading and the controllers' initialize() run on the FX thread like any other
+     * screen; the controllers read their data in the background themselves.
+     */
+    public void preload(String... fxmlPaths) {
+        long preloadGeneration = generation;
+        for (String fxmlPath : fxmlPaths) {
+            if (!CACHED_VIEWS.contains(fxmlPath) || views.containsKey(fxmlPath) || !preloading.add(fxmlPath)) {
+                continue;
+            }
+            Platform.runLater(() -> {
+                preloading.remove(fxmlPath);
+                if (preloadGeneration != generation || views.containsKey(fxmlPath)) {
+                    return;
+                }
+                try {
+                    View view = load(fxmlPath, -1, -1);
+                    // Style it while the current screen is idle rather than when it is first shown
+                    view.scene.getRoot().applyCss();
+                    views.put(fxmlPath, view);
+                } catch (IOException | RuntimeException e) {
+                    System.err.println("Failed to preload " + fxmlPath + ": " + e.getMessage());
+                }
+            });
+        }
+    }
+
+    /**
+     * Drop every cached screen, since they show the data of the user they were loaded for.
+     * Called on logout and again when the next user logs in.
+     */
+    public void clear() {
+        generation++;
+        views.clear();
+    }
+
+    private View load(String fxmlPath, double width, double height) throws IOException {
+        URL resource = getClass().getResource(fxmlPath);
+        if (resource == null) {
+            throw new IOException("FXML file not found: " + fxmlPath);
+        }
+        FXMLLoader loader = new FXMLLoader(resource);
+        Parent root = loader.load();
+        Scene scene = new Scene(root, width, height);
+        URL stylesheet = getClass().getResource(STYLESHEET);
+        if (stylesheet != null) {
+            scene.getStylesheets().add(stylesheet.toExternalForm());
+        }
+        return new View(scene, loader.getController());
+    }
+
+    private static void install(Stage stage, Scene scene, String title) {
+        boolean wasFullScreen = stage.isFullScreen();
+        boolean wasMaximized = stage.isMaximized();
+        double currentWidth = stage.getWidth();
+        double currentHeight = stage.getHeight();
+
+        stage.setScene(scene);
+        stage.setTitle(title);
+
+        // A reused scene keeps the size it had, so give the window its size back
+        if (!wasMaximized && !wasFullScreen) {
+            stage.setWidth(currentWidth);
+            stage.setHeight(currentHeight);
+        }
+        if (wasMaximized) {
+            stage.setMaximized(true);
+        }
+        if (wasFullScreen) {
+            stage.setFullScreen(true);
+        }
+    }
+
+    private static class View {
+        private final Scene scene;
+        private final Object controller;
+
+        View(Scene scene, Object controller) {
+            this.scene = scene;
+            this.controller = controller;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.contestpredictor.data;
+
+import com.contestpredictor.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Registers and logs in from many threads at once and checks that every username
+ * is claimed exactly once and that memory and the users table agree afterwards
+ */
+class UserDatabaseConcurrencyTest {
+    private static final int THREADS = 16;
+    private static final int NAMES = 1000;
+    private static final int ATTEMPTS_PER_NAME = 4;
+
+    @Test
+    void parallelRegistrationAndLoginLoseNoUpdates() throws Exception {
+        UserDatabase userDb = UserDatabase.getInstance();
+        ContestDatabase contestDb = ContestDatabase.getInstance();
+        // The test database outlives a run, so every run registers fresh names
+        String prefix = "stress" + System.nanoTime() + "_";
+
+        AtomicInteger registrations = new AtomicInteger();
+        AtomicInteger logins = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int first = t;
+            workers.add(pool.submit(() -> {
+                start.await();
+                // Attempts on the same name are spread over different threads
+                for (int attempt = first; attempt < NAMES * ATTEMPTS_PER_NAME; attempt += THREADS) {
+                    String username = prefix + (attempt % NAMES);
+                    String password = "pw" + attempt;
+                    if (userDb.registerUser(username, password, "Stress User " + attempt)) {
+                        registrations.incrementAndGet();
+                    }
+                    if (userDb.authenticate(username, password) != null) {
+                        logins.incrementAndGet();
+                    }
+                    contestDb.getAllContests().size();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(2, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+
+        assertEquals(NAMES, registrations.get(), "each username is registered exactly once");
+        // A login only succeeds with the password of the attempt that won the name
+        assertEquals(NAMES, logins.get(), "only the winning registration can log in");
+
+        DatabaseManager dbManager = DatabaseManager.getInstance();
+        for (int i = 0; i < NAMES; i++) {
+            String username = prefix + i;
+            User inMemory = userDb.getUser(username);
+            User stored = dbManager.loadUser(username);
+            assertNotNull(inMemory, username + " is in memory");
+            assertNotNull(stored, username + " is in the users table");
+            assertEquals(inMemory.getPassword(), stored.getPassword(), username + " was stored by the winning registration");
+        }
+    }
+}
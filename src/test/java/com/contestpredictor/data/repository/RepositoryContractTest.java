@@ -0,0 +1,187 @@
+package com.contestpredictor.data.repository;
+
+import com.contestpredictor.data.StandingsPage;
+import com.contestpredictor.model.Contest;
+import com.contestpredictor.model.LeaderboardContest;
+import com.contestpredictor.model.LeaderboardEntry;
+import com.contestpredictor.model.Participant;
+import com.contestpredictor.model.SessionData;
+import com.contestpredictor.model.User;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the same checks against the SQLite and the in-memory repositories, so a benchmark
+ * that swaps one for the other measures the same behaviour
+ */
+class RepositoryContractTest {
+
+    static Stream<ContestRepository> contestRepositories() {
+        return Stream.of(new SqliteContestRepository(), new InMemoryContestRepository());
+    }
+
+    static Stream<ParticipantRepository> participantRepositories() {
+        return Stream.of(new SqliteParticipantRepository(), new InMemoryParticipantRepository());
+    }
+
+    static Stream<LeaderboardRepository> leaderboardRepositories() {
+        return Stream.of(new SqliteLeaderboardRepository(), new InMemoryLeaderboardRepository());
+    }
+
+    static Stream<UserRepository> userRepositories() {
+        return Stream.of(new SqliteUserRepository(), new InMemoryUserRepository());
+    }
+
+    static Stream<SessionRepository> sessionRepositories() {
+        return Stream.of(new SqliteSessionRepository(), new InMemorySessionRepository());
+    }
+
+    @ParameterizedTest
+    @MethodSource("contestRepositories")
+    void contestsRoundTripWithTheirParticipants(ContestRepository repository) {
+        String id = uniqueId("contest");
+        Contest contest = new Contest(id, "Contract Round", LocalDateTime.of(2024, 1, 2, 3, 4), 120, true, "admin", 50);
+        contest.addParticipant(new Participant("alice", 1500, 3, 40, 1));
+        contest.addParticipant(new Participant("bob", 1400, 2, 30, 2));
+        assertTrue(repository.save(contest));
+
+        Contest found = repository.findById(id);
+        assertNotNull(found);
+        assertEquals("Contract Round", found.getContestName());
+        assertEquals(120, found.getDuration());
+        assertEquals(50, found.getMaxParticipants());
+        assertEquals(Arrays.asList("alice", "bob"), usernamesOf(found.getParticipants()));
+        assertTrue(repository.findAll().stream().anyMatch(c -> c.getContestId().equals(id)));
+
+        assertTrue(repository.delete(id));
+        assertNull(repository.findById(id));
+        assertFalse(repository.delete(id), "a missing contest is not deleted twice");
+    }
+
+    @ParameterizedTest
+    @MethodSource("participantRepositories")
+    void participantsStayRankOrderedAcrossPages(ParticipantRepository repository) {
+        String id = uniqueId("standings");
+        repository.save(id, new Participant("carol", 1300, 1, 10, 3));
+        repository.save(id, new Participant("alice", 1500, 3, 40, 1));
+        repository.save(id, new Participant("bob", 1400, 2, 30, 2));
+
+        assertEquals(Arrays.asList("alice", "bob", "carol"), usernamesOf(repository.findByContest(id)));
+        StandingsPage<Participant> first = repository.findPage(id, StandingsPage.Cursor.START, 2);
+        assertEquals(Arrays.asList("alice", "bob"), usernamesOf(first.getItems()));
+        assertTrue(first.hasMore());
+        StandingsPage<Participant> second = repository.findPage(id, first.getNextCursor(), 2);
+        assertEquals(Arrays.asList("carol"), usernamesOf(second.getItems()));
+        assertFalse(second.hasMore());
+
+        assertEquals(2, repository.findRankOf(id, "bob"));
+        assertEquals(-1, repository.findRankOf(id, "nobody"));
+        assertTrue(repository.updateSolveCount(id, "bob", 4, 50));
+        assertEquals(4, repository.findByContest(id).get(1).getProblemsSolved());
+        assertFalse(repository.updateSolveCount(id, "nobody", 1, 1));
+
+        assertTrue(repository.remove(id, "bob"));
+        assertFalse(repository.remove(id, "bob"));
+        assertEquals(Arrays.asList("alice", "carol"), usernamesOf(repository.findByContest(id)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("leaderboardRepositories")
+    void leaderboardContestsKeepRegistrationsAndStandings(LeaderboardRepository repository) {
+        String id = uniqueId("leaderboard");
+        LeaderboardContest contest = new LeaderboardContest(id, "Contract Cup", "contract test",
+                LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 1, 2, 0, 0), 5, "admin");
+        assertTrue(repository.createContest(contest));
+        assertFalse(repository.createContest(contest), "contest ids are unique");
+        assertEquals("Contract Cup", repository.findContestById(id).getContestName());
+        assertNull(repository.findContestById(uniqueId("missing")));
+
+        assertTrue(repository.registerUser(id, "alice"));
+        assertTrue(repository.registerUser(id, "bob"));
+        assertFalse(repository.registerUser(id, "alice"), "a user registers once");
+        assertEquals(Arrays.asList("alice", "bob"), repository.findRegisteredUsers(id));
+
+        assertTrue(repository.saveEntry(new LeaderboardEntry("bob", id, 2, 1, 20, 0)));
+        assertTrue(repository.saveEntry(new LeaderboardEntry("alice", id, 1, 2, 30, 0)));
+        // Saving again updates the user's entry instead of adding a second one
+        assertTrue(repository.saveEntry(new LeaderboardEntry("bob", id, 2, 1, 25, 0)));
+        List<LeaderboardEntry> standings = repository.findStandings(id);
+        assertEquals(Arrays.asList("alice", "bob"), entryUsernamesOf(standings));
+        assertEquals(25, standings.get(1).getTotalPenalty());
+        StandingsPage<LeaderboardEntry> page = repository.findStandingsPage(id, StandingsPage.Cursor.START, 1);
+        assertEquals(Arrays.asList("alice"), entryUsernamesOf(page.getItems()));
+        assertTrue(page.hasMore());
+
+        assertTrue(repository.deleteEntry(id, "alice"));
+        assertFalse(repository.deleteEntry(id, "alice"));
+        assertEquals(Arrays.asList("bob"), entryUsernamesOf(repository.findStandings(id)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("userRepositories")
+    void usersRoundTrip(UserRepository repository) {
+        String username = uniqueId("user");
+        assertNull(repository.findByUsername(username));
+        assertTrue(repository.save(new User(username, "secret", 1600, 7, "Contract User")));
+
+        User found = repository.findByUsername(username);
+        assertNotNull(found);
+        assertEquals("secret", found.getPassword());
+        assertEquals(1600, found.getCurrentRating());
+        assertEquals(7, found.getContestsParticipated());
+        assertEquals("Contract User", found.getFullName());
+    }
+
+    @ParameterizedTest
+    @MethodSource("sessionRepositories")
+    void latestRememberedSessionFollowsTouches(SessionRepository repository) {
+        repository.deleteAll();
+        String first = uniqueId("first");
+        String second = uniqueId("second");
+        assertTrue(repository.save(new SessionData(first, null, null, null, null, 0, true)));
+        assertTrue(repository.save(new SessionData(second, null, null, null, null, 0, true)));
+        assertTrue(repository.save(new SessionData(uniqueId("forgotten"), null, null, null, null, 0, false)));
+        assertEquals(second, repository.findLatestRemembered().getUsername());
+
+        repository.touch(first);
+        assertEquals(first, repository.findLatestRemembered().getUsername());
+
+        repository.delete(first);
+        assertEquals(second, repository.findLatestRemembered().getUsername());
+        repository.deleteAll();
+        assertNull(repository.findLatestRemembered());
+    }
+
+    private static String uniqueId(String prefix) {
+        // The test database outlives a run, so every run uses fresh ids
+        return "contract_" + prefix + "_" + System.nanoTime();
+    }
+
+    private static List<String> usernamesOf(List<Participant> participants) {
+        List<String> usernames = new ArrayList<>();
+        for (Participant p : participants) {
+            usernames.add(p.getUsername());
+        }
+        return usernames;
+    }
+
+    private static List<String> entryUsernamesOf(List<LeaderboardEntry> entries) {
+        List<String> usernames = new ArrayList<>();
+        for (LeaderboardEntry entry : entries) {
+            usernames.add(entry.getUsername());
+        }
+        return usernames;
+    }
+}
@@ -0,0 +1,120 @@
+package com.contestpredictor.util;
+
+import com.contestpredictor.data.ChangeLog;
+import com.contestpredictor.data.DatabaseManager;
+import com.contestpredictor.model.Participant;
+import com.contestpredictor.model.User;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the sync worker against a local stub of the Firestore documents endpoint
+ */
+class FirebaseSyncWorkerTest {
+    private static final String CONSUMER = "firestore";
+
+    private final DatabaseManager dbManager = DatabaseManager.getInstance();
+    private final ChangeLog changeLog = ChangeLog.getInstance();
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private final List<String> bodies = new CopyOnWriteArrayList<>();
+    private final List<String> authorizations = new CopyOnWriteArrayList<>();
+    private volatile int status = 200;
+    private HttpServer server;
+    private FirebaseSyncWorker worker;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        // Start every test with an empty backlog
+        changeLog.acknowledge(CONSUMER, changeLog.getLatestSeq());
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/documents", exchange -> {
+            requests.add(exchange.getRequestMethod() + " " + exchange.getRequestURI().getPath());
+            bodies.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            authorizations.add(exchange.getRequestHeaders().getFirst("Authorization"));
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.start();
+        worker = new FirebaseSyncWorker("http://127.0.0.1:" + server.getAddress().getPort() + "/documents",
+                () -> "test-token");
+    }
+
+    @AfterEach
+    void stopStub() {
+        worker.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    void pushesOnlyTheLatestVersionOfEachDocument() throws Exception {
+        String username = "sync" + System.nanoTime();
+        dbManager.saveUser(new User(username, "pw", 1200, 1, "Sync User"));
+        dbManager.saveUser(new User(username, "pw", 1350, 2, "Sync User"));
+
+        assertEquals(1, worker.syncNow().get(10, TimeUnit.SECONDS));
+        assertEquals(List.of("PATCH /documents/users/" + username), requests);
+        assertTrue(bodies.get(0).contains("\"currentRating\":{\"integerValue\":\"1350\"}"), bodies.get(0));
+        assertEquals("Bearer test-token", authorizations.get(0));
+        assertEquals(0, worker.getPendingChanges());
+    }
+
+    @Test
+    void keepsTheOffsetWhenAPushFails() throws Exception {
+        String username = "sync" + System.nanoTime();
+        dbManager.saveUser(new User(username, "pw", 1200, 1, "Sync User"));
+
+        status = 500;
+        assertEquals(0, worker.syncNow().get(10, TimeUnit.SECONDS));
+        assertEquals(1, worker.getPendingChanges());
+        assertEquals(1, worker.getFailedPushes());
+
+        status = 200;
+        assertEquals(1, worker.syncNow().get(10, TimeUnit.SECONDS));
+        assertEquals(List.of("PATCH /documents/users/" + username, "PATCH /documents/users/" + username), requests);
+        assertEquals(0, worker.getPendingChanges());
+    }
+
+    @Test
+    void deletesRemovedRowsAndTreatsMissingDocumentsAsDeleted() throws Exception {
+        String contestId = "SYNC" + System.nanoTime();
+        dbManager.saveParticipant(contestId, new Participant("syncer", 1500, 0, 0, 1));
+        dbManager.removeParticipant(contestId, "syncer");
+
+        status = 404;
+        assertEquals(1, worker.syncNow().get(10, TimeUnit.SECONDS));
+        assertEquals(1, requests.size());
+        assertTrue(requests.get(0).startsWith("DELETE /documents/participants/part_"), requests.get(0));
+        assertEquals(0, worker.getPendingChanges());
+    }
+
+    @Test
+    void dropsTheBacklogWhenFirebaseIsNotConfigured() throws Exception {
+        dbManager.saveUser(new User("sync" + System.nanoTime(), "pw", 1200, 1, "Sync User"));
+        FirebaseSyncWorker unconfigured = new FirebaseSyncWorker(null, () -> null);
+        try {
+            assertEquals(1, unconfigured.getPendingChanges());
+            unconfigured.start();
+            long deadline = System.currentTimeMillis() + 5000;
+            while (unconfigured.getPendingChanges() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals(0, unconfigured.getPendingChanges());
+            assertTrue(requests.isEmpty());
+        } finally {
+            unconfigured.shutdown();
+        }
+    }
+}